@@ -0,0 +1,96 @@
+package benchmark.java.com.parkeasy;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+
+/**
+ * When drivers arrive and how long they stay, shared by the data generator and the load driver
+ * Arrivals follow a weekday curve with a morning commute peak, a smaller lunch bump and an evening
+ * peak, and a flatter weekend curve centred on the early afternoon; weekends see fewer arrivals
+ * overall. Stays are a mix of short errands, half days and full working days. Times are on the
+ * application's 15-minute grid.
+ */
+public class ArrivalCurve {
+    // Relative arrival weight per hour of the day
+    private static final double[] WEEKDAY = {
+            0.2, 0.1, 0.1, 0.1, 0.2, 0.6, 2.0, 5.5, 8.0, 6.0, 4.0, 4.0,
+            5.0, 4.5, 3.5, 3.5, 4.5, 6.0, 5.0, 3.5, 2.5, 1.8, 1.0, 0.5};
+    private static final double[] WEEKEND = {
+            0.3, 0.2, 0.1, 0.1, 0.1, 0.2, 0.5, 1.2, 2.5, 4.0, 5.5, 6.5,
+            7.0, 7.0, 6.5, 6.0, 5.5, 5.0, 4.5, 4.0, 3.5, 2.5, 1.5, 0.8};
+    // Arrivals on a Saturday or Sunday relative to a weekday
+    private static final double WEEKEND_VOLUME = 0.6;
+
+    private static final double[] WEEKDAY_CUMULATIVE = cumulative(WEEKDAY);
+    private static final double[] WEEKEND_CUMULATIVE = cumulative(WEEKEND);
+
+    private ArrivalCurve() {
+    }
+
+    /**
+     * Get the arrival volume of a day relative to a weekday
+     *
+     * @param day The day
+     * @return 1 on weekdays, less on weekends
+     */
+    public static double dayVolume(LocalDate day) {
+        return isWeekend(day) ? WEEKEND_VOLUME : 1.0;
+    }
+
+    /**
+     * Draw an arrival time on a day
+     *
+     * @param random Source of randomness
+     * @param day The day
+     * @return Arrival time on the 15-minute grid
+     */
+    public static LocalDateTime arrival(Random random, LocalDate day) {
+        double[] cumulative = isWeekend(day) ? WEEKEND_CUMULATIVE : WEEKDAY_CUMULATIVE;
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int hour = 0;
+        while (hour < cumulative.length - 1 && cumulative[hour] <= target) {
+            hour++;
+        }
+        return LocalDateTime.of(day, LocalTime.of(hour, 15 * random.nextInt(4)));
+    }
+
+    /**
+     * Draw the length of a stay
+     *
+     * @param random Source of randomness
+     * @param arrival When the driver arrives; commuters arriving in the morning tend to stay all day
+     * @return Stay length in minutes, a positive multiple of 15
+     */
+    public static int stayMinutes(Random random, LocalDateTime arrival) {
+        double kind = random.nextDouble();
+        boolean commute = !isWeekend(arrival.toLocalDate()) && arrival.getHour() >= 6 && arrival.getHour() <= 9;
+        if (commute && kind < 0.6) {
+            // Working day: 8 to 10 hours
+            return 15 * (32 + random.nextInt(9));
+        }
+        if (kind < 0.75) {
+            // Errand: 30 minutes to 3 hours, mostly short
+            return 15 * (2 + (int) (10 * random.nextDouble() * random.nextDouble()));
+        }
+        // Half day: 3 to 6 hours
+        return 15 * (12 + random.nextInt(13));
+    }
+
+    private static boolean isWeekend(LocalDate day) {
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+}
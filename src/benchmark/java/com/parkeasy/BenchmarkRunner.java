@@ -0,0 +1,62 @@
+package benchmark.java.com.parkeasy;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Entry point for the in-memory benchmarks, which need nothing but the compiled classes
+ * Usage: BenchmarkRunner [--filter NAME] [--warmup MILLIS] [--iterations N] [--time MILLIS]
+ *                        [--lots N] [--slots-per-lot N] [--reservations-per-slot N]
+ * The database hot paths are JMH benchmarks against an embedded database (see jmh.HotPathBenchmarks).
+ * Build and run from the project root, e.g.
+ *   mvn -B package
+ *   java -cp jmh/target/benchmarks.jar benchmark.java.com.parkeasy.BenchmarkRunner
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) {
+        String filter = null;
+        long warmupMillis = 2000;
+        int iterations = 5;
+        long iterationMillis = 1000;
+        int lots = 1000;
+        int slotsPerLot = 100;
+        int reservationsPerSlot = 100;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter":
+                    filter = args[++i];
+                    break;
+                case "--warmup":
+                    warmupMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--time":
+                    iterationMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--lots":
+                    lots = Integer.parseInt(args[++i]);
+                    break;
+                case "--slots-per-lot":
+                    slotsPerLot = Integer.parseInt(args[++i]);
+                    break;
+                case "--reservations-per-slot":
+                    reservationsPerSlot = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        // The services log every call at INFO, which would dominate the measurements
+        Logger.getLogger("").setLevel(Level.WARNING);
+
+        MicroBenchmark harness = new MicroBenchmark(warmupMillis, iterations, iterationMillis, filter);
+        new InMemoryBenchmarks(lots, slotsPerLot, reservationsPerSlot).runAll(harness);
+        harness.printSummary();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,276 @@
+package benchmark.java.com.parkeasy;
+
+import main.java.com.parkeasy.model.ParkingSlot;
+import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.repository.ParkingSlotRepository;
+import main.java.com.parkeasy.service.LedgerSettler;
+import main.java.com.parkeasy.service.ParkingSpaceService;
+import main.java.com.parkeasy.service.ReservationService;
+import main.java.com.parkeasy.util.Constants;
+import main.java.com.parkeasy.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Booking race: many threads booking the same few slots for the same day, then a check that no
+ * two blocking reservations of a slot overlap
+ * The threads call ReservationService.createReservation directly, skipping the controller's
+ * availability pre-check, so every attempt reaches the slot row lock and the in-lock overlap check
+ * that keep bookings apart. Reports attempts and successful bookings per second.
+ * Run it against a generated data set (see DataGenerator), never against a live system: it books
+ * and debits for real. The booked day lies far enough ahead not to collide with LoadDriver's bookings.
+ * Usage: BookingRaceTest [--threads N] [--attempts N] [--slots N] [--days-ahead N] [--seed N]
+ * Run with the same classpath as BenchmarkRunner. Exits with status 1 if a slot was double-booked.
+ */
+public class BookingRaceTest {
+    private final int threads;
+    private final int attemptsPerThread;
+    private final int slotCount;
+    private final int daysAhead;
+    private final long seed;
+
+    private final List<Integer> userIds = new ArrayList<>();
+    private final List<String> vehicleIds = new ArrayList<>();
+    private final List<String> slotNumbers = new ArrayList<>();
+    private String parkingId;
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong booked = new AtomicLong();
+
+    /**
+     * Create a booking race
+     *
+     * @param threads Number of concurrent bookers
+     * @param attemptsPerThread Bookings each thread tries
+     * @param slotCount Number of slots all threads compete for
+     * @param daysAhead The race books the day this many days from today
+     * @param seed Seed of the threads' random choices
+     */
+    public BookingRaceTest(int threads, int attemptsPerThread, int slotCount, int daysAhead, long seed) {
+        this.threads = Math.max(2, threads);
+        this.attemptsPerThread = Math.max(1, attemptsPerThread);
+        this.slotCount = Math.max(1, slotCount);
+        this.daysAhead = Math.max(1, daysAhead);
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) {
+        int threads = 64;
+        int attempts = 50;
+        int slots = 4;
+        int daysAhead = 60;
+        long seed = 42;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--attempts":
+                    attempts = Integer.parseInt(args[++i]);
+                    break;
+                case "--slots":
+                    slots = Integer.parseInt(args[++i]);
+                    break;
+                case "--days-ahead":
+                    daysAhead = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        // The services log every call at INFO, which would dominate the measurements
+        Logger.getLogger("").setLevel(Level.WARNING);
+        LedgerSettler.start();
+        boolean passed = new BookingRaceTest(threads, attempts, slots, daysAhead, seed).run();
+        LedgerSettler.shutdown();
+        DatabaseConnection.shutdown();
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Run the race and check the outcome
+     *
+     * @return true if the race ran and no slot was double-booked
+     */
+    public boolean run() {
+        if (!loadWorkload()) {
+            return false;
+        }
+        LocalDate day = LocalDate.now().plusDays(daysAhead);
+
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> bookers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            int booker = i;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(seed * 1_000_003L + booker);
+                ReservationService reservationService = new ReservationService();
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    book(reservationService, random, booker, day);
+                }
+            }, "booker-" + i);
+            bookers.add(thread);
+            thread.start();
+        }
+        System.out.printf("%d bookers racing for %d slots of parking space %s on %s%n",
+                threads, slotNumbers.size(), parkingId, day);
+
+        long start;
+        try {
+            ready.await();
+            start = System.nanoTime();
+            go.countDown();
+            for (Thread booker : bookers) {
+                booker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long overlaps;
+        try {
+            overlaps = countOverlaps(day);
+        } catch (SQLException e) {
+            System.err.println("Checking for double bookings failed: " + e.getMessage());
+            return false;
+        }
+        System.out.println(String.format(Locale.ROOT,
+                "%d attempts (%.1f/s), %d booked (%.1f bookings/s) in %.1f s, %d overlapping pairs",
+                attempts.get(), attempts.get() / seconds, booked.get(), booked.get() / seconds, seconds, overlaps));
+        System.out.println(overlaps == 0 ? "PASSED" : "FAILED");
+        return overlaps == 0;
+    }
+
+    private void book(ReservationService reservationService, Random random, int booker, LocalDate day) {
+        // Windows on a 15-minute grid of one day, so attempts on the same slot collide often
+        LocalDateTime start = day.atTime(8, 0).plusMinutes(15L * random.nextInt(40));
+        LocalDateTime end = start.plusMinutes(15L * (2 + random.nextInt(11)));
+        // Each booker books with its own vehicle; the per-vehicle overlap check only refuses attempts
+        // that overlap the same booker's earlier bookings, bookers never block each other there
+        int owner = booker % userIds.size();
+
+        Reservation reservation = new Reservation();
+        try {
+            reservation.setReservationID(reservationService.generateReservationId());
+        } catch (SQLException e) {
+            attempts.incrementAndGet();
+            return;
+        }
+        reservation.setVehicleID(vehicleIds.get(owner));
+        reservation.setSlotNumber(slotNumbers.get(random.nextInt(slotNumbers.size())));
+        reservation.setStartDate(Date.valueOf(start.toLocalDate()));
+        reservation.setStartTime(Time.valueOf(start.toLocalTime()));
+        reservation.setEndDate(Date.valueOf(end.toLocalDate()));
+        reservation.setEndTime(Time.valueOf(end.toLocalTime()));
+        reservation.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        attempts.incrementAndGet();
+        if (reservationService.createReservation(reservation, userIds.get(owner), parkingId)) {
+            booked.incrementAndGet();
+        }
+    }
+
+    private boolean loadWorkload() {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            if (connection == null) {
+                System.err.println("Database not reachable");
+                return false;
+            }
+            // One vehicle per user, one user per booker where the data set has enough users
+            try (PreparedStatement preparedStatement = connection.prepareStatement(
+                    "SELECT UserID, MIN(VehicleID) AS VehicleID FROM VEHICLE GROUP BY UserID ORDER BY UserID LIMIT ?")) {
+                preparedStatement.setInt(1, threads);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        userIds.add(rs.getInt("UserID"));
+                        vehicleIds.add(rs.getString("VehicleID"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Loading users failed: " + e.getMessage());
+            return false;
+        }
+
+        ParkingSlotRepository parkingSlotRepository = new ParkingSlotRepository();
+        for (ParkingSpace space : new ParkingSpaceService().getAllParkingSpaces()) {
+            List<ParkingSlot> slots = parkingSlotRepository.getParkingSlotsByParkingId(space.getParkingID());
+            if (slots.size() >= slotCount) {
+                parkingId = space.getParkingID();
+                for (ParkingSlot slot : slots.subList(0, slotCount)) {
+                    slotNumbers.add(slot.getSlotNumber());
+                }
+                break;
+            }
+        }
+
+        if (userIds.isEmpty() || parkingId == null) {
+            System.err.println("No users with vehicles or no parking space with enough slots; run DataGenerator first");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Count pairs of blocking reservations of the raced slots that overlap on the raced day
+     * Bounds are inclusive, as in ReservationRepository.hasBlockingReservation.
+     */
+    private long countOverlaps(LocalDate day) throws SQLException {
+        StringBuilder slots = new StringBuilder();
+        for (int i = 0; i < slotNumbers.size(); i++) {
+            slots.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT COUNT(*) FROM PARKING_RESERVATION a " +
+                "JOIN PARKING_RESERVATION b ON b.SlotNumber = a.SlotNumber AND b.ReservationID > a.ReservationID " +
+                "WHERE a.SlotNumber IN (" + slots + ") AND a.StartDate = ? AND b.StartDate = ? " +
+                "AND a.Status IN (?, ?, 'In Use') AND b.Status IN (?, ?, 'In Use') " +
+                "AND TIMESTAMP(a.StartDate, a.StartTime) <= TIMESTAMP(b.EndDate, b.EndTime) " +
+                "AND TIMESTAMP(b.StartDate, b.StartTime) <= TIMESTAMP(a.EndDate, a.EndTime)";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (String slotNumber : slotNumbers) {
+                preparedStatement.setString(index++, slotNumber);
+            }
+            preparedStatement.setDate(index++, Date.valueOf(day));
+            preparedStatement.setDate(index++, Date.valueOf(day));
+            preparedStatement.setString(index++, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(index++, Constants.RESERVATION_PAID);
+            preparedStatement.setString(index++, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(index, Constants.RESERVATION_PAID);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+}
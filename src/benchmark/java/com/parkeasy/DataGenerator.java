@@ -0,0 +1,633 @@
+package benchmark.java.com.parkeasy;
+
+import main.java.com.parkeasy.model.LedgerEntry;
+import main.java.com.parkeasy.repository.ParkingSpaceRepository;
+import main.java.com.parkeasy.repository.RevenueRollupRepository;
+import main.java.com.parkeasy.util.Constants;
+import main.java.com.parkeasy.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fills an empty database with a synthetic but plausible data set for sizing and load tests
+ * Writes ADMIN, USER, VEHICLE, PARKING_SPACE, PARKING_SLOT, PARKING_RESERVATION, TRANSACTION and
+ * PARKING_REVIEW. The same seed, scale and start day always produce the same rows; only the
+ * statuses depend on the time of the run, since they follow from it (ended reservations are
+ * Completed, running and most future ones Paid, the rest Processing).
+ * Reservation start times follow {@link ArrivalCurve}. Lots differ in popularity, price and
+ * quality, a minority of users make most of the bookings, and future days are only partly booked.
+ * Reservations of a slot never overlap, so the data passes the application's own availability rules.
+ * Usage: DataGenerator [--seed N] [--start-day YYYY-MM-DD] [--admins N] [--users N] [--lots N]
+ *                      [--min-slots N] [--max-slots N] [--history-days N] [--future-days N]
+ *                      [--arrivals-per-slot X] [--review-rate X] [--batch-size N]
+ * The start day defaults to today minus the history days. Run with the same classpath as
+ * BenchmarkRunner.
+ */
+public class DataGenerator {
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Daniel", "Karen",
+            "Minh", "Lan", "Huy", "Thao", "Anh", "Trang", "Duc", "Linh", "Quang", "Mai"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Wilson", "Taylor",
+            "Nguyen", "Tran", "Le", "Pham", "Hoang", "Vu", "Dang", "Bui", "Do", "Ngo"};
+    private static final String[] STREETS = {
+            "Main Street", "Oak Avenue", "Market Street", "Station Road", "River Road", "Park Lane",
+            "Harbor Boulevard", "King Street", "Queen Street", "Mill Road", "Church Street", "Elm Street",
+            "Lake Drive", "Hill Road", "University Avenue", "Airport Road", "Bridge Street", "Garden Way"};
+    private static final String[] DISTRICTS = {
+            "Downtown", "Old Town", "Riverside", "Harbor", "University District", "Airport",
+            "North End", "South Side", "West Park", "East Village"};
+    // Hourly rate of a district relative to the cheapest; same order as DISTRICTS
+    private static final double[] DISTRICT_PRICE = {3.0, 2.5, 1.8, 2.2, 1.5, 2.0, 1.2, 1.0, 1.3, 1.6};
+    private static final String[] FEATURES = {
+            "covered", "open air", "24/7", "CCTV", "EV charging", "attendant on site", "close to transit",
+            "underground", "wide bays", "motorcycle friendly"};
+
+    // Independent random streams, so that changing one part of the scale leaves the others as they were
+    private static final int STREAM_PEOPLE = 1;
+    private static final int STREAM_LOTS = 2;
+    private static final int STREAM_RESERVATIONS = 3;
+    private static final int STREAM_REVIEWS = 4;
+
+    private final long seed;
+    private final LocalDate startDay;
+    private final int admins;
+    private final int users;
+    private final int lots;
+    private final int minSlots;
+    private final int maxSlots;
+    private final int historyDays;
+    private final int futureDays;
+    private final double arrivalsPerSlot;
+    private final double reviewRate;
+    private final int batchSize;
+
+    // Row counts of the last run
+    private long slotCount;
+    private long vehicleCount;
+    private long reservationCount;
+    private long transactionCount;
+    private long reviewCount;
+
+    /**
+     * Create a generator
+     *
+     * @param seed Seed of all random choices
+     * @param startDay First day with reservations
+     * @param admins Number of admins; lots are spread over them
+     * @param users Number of users
+     * @param lots Number of parking spaces
+     * @param minSlots Fewest slots per parking space
+     * @param maxSlots Most slots per parking space
+     * @param historyDays Days of past reservations before today
+     * @param futureDays Days of advance bookings from today on
+     * @param arrivalsPerSlot Mean arrivals per slot on a weekday for a lot of average popularity
+     * @param reviewRate Share of completed reservations that get a review
+     * @param batchSize Rows per JDBC batch and per commit
+     */
+    public DataGenerator(long seed, LocalDate startDay, int admins, int users, int lots, int minSlots, int maxSlots,
+                         int historyDays, int futureDays, double arrivalsPerSlot, double reviewRate, int batchSize) {
+        this.seed = seed;
+        this.startDay = startDay;
+        this.admins = Math.max(1, admins);
+        this.users = Math.max(1, users);
+        this.lots = Math.max(1, lots);
+        this.minSlots = Math.max(1, minSlots);
+        this.maxSlots = Math.max(this.minSlots, maxSlots);
+        this.historyDays = Math.max(0, historyDays);
+        this.futureDays = Math.max(0, futureDays);
+        this.arrivalsPerSlot = arrivalsPerSlot;
+        this.reviewRate = reviewRate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public static void main(String[] args) {
+        long seed = 42;
+        LocalDate startDay = null;
+        int admins = 20;
+        int users = 5000;
+        int lots = 200;
+        int minSlots = 10;
+        int maxSlots = 120;
+        int historyDays = 90;
+        int futureDays = 14;
+        double arrivalsPerSlot = 2.0;
+        double reviewRate = 0.15;
+        int batchSize = 1000;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--start-day":
+                    startDay = LocalDate.parse(args[++i]);
+                    break;
+                case "--admins":
+                    admins = Integer.parseInt(args[++i]);
+                    break;
+                case "--users":
+                    users = Integer.parseInt(args[++i]);
+                    break;
+                case "--lots":
+                    lots = Integer.parseInt(args[++i]);
+                    break;
+                case "--min-slots":
+                    minSlots = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-slots":
+                    maxSlots = Integer.parseInt(args[++i]);
+                    break;
+                case "--history-days":
+                    historyDays = Integer.parseInt(args[++i]);
+                    break;
+                case "--future-days":
+                    futureDays = Integer.parseInt(args[++i]);
+                    break;
+                case "--arrivals-per-slot":
+                    arrivalsPerSlot = Double.parseDouble(args[++i]);
+                    break;
+                case "--review-rate":
+                    reviewRate = Double.parseDouble(args[++i]);
+                    break;
+                case "--batch-size":
+                    batchSize = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (startDay == null) {
+            startDay = LocalDate.now().minusDays(historyDays);
+        }
+
+        Logger.getLogger("").setLevel(Level.WARNING);
+        DataGenerator generator = new DataGenerator(seed, startDay, admins, users, lots, minSlots, maxSlots,
+                historyDays, futureDays, arrivalsPerSlot, reviewRate, batchSize);
+        System.exit(generator.generate() ? 0 : 1);
+    }
+
+    /**
+     * Generate the data set
+     * Refuses to write into a database that already has admins, users or parking spaces, since
+     * the generated IDs, emails and phone numbers would collide.
+     *
+     * @return true if the data set was written completely
+     */
+    public boolean generate() {
+        long startNanos = System.nanoTime();
+        Connection connection = null;
+        try {
+            connection = DatabaseConnection.getConnection();
+            if (connection == null) {
+                System.err.println("Database not reachable");
+                return false;
+            }
+            if (!isEmpty(connection)) {
+                System.err.println("Database already has admins, users or parking spaces; generate into an empty schema");
+                return false;
+            }
+
+            connection.setAutoCommit(false);
+            int[] adminIds = insertAdmins(connection);
+            int[] userIds = insertUsers(connection);
+            String[][] vehiclesByUser = insertVehicles(connection, userIds);
+            connection.commit();
+
+            double[] adminRevenue = insertLotsAndReservations(connection, adminIds, userIds, vehiclesByUser);
+            updateAdminBalances(connection, adminIds, adminRevenue);
+            connection.commit();
+        } catch (SQLException e) {
+            System.err.println("Data generation failed: " + e.getMessage());
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                System.err.println("Rollback failed: " + ex.getMessage());
+            }
+            return false;
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                System.err.println("Error closing connection: " + e.getMessage());
+            }
+        }
+
+        if (!syncDerivedState()) {
+            return false;
+        }
+        System.out.printf("Generated %d admins, %d users, %d vehicles, %d parking spaces, %d slots, " +
+                        "%d reservations, %d transactions, %d reviews in %.1f s%n",
+                admins, users, vehicleCount, lots, slotCount, reservationCount, transactionCount, reviewCount,
+                (System.nanoTime() - startNanos) / 1e9);
+        return true;
+    }
+
+    private boolean isEmpty(Connection connection) throws SQLException {
+        String sql = "SELECT (SELECT COUNT(*) FROM ADMIN) + (SELECT COUNT(*) FROM USER) + " +
+                "(SELECT COUNT(*) FROM PARKING_SPACE)";
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getLong(1) == 0;
+        }
+    }
+
+    private int[] insertAdmins(Connection connection) throws SQLException {
+        Random random = stream(STREAM_PEOPLE);
+        String sql = "INSERT INTO ADMIN (AdminName, Phone, Email, Password) VALUES (?, ?, ?, ?)";
+        int[] ids = new int[admins];
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < admins; i++) {
+                preparedStatement.setString(1, personName(random));
+                preparedStatement.setString(2, String.format("0900%06d", i));
+                preparedStatement.setString(3, "admin" + (i + 1) + "@parkeasy.example");
+                preparedStatement.setString(4, "admin" + (i + 1));
+                preparedStatement.addBatch();
+            }
+            readGeneratedKeys(preparedStatement, ids);
+        }
+        return ids;
+    }
+
+    private int[] insertUsers(Connection connection) throws SQLException {
+        Random random = stream(STREAM_PEOPLE + 100);
+        String sql = "INSERT INTO USER (UserName, Phone, Email, Password, Balance) VALUES (?, ?, ?, ?, ?)";
+        int[] ids = new int[users];
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            int done = 0;
+            for (int i = 0; i < users; i++) {
+                preparedStatement.setString(1, personName(random));
+                preparedStatement.setString(2, String.format("0910%06d", i));
+                preparedStatement.setString(3, "user" + (i + 1) + "@example.com");
+                preparedStatement.setString(4, "user" + (i + 1));
+                // What is left after past payments: mostly modest, a few large prepaid balances
+                preparedStatement.setFloat(5, Math.round(20 + 480 * Math.pow(random.nextDouble(), 3)));
+                preparedStatement.addBatch();
+                if ((i + 1) % batchSize == 0 || i == users - 1) {
+                    int[] batchIds = new int[i + 1 - done];
+                    readGeneratedKeys(preparedStatement, batchIds);
+                    System.arraycopy(batchIds, 0, ids, done, batchIds.length);
+                    done = i + 1;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private String[][] insertVehicles(Connection connection, int[] userIds) throws SQLException {
+        Random random = stream(STREAM_PEOPLE + 200);
+        String sql = "INSERT INTO VEHICLE (VehicleID, UserID) VALUES (?, ?)";
+        String[][] vehiclesByUser = new String[userIds.length][];
+        int plate = 0;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (int u = 0; u < userIds.length; u++) {
+                // Most users have one car, some two or three
+                double kind = random.nextDouble();
+                int count = kind < 0.75 ? 1 : kind < 0.95 ? 2 : 3;
+                vehiclesByUser[u] = new String[count];
+                for (int v = 0; v < count; v++) {
+                    String vehicleId = plateNumber(plate++);
+                    vehiclesByUser[u][v] = vehicleId;
+                    preparedStatement.setString(1, vehicleId);
+                    preparedStatement.setInt(2, userIds[u]);
+                    preparedStatement.addBatch();
+                    if (++pending == batchSize) {
+                        preparedStatement.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                preparedStatement.executeBatch();
+            }
+        }
+        vehicleCount = plate;
+        return vehiclesByUser;
+    }
+
+    /**
+     * Write the parking spaces with their slots, reservations, transactions and reviews
+     *
+     * @return Revenue per admin, indexed like adminIds
+     */
+    private double[] insertLotsAndReservations(Connection connection, int[] adminIds, int[] userIds,
+                                               String[][] vehiclesByUser) throws SQLException {
+        Random lotRandom = stream(STREAM_LOTS);
+        Random reservationRandom = stream(STREAM_RESERVATIONS);
+        Random reviewRandom = stream(STREAM_REVIEWS);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate endDay = startDay.plusDays(historyDays + futureDays);
+        double[] adminRevenue = new double[adminIds.length];
+        int reservationId = 1;
+        int reviewId = 1;
+
+        try (Batch spaces = new Batch(connection, "INSERT INTO PARKING_SPACE " +
+                "(ParkingID, ParkingAddress, CostOfParking, NumberOfSlots, Description, AdminID) VALUES (?, ?, ?, ?, ?, ?)");
+             Batch slots = new Batch(connection,
+                     "INSERT INTO PARKING_SLOT (SlotNumber, Availability, ParkingID) VALUES (?, ?, ?)");
+             Batch reservations = new Batch(connection, "INSERT INTO PARKING_RESERVATION " +
+                     "(ReservationID, StartDate, EndDate, StartTime, EndTime, CreatedAt, Status, Fee, VehicleID, SlotNumber) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             Batch transactions = new Batch(connection, "INSERT INTO TRANSACTION (Amount, ReservationID) VALUES (?, ?)");
+             Batch reviews = new Batch(connection, "INSERT INTO PARKING_REVIEW " +
+                     "(ReviewID, UserID, ReservationID, Rating, ParkingID) VALUES (?, ?, ?, ?, ?)")) {
+            Batch[] fkOrder = {spaces, slots, reservations, transactions, reviews};
+
+            for (int lot = 1; lot <= lots; lot++) {
+                String parkingId = "P" + lot;
+                int adminIndex = lotRandom.nextInt(adminIds.length);
+                int district = lotRandom.nextInt(DISTRICTS.length);
+                float rate = (float) (Math.round(DISTRICT_PRICE[district] * (1 + lotRandom.nextDouble()) * 2) / 2.0);
+                int slotTotal = minSlots + lotRandom.nextInt(maxSlots - minSlots + 1);
+                // Lognormal popularity: most lots are average, a few are always full
+                double popularity = Math.exp(0.6 * lotRandom.nextGaussian() - 0.18);
+                double quality = 2.5 + 2.3 * lotRandom.nextDouble();
+
+                spaces.statement.setString(1, parkingId);
+                spaces.statement.setString(2, (1 + lotRandom.nextInt(400)) + " " + STREETS[lotRandom.nextInt(STREETS.length)]
+                        + ", " + DISTRICTS[district]);
+                spaces.statement.setFloat(3, rate);
+                spaces.statement.setInt(4, slotTotal);
+                spaces.statement.setString(5, description(lotRandom));
+                spaces.statement.setInt(6, adminIds[adminIndex]);
+                spaces.add();
+
+                for (int slot = 1; slot <= slotTotal; slot++) {
+                    String slotNumber = slot + "P" + lot;
+                    boolean occupied = false;
+                    LocalDateTime lastEnd = LocalDateTime.MIN;
+
+                    for (LocalDate day = startDay; day.isBefore(endDay); day = day.plusDays(1)) {
+                        int arrivals = poisson(reservationRandom, arrivalsPerSlot * popularity * ArrivalCurve.dayVolume(day));
+                        List<LocalDateTime> starts = new ArrayList<>(arrivals);
+                        for (int a = 0; a < arrivals; a++) {
+                            starts.add(ArrivalCurve.arrival(reservationRandom, day));
+                        }
+                        starts.sort(null);
+
+                        for (LocalDateTime start : starts) {
+                            LocalDateTime end = start.plusMinutes(ArrivalCurve.stayMinutes(reservationRandom, start));
+                            // Availability bounds are inclusive, so the next driver comes one grid step later
+                            if (!start.isAfter(lastEnd.plusMinutes(15)) && lastEnd != LocalDateTime.MIN) {
+                                continue;
+                            }
+                            if (start.isAfter(now) && reservationRandom.nextDouble() > advanceBookingShare(now, start)) {
+                                continue;
+                            }
+                            lastEnd = end;
+
+                            int userIndex = (int) (userIds.length * Math.pow(reservationRandom.nextDouble(), 2));
+                            String[] vehicles = vehiclesByUser[userIndex];
+                            String vehicleId = vehicles[reservationRandom.nextInt(vehicles.length)];
+                            float fee = fee(rate, start, end);
+
+                            String status;
+                            boolean paid;
+                            if (!end.isAfter(now)) {
+                                status = Constants.RESERVATION_COMPLETE;
+                                paid = reservationRandom.nextDouble() < 0.97;
+                            } else if (!start.isAfter(now)) {
+                                status = Constants.RESERVATION_PAID;
+                                paid = true;
+                                occupied = true;
+                            } else {
+                                paid = reservationRandom.nextDouble() < 0.7;
+                                status = paid ? Constants.RESERVATION_PAID : Constants.RESERVATION_IN_PROCESS;
+                            }
+
+                            // Booked ahead by an exponentially distributed lead time, never in the future
+                            LocalDateTime createdAt = start.minusMinutes(
+                                    15 + (long) (-1440 * Math.log(1 - reservationRandom.nextDouble())));
+                            if (createdAt.isAfter(now)) {
+                                createdAt = now.minusMinutes(reservationRandom.nextInt(24 * 60));
+                            }
+
+                            PreparedStatement r = reservations.statement;
+                            r.setInt(1, reservationId);
+                            r.setDate(2, Date.valueOf(start.toLocalDate()));
+                            r.setDate(3, Date.valueOf(end.toLocalDate()));
+                            r.setTime(4, Time.valueOf(start.toLocalTime()));
+                            r.setTime(5, Time.valueOf(end.toLocalTime()));
+                            r.setTimestamp(6, Timestamp.valueOf(createdAt));
+                            r.setString(7, status);
+                            r.setFloat(8, fee);
+                            r.setString(9, vehicleId);
+                            r.setString(10, slotNumber);
+                            reservations.add();
+                            reservationCount++;
+
+                            if (paid) {
+                                transactions.statement.setFloat(1, fee);
+                                transactions.statement.setInt(2, reservationId);
+                                transactions.add();
+                                transactionCount++;
+                                adminRevenue[adminIndex] += fee;
+                            }
+                            if (Constants.RESERVATION_COMPLETE.equals(status) && reviewRandom.nextDouble() < reviewRate) {
+                                int rating = (int) Math.round(quality + 0.8 * reviewRandom.nextGaussian());
+                                reviews.statement.setInt(1, reviewId++);
+                                reviews.statement.setInt(2, userIds[userIndex]);
+                                reviews.statement.setInt(3, reservationId);
+                                reviews.statement.setInt(4, Math.max(1, Math.min(5, rating)));
+                                reviews.statement.setString(5, parkingId);
+                                reviews.add();
+                                reviewCount++;
+                            }
+                            reservationId++;
+
+                            if (reservations.pending >= batchSize) {
+                                flush(connection, fkOrder);
+                            }
+                        }
+                    }
+
+                    slots.statement.setString(1, slotNumber);
+                    slots.statement.setBoolean(2, !occupied);
+                    slots.statement.setString(3, parkingId);
+                    slots.add();
+                    slotCount++;
+                }
+                if (slots.pending >= batchSize) {
+                    flush(connection, fkOrder);
+                }
+            }
+            flush(connection, fkOrder);
+        }
+        return adminRevenue;
+    }
+
+    private void updateAdminBalances(Connection connection, int[] adminIds, double[] adminRevenue) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "UPDATE ADMIN SET Balance = ? WHERE AdminID = ?")) {
+            for (int i = 0; i < adminIds.length; i++) {
+                preparedStatement.setDouble(1, Math.round(adminRevenue[i] * 100) / 100.0);
+                preparedStatement.setInt(2, adminIds[i]);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        }
+    }
+
+    /**
+     * Bring the application's derived tables in line with the generated rows
+     * ID sequences are dropped so they reseed above the generated IDs, an existing ledger gets the
+     * generated balances as opening entries, an existing revenue rollup is rebuilt (a missing one
+     * backfills itself when first used) and the rating aggregates are recomputed.
+     */
+    private boolean syncDerivedState() {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (tableExists(connection, "ID_SEQUENCE")) {
+                statement.executeUpdate("DELETE FROM ID_SEQUENCE " +
+                        "WHERE SequenceName IN ('PARKING_RESERVATION', 'PARKING_REVIEW')");
+            }
+            if (tableExists(connection, "LEDGER_ENTRY")) {
+                statement.executeUpdate("INSERT INTO LEDGER_ENTRY (AccountType, AccountID, Amount, EntryType, Settled) " +
+                        "SELECT '" + LedgerEntry.ACCOUNT_USER + "', UserID, Balance, '" +
+                        LedgerEntry.TYPE_OPENING + "', TRUE FROM USER WHERE Balance <> 0");
+                statement.executeUpdate("INSERT INTO LEDGER_ENTRY (AccountType, AccountID, Amount, EntryType, Settled) " +
+                        "SELECT '" + LedgerEntry.ACCOUNT_ADMIN + "', AdminID, Balance, '" +
+                        LedgerEntry.TYPE_OPENING + "', TRUE FROM ADMIN WHERE Balance <> 0");
+            }
+            if (tableExists(connection, "REVENUE_DAILY") && !new RevenueRollupRepository().backfill()) {
+                System.err.println("Rebuilding REVENUE_DAILY failed");
+                return false;
+            }
+        } catch (SQLException e) {
+            System.err.println("Updating derived tables failed: " + e.getMessage());
+            return false;
+        }
+        if (!new ParkingSpaceRepository().rebuildRatingAggregates()) {
+            System.err.println("Rebuilding rating aggregates failed");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean tableExists(Connection connection, String tableName) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            preparedStatement.setString(1, tableName);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static void flush(Connection connection, Batch[] fkOrder) throws SQLException {
+        for (Batch batch : fkOrder) {
+            batch.execute();
+        }
+        connection.commit();
+    }
+
+    private static void readGeneratedKeys(PreparedStatement preparedStatement, int[] ids) throws SQLException {
+        preparedStatement.executeBatch();
+        int i = 0;
+        try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+            while (keys.next() && i < ids.length) {
+                ids[i++] = keys.getInt(1);
+            }
+        }
+        if (i != ids.length) {
+            throw new SQLException("Expected " + ids.length + " generated keys, got " + i);
+        }
+    }
+
+    // Share of future arrivals already booked: most of tomorrow's, few of next week's
+    private static double advanceBookingShare(LocalDateTime now, LocalDateTime start) {
+        long daysAhead = ChronoUnit.DAYS.between(now.toLocalDate(), start.toLocalDate());
+        return 0.8 / (1 + daysAhead);
+    }
+
+    // Same rule as the reservation controller: hourly rate times started hours
+    private static float fee(float rate, LocalDateTime start, LocalDateTime end) {
+        long minutes = ChronoUnit.MINUTES.between(start, end);
+        return rate * ((minutes + 59) / 60);
+    }
+
+    private static int poisson(Random random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static String personName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static String description(Random random) {
+        String first = FEATURES[random.nextInt(FEATURES.length)];
+        String second = FEATURES[random.nextInt(FEATURES.length)];
+        String text = Character.toUpperCase(first.charAt(0)) + first.substring(1);
+        return second.equals(first) ? text + " parking" : text + " parking, " + second;
+    }
+
+    // Unique for every index: three letters, then four digits
+    private static String plateNumber(int index) {
+        int letters = index / 10000;
+        return "" + (char) ('A' + letters / 676 % 26) + (char) ('A' + letters / 26 % 26) + (char) ('A' + letters % 26)
+                + "-" + String.format("%04d", index % 10000);
+    }
+
+    private Random stream(int stream) {
+        return new Random(seed * 1_000_003L + stream);
+    }
+
+    /**
+     * A prepared statement collecting rows until it is flushed
+     */
+    private static final class Batch implements AutoCloseable {
+        private final PreparedStatement statement;
+        private int pending;
+
+        private Batch(Connection connection, String sql) throws SQLException {
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        private void add() throws SQLException {
+            statement.addBatch();
+            pending++;
+        }
+
+        private void execute() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+    }
+}
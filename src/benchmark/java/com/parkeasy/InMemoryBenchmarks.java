@@ -0,0 +1,374 @@
+package benchmark.java.com.parkeasy;
+
+import main.java.com.parkeasy.model.ParkingSlot;
+import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.model.SearchPage;
+import main.java.com.parkeasy.repository.ParkingSlotRepository;
+import main.java.com.parkeasy.repository.ReservationRepository;
+import main.java.com.parkeasy.service.CalendarSlotAllocator;
+import main.java.com.parkeasy.service.OccupancyCalendar;
+import main.java.com.parkeasy.service.ParkingSearchIndex;
+import main.java.com.parkeasy.service.ReservationColumnStore;
+import main.java.com.parkeasy.service.SlotAvailabilityIndex;
+import main.java.com.parkeasy.util.Constants;
+import main.java.com.parkeasy.util.DateTimeUtil;
+import main.java.com.parkeasy.util.HashedTimerWheel;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmarks of the in-memory structures behind the hot paths, on synthetic data; no database needed
+ * Default scale: 1,000 lots of 100 slots (100k slots) with 100 reservations per slot (10M reservations).
+ * Reservations are generated per slot when the availability index first loads that slot, so
+ * only the slots a benchmark touches are ever materialized.
+ * - SlotAvailabilityIndex backs ReservationService.isSlotAvailableForPeriod and the slot checks of
+ *   ParkingSpaceService (the services add one slot lookup query on top);
+ * - OccupancyCalendar backs ParkingSpaceService.getAvailableSlotsForTimeRange, compared with
+ *   checking every slot of the lot against SlotAvailabilityIndex;
+ * - CalendarSlotAllocator backs ParkingSpaceService.allocateSlot, once per strategy;
+ * - the overlap sweep compares Reservation's precomputed epoch seconds with building LocalDateTimes
+ *   per reservation, as the service-level overlap checks did;
+ * - ReservationColumnStore backs the revenue and utilization reports, compared with looping over
+ *   the List<Reservation> the database path returns;
+ * - ParkingSearchIndex backs ParkingSpaceService.searchParkingSpaces / searchParkingSpacePage;
+ * - HashedTimerWheel backs the reservation lifecycle scheduler.
+ */
+public class InMemoryBenchmarks {
+    private static final String[] STREETS = {
+            "Nguyen Hue", "Le Loi", "Hai Ba Trung", "Tran Hung Dao", "Ly Thuong Kiet", "Dien Bien Phu",
+            "Vo Van Tan", "Pasteur", "Nam Ky Khoi Nghia", "Cach Mang Thang Tam", "Nguyen Trai", "Le Duan"
+    };
+    private static final String[] DISTRICTS = {
+            "District 1", "District 3", "District 5", "District 7", "Binh Thanh", "Phu Nhuan", "Tan Binh", "Thu Duc"
+    };
+    private static final int STORED_LOTS = 20;
+
+    private final int lots;
+    private final int slotsPerLot;
+    private final int reservationsPerSlot;
+    private final LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+
+    /**
+     * Constructor
+     *
+     * @param lots Number of parking lots
+     * @param slotsPerLot Slots per lot
+     * @param reservationsPerSlot Reservations per slot, spread over the last 150 and the next 30 days
+     */
+    public InMemoryBenchmarks(int lots, int slotsPerLot, int reservationsPerSlot) {
+        this.lots = lots;
+        this.slotsPerLot = slotsPerLot;
+        this.reservationsPerSlot = reservationsPerSlot;
+    }
+
+    /**
+     * Run every in-memory benchmark
+     *
+     * @param harness The harness to run them with
+     */
+    public void runAll(MicroBenchmark harness) {
+        benchmarkSlotAvailability(harness);
+        benchmarkOverlapSweep(harness);
+        benchmarkColumnStore(harness);
+        benchmarkSearch(harness);
+        benchmarkTimerWheel(harness);
+    }
+
+    private void benchmarkSlotAvailability(MicroBenchmark harness) {
+        SlotAvailabilityIndex index = new SlotAvailabilityIndex(new SyntheticReservationRepository());
+        // Warm a working set of 100 lots, the way a busy instance would have them loaded
+        int hotLots = Math.min(lots, 100);
+        String[][] hotSlots = new String[hotLots][slotsPerLot];
+        for (int lot = 0; lot < hotLots; lot++) {
+            for (int slot = 0; slot < slotsPerLot; slot++) {
+                hotSlots[lot][slot] = slotNumber(lot, slot);
+                index.isAvailable(hotSlots[lot][slot], now, now.plusHours(1));
+            }
+        }
+
+        Random random = new Random(42);
+        harness.run("SlotAvailabilityIndex.isAvailable", invocation -> {
+            LocalDateTime start = now.plusMinutes(15L * random.nextInt(30 * 96));
+            return index.isAvailable(hotSlots[random.nextInt(hotLots)][random.nextInt(slotsPerLot)],
+                    start, start.plusHours(1 + random.nextInt(4)));
+        });
+        harness.run("SlotAvailabilityIndex.isAvailable x slotsPerLot (one lot)", invocation -> {
+            int lot = random.nextInt(hotLots);
+            LocalDateTime start = now.plusMinutes(15L * random.nextInt(30 * 96));
+            LocalDateTime end = start.plusHours(2);
+            int available = 0;
+            for (int slot = 0; slot < slotsPerLot; slot++) {
+                if (index.isAvailable(hotSlots[lot][slot], start, end)) {
+                    available++;
+                }
+            }
+            return available;
+        });
+
+        OccupancyCalendar calendar = new OccupancyCalendar(new SyntheticReservationRepository(),
+                new ParkingSlotRepository(), 30, 15);
+        List<List<ParkingSlot>> lotSlots = new ArrayList<>(hotLots);
+        for (int lot = 0; lot < hotLots; lot++) {
+            List<ParkingSlot> slots = new ArrayList<>(slotsPerLot);
+            for (int slot = 0; slot < slotsPerLot; slot++) {
+                slots.add(new ParkingSlot(hotSlots[lot][slot], true, lotId(lot)));
+            }
+            lotSlots.add(slots);
+            // Build the calendar outside the measurement
+            calendar.freeSlots(lotId(lot), slots, now, now.plusHours(1));
+        }
+        harness.run("OccupancyCalendar.freeSlots (one lot)", invocation -> {
+            int lot = random.nextInt(hotLots);
+            LocalDateTime start = now.plusMinutes(15L * random.nextInt(28 * 96));
+            return calendar.freeSlots(lotId(lot), lotSlots.get(lot), start, start.plusHours(2)).size();
+        });
+        for (CalendarSlotAllocator.Strategy strategy : CalendarSlotAllocator.Strategy.values()) {
+            CalendarSlotAllocator allocator = new CalendarSlotAllocator(calendar, index, strategy);
+            harness.run("CalendarSlotAllocator.allocate " + strategy + " (one lot)", invocation -> {
+                int lot = random.nextInt(hotLots);
+                LocalDateTime start = now.plusMinutes(15L * random.nextInt(28 * 96));
+                return allocator.allocate(lotId(lot), lotSlots.get(lot), start, start.plusHours(2));
+            });
+        }
+        harness.run("SlotAvailabilityIndex first load of a slot", invocation -> {
+            // Every invocation hits a slot that has not been loaded yet
+            long n = hotLots * (long) slotsPerLot + invocation;
+            int lot = (int) (n / slotsPerLot % lots);
+            return index.isAvailable(slotNumber(lot, (int) (n % slotsPerLot)) + "-" + n / ((long) lots * slotsPerLot),
+                    now, now.plusHours(1));
+        });
+    }
+
+    private void benchmarkOverlapSweep(MicroBenchmark harness) {
+        // A bulk availability sweep: every reservation of one lot against one window of its history
+        SyntheticReservationRepository repository = new SyntheticReservationRepository();
+        List<Reservation> reservations = new ArrayList<>(slotsPerLot * reservationsPerSlot);
+        for (int slot = 0; slot < slotsPerLot; slot++) {
+            reservations.addAll(repository.getReservationsByParkingSlotNumber(slotNumber(0, slot)));
+        }
+        Reservation[] lotReservations = reservations.toArray(new Reservation[0]);
+
+        Random random = new Random(5);
+        harness.run("Overlap sweep of one lot, LocalDateTime per reservation", invocation -> {
+            LocalDateTime start = now.minusDays(150).plusMinutes(15L * random.nextInt(180 * 96));
+            LocalDateTime end = start.plusHours(2);
+            int overlapping = 0;
+            for (Reservation reservation : lotReservations) {
+                LocalDateTime resStart = LocalDateTime.of(
+                        reservation.getStartDate().toLocalDate(), reservation.getStartTime().toLocalTime());
+                LocalDateTime resEnd = LocalDateTime.of(
+                        reservation.getEndDate().toLocalDate(), reservation.getEndTime().toLocalTime());
+                if (!(end.isBefore(resStart) || start.isAfter(resEnd))) {
+                    overlapping++;
+                }
+            }
+            return overlapping;
+        });
+        harness.run("Overlap sweep of one lot, Reservation.overlaps", invocation -> {
+            LocalDateTime start = now.minusDays(150).plusMinutes(15L * random.nextInt(180 * 96));
+            long from = DateTimeUtil.toEpochSecond(start);
+            long to = DateTimeUtil.toEpochSecond(start.plusHours(2));
+            int overlapping = 0;
+            for (Reservation reservation : lotReservations) {
+                if (reservation.overlaps(from, to)) {
+                    overlapping++;
+                }
+            }
+            return overlapping;
+        });
+    }
+
+    private void benchmarkColumnStore(MicroBenchmark harness) {
+        // The store holds the reservations of the first 20 lots; the list path gets one lot's
+        // reservations already in memory, i.e. without the cost of fetching them
+        int storedLots = Math.min(lots, STORED_LOTS);
+        SyntheticReservationRepository repository = new SyntheticReservationRepository();
+        ReservationColumnStore store = new ReservationColumnStore(repository, new ParkingSlotRepository(),
+                true, 4096, 0);
+        List<List<Reservation>> lotReservations = new ArrayList<>(storedLots);
+        for (int lot = 0; lot < storedLots; lot++) {
+            List<Reservation> reservations = new ArrayList<>(slotsPerLot * reservationsPerSlot);
+            for (int slot = 0; slot < slotsPerLot; slot++) {
+                reservations.addAll(repository.getReservationsByParkingSlotNumber(slotNumber(lot, slot)));
+            }
+            lotReservations.add(reservations);
+        }
+        // Load outside the measurement
+        store.countReservations(lotId(0), now.toLocalDate(), now.toLocalDate());
+
+        LocalDateTime from = now.minusDays(150);
+        long rangeStart = DateTimeUtil.toEpochSecond(from);
+        long rangeEnd = DateTimeUtil.toEpochSecond(now);
+        Random random = new Random(13);
+        harness.run("Revenue of one lot over 150 days, List<Reservation>", invocation -> {
+            float total = 0.0F;
+            for (Reservation reservation : lotReservations.get(random.nextInt(storedLots))) {
+                if (reservation.getStatus().equals(Constants.RESERVATION_COMPLETE) ||
+                        reservation.getStatus().equals(Constants.RESERVATION_PAID)) {
+                    total += reservation.getFee();
+                }
+            }
+            return total;
+        });
+        harness.run("Revenue of one lot over 150 days, ReservationColumnStore", invocation ->
+                store.sumRevenue(lotId(random.nextInt(storedLots)), from.toLocalDate(), now.toLocalDate()));
+        harness.run("Utilization of one lot over 150 days, List<Reservation>", invocation -> {
+            long hours = 0;
+            for (Reservation reservation : lotReservations.get(random.nextInt(storedLots))) {
+                long resHours = (Math.min(reservation.getEndEpochSecond(), rangeEnd)
+                        - Math.max(reservation.getStartEpochSecond(), rangeStart)) / 3600;
+                if (resHours > 0) {
+                    hours += resHours;
+                }
+            }
+            return hours;
+        });
+        harness.run("Utilization of one lot over 150 days, ReservationColumnStore", invocation ->
+                store.sumReservedHours(lotId(random.nextInt(storedLots)), from, now));
+        harness.run("Daily reservation counts of one lot over 150 days, ReservationColumnStore", invocation ->
+                store.countReservationsPerDay(lotId(random.nextInt(storedLots)), from.toLocalDate(), now.toLocalDate()));
+    }
+
+    private void benchmarkSearch(MicroBenchmark harness) {
+        Random random = new Random(7);
+        List<ParkingSpace> spaces = new ArrayList<>(lots);
+        Map<String, Float> ratings = new HashMap<>();
+        for (int lot = 0; lot < lots; lot++) {
+            String address = (1 + random.nextInt(300)) + " " + STREETS[random.nextInt(STREETS.length)]
+                    + ", " + DISTRICTS[random.nextInt(DISTRICTS.length)];
+            spaces.add(new ParkingSpace(lotId(lot), address, 5000 + 1000 * random.nextInt(30), slotsPerLot,
+                    "Covered parking near " + STREETS[random.nextInt(STREETS.length)], 1 + lot % 50));
+            ratings.put(lotId(lot), 1 + random.nextInt(41) / 10.0F);
+        }
+        ParkingSearchIndex index = ParkingSearchIndex.getInstance();
+        index.beginLoad();
+        index.load(spaces, ratings);
+
+        String[] terms = {"nguyen", "le", "district 1", "binh thanh", "tran hung", "covered pasteur", "q"};
+        String[] prefixes = {"n", "ng", "di", "bi", "tr", "pa"};
+        harness.run("ParkingSearchIndex.search (page 0)", invocation ->
+                index.search(terms[(int) (invocation % terms.length)], 0, 10));
+        harness.run("ParkingSearchIndex.count", invocation ->
+                index.count(terms[(int) (invocation % terms.length)]));
+        harness.run("ParkingSearchIndex.searchPage by price, page 3", invocation -> {
+            String term = terms[(int) (invocation % terms.length)];
+            SearchPage page = index.searchPage(term, SearchPage.SORT_PRICE_ASC, null, true, 10);
+            for (int i = 0; i < 2 && !page.isEmpty(); i++) {
+                page = index.searchPage(term, SearchPage.SORT_PRICE_ASC, page.getLastCursor(), true, 10);
+            }
+            return page.getTotalCount();
+        });
+        harness.run("ParkingSearchIndex.searchPage by rating, page 3", invocation -> {
+            String term = terms[(int) (invocation % terms.length)];
+            SearchPage page = index.searchPage(term, SearchPage.SORT_RATING, null, true, 10);
+            for (int i = 0; i < 2 && !page.isEmpty(); i++) {
+                page = index.searchPage(term, SearchPage.SORT_RATING, page.getLastCursor(), true, 10);
+            }
+            return page.getTotalCount();
+        });
+        harness.run("ParkingSearchIndex.suggest", invocation ->
+                index.suggest(prefixes[(int) (invocation % prefixes.length)], 5));
+    }
+
+    private void benchmarkTimerWheel(MicroBenchmark harness) {
+        HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(1000, 512);
+        long start = System.currentTimeMillis();
+        Random random = new Random(11);
+        // One start and one end per upcoming reservation
+        for (int i = 0; i < 200_000; i++) {
+            wheel.schedule(start + random.nextInt(30 * 24 * 3600) * 1000L, i);
+        }
+
+        harness.run("HashedTimerWheel.schedule + cancel (200k pending)", invocation ->
+                wheel.cancel(wheel.schedule(start + random.nextInt(30 * 24 * 3600) * 1000L, (int) invocation)));
+        long[] clock = {start};
+        harness.run("HashedTimerWheel.advance one tick (200k pending)", invocation -> {
+            clock[0] += 1000;
+            return wheel.advance(clock[0], item -> wheel.size());
+        });
+    }
+
+    private static String lotId(int lot) {
+        return String.format("P%04d", lot);
+    }
+
+    private static String slotNumber(int lot, int slot) {
+        return lotId(lot) + "-S" + slot;
+    }
+
+    /**
+     * Generates each slot's reservation history deterministically instead of reading it from the database
+     */
+    private final class SyntheticReservationRepository extends ReservationRepository {
+        @Override
+        public List<Reservation> getReservationsByParkingSlotNumber(String slotNumber) {
+            Random random = new Random(slotNumber.hashCode());
+            List<Reservation> reservations = new ArrayList<>(reservationsPerSlot);
+            long spanMinutes = 180L * 24 * 60;
+            long averageStep = spanMinutes / Math.max(1, reservationsPerSlot);
+            LocalDateTime cursor = now.minusDays(150);
+            for (int i = 0; i < reservationsPerSlot; i++) {
+                LocalDateTime start = cursor.plusMinutes(15L * random.nextInt((int) Math.max(1, averageStep / 30)));
+                LocalDateTime end = start.plusMinutes(60L + 15L * random.nextInt(13));
+                cursor = end;
+
+                Reservation reservation = new Reservation();
+                reservation.setReservationID(slotNumber.hashCode() * 31 + i);
+                reservation.setStartDate(Date.valueOf(start.toLocalDate()));
+                reservation.setStartTime(Time.valueOf(start.toLocalTime()));
+                reservation.setEndDate(Date.valueOf(end.toLocalDate()));
+                reservation.setEndTime(Time.valueOf(end.toLocalTime()));
+                reservation.setStatus(end.isBefore(now) ? Constants.RESERVATION_COMPLETE
+                        : random.nextBoolean() ? Constants.RESERVATION_PAID : Constants.RESERVATION_IN_PROCESS);
+                reservation.setSlotNumber(slotNumber);
+                reservation.setFee(10_000F * ChronoUnit.MINUTES.between(start, end) / 60);
+                reservations.add(reservation);
+            }
+            return reservations;
+        }
+
+        @Override
+        public List<Reservation> getBlockingReservationsByParkingId(String parkingId, LocalDateTime endingFrom) {
+            int lot = Integer.parseInt(parkingId.substring(1));
+            long from = DateTimeUtil.toEpochSecond(endingFrom);
+            List<Reservation> reservations = new ArrayList<>();
+            for (int slot = 0; slot < slotsPerLot; slot++) {
+                for (Reservation reservation : getReservationsByParkingSlotNumber(slotNumber(lot, slot))) {
+                    if (SlotAvailabilityIndex.isBlocking(reservation.getStatus())
+                            && reservation.getEndEpochSecond() >= from) {
+                        reservations.add(reservation);
+                    }
+                }
+            }
+            return reservations;
+        }
+
+        @Override
+        public boolean scanReservationTimeline(TimelineRowHandler handler) {
+            // The lots of the column store benchmark, in start order as the real query returns them
+            List<Reservation> reservations = new ArrayList<>();
+            for (int lot = 0; lot < Math.min(lots, STORED_LOTS); lot++) {
+                for (int slot = 0; slot < slotsPerLot; slot++) {
+                    reservations.addAll(getReservationsByParkingSlotNumber(slotNumber(lot, slot)));
+                }
+            }
+            reservations.sort(Comparator.comparingLong(Reservation::getStartEpochSecond));
+            for (Reservation reservation : reservations) {
+                handler.accept(reservation.getReservationID(), reservation.getSlotNumber(),
+                        reservation.getSlotNumber().substring(0, 5), reservation.getStartEpochSecond(),
+                        reservation.getEndEpochSecond(), reservation.getFee(), reservation.getStatus());
+            }
+            return true;
+        }
+    }
+}
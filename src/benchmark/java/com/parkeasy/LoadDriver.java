@@ -0,0 +1,392 @@
+package benchmark.java.com.parkeasy;
+
+import main.java.com.parkeasy.controller.user.ParkingSpaceViewController;
+import main.java.com.parkeasy.controller.user.ReservationController;
+import main.java.com.parkeasy.controller.user.ReviewController;
+import main.java.com.parkeasy.model.ParkingSlot;
+import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.service.LedgerSettler;
+import main.java.com.parkeasy.service.ParkingSpaceService;
+import main.java.com.parkeasy.service.ReservationService;
+import main.java.com.parkeasy.service.ReviewService;
+import main.java.com.parkeasy.service.TransactionService;
+import main.java.com.parkeasy.service.UserService;
+import main.java.com.parkeasy.service.VehicleService;
+import main.java.com.parkeasy.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless load driver: many simulated users going through the user controllers concurrently
+ * Every simulated user runs sessions of search, availability check, booking and payment against the
+ * configured database, and completes and reviews a share of its bookings, with a random think time
+ * between steps. Each step is timed; after a warm-up the driver measures for a fixed time and
+ * reports throughput and p50/p99 latency per operation. Run it against a generated data set (see
+ * DataGenerator), never against a live system: it books, pays and reviews for real.
+ * Payment goes through TransactionService, since the user controllers have no payment entry point.
+ * Usage: LoadDriver [--seed N] [--users N] [--warmup SECONDS] [--duration SECONDS] [--think-ms N]
+ *                   [--days-ahead N] [--review-rate X]
+ * Run with the same classpath as BenchmarkRunner.
+ */
+public class LoadDriver {
+    private static final String OP_SEARCH = "search";
+    private static final String OP_AVAILABILITY = "check availability";
+    private static final String OP_BOOK = "book";
+    private static final String OP_PAY = "pay";
+    private static final String OP_COMPLETE = "complete";
+    private static final String OP_REVIEW = "review";
+
+    private final long seed;
+    private final int simulatedUsers;
+    private final long warmupMillis;
+    private final long durationMillis;
+    private final long thinkMillis;
+    private final int daysAhead;
+    private final double reviewRate;
+
+    private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+    private final List<Customer> customers = new ArrayList<>();
+    private final List<String> parkingIds = new ArrayList<>();
+    private final List<String> searchTerms = new ArrayList<>();
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    /**
+     * Create a load driver
+     *
+     * @param seed Seed of all random choices of the simulated users
+     * @param simulatedUsers Number of concurrent simulated users, one thread each
+     * @param warmupMillis How long the users run before measuring starts
+     * @param durationMillis How long the measurement runs
+     * @param thinkMillis Mean pause of a user between two steps
+     * @param daysAhead Bookings start within this many days from tomorrow
+     * @param reviewRate Share of bookings that are completed and reviewed right away
+     */
+    public LoadDriver(long seed, int simulatedUsers, long warmupMillis, long durationMillis, long thinkMillis,
+                      int daysAhead, double reviewRate) {
+        this.seed = seed;
+        this.simulatedUsers = Math.max(1, simulatedUsers);
+        this.warmupMillis = Math.max(0, warmupMillis);
+        this.durationMillis = Math.max(1, durationMillis);
+        this.thinkMillis = Math.max(0, thinkMillis);
+        this.daysAhead = Math.max(1, daysAhead);
+        this.reviewRate = reviewRate;
+        for (String operation : new String[]{OP_SEARCH, OP_AVAILABILITY, OP_BOOK, OP_PAY, OP_COMPLETE, OP_REVIEW}) {
+            histograms.put(operation, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) {
+        long seed = 42;
+        int users = 50;
+        long warmupSeconds = 30;
+        long durationSeconds = 120;
+        long thinkMillis = 200;
+        int daysAhead = 14;
+        double reviewRate = 0.2;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--users":
+                    users = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmupSeconds = Long.parseLong(args[++i]);
+                    break;
+                case "--duration":
+                    durationSeconds = Long.parseLong(args[++i]);
+                    break;
+                case "--think-ms":
+                    thinkMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--days-ahead":
+                    daysAhead = Integer.parseInt(args[++i]);
+                    break;
+                case "--review-rate":
+                    reviewRate = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        // The services log every call at INFO, which would dominate the measurements
+        Logger.getLogger("").setLevel(Level.WARNING);
+        LoadDriver driver = new LoadDriver(seed, users, warmupSeconds * 1000, durationSeconds * 1000, thinkMillis,
+                daysAhead, reviewRate);
+        boolean completed = driver.run();
+        LedgerSettler.shutdown();
+        DatabaseConnection.shutdown();
+        System.exit(completed ? 0 : 1);
+    }
+
+    /**
+     * Run the load and print the report
+     *
+     * @return true if the load ran; false if the database is unreachable or has no data to work with
+     */
+    public boolean run() {
+        if (!loadWorkload()) {
+            return false;
+        }
+        // Same background services as the application
+        LedgerSettler.start();
+        new ParkingSpaceService().initializeSearch();
+
+        List<Thread> threads = new ArrayList<>(simulatedUsers);
+        for (int i = 0; i < simulatedUsers; i++) {
+            Thread thread = new Thread(new SimulatedUser(new Random(seed * 1_000_003L + i)), "load-user-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        System.out.printf("%d simulated users on %d customers and %d parking spaces, warming up for %d s%n",
+                simulatedUsers, customers.size(), parkingIds.size(), warmupMillis / 1000);
+
+        long measuredNanos;
+        try {
+            Thread.sleep(warmupMillis);
+            measuring = true;
+            long start = System.nanoTime();
+            Thread.sleep(durationMillis);
+            measuring = false;
+            measuredNanos = System.nanoTime() - start;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            stopped = true;
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        printReport(measuredNanos / 1e9);
+        return true;
+    }
+
+    private boolean loadWorkload() {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            if (connection == null) {
+                System.err.println("Database not reachable");
+                return false;
+            }
+            try (PreparedStatement preparedStatement = connection.prepareStatement(
+                    "SELECT UserID, VehicleID FROM VEHICLE ORDER BY UserID, VehicleID");
+                 ResultSet rs = preparedStatement.executeQuery()) {
+                Customer customer = null;
+                while (rs.next()) {
+                    int userId = rs.getInt("UserID");
+                    if (customer == null || customer.userId != userId) {
+                        customer = new Customer(userId);
+                        customers.add(customer);
+                    }
+                    customer.vehicleIds.add(rs.getString("VehicleID"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Loading users failed: " + e.getMessage());
+            return false;
+        }
+
+        // Search for the words drivers would type: parts of the addresses
+        TreeSet<String> words = new TreeSet<>();
+        for (ParkingSpace space : new ParkingSpaceService().getAllParkingSpaces()) {
+            parkingIds.add(space.getParkingID());
+            if (space.getParkingAddress() != null) {
+                for (String word : space.getParkingAddress().toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                    if (word.length() >= 3 && !Character.isDigit(word.charAt(0))) {
+                        words.add(word);
+                    }
+                }
+            }
+        }
+        searchTerms.addAll(words);
+        parkingIds.sort(null);
+
+        if (customers.isEmpty() || parkingIds.isEmpty()) {
+            System.err.println("No users with vehicles or no parking spaces; run DataGenerator first");
+            return false;
+        }
+        return true;
+    }
+
+    private void printReport(double seconds) {
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "Measured for %.1f s", seconds));
+        System.out.println(String.format(Locale.ROOT, "%-20s %10s %8s %10s %10s %10s %10s",
+                "Operation", "ops", "errors", "ops/s", "p50 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            System.out.println(String.format(Locale.ROOT, "%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f",
+                    entry.getKey(), histogram.getCount(), histogram.getErrors(), histogram.getCount() / seconds,
+                    histogram.percentile(50) / 1e6, histogram.percentile(99) / 1e6,
+                    histogram.percentile(100) / 1e6));
+        }
+    }
+
+    /**
+     * Run one step of a session and time it
+     * Only steps started while measuring are recorded. A step that throws or whose result does not
+     * pass the check counts as an error.
+     *
+     * @return The step's result, or null if it threw
+     */
+    private <T> T timed(String operation, Callable<T> step, Predicate<T> succeeded) {
+        boolean recorded = measuring;
+        LatencyHistogram histogram = histograms.get(operation);
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = step.call();
+        } catch (Exception e) {
+            if (recorded) {
+                histogram.recordError();
+            }
+            return null;
+        }
+        long nanos = System.nanoTime() - start;
+        if (recorded) {
+            if (succeeded.test(result)) {
+                histogram.record(nanos);
+            } else {
+                histogram.recordError();
+            }
+        }
+        return result;
+    }
+
+    private static boolean succeeded(Map<String, Object> result) {
+        return Boolean.TRUE.equals(result.get("success"));
+    }
+
+    /**
+     * A user and the vehicles it can book for
+     */
+    private static final class Customer {
+        private final int userId;
+        private final List<String> vehicleIds = new ArrayList<>();
+
+        private Customer(int userId) {
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * One simulated user with its own controllers, like one running client
+     */
+    private final class SimulatedUser implements Runnable {
+        private final Random random;
+        private final ParkingSpaceViewController parkingSpaceViewController = new ParkingSpaceViewController();
+        private final ReservationService reservationService = new ReservationService();
+        private final ReservationController reservationController = new ReservationController(
+                reservationService, new ParkingSpaceService(), new VehicleService(), new UserService());
+        private final ReviewController reviewController = new ReviewController(new ReviewService(), reservationService);
+        private final TransactionService transactionService = new TransactionService();
+
+        private SimulatedUser(Random random) {
+            this.random = random;
+        }
+
+        @Override
+        public void run() {
+            while (!stopped) {
+                try {
+                    session();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void session() throws InterruptedException {
+            Customer customer = customers.get(random.nextInt(customers.size()));
+            String vehicleId = customer.vehicleIds.get(random.nextInt(customer.vehicleIds.size()));
+
+            String parkingId = parkingIds.get(random.nextInt(parkingIds.size()));
+            if (!searchTerms.isEmpty()) {
+                String term = searchTerms.get(random.nextInt(searchTerms.size()));
+                List<ParkingSpace> found = timed(OP_SEARCH, () -> parkingSpaceViewController.searchParkingPlots(term),
+                        spaces -> spaces != null);
+                if (found != null && !found.isEmpty()) {
+                    parkingId = found.get(random.nextInt(found.size())).getParkingID();
+                }
+                think();
+            }
+
+            LocalDate day = LocalDate.now().plusDays(1 + random.nextInt(daysAhead));
+            LocalDateTime start = ArrivalCurve.arrival(random, day);
+            LocalDateTime end = start.plusMinutes(ArrivalCurve.stayMinutes(random, start));
+            String chosenParkingId = parkingId;
+            List<ParkingSlot> slots = timed(OP_AVAILABILITY,
+                    () -> parkingSpaceViewController.getAvailableSlots(chosenParkingId, start, end),
+                    available -> available != null);
+            if (slots == null || slots.isEmpty() || stopped) {
+                return;
+            }
+            think();
+
+            String slotNumber = slots.get(random.nextInt(slots.size())).getSlotNumber();
+            Map<String, Object> booking = timed(OP_BOOK, () -> reservationController.createReservation(
+                    customer.userId, vehicleId, chosenParkingId, slotNumber, start.toLocalDate(),
+                    start.toLocalTime(), end.toLocalDate(), end.toLocalTime()), LoadDriver::succeeded);
+            if (booking == null || !succeeded(booking) || stopped) {
+                return;
+            }
+            int reservationId = (Integer) booking.get("reservationId");
+            think();
+
+            Boolean paid = timed(OP_PAY, () -> transactionService.processPayment(reservationId), Boolean.TRUE::equals);
+            if (!Boolean.TRUE.equals(paid) || stopped || random.nextDouble() >= reviewRate) {
+                return;
+            }
+            think();
+
+            // Leave early and rate the stay, which also hands the slot back
+            Map<String, Object> completion = timed(OP_COMPLETE,
+                    () -> reservationController.completeReservation(reservationId, customer.userId),
+                    LoadDriver::succeeded);
+            if (completion == null || !succeeded(completion) || stopped) {
+                return;
+            }
+            think();
+
+            int rating = 1 + Math.min(4, (int) Math.round(4 * Math.sqrt(random.nextDouble())));
+            timed(OP_REVIEW, () -> reviewController.submitReview(customer.userId, reservationId, rating, null),
+                    LoadDriver::succeeded);
+            think();
+        }
+
+        // Exponentially distributed pause with the configured mean
+        private void think() throws InterruptedException {
+            if (thinkMillis > 0) {
+                Thread.sleep((long) (-thinkMillis * Math.log(1 - random.nextDouble())));
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package benchmark.java.com.parkeasy;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal microbenchmark harness: warm-up, timed measurement iterations and a result sink
+ * Each benchmark runs in a loop for a fixed time per iteration; the reported figure is the mean time
+ * per operation over the measurement iterations, with the spread between iterations, and the bytes
+ * the benchmark thread allocated per operation where the JVM can tell (HotSpot-based JVMs). Results of
+ * every call are folded into a sink that is printed at the end, so the JIT cannot drop the work.
+ * Used for the in-memory benchmarks; the database hot paths are measured with JMH (see the jmh package).
+ */
+public class MicroBenchmark {
+    private final long warmupMillis;
+    private final int iterations;
+    private final long iterationMillis;
+    private final String filter;
+    private final List<Result> results = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean allocationCounter = allocationCounter();
+    private long sink;
+
+    /**
+     * A benchmarked operation
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Run the operation once
+         *
+         * @param invocation Running invocation number, e.g. to pick the next input
+         * @return Anything derived from the work done; consumed by the harness
+         */
+        Object run(long invocation) throws Exception;
+    }
+
+    /**
+     * Create a harness
+     *
+     * @param warmupMillis How long each benchmark runs before it is measured
+     * @param iterations Number of measurement iterations
+     * @param iterationMillis Length of one measurement iteration
+     * @param filter Only benchmarks whose name contains this run; null or empty for all
+     */
+    public MicroBenchmark(long warmupMillis, int iterations, long iterationMillis, String filter) {
+        this.warmupMillis = warmupMillis;
+        this.iterations = Math.max(1, iterations);
+        this.iterationMillis = Math.max(1, iterationMillis);
+        this.filter = filter;
+    }
+
+    /**
+     * Run one benchmark and print its result
+     *
+     * @param name Benchmark name, e.g. "SlotAvailabilityIndex.isAvailable"
+     * @param operation The operation to measure
+     */
+    public void run(String name, Operation operation) {
+        if (filter != null && !filter.isEmpty() && !name.contains(filter)) {
+            return;
+        }
+        try {
+            long invocation = 0;
+            long warmupEnd = System.nanoTime() + warmupMillis * 1_000_000L;
+            while (System.nanoTime() < warmupEnd) {
+                consume(operation.run(invocation++));
+            }
+
+            double[] nanosPerOp = new double[iterations];
+            long totalOps = 0;
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                long ops = 0;
+                long start = System.nanoTime();
+                long end = start + iterationMillis * 1_000_000L;
+                long now;
+                do {
+                    consume(operation.run(invocation++));
+                    ops++;
+                    now = System.nanoTime();
+                } while (now < end);
+                nanosPerOp[i] = (double) (now - start) / ops;
+                totalOps += ops;
+            }
+
+            long allocatedAfter = allocatedBytes();
+            double bytesPerOp = allocatedBefore < 0 || allocatedAfter < 0 ? -1
+                    : (double) (allocatedAfter - allocatedBefore) / totalOps;
+
+            Result result = new Result(name, nanosPerOp, totalOps, bytesPerOp);
+            results.add(result);
+            System.out.println(result);
+        } catch (Exception e) {
+            System.out.println(String.format(Locale.ROOT, "%-55s FAILED: %s", name, e));
+        }
+    }
+
+    /**
+     * Print the summary table and the sink
+     */
+    public void printSummary() {
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-55s %14s %12s %12s %10s",
+                "Benchmark", "ns/op", "+/-", "ops", "B/op"));
+        for (Result result : results) {
+            System.out.println(result);
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private void consume(Object value) {
+        sink += value == null ? 0 : value.hashCode();
+    }
+
+    // Bytes allocated so far by the current thread, or -1 if the JVM does not report it
+    private long allocatedBytes() {
+        return allocationCounter == null ? -1 : allocationCounter.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) bean;
+                counter.setThreadAllocatedMemoryEnabled(true);
+                return counter;
+            }
+        } catch (LinkageError | UnsupportedOperationException e) {
+            // Not a HotSpot-based JVM
+        }
+        return null;
+    }
+
+    private static final class Result {
+        private final String name;
+        private final double mean;
+        private final double deviation;
+        private final long ops;
+        private final double bytesPerOp;
+
+        private Result(String name, double[] nanosPerOp, long ops, double bytesPerOp) {
+            double sum = 0;
+            for (double value : nanosPerOp) {
+                sum += value;
+            }
+            double mean = sum / nanosPerOp.length;
+            double squares = 0;
+            for (double value : nanosPerOp) {
+                squares += (value - mean) * (value - mean);
+            }
+            this.name = name;
+            this.mean = mean;
+            this.deviation = nanosPerOp.length > 1 ? Math.sqrt(squares / (nanosPerOp.length - 1)) : 0;
+            this.ops = ops;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-55s %14.1f %12.1f %12d %10s", name, mean, deviation, ops,
+                    bytesPerOp < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", bytesPerOp));
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package benchmark.java.com.parkeasy;
+
+import main.java.com.parkeasy.model.ParkingReview;
+import main.java.com.parkeasy.model.ParkingSlot;
+import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.repository.ParkingReviewRepository;
+import main.java.com.parkeasy.repository.ParkingSlotRepository;
+import main.java.com.parkeasy.repository.ParkingSpaceRepository;
+import main.java.com.parkeasy.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Concurrency stress test of ParkingSlotRepository and ParkingReviewRepository
+ * One instance of each repository is shared by all threads, the way the views' background loaders
+ * share them. Every thread keeps reading slots and reviews of random parking spaces and compares
+ * each answer with the one read single-threaded beforehand. A repository that shared its connection
+ * or SQL between calls would answer with another thread's rows, or with an empty list after another
+ * thread closed its connection. Afterwards every borrowed connection must be back in the pool.
+ * The test only reads; run it against a generated data set (see DataGenerator) that nothing else
+ * is writing to at the same time.
+ * Usage: RepositoryStressTest [--threads N] [--duration SECONDS] [--lots N] [--seed N]
+ * Run with the same classpath as BenchmarkRunner. Exits with status 1 if any check failed.
+ */
+public class RepositoryStressTest {
+    private final int threads;
+    private final long durationMillis;
+    private final int sampleLots;
+    private final long seed;
+
+    private final ParkingSlotRepository parkingSlotRepository = new ParkingSlotRepository();
+    private final ParkingReviewRepository parkingReviewRepository = new ParkingReviewRepository();
+    private final List<Expected> expected = new ArrayList<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private final AtomicLong exceptions = new AtomicLong();
+    private volatile boolean stopped;
+
+    /**
+     * Create a stress test
+     *
+     * @param threads Number of concurrent threads
+     * @param durationMillis How long the threads run
+     * @param sampleLots Number of parking spaces the threads read from
+     * @param seed Seed of the threads' random choices
+     */
+    public RepositoryStressTest(int threads, long durationMillis, int sampleLots, long seed) {
+        this.threads = Math.max(2, threads);
+        this.durationMillis = Math.max(1, durationMillis);
+        this.sampleLots = Math.max(1, sampleLots);
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) {
+        int threads = 32;
+        long durationSeconds = 30;
+        int lots = 50;
+        long seed = 42;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--duration":
+                    durationSeconds = Long.parseLong(args[++i]);
+                    break;
+                case "--lots":
+                    lots = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        // The repositories log failures at SEVERE; keep those, drop the INFO noise
+        Logger.getLogger("").setLevel(Level.WARNING);
+        boolean passed = new RepositoryStressTest(threads, durationSeconds * 1000, lots, seed).run();
+        DatabaseConnection.shutdown();
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Run the threads and print the outcome
+     *
+     * @return true if every answer matched and no connection leaked
+     */
+    public boolean run() {
+        if (!loadExpected()) {
+            return false;
+        }
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Random random = new Random(seed * 1_000_003L + i);
+            Thread thread = new Thread(() -> {
+                while (!stopped) {
+                    check(expected.get(random.nextInt(expected.size())), random);
+                }
+            }, "stress-" + i);
+            workers.add(thread);
+            thread.start();
+        }
+        System.out.printf("%d threads on %d parking spaces for %d s%n", threads, expected.size(), durationMillis / 1000);
+
+        long start = System.nanoTime();
+        try {
+            Thread.sleep(durationMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped = true;
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int leaked = DatabaseConnection.getPool().getActiveCount();
+        System.out.printf("%d calls (%.0f/s), %d wrong answers, %d exceptions, %d connections not returned%n",
+                calls.get(), calls.get() / seconds, mismatches.get(), exceptions.get(), leaked);
+        boolean passed = mismatches.get() == 0 && exceptions.get() == 0 && leaked == 0;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+
+    private boolean loadExpected() {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            if (connection == null) {
+                System.err.println("Database not reachable");
+                return false;
+            }
+        } catch (SQLException e) {
+            System.err.println("Database not reachable: " + e.getMessage());
+            return false;
+        }
+
+        for (ParkingSpace space : new ParkingSpaceRepository().findAll()) {
+            if (expected.size() == sampleLots) {
+                break;
+            }
+            List<ParkingSlot> slots = parkingSlotRepository.getParkingSlotsByParkingId(space.getParkingID());
+            if (slots.isEmpty()) {
+                continue;
+            }
+            expected.add(new Expected(space.getParkingID(), slotNumbers(slots),
+                    reviewIds(parkingReviewRepository.getReviewsByParkingId(space.getParkingID()))));
+        }
+        if (expected.isEmpty()) {
+            System.err.println("No parking spaces with slots; run DataGenerator first");
+            return false;
+        }
+        return true;
+    }
+
+    private void check(Expected lot, Random random) {
+        try {
+            boolean matched;
+            switch (random.nextInt(4)) {
+                case 0:
+                    matched = lot.slotNumbers.equals(
+                            slotNumbers(parkingSlotRepository.getParkingSlotsByParkingId(lot.parkingId)));
+                    break;
+                case 1: {
+                    String slotNumber = lot.slotNumberList.get(random.nextInt(lot.slotNumberList.size()));
+                    ParkingSlot slot = parkingSlotRepository.findParkingSlotByNumber(slotNumber);
+                    matched = slot != null && slotNumber.equals(slot.getSlotNumber())
+                            && lot.parkingId.equals(slot.getParkingID());
+                    break;
+                }
+                case 2: {
+                    String slotNumber = lot.slotNumberList.get(random.nextInt(lot.slotNumberList.size()));
+                    matched = lot.parkingId.equals(parkingSlotRepository.getParkingIdBySlotNumber(slotNumber));
+                    break;
+                }
+                default:
+                    matched = lot.reviewIds.equals(
+                            reviewIds(parkingReviewRepository.getReviewsByParkingId(lot.parkingId)));
+                    break;
+            }
+            if (!matched) {
+                mismatches.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            exceptions.incrementAndGet();
+        }
+        calls.incrementAndGet();
+    }
+
+    private static TreeSet<String> slotNumbers(List<ParkingSlot> slots) {
+        TreeSet<String> numbers = new TreeSet<>();
+        for (ParkingSlot slot : slots) {
+            numbers.add(slot.getSlotNumber());
+        }
+        return numbers;
+    }
+
+    private static TreeSet<Integer> reviewIds(List<ParkingReview> reviews) {
+        TreeSet<Integer> ids = new TreeSet<>();
+        for (ParkingReview review : reviews) {
+            ids.add(review.getReviewId());
+        }
+        return ids;
+    }
+
+    /**
+     * What a parking space's slots and reviews looked like when read single-threaded
+     */
+    private static final class Expected {
+        private final String parkingId;
+        private final TreeSet<String> slotNumbers;
+        private final List<String> slotNumberList;
+        private final TreeSet<Integer> reviewIds;
+
+        private Expected(String parkingId, TreeSet<String> slotNumbers, TreeSet<Integer> reviewIds) {
+            this.parkingId = parkingId;
+            this.slotNumbers = slotNumbers;
+            this.slotNumberList = new ArrayList<>(slotNumbers);
+            this.reviewIds = reviewIds;
+        }
+    }
+}
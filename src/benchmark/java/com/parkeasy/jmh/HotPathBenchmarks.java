@@ -0,0 +1,195 @@
+package benchmark.java.com.parkeasy.jmh;
+
+import main.java.com.parkeasy.model.ParkingSlot;
+import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.repository.IdAllocator;
+import main.java.com.parkeasy.repository.ParkingSpaceRepository;
+import main.java.com.parkeasy.repository.ReservationRepository;
+import main.java.com.parkeasy.repository.SegmentIdAllocator;
+import main.java.com.parkeasy.service.ParkingSpaceService;
+import main.java.com.parkeasy.service.ReservationService;
+import main.java.com.parkeasy.service.RevenueService;
+import main.java.com.parkeasy.service.TransactionService;
+import main.java.com.parkeasy.util.Constants;
+import main.java.com.parkeasy.util.DatabaseConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The service and repository hot paths against the seeded embedded database, end to end including
+ * the JDBC round trips
+ * Inputs are drawn from the first parking spaces of the data set (see SeededDatabase) with periods
+ * spread over the next 30 days. Run e.g.
+ *   java -jar jmh/target/benchmarks.jar HotPathBenchmarks
+ *   java -jar jmh/target/benchmarks.jar HotPathBenchmarks.processPayment -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class HotPathBenchmarks {
+    // Gives each thread's unpaid reservations their own stretch of the far future
+    private static final AtomicInteger PAYING_THREADS = new AtomicInteger();
+    private static final String[] SEARCH_TERMS = {"main street", "harbor", "old town", "ev charging", "covered"};
+
+    private ReservationService reservationService;
+    private ParkingSpaceService parkingSpaceService;
+    private RevenueService revenueService;
+    private TransactionService transactionService;
+    private ParkingSpaceRepository parkingSpaceRepository;
+
+    /**
+     * Per-thread source of benchmark inputs
+     */
+    @State(Scope.Thread)
+    public static class Inputs {
+        private final Random random = new Random(42);
+        private final LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+        private int searches;
+
+        LocalDateTime nextStart() {
+            return now.plusMinutes(15L * random.nextInt(30 * 96));
+        }
+
+        <T> T pick(List<T> values) {
+            return values.get(random.nextInt(values.size()));
+        }
+
+        String nextSearchTerm() {
+            return SEARCH_TERMS[searches++ % SEARCH_TERMS.length];
+        }
+    }
+
+    /**
+     * A fresh Processing reservation for each processPayment call
+     * processPayment only pays a reservation once, so every invocation gets its own; inserting it
+     * is not measured. The reservations lie far in the future, so they do not affect the other
+     * benchmarks, and the paying user's balance is raised once so that it never runs out.
+     */
+    @State(Scope.Thread)
+    public static class UnpaidReservation {
+        private final ReservationRepository reservationRepository = new ReservationRepository();
+        private IdAllocator reservationIds;
+        private String vehicleId;
+        private String slotNumber;
+        private LocalDateTime nextStart;
+        int reservationId;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededDatabase database) throws SQLException {
+            reservationIds = new SegmentIdAllocator("PARKING_RESERVATION", "ReservationID");
+            slotNumber = database.slotNumbers.get(0);
+            nextStart = LocalDateTime.of(2100, 1, 1, 0, 0).plusDays(PAYING_THREADS.getAndIncrement() * 10_000L);
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                int userId;
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT VehicleID, UserID FROM VEHICLE ORDER BY VehicleID LIMIT 1");
+                     ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new IllegalStateException("The benchmark database has no vehicles");
+                    }
+                    vehicleId = rs.getString("VehicleID");
+                    userId = rs.getInt("UserID");
+                }
+                try (PreparedStatement topUp = connection.prepareStatement(
+                        "UPDATE USER SET Balance = 1000000000 WHERE UserID = ?")) {
+                    topUp.setInt(1, userId);
+                    topUp.executeUpdate();
+                }
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void insertReservation() throws SQLException {
+            LocalDateTime start = nextStart;
+            LocalDateTime end = start.plusHours(2);
+            nextStart = end.plusHours(1);
+
+            Reservation reservation = new Reservation();
+            reservation.setReservationID(reservationIds.nextId());
+            reservation.setStartDate(Date.valueOf(start.toLocalDate()));
+            reservation.setStartTime(Time.valueOf(start.toLocalTime()));
+            reservation.setEndDate(Date.valueOf(end.toLocalDate()));
+            reservation.setEndTime(Time.valueOf(end.toLocalTime()));
+            reservation.setCreatedAt(Timestamp.valueOf(LocalDateTime.now()));
+            reservation.setStatus(Constants.RESERVATION_IN_PROCESS);
+            reservation.setFee(10.0F);
+            reservation.setVehicleID(vehicleId);
+            reservation.setSlotNumber(slotNumber);
+            if (reservationRepository.insertReservation(reservation) <= 0) {
+                throw new IllegalStateException("Could not insert the reservation to pay for");
+            }
+            reservationId = reservation.getReservationID();
+        }
+    }
+
+    /**
+     * Create the services once the embedded database is up
+     *
+     * @param database The seeded database; its setup runs first
+     */
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        reservationService = new ReservationService();
+        parkingSpaceService = new ParkingSpaceService();
+        revenueService = new RevenueService();
+        transactionService = new TransactionService();
+        parkingSpaceRepository = new ParkingSpaceRepository();
+    }
+
+    @Benchmark
+    public boolean isSlotAvailableForPeriod(SeededDatabase database, Inputs inputs) {
+        LocalDateTime start = inputs.nextStart();
+        return reservationService.isSlotAvailableForPeriod(inputs.pick(database.slotNumbers), start,
+                start.plusHours(2));
+    }
+
+    @Benchmark
+    public List<ParkingSlot> getAvailableSlotsForTimeRange(SeededDatabase database, Inputs inputs) {
+        LocalDateTime start = inputs.nextStart();
+        return parkingSpaceService.getAvailableSlotsForTimeRange(inputs.pick(database.parkingIds), start,
+                start.plusHours(2));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> getDailyRevenueBreakdown(SeededDatabase database, Inputs inputs) {
+        LocalDateTime now = inputs.now;
+        return revenueService.getDailyRevenueBreakdown(inputs.pick(database.adminIds), now.minusDays(30), now);
+    }
+
+    @Benchmark
+    public boolean processPayment(UnpaidReservation unpaid) {
+        return transactionService.processPayment(unpaid.reservationId);
+    }
+
+    @Benchmark
+    public List<ParkingSpace> searchParkingSpaces(Inputs inputs) {
+        return parkingSpaceRepository.searchParkingSpaces(inputs.nextSearchTerm(), 0, 10);
+    }
+}
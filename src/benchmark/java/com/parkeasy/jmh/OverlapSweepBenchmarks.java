@@ -0,0 +1,108 @@
+package benchmark.java.com.parkeasy.jmh;
+
+import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.util.DateTimeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bulk availability sweep: every reservation of one parking space checked against one period
+ * Compares rebuilding LocalDateTime values from the java.sql date and time fields per reservation
+ * with the precomputed epoch seconds behind Reservation.overlaps. Needs no database. Run with the
+ * GC profiler to see the allocation rate, e.g.
+ *   java -jar jmh/target/benchmarks.jar OverlapSweepBenchmarks -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OverlapSweepBenchmarks {
+    @Param({"100"})
+    public int slots;
+
+    @Param({"100"})
+    public int reservationsPerSlot;
+
+    private final LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+    private final Random random = new Random(5);
+    private Reservation[] reservations;
+
+    /**
+     * Generate one parking space's reservation history over 180 days, back to back per slot
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        reservations = new Reservation[slots * reservationsPerSlot];
+        long averageStep = 180L * 24 * 60 / reservationsPerSlot;
+        int next = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            LocalDateTime cursor = now.minusDays(150);
+            for (int i = 0; i < reservationsPerSlot; i++) {
+                LocalDateTime start = cursor.plusMinutes(15L * random.nextInt((int) Math.max(1, averageStep / 30)));
+                LocalDateTime end = start.plusMinutes(60L + 15L * random.nextInt(13));
+                cursor = end;
+
+                Reservation reservation = new Reservation();
+                reservation.setReservationID(next + 1);
+                reservation.setStartDate(Date.valueOf(start.toLocalDate()));
+                reservation.setStartTime(Time.valueOf(start.toLocalTime()));
+                reservation.setEndDate(Date.valueOf(end.toLocalDate()));
+                reservation.setEndTime(Time.valueOf(end.toLocalTime()));
+                reservations[next++] = reservation;
+            }
+        }
+    }
+
+    @Benchmark
+    public int localDateTimePerReservation() {
+        LocalDateTime start = nextStart();
+        LocalDateTime end = start.plusHours(2);
+        int overlapping = 0;
+        for (Reservation reservation : reservations) {
+            LocalDateTime resStart = LocalDateTime.of(
+                    reservation.getStartDate().toLocalDate(), reservation.getStartTime().toLocalTime());
+            LocalDateTime resEnd = LocalDateTime.of(
+                    reservation.getEndDate().toLocalDate(), reservation.getEndTime().toLocalTime());
+            if (!(end.isBefore(resStart) || start.isAfter(resEnd))) {
+                overlapping++;
+            }
+        }
+        return overlapping;
+    }
+
+    @Benchmark
+    public int epochSeconds() {
+        LocalDateTime start = nextStart();
+        long from = DateTimeUtil.toEpochSecond(start);
+        long to = DateTimeUtil.toEpochSecond(start.plusHours(2));
+        int overlapping = 0;
+        for (Reservation reservation : reservations) {
+            if (reservation.overlaps(from, to)) {
+                overlapping++;
+            }
+        }
+        return overlapping;
+    }
+
+    private LocalDateTime nextStart() {
+        return now.minusDays(150).plusMinutes(15L * random.nextInt(180 * 96));
+    }
+}
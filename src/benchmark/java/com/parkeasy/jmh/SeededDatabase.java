@@ -0,0 +1,201 @@
+package benchmark.java.com.parkeasy.jmh;
+
+import benchmark.java.com.parkeasy.DataGenerator;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import main.java.com.parkeasy.repository.BackfillStateRepository;
+import main.java.com.parkeasy.service.ParkingSpaceService;
+import main.java.com.parkeasy.util.DatabaseConnection;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Embedded MariaDB filled with a generated data set, shared by the database benchmarks of one fork
+ * The database lives in a data directory that is kept between runs, since generating the full data
+ * set takes long: the first run creates the schema and fills it with DataGenerator, later runs
+ * reuse it. Completion of the fill is recorded in ROLLUP_STATE, so an interrupted fill is reported
+ * instead of being benchmarked; delete the data directory to start over or to change the scale.
+ * MariaDB4j treats a data directory under java.io.tmpdir as temporary and empties it on start, so
+ * keep it elsewhere.
+ * The application is pointed at the embedded server through the db.* system properties, which
+ * take precedence over application.properties.
+ * Settings (system properties, passed to the forks with -jvmArgsAppend):
+ *   parkeasy.bench.dataDir        data directory (default target/parkeasy-db)
+ *   parkeasy.bench.admins         admins (default 100)
+ *   parkeasy.bench.lots           parking spaces (default 1000)
+ *   parkeasy.bench.slotsPerLot    slots per parking space (default 100, i.e. 100k slots)
+ *   parkeasy.bench.users          users (default 50000)
+ *   parkeasy.bench.historyDays    days of past reservations (default 90)
+ *   parkeasy.bench.futureDays     days of advance bookings (default 14)
+ *   parkeasy.bench.arrivals       mean weekday arrivals per slot (default 1.75, about 10M reservations)
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    private static final String DATABASE_NAME = "parking_system";
+    private static final String SCHEMA_RESOURCE = "/parkeasy-schema.sql";
+    // Name of the data set in ROLLUP_STATE
+    private static final String DATA_SET = "benchmark data set";
+    private static final int SAMPLE_LOTS = 50;
+
+    // Keeps the levels set in setUp from being dropped along with an unreferenced logger
+    private static final Logger ROOT_LOGGER = Logger.getLogger("");
+
+    private DB database;
+
+    List<String> parkingIds;
+    List<String> slotNumbers;
+    List<Integer> adminIds;
+
+    /**
+     * Start the embedded server, fill it on first use and pick the sample the benchmarks draw from
+     *
+     * @throws Exception if the server cannot be started or filled
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // The services log every call at INFO, which would dominate the measurements
+        ROOT_LOGGER.setLevel(java.util.logging.Level.WARNING);
+
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0);
+        config.setDataDir(System.getProperty("parkeasy.bench.dataDir", "target/parkeasy-db"));
+        config.setDeletingTemporaryBaseAndDataDirsOnShutdown(false);
+        // Some queries name tables in lower case, which only works where table names ignore case
+        config.addArg("--lower_case_table_names=1");
+        if ("root".equals(System.getProperty("user.name"))) {
+            // The server refuses to run as root unless told to, e.g. in a container
+            config.addArg("--user=root");
+        }
+        database = DB.newEmbeddedDB(config.build());
+        database.start();
+
+        // Over JDBC rather than DB.createDB, which needs the bundled command-line client to run
+        String serverUrl = "jdbc:mysql://localhost:" + database.getConfiguration().getPort() + "/";
+        String options = "?useSSL=false&allowPublicKeyRetrieval=true";
+        try (Connection connection = DriverManager.getConnection(serverUrl + options, "root", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME);
+        }
+
+        System.setProperty("db.url", serverUrl + DATABASE_NAME + options);
+        System.setProperty("db.username", "root");
+        System.setProperty("db.password", "");
+
+        seedOnce();
+        // Builds the search indexes the application creates at startup
+        new ParkingSpaceService().initializeSearch();
+        loadSample();
+    }
+
+    /**
+     * Release the pooled connections and stop the server; the data directory is kept
+     *
+     * @throws Exception if the server does not stop cleanly
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        DatabaseConnection.shutdown();
+        if (database != null) {
+            database.stop();
+        }
+    }
+
+    private void seedOnce() throws SQLException, IOException {
+        BackfillStateRepository state = new BackfillStateRepository();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            createSchema(connection);
+            state.ensureTable(connection);
+            if (state.isRecorded(connection, DATA_SET)) {
+                return;
+            }
+            if (count(connection, "SELECT COUNT(*) FROM PARKING_SPACE") > 0) {
+                throw new IllegalStateException("The benchmark database was only partly filled; delete "
+                        + System.getProperty("parkeasy.bench.dataDir", "target/parkeasy-db") + " and run again");
+            }
+        }
+
+        int historyDays = Integer.getInteger("parkeasy.bench.historyDays", 90);
+        DataGenerator generator = new DataGenerator(42, LocalDate.now().minusDays(historyDays),
+                Integer.getInteger("parkeasy.bench.admins", 100),
+                Integer.getInteger("parkeasy.bench.users", 50000),
+                Integer.getInteger("parkeasy.bench.lots", 1000),
+                Integer.getInteger("parkeasy.bench.slotsPerLot", 100),
+                Integer.getInteger("parkeasy.bench.slotsPerLot", 100),
+                historyDays,
+                Integer.getInteger("parkeasy.bench.futureDays", 14),
+                Double.parseDouble(System.getProperty("parkeasy.bench.arrivals", "1.75")),
+                0.15, 5000);
+        if (!generator.generate()) {
+            throw new IllegalStateException("Generating the benchmark data set failed");
+        }
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            state.record(connection, DATA_SET);
+        }
+    }
+
+    private static void createSchema(Connection connection) throws SQLException, IOException {
+        String schema;
+        try (InputStream in = SeededDatabase.class.getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (in == null) {
+                throw new IOException(SCHEMA_RESOURCE + " not found on the classpath");
+            }
+            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : schema.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private void loadSample() throws SQLException {
+        parkingIds = new ArrayList<>();
+        adminIds = new ArrayList<>();
+        slotNumbers = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT ParkingID, AdminID FROM PARKING_SPACE ORDER BY ParkingID LIMIT " + SAMPLE_LOTS)) {
+                while (rs.next()) {
+                    parkingIds.add(rs.getString("ParkingID"));
+                    adminIds.add(rs.getInt("AdminID"));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT s.SlotNumber FROM PARKING_SLOT s " +
+                    "JOIN (SELECT ParkingID FROM PARKING_SPACE ORDER BY ParkingID LIMIT " + SAMPLE_LOTS + ") p " +
+                    "ON s.ParkingID = p.ParkingID")) {
+                while (rs.next()) {
+                    slotNumbers.add(rs.getString("SlotNumber"));
+                }
+            }
+        }
+        if (parkingIds.isEmpty() || slotNumbers.isEmpty()) {
+            throw new IllegalStateException("The benchmark database has no parking spaces or slots");
+        }
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
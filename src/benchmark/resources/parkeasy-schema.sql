@@ -0,0 +1,82 @@
+-- Base schema of the ParkEasy database, as the repositories expect it
+-- Used by the benchmarks to set up an embedded database. The application adds its own tables
+-- (ID_SEQUENCE, LEDGER_ENTRY, REVENUE_DAILY, ROLLUP_STATE) and columns (PARKING_SLOT.Occupied,
+-- the PARKING_SPACE rating aggregates) and the search indexes on first use.
+
+CREATE TABLE IF NOT EXISTS ADMIN (
+    AdminID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    AdminName VARCHAR(100) NOT NULL,
+    Phone VARCHAR(20),
+    Email VARCHAR(100) NOT NULL UNIQUE,
+    Password VARCHAR(255) NOT NULL,
+    Balance DECIMAL(14,2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS USER (
+    UserID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    UserName VARCHAR(100) NOT NULL,
+    Phone VARCHAR(20),
+    Email VARCHAR(100) NOT NULL UNIQUE,
+    Password VARCHAR(255) NOT NULL,
+    Balance DECIMAL(14,2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS VEHICLE (
+    VehicleID VARCHAR(20) NOT NULL PRIMARY KEY,
+    UserID INT NOT NULL,
+    FOREIGN KEY (UserID) REFERENCES USER (UserID)
+);
+
+CREATE TABLE IF NOT EXISTS PARKING_SPACE (
+    ParkingID VARCHAR(20) NOT NULL PRIMARY KEY,
+    ParkingAddress VARCHAR(255) NOT NULL,
+    CostOfParking DECIMAL(10,2) NOT NULL,
+    NumberOfSlots INT NOT NULL,
+    OpeningTime TIME,
+    ClosingTime TIME,
+    Description TEXT,
+    AdminID INT NOT NULL,
+    FOREIGN KEY (AdminID) REFERENCES ADMIN (AdminID)
+);
+
+CREATE TABLE IF NOT EXISTS PARKING_SLOT (
+    SlotNumber VARCHAR(20) NOT NULL PRIMARY KEY,
+    Availability BOOLEAN NOT NULL DEFAULT TRUE,
+    ParkingID VARCHAR(20) NOT NULL,
+    FOREIGN KEY (ParkingID) REFERENCES PARKING_SPACE (ParkingID)
+);
+
+CREATE TABLE IF NOT EXISTS PARKING_RESERVATION (
+    ReservationID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    StartDate DATE NOT NULL,
+    EndDate DATE NOT NULL,
+    StartTime TIME NOT NULL,
+    EndTime TIME NOT NULL,
+    CreatedAt TIMESTAMP NULL,
+    Status VARCHAR(20) NOT NULL,
+    Fee DECIMAL(10,2) NOT NULL,
+    VehicleID VARCHAR(20) NOT NULL,
+    SlotNumber VARCHAR(20),
+    FOREIGN KEY (VehicleID) REFERENCES VEHICLE (VehicleID),
+    FOREIGN KEY (SlotNumber) REFERENCES PARKING_SLOT (SlotNumber)
+);
+
+CREATE TABLE IF NOT EXISTS TRANSACTION (
+    TransactionID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Amount DECIMAL(10,2) NOT NULL,
+    ReservationID INT NOT NULL,
+    FOREIGN KEY (ReservationID) REFERENCES PARKING_RESERVATION (ReservationID)
+);
+
+CREATE TABLE IF NOT EXISTS PARKING_REVIEW (
+    ReviewID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Rating INT NOT NULL,
+    Comment TEXT,
+    ReviewDate TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP,
+    UserID INT NOT NULL,
+    ParkingID VARCHAR(20) NOT NULL,
+    ReservationID INT,
+    FOREIGN KEY (UserID) REFERENCES USER (UserID),
+    FOREIGN KEY (ParkingID) REFERENCES PARKING_SPACE (ParkingID),
+    FOREIGN KEY (ReservationID) REFERENCES PARKING_RESERVATION (ReservationID)
+);
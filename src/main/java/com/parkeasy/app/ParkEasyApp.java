@@ -1,5 +1,9 @@
 package main.java.com.parkeasy.app;
 
+import main.java.com.parkeasy.service.LedgerSettler;
+import main.java.com.parkeasy.service.ParkingSpaceService;
+import main.java.com.parkeasy.service.ReservationLifecycleScheduler;
+import main.java.com.parkeasy.util.DatabaseConnection;
 import main.java.com.parkeasy.view.auth.LoginView;
 
 import javax.swing.*;
@@ -22,6 +26,24 @@ public class ParkEasyApp {
             System.err.println("Error setting look and feel: " + e.getMessage());
         }
 
+        // Fold queued ledger entries into balances in the background
+        LedgerSettler.start();
+
+        // Start and complete reservations on time, including those that ended while the app was closed
+        ReservationLifecycleScheduler.getInstance().start();
+
+        // Load the parking space search index while the user logs in
+        Thread searchIndexLoader = new Thread(() -> new ParkingSpaceService().initializeSearch(), "search-index-loader");
+        searchIndexLoader.setDaemon(true);
+        searchIndexLoader.start();
+
+        // Settle what is left, then release pooled database connections when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ReservationLifecycleScheduler.getInstance().shutdown();
+            LedgerSettler.shutdown();
+            DatabaseConnection.shutdown();
+        }, "db-pool-shutdown"));
+
         // Use SwingUtilities to ensure UI is created on the Event Dispatch Thread
         SwingUtilities.invokeLater(new Runnable() {
             @Override
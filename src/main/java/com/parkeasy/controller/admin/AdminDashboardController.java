@@ -11,6 +11,8 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -139,6 +141,23 @@ public class AdminDashboardController {
         }
     }
 
+    /**
+     * Get dashboard summary data for admin without blocking the caller
+     *
+     * @param adminId Admin ID
+     * @param sectionListener Receives each summary key and value as it arrives (on a worker thread)
+     * @return Future of the complete summary
+     */
+    public CompletableFuture<Map<String, Object>> getDashboardSummaryAsync(int adminId,
+                                                                          BiConsumer<String, Object> sectionListener) {
+        try {
+            return adminService.getDashboardSummaryAsync(adminId, sectionListener);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving dashboard summary", e);
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+    }
+
 // Include these methods in the AdminDashboardController class
 
     /**
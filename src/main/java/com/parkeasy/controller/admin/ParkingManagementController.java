@@ -2,10 +2,15 @@ package main.java.com.parkeasy.controller.admin;
 
 import main.java.com.parkeasy.model.ParkingSlot;
 import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.repository.ParkingLookupCache;
 import main.java.com.parkeasy.service.AdminService;
+import main.java.com.parkeasy.service.OccupancyCalendar;
+import main.java.com.parkeasy.service.ParkingSearchIndex;
 import main.java.com.parkeasy.service.ParkingSlotService;
 import main.java.com.parkeasy.service.ParkingSpaceService;
+import main.java.com.parkeasy.service.ReservationColumnStore;
 import main.java.com.parkeasy.service.ReservationService;
+import main.java.com.parkeasy.service.SlotAvailabilityIndex;
 import main.java.com.parkeasy.util.DatabaseConnection;
 
 import java.sql.Connection;
@@ -181,6 +186,7 @@ public class ParkingManagementController {
 
             int result = pstmt.executeUpdate();
             System.out.println("Delete operation affected " + result + " rows");
+            ParkingLookupCache.getInstance().invalidateSlot(slotNumber);
 
             return result > 0;
 
@@ -342,20 +348,20 @@ public class ParkingManagementController {
 
             LOGGER.info("Starting slot removal with renumbering for slot: " + slotNumber);
 
-            // 1. Verify the slot exists
-            boolean slotExists = false;
+            // 1. Verify the slot exists and find its parking space
+            String parkingId = null;
             try (PreparedStatement checkStmt = connection.prepareStatement(
-                    "SELECT COUNT(*) FROM PARKING_SLOT WHERE SlotNumber = ?")) {
+                    "SELECT ParkingID FROM PARKING_SLOT WHERE SlotNumber = ?")) {
                 checkStmt.setString(1, slotNumber);
 
                 try (ResultSet rs = checkStmt.executeQuery()) {
                     if (rs.next()) {
-                        slotExists = rs.getInt(1) > 0;
+                        parkingId = rs.getString("ParkingID");
                     }
                 }
             }
 
-            if (!slotExists) {
+            if (parkingId == null) {
                 LOGGER.warning("Slot not found in database: " + slotNumber);
                 return false;
             }
@@ -535,6 +541,17 @@ public class ParkingManagementController {
 
             // 10. Commit the transaction
             connection.commit();
+            // Reservations were moved between slot numbers behind the index's back
+            SlotAvailabilityIndex.getInstance().invalidateAll();
+            OccupancyCalendar.getInstance().invalidateAll();
+            ReservationColumnStore.getInstance().invalidateAll();
+            // Slot numbers and the space's slot count changed as well
+            ParkingLookupCache.getInstance().invalidateAll();
+            // Search results show the slot count too; re-index the space as now stored
+            ParkingSpace updatedSpace = parkingSpaceService.getParkingSpaceById(parkingId);
+            if (updatedSpace != null) {
+                ParkingSearchIndex.getInstance().put(updatedSpace);
+            }
             LOGGER.info("Slot removal and renumbering completed successfully");
             return true;
 
@@ -612,6 +629,7 @@ public class ParkingManagementController {
 
                 if (result > 0) {
                     connection.commit();
+                    ParkingLookupCache.getInstance().invalidateSlot(slotNumber);
                     return true;
                 } else {
                     // If direct delete returned 0, try a select to see if the slot exists
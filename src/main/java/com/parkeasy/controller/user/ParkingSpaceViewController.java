@@ -3,46 +3,37 @@ package main.java.com.parkeasy.controller.user;
 import main.java.com.parkeasy.model.ParkingReview;
 import main.java.com.parkeasy.model.ParkingSlot;
 import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.model.SearchPage;
 import main.java.com.parkeasy.service.ParkingSpaceService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Controller for parking space view operations
  */
 public class ParkingSpaceViewController {
+    private static final Logger LOGGER = Logger.getLogger(ParkingSpaceViewController.class.getName());
+
     private final ParkingSpaceService parkingSpaceService;
 
-    // Current search state for pagination
+    // Current search state for pagination; pages are continued from the cursors of the shown page
     private String currentSearchTerm = "";
+    private String currentSort = SearchPage.SORT_ADDRESS;
+    private SearchPage currentResultPage = SearchPage.empty();
     private int currentPage = 0;
     private final int defaultPageSize = 10;
     private int totalResultsCount = 0;
 
     /**
      * Constructor
+     * Search indexes are initialized once at application startup (see ParkEasyApp).
      */
     public ParkingSpaceViewController() {
         this.parkingSpaceService = new ParkingSpaceService();
-
-        // Initialize search indexes during application startup
-        initializeSearch();
-    }
-
-    /**
-     * Initialize search functionality
-     */
-    private void initializeSearch() {
-        try {
-            // Create necessary indexes for optimized search
-            parkingSpaceService.initializeSearch();
-        } catch (Exception e) {
-            System.err.println("Failed to initialize search: " + e.getMessage());
-        }
     }
 
     /**
@@ -52,9 +43,11 @@ public class ParkingSpaceViewController {
      */
     public List<ParkingSpace> getAllParkingPlots() {
         try {
-            // Reset pagination state
+            // Reset pagination state; the full list is shown on one page
             currentSearchTerm = "";
+            currentSort = SearchPage.SORT_ADDRESS;
             currentPage = 0;
+            showPage(SearchPage.empty());
 
             // Get all parking spaces
             return parkingSpaceService.getAllParkingSpaces();
@@ -72,15 +65,12 @@ public class ParkingSpaceViewController {
      */
     public List<ParkingSpace> searchParkingPlots(String searchTerm) {
         try {
-            // Reset pagination for new search
+            // A new search starts over in address order
             this.currentSearchTerm = searchTerm;
-            this.currentPage = 0;
+            this.currentSort = SearchPage.SORT_ADDRESS;
 
-            // Get count for pagination
-            this.totalResultsCount = parkingSpaceService.countSearchResults(searchTerm);
-
-            // Get first page of results
-            return parkingSpaceService.searchParkingSpaces(searchTerm, currentPage, defaultPageSize);
+            // First page and total count in one request
+            return loadFirstPage();
         } catch (Exception e) {
             System.err.println("Error searching parking plots: " + e.getMessage());
             return new ArrayList<>();
@@ -100,9 +90,15 @@ public class ParkingSpaceViewController {
                 return new ArrayList<>(); // No more pages
             }
 
-            // Increment page and load results
+            // Continue after the last row shown
+            SearchPage page = parkingSpaceService.searchParkingSpacePage(currentSearchTerm, currentSort,
+                    currentResultPage.getLastCursor(), true, defaultPageSize);
+            if (page.isEmpty()) {
+                return new ArrayList<>();
+            }
             currentPage++;
-            return parkingSpaceService.searchParkingSpaces(currentSearchTerm, currentPage, defaultPageSize);
+            showPage(page);
+            return page.getParkingSpaces();
         } catch (Exception e) {
             System.err.println("Error loading next page: " + e.getMessage());
             return new ArrayList<>();
@@ -121,9 +117,15 @@ public class ParkingSpaceViewController {
                 return new ArrayList<>(); // No previous page
             }
 
-            // Decrement page and load results
+            // Continue before the first row shown
+            SearchPage page = parkingSpaceService.searchParkingSpacePage(currentSearchTerm, currentSort,
+                    currentResultPage.getFirstCursor(), false, defaultPageSize);
+            if (page.isEmpty()) {
+                return new ArrayList<>();
+            }
             currentPage--;
-            return parkingSpaceService.searchParkingSpaces(currentSearchTerm, currentPage, defaultPageSize);
+            showPage(page);
+            return page.getParkingSpaces();
         } catch (Exception e) {
             System.err.println("Error loading previous page: " + e.getMessage());
             return new ArrayList<>();
@@ -148,33 +150,41 @@ public class ParkingSpaceViewController {
         return (int) Math.ceil((double) totalResultsCount / defaultPageSize);
     }
 
+    /**
+     * Get the exact number of results of the current search
+     *
+     * @return Number of matching parking spaces
+     */
+    public int getTotalResultsCount() {
+        return totalResultsCount;
+    }
+
+    /**
+     * Get completions for the word being typed into the search field
+     *
+     * @param prefix The start of the word
+     * @return Up to five matching words
+     */
+    public List<String> getSearchSuggestions(String prefix) {
+        try {
+            return parkingSpaceService.getSearchSuggestions(prefix, 5);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting search suggestions", e);
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Sort parking plots by price
+     * Applies to the current search (all parking spaces without one) and returns its first page.
      *
      * @param ascending Whether to sort in ascending order
-     * @return Sorted list of parking spaces
+     * @return First page of the sorted parking spaces
      */
     public List<ParkingSpace> sortParkingPlotsByPrice(boolean ascending) {
         try {
-            List<ParkingSpace> parkingSpaces;
-
-            // Use current search results if available, otherwise get all
-            if (!currentSearchTerm.isEmpty()) {
-                parkingSpaces = parkingSpaceService.searchParkingSpaces(currentSearchTerm, 0, totalResultsCount);
-            } else {
-                parkingSpaces = parkingSpaceService.getAllParkingSpaces();
-            }
-
-            // Sort the spaces by price
-            if (ascending) {
-                return parkingSpaces.stream()
-                        .sorted(Comparator.comparing(ParkingSpace::getCostOfParking))
-                        .collect(Collectors.toList());
-            } else {
-                return parkingSpaces.stream()
-                        .sorted(Comparator.comparing(ParkingSpace::getCostOfParking).reversed())
-                        .collect(Collectors.toList());
-            }
+            currentSort = ascending ? SearchPage.SORT_PRICE_ASC : SearchPage.SORT_PRICE_DESC;
+            return loadFirstPage();
         } catch (Exception e) {
             System.err.println("Error sorting parking plots by price: " + e.getMessage());
             return new ArrayList<>();
@@ -183,45 +193,33 @@ public class ParkingSpaceViewController {
 
     /**
      * Sort parking plots by rating
+     * Applies to the current search (all parking spaces without one) and returns its first page.
      *
-     * @return Sorted list of parking spaces by rating (highest first)
+     * @return First page of the parking spaces by rating (highest first)
      */
     public List<ParkingSpace> sortParkingPlotsByRating() {
         try {
-            // Get all parking IDs sorted by rating
-            List<String> topRatedIDs = parkingSpaceService.getHighestRatedParkingSpaceIds(100);
-
-            if (topRatedIDs.isEmpty()) {
-                return new ArrayList<>();
-            }
-
-            // Get all parking spaces based on current search
-            List<ParkingSpace> parkingSpaces;
-            if (!currentSearchTerm.isEmpty()) {
-                parkingSpaces = parkingSpaceService.searchParkingSpaces(currentSearchTerm, 0, totalResultsCount);
-            } else {
-                parkingSpaces = parkingSpaceService.getAllParkingSpaces();
-            }
-
-            // Create a map for ordering
-            java.util.Map<String, Integer> ratingOrder = new java.util.HashMap<>();
-            for (int i = 0; i < topRatedIDs.size(); i++) {
-                ratingOrder.put(topRatedIDs.get(i), i);
-            }
-
-            // Sort the spaces by their position in the rating order
-            return parkingSpaces.stream()
-                    .sorted(Comparator.comparing(space -> {
-                        // Default to a high value if not in the top rated list
-                        return ratingOrder.getOrDefault(space.getParkingID(), Integer.MAX_VALUE);
-                    }))
-                    .collect(Collectors.toList());
+            currentSort = SearchPage.SORT_RATING;
+            return loadFirstPage();
         } catch (Exception e) {
             System.err.println("Error sorting parking plots by rating: " + e.getMessage());
             return new ArrayList<>();
         }
     }
 
+    private List<ParkingSpace> loadFirstPage() {
+        SearchPage page = parkingSpaceService.searchParkingSpacePage(currentSearchTerm, currentSort, null, true,
+                defaultPageSize);
+        currentPage = 0;
+        showPage(page);
+        return page.getParkingSpaces();
+    }
+
+    private void showPage(SearchPage page) {
+        currentResultPage = page;
+        totalResultsCount = page.getTotalCount();
+    }
+
     /**
      * Get the average rating for a parking space
      *
@@ -255,6 +253,25 @@ public class ParkingSpaceViewController {
         }
     }
 
+    /**
+     * Pick a free slot for the user from the slots found available for a time range
+     *
+     * @param parkingId The ID of the parking space
+     * @param availableSlots Slots returned by getAvailableSlots for the same time range
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return The chosen slot, or null if none of them is free any more
+     */
+    public ParkingSlot allocateSlot(String parkingId, List<ParkingSlot> availableSlots,
+                                    LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        try {
+            return parkingSpaceService.allocateSlot(parkingId, availableSlots, startDateTime, endDateTime);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error allocating a slot in parking space: " + parkingId, e);
+            return null;
+        }
+    }
+
     /**
      * Get reviews for a specific parking space
      *
@@ -577,9 +577,8 @@ public class ReservationController {
             boolean updated = reservationService.updateReservation(reservation);
 
             if (updated) {
-                // Update parking slot availability to make it available again
-                reservationService.updateSlotAvailability(reservation.getSlotNumber(), true);
-
+                // The lifecycle scheduler clears the slot's Occupied flag; Availability is the admin's
+                // switch and stays as it is
                 return Map.of(
                         "success", true,
                         "message", "Reservation completed successfully",
@@ -117,9 +117,7 @@ public class ReviewController {
             boolean created = reviewService.createReview(review, parkingId);
 
             if (created) {
-                // Update parking space average rating
-                updateParkingSpaceRating(parkingId);
-
+                // The parking space's rating aggregates were updated with the review
                 Map<String, Object> result = new HashMap<>();
                 result.put("success", true);
                 result.put("message", "Review submitted successfully");
@@ -240,15 +238,6 @@ public class ReviewController {
             boolean updated = reviewService.updateReview(review);
 
             if (updated) {
-                // Get the parking ID for this reservation
-                Reservation reservation = reservationService.getReservationById(review.getReservationID());
-                if (reservation != null) {
-                    String parkingId = reservationService.getParkingIdBySlotNumber(reservation.getSlotNumber());
-                    if (parkingId != null) {
-                        updateParkingSpaceRating(parkingId);
-                    }
-                }
-
                 return Map.of(
                         "success", true,
                         "message", "Review updated successfully"
@@ -267,22 +256,4 @@ public class ReviewController {
             );
         }
     }
-
-    /**
-     * Helper method to update parking space rating
-     *
-     * @param parkingId The ID of the parking space
-     */
-    private void updateParkingSpaceRating(String parkingId) {
-        try {
-            // Calculate new average rating
-            double averageRating = reviewService.calculateAverageRatingForParking(parkingId);
-
-            // Update parking space rating
-            reviewService.updateParkingSpaceRating(parkingId, averageRating);
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error updating parking space rating", e);
-            // We don't want to fail the review submission if this fails
-        }
-    }
 }
\ No newline at end of file
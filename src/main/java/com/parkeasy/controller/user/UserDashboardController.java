@@ -14,7 +14,6 @@ import java.sql.Timestamp;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -72,28 +71,20 @@ public class UserDashboardController {
             summary.put("vehicleCount", vehicles.size());
             summary.put("vehicles", vehicles);
 
-// Get active reservations
-            List<Map<String, Object>> activeReservations = new ArrayList<>();
-            for (Vehicle vehicle : vehicles) {
-                List<Reservation> vehicleReservations = reservationService.getReservationsByVehicleId(vehicle.getVehicleID());
-
-                for (Reservation reservation : vehicleReservations) {
-                    if (reservation.getStatus().equals(Constants.RESERVATION_PAID) &&
-                            isReservationActive(reservation)) {
-
-                        Map<String, Object> resDetails = getReservationWithDetails(reservation, vehicle);
-                        if (resDetails != null) {
-                            activeReservations.add(resDetails);
-                        }
+            // Get active reservations: one query over all vehicles, already joined with the parking
+            // space and ordered by start time (soonest first)
+            Map<String, Vehicle> vehiclesById = indexById(vehicles);
+            List<Map<String, Object>> sortedActiveReservations = new ArrayList<>();
+            for (Reservation reservation : reservationService.getOpenReservationsForUser(userId)) {
+                if (reservation.getStatus().equals(Constants.RESERVATION_PAID)) {
+                    Map<String, Object> resDetails = getReservationWithDetails(reservation,
+                            vehiclesById.get(reservation.getVehicleID()));
+                    if (resDetails != null) {
+                        sortedActiveReservations.add(resDetails);
                     }
                 }
             }
 
-            // Sort active reservations by start time (soonest first)
-            List<Map<String, Object>> sortedActiveReservations = activeReservations.stream()
-                    .sorted(Comparator.comparing(map -> (LocalDateTime)map.get("startDateTime")))
-                    .collect(Collectors.toList());
-
             summary.put("activeReservations", sortedActiveReservations);
             summary.put("activeReservationCount", sortedActiveReservations.size());
 
@@ -193,11 +184,12 @@ public class UserDashboardController {
         try {
             List<Map<String, Object>> activities = new ArrayList<>();
 
-            // Get recent reservations
+            // Get recent reservations, joined with their parking space, and the user's vehicles once
             List<Reservation> recentReservations = reservationService.getRecentReservationsForUser(userId, limit);
+            Map<String, Vehicle> vehiclesById = indexById(vehicleService.getVehiclesByUserId(userId));
 
             for (Reservation reservation : recentReservations) {
-                Vehicle vehicle = vehicleService.getVehicleById(reservation.getVehicleID());
+                Vehicle vehicle = vehiclesById.get(reservation.getVehicleID());
 
                 if (vehicle != null) {
                     Map<String, Object> resDetails = getReservationWithDetails(reservation, vehicle);
@@ -232,15 +224,14 @@ public class UserDashboardController {
     }
 
     /**
-     * Helper method to check if a reservation is active
+     * Helper method to look up vehicles by ID
      */
-    private boolean isReservationActive(Reservation reservation) {
-        LocalDateTime endDateTime = LocalDateTime.of(
-                reservation.getEndDate().toLocalDate(),
-                reservation.getEndTime().toLocalTime()
-        );
-
-        return endDateTime.isAfter(LocalDateTime.now());
+    private Map<String, Vehicle> indexById(List<Vehicle> vehicles) {
+        Map<String, Vehicle> vehiclesById = new HashMap<>();
+        for (Vehicle vehicle : vehicles) {
+            vehiclesById.put(vehicle.getVehicleID(), vehicle);
+        }
+        return vehiclesById;
     }
 
     /**
@@ -251,20 +242,29 @@ public class UserDashboardController {
             // Get slot and parking space details
             String slotNumber = reservation.getSlotNumber();
             String parkingAddress = "Unknown";
-            String parkingId = null;
-
-            try {
-                String parkingSpaceId = reservationService.getParkingIdBySlotNumber(slotNumber);
-                parkingId = parkingSpaceId;
+            String parkingId = reservation.getParkingID();
+            Float hourlyRate = reservation.getHourlyRate();
 
-                if (parkingSpaceId != null) {
-                    ParkingSpace space = parkingSpaceService.getParkingSpaceById(parkingSpaceId);
-                    if (space != null) {
-                        parkingAddress = space.getParkingAddress();
+            if (parkingId != null) {
+                // Loaded together with the reservation
+                if (reservation.getParkingAddress() != null) {
+                    parkingAddress = reservation.getParkingAddress();
+                }
+            } else {
+                try {
+                    String parkingSpaceId = reservationService.getParkingIdBySlotNumber(slotNumber);
+                    parkingId = parkingSpaceId;
+
+                    if (parkingSpaceId != null) {
+                        ParkingSpace space = parkingSpaceService.getParkingSpaceById(parkingSpaceId);
+                        if (space != null) {
+                            parkingAddress = space.getParkingAddress();
+                            hourlyRate = space.getCostOfParking();
+                        }
                     }
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Error retrieving parking details for reservation: " + reservation.getReservationID(), e);
                 }
-            } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Error retrieving parking details for reservation: " + reservation.getReservationID(), e);
             }
 
             LocalDateTime startDateTime = LocalDateTime.of(
@@ -283,6 +283,7 @@ public class UserDashboardController {
             result.put("slotNumber", slotNumber);
             result.put("parkingAddress", parkingAddress);
             result.put("parkingId", parkingId != null ? parkingId : "Unknown");
+            result.put("hourlyRate", hourlyRate != null ? hourlyRate : 0.0f);
             result.put("startDateTime", startDateTime);
             result.put("endDateTime", endDateTime);
             result.put("status", reservation.getStatus());
@@ -202,23 +202,12 @@ public class UserProfileController {
                 );
             }
 
-            // Get current user data
-            User user = userService.getUserById(userId);
-            if (user == null) {
-                return Map.of(
-                        "success", false,
-                        "message", "User not found"
-                );
-            }
-
-            // Update balance
-            float newBalance = (float) (user.getBalance() + amount);
-            user.setBalance(newBalance);
-
-            // Save updated user
-            boolean success = userService.updateUser(user);
+            // Update balance with an atomic delta
+            boolean success = userService.addFunds(userId, amount);
 
             if (success) {
+                User user = userService.getUserById(userId);
+                float newBalance = user != null ? user.getBalance() : 0.0F;
                 return Map.of(
                         "success", true,
                         "message", "Funds added successfully",
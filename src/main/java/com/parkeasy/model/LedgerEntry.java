@@ -0,0 +1,139 @@
+package main.java.com.parkeasy.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Model class representing one side of a money movement in the append-only ledger
+ * Every posting writes entries whose amounts sum to zero (e.g. a user debit and an admin credit).
+ */
+public class LedgerEntry {
+    // Account types
+    public static final String ACCOUNT_USER = "USER";
+    public static final String ACCOUNT_ADMIN = "ADMIN";
+    // Money entering or leaving the system (top-ups, withdrawals, opening balances)
+    public static final String ACCOUNT_EXTERNAL = "EXTERNAL";
+
+    // Entry types
+    public static final String TYPE_OPENING = "OPENING";
+    public static final String TYPE_PAYMENT = "PAYMENT";
+    public static final String TYPE_TOP_UP = "TOP_UP";
+    public static final String TYPE_WITHDRAWAL = "WITHDRAWAL";
+
+    // Primary key
+    private long entryID;
+
+    // Other attributes
+    private String accountType;
+    private int accountID;
+    private float amount;
+    private String entryType;
+    private Timestamp createdAt;
+    // true once the amount is reflected in the account's Balance column
+    private boolean settled;
+
+    // Foreign key (null for movements not tied to a reservation)
+    private Integer reservationID;
+
+    /**
+     * Default constructor
+     */
+    public LedgerEntry() {
+    }
+
+    /**
+     * Constructor for a new entry
+     *
+     * @param accountType USER, ADMIN or EXTERNAL
+     * @param accountID The user or admin ID (0 for EXTERNAL)
+     * @param amount Signed amount; negative debits the account
+     * @param entryType The kind of movement
+     * @param reservationID The associated reservation ID, or null
+     * @param settled Whether the balance has already been updated
+     */
+    public LedgerEntry(String accountType, int accountID, float amount, String entryType,
+                       Integer reservationID, boolean settled) {
+        this.accountType = accountType;
+        this.accountID = accountID;
+        this.amount = amount;
+        this.entryType = entryType;
+        this.reservationID = reservationID;
+        this.settled = settled;
+    }
+
+    public long getEntryID() {
+        return entryID;
+    }
+
+    public void setEntryID(long entryID) {
+        this.entryID = entryID;
+    }
+
+    public String getAccountType() {
+        return accountType;
+    }
+
+    public void setAccountType(String accountType) {
+        this.accountType = accountType;
+    }
+
+    public int getAccountID() {
+        return accountID;
+    }
+
+    public void setAccountID(int accountID) {
+        this.accountID = accountID;
+    }
+
+    public float getAmount() {
+        return amount;
+    }
+
+    public void setAmount(float amount) {
+        this.amount = amount;
+    }
+
+    public String getEntryType() {
+        return entryType;
+    }
+
+    public void setEntryType(String entryType) {
+        this.entryType = entryType;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public void setSettled(boolean settled) {
+        this.settled = settled;
+    }
+
+    public Integer getReservationID() {
+        return reservationID;
+    }
+
+    public void setReservationID(Integer reservationID) {
+        this.reservationID = reservationID;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerEntry{" +
+                "entryID=" + entryID +
+                ", accountType='" + accountType + '\'' +
+                ", accountID=" + accountID +
+                ", amount=" + amount +
+                ", entryType='" + entryType + '\'' +
+                ", reservationID=" + reservationID +
+                ", settled=" + settled +
+                '}';
+    }
+}
@@ -5,6 +5,11 @@ import java.sql.Time;
 import java.sql.Timestamp;
 
 public class Reservation {
+    /**
+     * Value of the epoch-second fields while the date or time they derive from is not set
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
     // primary key
     private int reservationID;
     // other attributes
@@ -15,9 +20,17 @@ public class Reservation {
     private Timestamp createdAt;
     private String status;
     private Float fee; // Added fee field
+    // Start and end as wall-clock epoch seconds (the local date-time read as UTC), kept in step with
+    // the date and time fields so that comparisons need no LocalDateTime per reservation
+    private long startEpochSecond = NO_TIME;
+    private long endEpochSecond = NO_TIME;
     // foreign keys
     private String vehicleID;
     private String slotNumber;
+    // Parking space of the slot, only filled by queries that join PARKING_SLOT and PARKING_SPACE
+    private String parkingID;
+    private String parkingAddress;
+    private Float hourlyRate;
 
     /**
      * Default no-argument constructor
@@ -46,6 +59,8 @@ public class Reservation {
         this.endDate = endDate;
         this.startTime = startTime;
         this.endTime = endTime;
+        this.startEpochSecond = toEpochSecond(startDate, startTime);
+        this.endEpochSecond = toEpochSecond(endDate, endTime);
         this.createdAt = createdAt;
         this.status = status;
         this.fee = fee;
@@ -67,6 +82,7 @@ public class Reservation {
 
     public void setStartDate(Date startDate) {
         this.startDate = startDate;
+        this.startEpochSecond = toEpochSecond(startDate, startTime);
     }
 
     public Date getEndDate() {
@@ -75,6 +91,7 @@ public class Reservation {
 
     public void setEndDate(Date endDate) {
         this.endDate = endDate;
+        this.endEpochSecond = toEpochSecond(endDate, endTime);
     }
 
     public Time getStartTime() {
@@ -83,6 +100,7 @@ public class Reservation {
 
     public void setStartTime(Time startTime) {
         this.startTime = startTime;
+        this.startEpochSecond = toEpochSecond(startDate, startTime);
     }
 
     public Time getEndTime() {
@@ -91,6 +109,7 @@ public class Reservation {
 
     public void setEndTime(Time endTime) {
         this.endTime = endTime;
+        this.endEpochSecond = toEpochSecond(endDate, endTime);
     }
 
     public Timestamp getCreatedAt() {
@@ -133,6 +152,93 @@ public class Reservation {
         this.slotNumber = slotNumber;
     }
 
+    /**
+     * Get the start as wall-clock epoch seconds
+     *
+     * @return Seconds since 1970-01-01T00:00 of the start date and time, or NO_TIME if either is unset
+     */
+    public long getStartEpochSecond() {
+        return startEpochSecond;
+    }
+
+    /**
+     * Get the end as wall-clock epoch seconds
+     *
+     * @return Seconds since 1970-01-01T00:00 of the end date and time, or NO_TIME if either is unset
+     */
+    public long getEndEpochSecond() {
+        return endEpochSecond;
+    }
+
+    /**
+     * Check whether the reservation overlaps a period, with inclusive bounds: touching periods overlap
+     *
+     * @param fromEpochSecond Start of the period in wall-clock epoch seconds
+     * @param toEpochSecond End of the period in wall-clock epoch seconds
+     * @return true if both start and end are set and the periods overlap
+     */
+    public boolean overlaps(long fromEpochSecond, long toEpochSecond) {
+        return startEpochSecond != NO_TIME && endEpochSecond != NO_TIME
+                && startEpochSecond <= toEpochSecond && fromEpochSecond <= endEpochSecond;
+    }
+
+    /**
+     * Check whether an instant lies strictly between start and end
+     *
+     * @param epochSecond The instant in wall-clock epoch seconds
+     * @return true if both start and end are set and the reservation is running at that instant
+     */
+    public boolean isInProgressAt(long epochSecond) {
+        return startEpochSecond != NO_TIME && endEpochSecond != NO_TIME
+                && startEpochSecond < epochSecond && epochSecond < endEpochSecond;
+    }
+
+    /**
+     * Get the parking space of the reserved slot
+     *
+     * @return The parking ID, or null if not loaded
+     */
+    public String getParkingID() {
+        return parkingID;
+    }
+
+    public void setParkingID(String parkingID) {
+        this.parkingID = parkingID;
+    }
+
+    /**
+     * Get the address of the parking space
+     *
+     * @return The address, or null if not loaded
+     */
+    public String getParkingAddress() {
+        return parkingAddress;
+    }
+
+    public void setParkingAddress(String parkingAddress) {
+        this.parkingAddress = parkingAddress;
+    }
+
+    /**
+     * Get the hourly rate of the parking space
+     *
+     * @return The hourly rate, or null if not loaded
+     */
+    public Float getHourlyRate() {
+        return hourlyRate;
+    }
+
+    public void setHourlyRate(Float hourlyRate) {
+        this.hourlyRate = hourlyRate;
+    }
+
+    private static long toEpochSecond(Date date, Time time) {
+        if (date == null || time == null) {
+            return NO_TIME;
+        }
+        return date.toLocalDate().toEpochDay() * 86_400L + time.toLocalTime().toSecondOfDay();
+    }
+
     @Override
     public String toString() {
         return "Reservation{" +
@@ -0,0 +1,95 @@
+package main.java.com.parkeasy.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Model class for one page of parking space search results together with the total number of matches
+ * Pages are addressed by keyset cursors instead of offsets: the next page is the rows sorted after
+ * the last cursor, the previous page the rows sorted before the first cursor. Rows are ordered by
+ * the sort key, then by ParkingID, so the order is total and no row is skipped or repeated.
+ */
+public class SearchPage {
+    // Sort orders
+    public static final String SORT_ADDRESS = "ADDRESS";
+    public static final String SORT_PRICE_ASC = "PRICE_ASC";
+    public static final String SORT_PRICE_DESC = "PRICE_DESC";
+    // Highest average rating first
+    public static final String SORT_RATING = "RATING";
+
+    private final List<ParkingSpace> parkingSpaces;
+    private final int totalCount;
+    private final Cursor firstCursor;
+    private final Cursor lastCursor;
+
+    /**
+     * Constructor
+     *
+     * @param parkingSpaces The parking spaces on this page, in sort order
+     * @param totalCount Number of parking spaces matching the search on all pages
+     * @param firstCursor Position of the first row, or null if the page is empty
+     * @param lastCursor Position of the last row, or null if the page is empty
+     */
+    public SearchPage(List<ParkingSpace> parkingSpaces, int totalCount, Cursor firstCursor, Cursor lastCursor) {
+        this.parkingSpaces = parkingSpaces;
+        this.totalCount = totalCount;
+        this.firstCursor = firstCursor;
+        this.lastCursor = lastCursor;
+    }
+
+    /**
+     * Create an empty page
+     *
+     * @return A page without rows and a total of 0
+     */
+    public static SearchPage empty() {
+        return new SearchPage(new ArrayList<>(), 0, null, null);
+    }
+
+    public List<ParkingSpace> getParkingSpaces() {
+        return parkingSpaces;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public Cursor getFirstCursor() {
+        return firstCursor;
+    }
+
+    public Cursor getLastCursor() {
+        return lastCursor;
+    }
+
+    public boolean isEmpty() {
+        return parkingSpaces.isEmpty();
+    }
+
+    /**
+     * Position of a row in the sort order: its sort key value and its ID
+     */
+    public static final class Cursor {
+        // String address, or Float price / average rating, depending on the sort
+        private final Object sortValue;
+        private final String parkingID;
+
+        public Cursor(Object sortValue, String parkingID) {
+            this.sortValue = sortValue;
+            this.parkingID = parkingID;
+        }
+
+        public Object getSortValue() {
+            return sortValue;
+        }
+
+        public String getParkingID() {
+            return parkingID;
+        }
+
+        @Override
+        public String toString() {
+            return "Cursor{sortValue=" + sortValue + ", parkingID='" + parkingID + "'}";
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package main.java.com.parkeasy.model;
 
+import java.sql.Timestamp;
+
 /**
  * Model class representing a financial transaction in the system
  */
@@ -13,6 +15,11 @@ public class Transaction {
     // Foreign key
     private int reservationID;
     
+    // Reservation dates, only filled by queries that join PARKING_RESERVATION
+    private Timestamp reservationCreatedAt;
+    private Timestamp reservationStart;
+    private Timestamp reservationEnd;
+    
     /**
      * Default constructor
      */
@@ -86,6 +93,60 @@ public class Transaction {
         this.reservationID = reservationID;
     }
     
+    /**
+     * Get the creation time of the associated reservation
+     *
+     * @return The reservation creation time, or null if not loaded
+     */
+    public Timestamp getReservationCreatedAt() {
+        return reservationCreatedAt;
+    }
+    
+    /**
+     * Set the creation time of the associated reservation
+     *
+     * @param reservationCreatedAt The reservation creation time
+     */
+    public void setReservationCreatedAt(Timestamp reservationCreatedAt) {
+        this.reservationCreatedAt = reservationCreatedAt;
+    }
+    
+    /**
+     * Get the start of the associated reservation
+     *
+     * @return The reservation start, or null if not loaded
+     */
+    public Timestamp getReservationStart() {
+        return reservationStart;
+    }
+    
+    /**
+     * Set the start of the associated reservation
+     *
+     * @param reservationStart The reservation start
+     */
+    public void setReservationStart(Timestamp reservationStart) {
+        this.reservationStart = reservationStart;
+    }
+    
+    /**
+     * Get the end of the associated reservation
+     *
+     * @return The reservation end, or null if not loaded
+     */
+    public Timestamp getReservationEnd() {
+        return reservationEnd;
+    }
+    
+    /**
+     * Set the end of the associated reservation
+     *
+     * @param reservationEnd The reservation end
+     */
+    public void setReservationEnd(Timestamp reservationEnd) {
+        this.reservationEnd = reservationEnd;
+    }
+    
     /**
      * String representation of the Transaction object
      */
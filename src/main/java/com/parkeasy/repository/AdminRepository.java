@@ -80,6 +80,26 @@ public class AdminRepository {
         }
     }
 
+    /**
+     * Adds an amount to an admin's balance as part of a caller-managed transaction
+     *
+     * @param connection Connection with the open transaction
+     * @param adminId Admin ID
+     * @param amount Amount to add to balance (use negative for deduction)
+     * @return true if successful, false otherwise
+     * @throws SQLException if a database error occurs
+     */
+    public boolean updateBalance(Connection connection, int adminId, float amount) throws SQLException {
+        String sql = "UPDATE ADMIN SET Balance = Balance + ? WHERE AdminID = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setFloat(1, amount);
+            pstmt.setInt(2, adminId);
+
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
     /**
      * Gets an admin by ID
      *
@@ -306,6 +326,7 @@ public class AdminRepository {
         admin.setPhone(rs.getString("Phone"));
         admin.setEmail(rs.getString("Email"));
         admin.setPassword(rs.getString("Password"));
+        admin.setBalance(rs.getFloat("Balance"));
         return admin;
     }
 }
\ No newline at end of file
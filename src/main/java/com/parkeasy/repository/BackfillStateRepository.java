@@ -0,0 +1,66 @@
+package main.java.com.parkeasy.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Repository for the ROLLUP_STATE table, which records which one-time backfills have completed
+ * A backfill writes its row with {@link #record} in the same transaction as the data it fills in,
+ * so the row exists exactly when the backfill committed. Callers run the backfill again for as
+ * long as {@link #isRecorded} is false, which repairs one cut short by an error or a crash.
+ */
+public class BackfillStateRepository {
+    private static final String TABLE_NAME = "ROLLUP_STATE";
+
+    /**
+     * Create the state table if it does not exist
+     * DDL commits implicitly, so call this before opening the backfill's transaction.
+     *
+     * @param connection Connection in autocommit mode
+     * @throws SQLException if a database error occurs
+     */
+    public void ensureTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+                    "RollupName VARCHAR(64) NOT NULL PRIMARY KEY, " +
+                    "BackfilledAt TIMESTAMP NOT NULL)");
+        }
+    }
+
+    /**
+     * Check whether a backfill has completed
+     *
+     * @param connection Connection to use
+     * @param name Name of the backfill
+     * @return true if the backfill's row exists
+     * @throws SQLException if a database error occurs
+     */
+    public boolean isRecorded(Connection connection, String name) throws SQLException {
+        try (PreparedStatement checkStatement = connection.prepareStatement(
+                "SELECT 1 FROM " + TABLE_NAME + " WHERE RollupName = ?")) {
+            checkStatement.setString(1, name);
+            try (ResultSet rs = checkStatement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Record that a backfill has completed, as part of the backfill's transaction
+     *
+     * @param connection Connection with the open transaction
+     * @param name Name of the backfill
+     * @throws SQLException if a database error occurs
+     */
+    public void record(Connection connection, String name) throws SQLException {
+        try (PreparedStatement stateStatement = connection.prepareStatement(
+                "INSERT INTO " + TABLE_NAME + " (RollupName, BackfilledAt) VALUES (?, NOW()) " +
+                        "ON DUPLICATE KEY UPDATE BackfilledAt = VALUES(BackfilledAt)")) {
+            stateStatement.setString(1, name);
+            stateStatement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package main.java.com.parkeasy.repository;
+
+import java.sql.SQLException;
+
+/**
+ * Source of unique primary keys for tables whose IDs are assigned by the application
+ */
+public interface IdAllocator {
+
+    /**
+     * Get the next unused ID
+     *
+     * @return A new unique ID
+     * @throws SQLException if a new block of IDs could not be reserved
+     */
+    int nextId() throws SQLException;
+}
@@ -0,0 +1,272 @@
+package main.java.com.parkeasy.repository;
+
+import main.java.com.parkeasy.model.LedgerEntry;
+import main.java.com.parkeasy.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Repository for the append-only LEDGER_ENTRY table
+ * Entries are never updated except for the Settled flag, which the settler flips once the
+ * amount has been folded into USER.Balance / ADMIN.Balance.
+ */
+public class LedgerRepository {
+    private static final Logger LOGGER = Logger.getLogger(LedgerRepository.class.getName());
+    private static final String TABLE_NAME = "LEDGER_ENTRY";
+
+    private static volatile boolean tableReady;
+
+    // Name of the opening-balance backfill in ROLLUP_STATE
+    static final String OPENING_BALANCES = "LEDGER_ENTRY opening balances";
+
+    private final BackfillStateRepository backfillStateRepository = new BackfillStateRepository();
+
+    /**
+     * Create the ledger table on first use
+     * Runs on its own connection: DDL commits implicitly in MySQL, so it must never run inside
+     * a caller's transaction. Call this before starting a transaction that appends entries.
+     */
+    public void ensureTable() {
+        if (tableReady) {
+            return;
+        }
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            ensureTable(connection);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error creating ledger table", e);
+        }
+    }
+
+    /**
+     * Create the ledger table on first use and record the opening balances
+     * The current USER and ADMIN balances are recorded as settled opening entries so that every
+     * balance equals the sum of its settled entries from then on. Whether that has happened is
+     * recorded in ROLLUP_STATE, in the same transaction as both sets of entries; until the record
+     * exists the table does not count as ready and the next call tries again.
+     *
+     * @param connection Connection to use (must be in autocommit mode)
+     * @throws SQLException if a database error occurs
+     */
+    private void ensureTable(Connection connection) throws SQLException {
+        if (tableReady) {
+            return;
+        }
+        synchronized (LedgerRepository.class) {
+            if (tableReady) {
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+                        "EntryID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                        "AccountType VARCHAR(16) NOT NULL, " +
+                        "AccountID INT NOT NULL, " +
+                        "Amount DECIMAL(14,2) NOT NULL, " +
+                        "EntryType VARCHAR(16) NOT NULL, " +
+                        "ReservationID INT NULL, " +
+                        "CreatedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                        "Settled BOOLEAN NOT NULL DEFAULT FALSE, " +
+                        "INDEX idx_ledger_pending (Settled, EntryID), " +
+                        "INDEX idx_ledger_account (AccountType, AccountID), " +
+                        "INDEX idx_ledger_reservation (ReservationID))");
+            }
+            backfillStateRepository.ensureTable(connection);
+
+            if (!backfillStateRepository.isRecorded(connection, OPENING_BALANCES)) {
+                recordOpeningBalances(connection);
+            }
+            tableReady = true;
+        }
+    }
+
+    /**
+     * Record the opening entries of both account types and the completion marker in one transaction
+     * An account type that already has opening entries is skipped. That covers ledgers created
+     * before the marker existed. An opening entry is the balance minus the account's settled
+     * entries, so entries appended after an earlier, interrupted attempt are not counted twice.
+     */
+    private void recordOpeningBalances(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            int users = statement.executeUpdate(openingBalancesSql(LedgerEntry.ACCOUNT_USER, "USER", "UserID"));
+            int admins = statement.executeUpdate(openingBalancesSql(LedgerEntry.ACCOUNT_ADMIN, "ADMIN", "AdminID"));
+            backfillStateRepository.record(connection, OPENING_BALANCES);
+            connection.commit();
+            LOGGER.log(Level.INFO, "Recorded opening balances in " + TABLE_NAME + " for {0} users and {1} admins",
+                    new Object[]{users, admins});
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static String openingBalancesSql(String accountType, String accountTable, String idColumn) {
+        String opening = "a.Balance - COALESCE(SUM(l.Amount), 0)";
+        return "INSERT INTO " + TABLE_NAME + " (AccountType, AccountID, Amount, EntryType, Settled) " +
+                "SELECT '" + accountType + "', a." + idColumn + ", " + opening + ", '" +
+                LedgerEntry.TYPE_OPENING + "', TRUE FROM " + accountTable + " a " +
+                "LEFT JOIN " + TABLE_NAME + " l ON l.AccountType = '" + accountType + "' " +
+                "AND l.AccountID = a." + idColumn + " AND l.Settled = TRUE " +
+                "WHERE NOT EXISTS (SELECT 1 FROM " + TABLE_NAME + " o WHERE o.AccountType = '" + accountType +
+                "' AND o.EntryType = '" + LedgerEntry.TYPE_OPENING + "') " +
+                "GROUP BY a." + idColumn + ", a.Balance HAVING " + opening + " <> 0";
+    }
+
+    /**
+     * Append entries in one JDBC batch as part of a caller-managed transaction
+     *
+     * @param connection Connection with the open transaction
+     * @param entries Entries to append
+     * @return true if every entry was inserted
+     * @throws SQLException if a database error occurs
+     */
+    public boolean appendEntries(Connection connection, List<LedgerEntry> entries) throws SQLException {
+        if (entries.isEmpty()) {
+            return true;
+        }
+        String sql = "INSERT INTO " + TABLE_NAME +
+                " (AccountType, AccountID, Amount, EntryType, ReservationID, CreatedAt, Settled) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            for (LedgerEntry entry : entries) {
+                preparedStatement.setString(1, entry.getAccountType());
+                preparedStatement.setInt(2, entry.getAccountID());
+                preparedStatement.setFloat(3, entry.getAmount());
+                preparedStatement.setString(4, entry.getEntryType());
+                if (entry.getReservationID() != null) {
+                    preparedStatement.setInt(5, entry.getReservationID());
+                } else {
+                    preparedStatement.setNull(5, Types.INTEGER);
+                }
+                preparedStatement.setTimestamp(6, entry.getCreatedAt() != null ? entry.getCreatedAt() : now);
+                preparedStatement.setBoolean(7, entry.isSettled());
+                preparedStatement.addBatch();
+            }
+            for (int count : preparedStatement.executeBatch()) {
+                if (count == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Lock the oldest unsettled entries for settlement
+     * SKIP LOCKED lets several application instances settle side by side without waiting on each other.
+     *
+     * @param connection Connection with the open transaction
+     * @param limit Maximum number of entries to fetch
+     * @return The locked entries, oldest first
+     * @throws SQLException if a database error occurs
+     */
+    public List<LedgerEntry> lockUnsettledEntries(Connection connection, int limit) throws SQLException {
+        List<LedgerEntry> entries = new ArrayList<>();
+        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE Settled = FALSE " +
+                "ORDER BY EntryID LIMIT ? FOR UPDATE SKIP LOCKED";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    entries.add(extractEntryFromResultSet(resultSet));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Mark entries as settled in one batch
+     *
+     * @param connection Connection with the open transaction
+     * @param entries Entries whose amounts were applied to balances
+     * @throws SQLException if a database error occurs
+     */
+    public void markSettled(Connection connection, List<LedgerEntry> entries) throws SQLException {
+        String sql = "UPDATE " + TABLE_NAME + " SET Settled = TRUE WHERE EntryID = ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            for (LedgerEntry entry : entries) {
+                preparedStatement.setLong(1, entry.getEntryID());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        }
+    }
+
+    /**
+     * Sum the settled entries per account of one type
+     *
+     * @param accountType USER or ADMIN
+     * @return Map of account ID to the sum of its settled entries
+     */
+    public Map<Integer, Double> getSettledTotals(String accountType) {
+        Map<Integer, Double> totals = new HashMap<>();
+        String sql = "SELECT AccountID, SUM(Amount) FROM " + TABLE_NAME +
+                " WHERE AccountType = ? AND Settled = TRUE GROUP BY AccountID";
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            ensureTable(connection);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setString(1, accountType);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        totals.put(resultSet.getInt(1), resultSet.getDouble(2));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error summing ledger entries for " + accountType, e);
+        }
+        return totals;
+    }
+
+    /**
+     * Find reservations whose payment entries do not net to zero
+     *
+     * @return Map of reservation ID to the non-zero net amount
+     */
+    public Map<Integer, Double> getUnbalancedReservations() {
+        Map<Integer, Double> unbalanced = new HashMap<>();
+        String sql = "SELECT ReservationID, SUM(Amount) FROM " + TABLE_NAME +
+                " WHERE ReservationID IS NOT NULL GROUP BY ReservationID HAVING ABS(SUM(Amount)) >= 0.01";
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            ensureTable(connection);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql);
+                 ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    unbalanced.put(resultSet.getInt(1), resultSet.getDouble(2));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error checking ledger postings", e);
+        }
+        return unbalanced;
+    }
+
+    private LedgerEntry extractEntryFromResultSet(ResultSet resultSet) throws SQLException {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setEntryID(resultSet.getLong("EntryID"));
+        entry.setAccountType(resultSet.getString("AccountType"));
+        entry.setAccountID(resultSet.getInt("AccountID"));
+        entry.setAmount(resultSet.getFloat("Amount"));
+        entry.setEntryType(resultSet.getString("EntryType"));
+        int reservationId = resultSet.getInt("ReservationID");
+        entry.setReservationID(resultSet.wasNull() ? null : reservationId);
+        entry.setCreatedAt(resultSet.getTimestamp("CreatedAt"));
+        entry.setSettled(resultSet.getBoolean("Settled"));
+        return entry;
+    }
+}
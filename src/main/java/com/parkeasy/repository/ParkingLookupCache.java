@@ -0,0 +1,123 @@
+package main.java.com.parkeasy.repository;
+
+import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.util.AppConfig;
+import main.java.com.parkeasy.util.TtlCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for the near-static parking lookups made for almost every reservation row:
+ * parking space by ID and parking ID by slot number.
+ * Entries expire after a configurable time so that changes made outside this application are
+ * picked up eventually; changes made through the application invalidate them explicitly.
+ * Parking spaces are handed out as copies because callers edit them in place before saving.
+ */
+public class ParkingLookupCache {
+    private static final ParkingLookupCache INSTANCE = new ParkingLookupCache(
+            AppConfig.getInt("cache.parking.maxEntries", 1000),
+            AppConfig.getInt("cache.slot.maxEntries", 10000),
+            AppConfig.getLong("cache.parking.ttlMillis", 300000L));
+
+    private final TtlCache<String, ParkingSpace> parkingSpaces;
+    private final TtlCache<String, String> parkingIdBySlot;
+
+    /**
+     * Create a cache
+     *
+     * @param maxParkingSpaces Maximum number of parking spaces kept
+     * @param maxSlots Maximum number of slot to parking ID mappings kept
+     * @param ttlMillis How long an entry stays valid
+     */
+    public ParkingLookupCache(int maxParkingSpaces, int maxSlots, long ttlMillis) {
+        this.parkingSpaces = new TtlCache<>("parkingSpace", maxParkingSpaces, ttlMillis);
+        this.parkingIdBySlot = new TtlCache<>("slotParkingId", maxSlots, ttlMillis);
+    }
+
+    /**
+     * Get the application-wide cache shared by all repositories
+     *
+     * @return The shared cache
+     */
+    public static ParkingLookupCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get a parking space, loading it on a miss
+     *
+     * @param parkingId Parking space ID
+     * @param loader Loads the parking space from the database
+     * @return A copy of the parking space, or null if not found
+     */
+    public ParkingSpace getParkingSpace(String parkingId, Function<String, ParkingSpace> loader) {
+        if (parkingId == null) {
+            return null;
+        }
+        return copy(parkingSpaces.get(parkingId, loader));
+    }
+
+    /**
+     * Get the parking ID of a slot, loading it on a miss
+     *
+     * @param slotNumber Slot number
+     * @param loader Loads the parking ID from the database
+     * @return Parking ID, or null if the slot does not exist
+     */
+    public String getParkingIdBySlotNumber(String slotNumber, Function<String, String> loader) {
+        if (slotNumber == null) {
+            return null;
+        }
+        return parkingIdBySlot.get(slotNumber, loader);
+    }
+
+    /**
+     * Drop a parking space and every slot mapped to it
+     *
+     * @param parkingId Parking space ID
+     */
+    public void invalidateParkingSpace(String parkingId) {
+        parkingSpaces.invalidate(parkingId);
+        parkingIdBySlot.invalidateIf((slotNumber, cachedParkingId) -> cachedParkingId.equals(parkingId));
+    }
+
+    /**
+     * Drop the mapping of one slot
+     *
+     * @param slotNumber Slot number
+     */
+    public void invalidateSlot(String slotNumber) {
+        parkingIdBySlot.invalidate(slotNumber);
+    }
+
+    /**
+     * Drop everything, e.g. after a bulk change made with plain SQL
+     */
+    public void invalidateAll() {
+        parkingSpaces.invalidateAll();
+        parkingIdBySlot.invalidateAll();
+    }
+
+    /**
+     * Get hit ratio and size of each cache
+     *
+     * @return One statistics map per cache (see {@link TtlCache#getStatistics()})
+     */
+    public List<Map<String, Object>> getStatistics() {
+        List<Map<String, Object>> stats = new ArrayList<>(2);
+        stats.add(parkingSpaces.getStatistics());
+        stats.add(parkingIdBySlot.getStatistics());
+        return stats;
+    }
+
+    private static ParkingSpace copy(ParkingSpace space) {
+        if (space == null) {
+            return null;
+        }
+        return new ParkingSpace(space.getParkingID(), space.getParkingAddress(), space.getCostOfParking(),
+                space.getNumberOfSlots(), space.getDescription(), space.getAdminID());
+    }
+}
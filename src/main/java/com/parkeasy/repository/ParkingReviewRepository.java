@@ -17,11 +17,12 @@ import java.util.logging.Logger;
 
 /**
  * Repository class for performing database operations related to parking reviews
+ * Every write also adjusts the parking space's rating aggregates in the same transaction.
  */
 public class ParkingReviewRepository {
     private static final Logger LOGGER = Logger.getLogger(ParkingReviewRepository.class.getName());
-    private String sql;
-    private Connection connection;
+
+    private final ParkingSpaceRepository parkingSpaceRepository = new ParkingSpaceRepository();
 
     /**
      * Add a new review to the database
@@ -30,10 +31,41 @@ public class ParkingReviewRepository {
      * @return The ID of the newly added review, or -1 if the operation failed
      */
     public int addReview(ParkingReview review) {
-        connection = DatabaseConnection.getConnection();
-        sql = "INSERT INTO PARKING_REVIEW (Rating, Comment, ReviewDate, UserID, ParkingID, ReservationID) " +
+        String sql = "INSERT INTO PARKING_REVIEW (Rating, Comment, ReviewDate, UserID, ParkingID, ReservationID) " +
                 "VALUES (?, ?, ?, ?, ?, ?)";
 
+        parkingSpaceRepository.ensureRatingColumns();
+        Connection connection = null;
+        try {
+            connection = DatabaseConnection.getConnection();
+            connection.setAutoCommit(false);
+            int reviewId = insertReview(connection, sql, review);
+            parkingSpaceRepository.applyRatingDelta(connection, review.getParkingId(), review.getRating(), 1);
+            connection.commit();
+            return reviewId;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error adding review", e);
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back review", ex);
+            }
+            return -1;
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
+        }
+    }
+
+    private int insertReview(Connection connection, String sql, ParkingReview review) throws SQLException {
         try (PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             preparedStatement.setInt(1, review.getRating());
 
@@ -61,11 +93,6 @@ public class ParkingReviewRepository {
                     throw new SQLException("Creating review failed, no ID obtained.");
                 }
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error adding review", e);
-            return -1;
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
 
@@ -76,27 +103,56 @@ public class ParkingReviewRepository {
      * @return true if the update was successful, false otherwise
      */
     public boolean updateReview(ParkingReview review) {
-        connection = DatabaseConnection.getConnection();
-        sql = "UPDATE PARKING_REVIEW SET Rating = ?, Comment = ? WHERE ReviewID = ?";
+        String sql = "UPDATE PARKING_REVIEW SET Rating = ?, Comment = ? WHERE ReviewID = ?";
+
+        parkingSpaceRepository.ensureRatingColumns();
+        Connection connection = null;
+        try {
+            connection = DatabaseConnection.getConnection();
+            connection.setAutoCommit(false);
+
+            ParkingReview existing = lockReview(connection, review.getReviewId());
+            if (existing == null) {
+                connection.rollback();
+                return false;
+            }
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setInt(1, review.getRating());
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setInt(1, review.getRating());
 
-            if (review.getComment() != null) {
-                preparedStatement.setString(2, review.getComment());
-            } else {
-                preparedStatement.setNull(2, java.sql.Types.VARCHAR);
-            }
+                if (review.getComment() != null) {
+                    preparedStatement.setString(2, review.getComment());
+                } else {
+                    preparedStatement.setNull(2, java.sql.Types.VARCHAR);
+                }
 
-            preparedStatement.setInt(3, review.getReviewId());
+                preparedStatement.setInt(3, review.getReviewId());
+                preparedStatement.executeUpdate();
+            }
 
-            int rowsUpdated = preparedStatement.executeUpdate();
-            return rowsUpdated > 0;
+            parkingSpaceRepository.applyRatingDelta(connection, existing.getParkingId(),
+                    review.getRating() - existing.getRating(), 0);
+            connection.commit();
+            return true;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error updating review: " + review.getReviewId(), e);
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back review update", ex);
+            }
             return false;
         } finally {
-            DatabaseConnection.closeConnection(connection);
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
         }
     }
 
@@ -107,19 +163,66 @@ public class ParkingReviewRepository {
      * @return true if the deletion was successful, false otherwise
      */
     public boolean deleteReview(int reviewId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "DELETE FROM PARKING_REVIEW WHERE ReviewID = ?";
+        String sql = "DELETE FROM PARKING_REVIEW WHERE ReviewID = ?";
+
+        parkingSpaceRepository.ensureRatingColumns();
+        Connection connection = null;
+        try {
+            connection = DatabaseConnection.getConnection();
+            connection.setAutoCommit(false);
+
+            ParkingReview existing = lockReview(connection, reviewId);
+            if (existing == null) {
+                connection.rollback();
+                return false;
+            }
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setInt(1, reviewId);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setInt(1, reviewId);
+                preparedStatement.executeUpdate();
+            }
 
-            int rowsDeleted = preparedStatement.executeUpdate();
-            return rowsDeleted > 0;
+            parkingSpaceRepository.applyRatingDelta(connection, existing.getParkingId(), -existing.getRating(), -1);
+            connection.commit();
+            return true;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error deleting review: " + reviewId, e);
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back review deletion", ex);
+            }
             return false;
         } finally {
-            DatabaseConnection.closeConnection(connection);
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Lock a review row for the rest of the caller's transaction
+     * Its current rating is needed to adjust the aggregates by the right amount.
+     *
+     * @param connection Connection with the open transaction
+     * @param reviewId The ID of the review
+     * @return The review, or null if not found
+     * @throws SQLException If a database error occurs
+     */
+    private ParkingReview lockReview(Connection connection, int reviewId) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT * FROM PARKING_REVIEW WHERE ReviewID = ? FOR UPDATE")) {
+            preparedStatement.setInt(1, reviewId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? mapResultSetToReview(resultSet) : null;
+            }
         }
     }
 
@@ -130,10 +233,10 @@ public class ParkingReviewRepository {
      * @return The review object or null if not found
      */
     public ParkingReview getReviewById(int reviewId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_REVIEW WHERE ReviewID = ?";
+        String sql = "SELECT * FROM PARKING_REVIEW WHERE ReviewID = ?";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, reviewId);
 
             ResultSet resultSet = preparedStatement.executeQuery();
@@ -144,8 +247,6 @@ public class ParkingReviewRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting review by ID: " + reviewId, e);
             return null;
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
 
@@ -157,10 +258,10 @@ public class ParkingReviewRepository {
      */
     public List<ParkingReview> getReviewsByParkingId(String parkingId) {
         List<ParkingReview> reviews = new ArrayList<>();
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_REVIEW WHERE ParkingID = ? ORDER BY ReviewDate DESC";
+        String sql = "SELECT * FROM PARKING_REVIEW WHERE ParkingID = ? ORDER BY ReviewDate DESC";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, parkingId);
 
             ResultSet resultSet = preparedStatement.executeQuery();
@@ -171,8 +272,6 @@ public class ParkingReviewRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting reviews by parking ID: " + parkingId, e);
             return reviews; // Return empty list on error
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
 
@@ -184,10 +283,10 @@ public class ParkingReviewRepository {
      */
     public List<ParkingReview> getReviewsByUserId(int userId) {
         List<ParkingReview> reviews = new ArrayList<>();
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_REVIEW WHERE UserID = ? ORDER BY ReviewDate DESC";
+        String sql = "SELECT * FROM PARKING_REVIEW WHERE UserID = ? ORDER BY ReviewDate DESC";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, userId);
 
             ResultSet resultSet = preparedStatement.executeQuery();
@@ -198,8 +297,6 @@ public class ParkingReviewRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting reviews by user ID: " + userId, e);
             return reviews; // Return empty list on error
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
 
@@ -210,10 +307,10 @@ public class ParkingReviewRepository {
      * @return The review object or null if not found
      */
     public ParkingReview getReviewByReservationId(int reservationId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_REVIEW WHERE ReservationID = ?";
+        String sql = "SELECT * FROM PARKING_REVIEW WHERE ReservationID = ?";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, reservationId);
 
             ResultSet resultSet = preparedStatement.executeQuery();
@@ -224,36 +321,18 @@ public class ParkingReviewRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting review by reservation ID: " + reservationId, e);
             return null;
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
 
     /**
-     * Calculate the average rating for a parking space
+     * Get the average rating for a parking space
+     * Read from the space's maintained aggregate rather than averaging its reviews.
      *
      * @param parkingId The ID of the parking space
      * @return The average rating or 0 if no reviews
      */
     public float getAverageRatingForParkingSpace(String parkingId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT AVG(Rating) AS average_rating FROM PARKING_REVIEW WHERE ParkingID = ?";
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, parkingId);
-
-            ResultSet resultSet = preparedStatement.executeQuery();
-            if (resultSet.next()) {
-                float averageRating = resultSet.getFloat("average_rating");
-                return resultSet.wasNull() ? (float) 0.0 : averageRating;
-            }
-            return 0.0F;
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error calculating average rating for parking space: " + parkingId, e);
-            return 0.0F;
-        } finally {
-            DatabaseConnection.closeConnection(connection);
-        }
+        return parkingSpaceRepository.getAverageRating(parkingId);
     }
 
     /**
@@ -263,10 +342,10 @@ public class ParkingReviewRepository {
      * @return The number of reviews
      */
     public int getReviewCountForParkingSpace(String parkingId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT COUNT(*) AS review_count FROM PARKING_REVIEW WHERE ParkingID = ?";
+        String sql = "SELECT COUNT(*) AS review_count FROM PARKING_REVIEW WHERE ParkingID = ?";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, parkingId);
 
             ResultSet resultSet = preparedStatement.executeQuery();
@@ -277,8 +356,6 @@ public class ParkingReviewRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error counting reviews for parking space: " + parkingId, e);
             return 0;
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
 
@@ -290,10 +367,10 @@ public class ParkingReviewRepository {
      */
     public List<ParkingReview> getLatestReviews(int limit) {
         List<ParkingReview> reviews = new ArrayList<>();
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_REVIEW ORDER BY ReviewDate DESC LIMIT ?";
+        String sql = "SELECT * FROM PARKING_REVIEW ORDER BY ReviewDate DESC LIMIT ?";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, limit);
 
             ResultSet resultSet = preparedStatement.executeQuery();
@@ -304,8 +381,6 @@ public class ParkingReviewRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting latest reviews, limit: " + limit, e);
             return reviews; // Return empty list on error
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
 
@@ -2,12 +2,14 @@ package main.java.com.parkeasy.repository;
 
 import main.java.com.parkeasy.model.ParkingSlot;
 import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.util.Constants;
 import main.java.com.parkeasy.util.DatabaseConnection;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -18,13 +20,55 @@ import java.util.logging.Logger;
 
 public class ParkingSlotRepository {
     private static final Logger LOGGER = Logger.getLogger(ParkingSlotRepository.class.getName());
-    private static String sql;
-    private static Connection connection;
+
+    private final ParkingLookupCache lookupCache = ParkingLookupCache.getInstance();
+    private final ParkingSpaceRepository parkingSpaceRepository = new ParkingSpaceRepository();
+    private static volatile boolean occupiedColumnReady;
+
+    /**
+     * Add the Occupied column on first use
+     * Occupied is set by the reservation lifecycle scheduler while a reservation of the slot is
+     * running. It is kept apart from Availability, which only says whether the slot may be booked,
+     * so occupancy never overrides a slot an admin has disabled. Runs on its own connection
+     * because DDL commits implicitly.
+     *
+     * @return true if the column exists
+     */
+    public boolean ensureOccupiedColumn() {
+        if (occupiedColumnReady) {
+            return true;
+        }
+        synchronized (ParkingSlotRepository.class) {
+            if (occupiedColumnReady) {
+                return true;
+            }
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                boolean exists;
+                try (PreparedStatement checkStatement = connection.prepareStatement(
+                        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'PARKING_SLOT' " +
+                                "AND COLUMN_NAME = 'Occupied'");
+                     ResultSet rs = checkStatement.executeQuery()) {
+                    exists = rs.next() && rs.getInt(1) > 0;
+                }
+                if (!exists) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("ALTER TABLE PARKING_SLOT ADD COLUMN Occupied BOOLEAN NOT NULL DEFAULT FALSE");
+                    }
+                    LOGGER.info("Added Occupied column to PARKING_SLOT");
+                }
+                occupiedColumnReady = true;
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error adding occupied column", e);
+            }
+            return occupiedColumnReady;
+        }
+    }
 
     public boolean addParkingSlot(ParkingSlot slot) {
-        connection = DatabaseConnection.getConnection();
-        sql = "INSERT INTO PARKING_SLOT (SlotNumber, Availability, ParkingID) VALUES (?, ?, ?)";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "INSERT INTO PARKING_SLOT (SlotNumber, Availability, ParkingID) VALUES (?, ?, ?)";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, slot.getSlotNumber());
             preparedStatement.setBoolean(2, slot.getAvailability());
             preparedStatement.setString(3, slot.getParkingID());
@@ -34,16 +78,14 @@ public class ParkingSlotRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error adding parking slot", e);
             return false;
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
 
     // Update by SlotNumber
     public boolean updateParkingSlotByNumber(String slotNumber, ParkingSlot parkingSlot) {
-        connection = DatabaseConnection.getConnection();
-        sql = "UPDATE PARKING_SLOT SET Availability = ?, ParkingID = ? WHERE SlotNumber = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "UPDATE PARKING_SLOT SET Availability = ?, ParkingID = ? WHERE SlotNumber = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setBoolean(1, parkingSlot.getAvailability());
             preparedStatement.setString(2, parkingSlot.getParkingID());
             preparedStatement.setString(3, slotNumber);
@@ -53,15 +95,15 @@ public class ParkingSlotRepository {
             LOGGER.log(Level.SEVERE, "Error updating parking slot by number", e);
             return false;
         } finally {
-            DatabaseConnection.closeConnection(connection);
+            lookupCache.invalidateSlot(slotNumber);
         }
     }
 
     // Update using the parking slot object
     public boolean updateParkingSlot(ParkingSlot parkingSlot) {
-        connection = DatabaseConnection.getConnection();
-        sql = "UPDATE PARKING_SLOT SET Availability = ?, ParkingID = ? WHERE SlotNumber = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "UPDATE PARKING_SLOT SET Availability = ?, ParkingID = ? WHERE SlotNumber = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setBoolean(1, parkingSlot.getAvailability());
             preparedStatement.setString(2, parkingSlot.getParkingID());
             preparedStatement.setString(3, parkingSlot.getSlotNumber());
@@ -71,7 +113,7 @@ public class ParkingSlotRepository {
             LOGGER.log(Level.SEVERE, "Error updating parking slot", e);
             return false;
         } finally {
-            DatabaseConnection.closeConnection(connection);
+            lookupCache.invalidateSlot(parkingSlot.getSlotNumber());
         }
     }
 
@@ -88,9 +130,9 @@ public class ParkingSlotRepository {
     // Get all parking slots as list
     public List<ParkingSlot> getAllParkingSlotsAsList() {
         List<ParkingSlot> parkingSlots = new ArrayList<>();
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_SLOT";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        String sql = "SELECT * FROM PARKING_SLOT";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql);
              ResultSet resultSet = preparedStatement.executeQuery()) {
             while (resultSet.next()) {
                 ParkingSlot slot = new ParkingSlot(
@@ -102,17 +144,15 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting all parking slots", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return parkingSlots;
     }
 
     // Find by SlotNumber (main method to use now)
     public ParkingSlot findParkingSlotByNumber(String slotNumber) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_SLOT WHERE SlotNumber = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "SELECT * FROM PARKING_SLOT WHERE SlotNumber = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, slotNumber);
             ResultSet resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
@@ -123,8 +163,6 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error finding parking slot by number", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return null;
     }
@@ -141,9 +179,9 @@ public class ParkingSlotRepository {
     // Get parking slots by parking space ID
     public List<ParkingSlot> getParkingSlotsByParkingId(String parkingID) {
         List<ParkingSlot> parkingSlots = new ArrayList<>();
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_SLOT WHERE ParkingID = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "SELECT * FROM PARKING_SLOT WHERE ParkingID = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, parkingID);
             ResultSet resultSet = preparedStatement.executeQuery();
             while (resultSet.next()) {
@@ -155,17 +193,15 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting parking slots by parking ID", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return parkingSlots;
     }
 
     // Delete parking slot by SlotNumber
     public boolean deleteParkingSlot(String slotNumber) {
-        connection = DatabaseConnection.getConnection();
-        sql = "DELETE FROM PARKING_SLOT WHERE SlotNumber = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "DELETE FROM PARKING_SLOT WHERE SlotNumber = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, slotNumber);
             int rowsAffected = preparedStatement.executeUpdate();
             return rowsAffected > 0;
@@ -173,7 +209,7 @@ public class ParkingSlotRepository {
             LOGGER.log(Level.SEVERE, "Error deleting parking slot", e);
             return false;
         } finally {
-            DatabaseConnection.closeConnection(connection);
+            lookupCache.invalidateSlot(slotNumber);
         }
     }
 
@@ -184,9 +220,9 @@ public class ParkingSlotRepository {
      * @return true if at least one slot was deleted, false otherwise
      */
     public boolean deleteParkingSlotsByParkingId(String parkingId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "DELETE FROM PARKING_SLOT WHERE ParkingID = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "DELETE FROM PARKING_SLOT WHERE ParkingID = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, parkingId);
             int rowsAffected = preparedStatement.executeUpdate();
             return rowsAffected > 0;
@@ -194,20 +230,22 @@ public class ParkingSlotRepository {
             LOGGER.log(Level.SEVERE, "Error deleting parking slots by parking ID", e);
             return false;
         } finally {
-            DatabaseConnection.closeConnection(connection);
+            lookupCache.invalidateParkingSpace(parkingId);
         }
     }
 
     /**
      * Count occupied parking slots for a specific parking space
+     * A slot is occupied while one of its reservations is running (see {@link #ensureOccupiedColumn}).
      *
      * @param parkingId The ID of the parking space
      * @return Number of occupied slots
      */
     public int getOccupiedSlotCountByParkingId(String parkingId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT COUNT(*) FROM PARKING_SLOT WHERE ParkingID = ? AND Availability = false";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        ensureOccupiedColumn();
+        String sql = "SELECT COUNT(*) FROM PARKING_SLOT WHERE ParkingID = ? AND Occupied = TRUE";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, parkingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
@@ -215,24 +253,24 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error counting occupied slots by parking ID", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return 0;
     }
 
     /**
      * Count occupied parking slots for all parking spaces managed by an admin
+     * A slot is occupied while one of its reservations is running (see {@link #ensureOccupiedColumn}).
      *
      * @param adminId The ID of the admin
      * @return Number of occupied slots
      */
     public int getOccupiedSlotCountByAdminId(int adminId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT COUNT(*) FROM PARKING_SLOT ps " +
+        ensureOccupiedColumn();
+        String sql = "SELECT COUNT(*) FROM PARKING_SLOT ps " +
                 "JOIN PARKING_SPACE p ON ps.ParkingID = p.ParkingID " +
-                "WHERE p.AdminID = ? AND ps.Availability = false";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                "WHERE p.AdminID = ? AND ps.Occupied = TRUE";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, adminId);
             ResultSet resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
@@ -240,21 +278,24 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error counting occupied slots by admin ID", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return 0;
     }
 
     /**
      * Get the parking ID for a specific slot
+     * Served from the shared lookup cache.
      * @param slotNumber The slot number
      * @return Parking ID or null if not found
      */
     public String getParkingIdBySlotNumber(String slotNumber) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT ParkingID FROM PARKING_SLOT WHERE SlotNumber = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        return lookupCache.getParkingIdBySlotNumber(slotNumber, this::loadParkingIdBySlotNumber);
+    }
+
+    private String loadParkingIdBySlotNumber(String slotNumber) {
+        String sql = "SELECT ParkingID FROM PARKING_SLOT WHERE SlotNumber = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, slotNumber);
             ResultSet resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
@@ -262,42 +303,23 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting parking ID by slot number", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return null;
     }
 
     /**
      * Get the parking space for a specific slot by slot number
+     * Both steps (slot to parking ID, parking ID to space) are served from the shared lookup cache.
      *
      * @param slotNumber The number of the slot
      * @return ParkingSpace object or null if not found
      */
     public ParkingSpace getParkingSpaceBySlotNumber(String slotNumber) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT ps.* FROM PARKING_SPACE ps " +
-                "JOIN PARKING_SLOT sl ON ps.ParkingID = sl.ParkingID " +
-                "WHERE sl.SlotNumber = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, slotNumber);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            if (resultSet.next()) {
-                return new ParkingSpace(
-                        resultSet.getString("ParkingID"),
-                        resultSet.getString("ParkingAddress"),
-                        resultSet.getFloat("CostOfParking"),
-                        resultSet.getInt("NumberOfSlots"),
-                        resultSet.getString("Description"),
-                        resultSet.getInt("AdminID")
-                );
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error getting parking space by slot number", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
+        String parkingId = getParkingIdBySlotNumber(slotNumber);
+        if (parkingId == null) {
+            return null;
         }
-        return null;
+        return parkingSpaceRepository.getParkingSpaceById(parkingId);
     }
     /**
      * Update availability of a parking slot
@@ -307,9 +329,9 @@ public class ParkingSlotRepository {
      * @return true if update successful, false otherwise
      */
     public boolean updateSlotAvailability(String slotNumber, boolean available) {
-        connection = DatabaseConnection.getConnection();
-        sql = "UPDATE PARKING_SLOT SET Availability = ? WHERE SlotNumber = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "UPDATE PARKING_SLOT SET Availability = ? WHERE SlotNumber = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setBoolean(1, available);
             preparedStatement.setString(2, slotNumber);
             int rowsUpdated = preparedStatement.executeUpdate();
@@ -317,8 +339,6 @@ public class ParkingSlotRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error updating slot availability", e);
             return false;
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
     }
     /**
@@ -327,17 +347,15 @@ public class ParkingSlotRepository {
      * @return Total number of parking slots
      */
     public int getTotalSlotCount() {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT COUNT(*) FROM PARKING_SLOT";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "SELECT COUNT(*) FROM PARKING_SLOT";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             ResultSet resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
                 return resultSet.getInt(1);
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting total slot count", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return 0;
     }
@@ -349,9 +367,9 @@ public class ParkingSlotRepository {
      * @return Number of available slots
      */
     public int getAvailableSlotCountByParkingId(String parkingId) {
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT COUNT(*) FROM PARKING_SLOT WHERE ParkingID = ? AND Availability = true";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "SELECT COUNT(*) FROM PARKING_SLOT WHERE ParkingID = ? AND Availability = true";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, parkingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
@@ -359,12 +377,35 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error counting available slots", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return 0;
     }
 
+    /**
+     * Lock a slot row for the rest of the caller's transaction (SELECT ... FOR UPDATE)
+     * Concurrent bookings of the same slot queue up behind this lock.
+     *
+     * @param connection Connection with the open transaction
+     * @param slotNumber The slot number
+     * @return The locked slot, or null if it does not exist
+     * @throws SQLException if a database error occurs
+     */
+    public ParkingSlot lockParkingSlot(Connection connection, String slotNumber) throws SQLException {
+        String sql = "SELECT * FROM PARKING_SLOT WHERE SlotNumber = ? FOR UPDATE";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, slotNumber);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return new ParkingSlot(
+                            resultSet.getString("SlotNumber"),
+                            resultSet.getBoolean("Availability"),
+                            resultSet.getString("ParkingID"));
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Get only available slots for a parking space
      *
@@ -373,9 +414,9 @@ public class ParkingSlotRepository {
      */
     public List<ParkingSlot> getAvailableSlotsByParkingId(String parkingId) {
         List<ParkingSlot> parkingSlots = new ArrayList<>();
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT * FROM PARKING_SLOT WHERE ParkingID = ? AND Availability = true";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        String sql = "SELECT * FROM PARKING_SLOT WHERE ParkingID = ? AND Availability = true";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, parkingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             while (resultSet.next()) {
@@ -387,8 +428,52 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting available slots", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
+        }
+        return parkingSlots;
+    }
+
+    /**
+     * Get the slots of a parking space that are free for a whole time period in a single query
+     * A slot qualifies when it is marked available and no blocking reservation overlaps the period
+     * (bounds are inclusive, matching the per-slot check).
+     *
+     * @param parkingId The ID of the parking space
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return List of free parking slots
+     */
+    public List<ParkingSlot> getAvailableSlotsForPeriod(String parkingId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        List<ParkingSlot> parkingSlots = new ArrayList<>();
+        // The date-only predicates can use an index on the reservation dates and prune
+        // before the exact TIMESTAMP comparison
+        String sql = "SELECT s.* FROM PARKING_SLOT s " +
+                "WHERE s.ParkingID = ? AND s.Availability = true " +
+                "AND NOT EXISTS (SELECT 1 FROM PARKING_RESERVATION r " +
+                "WHERE r.SlotNumber = s.SlotNumber " +
+                "AND r.Status IN (?, ?, 'In Use') " +
+                "AND r.StartDate <= ? AND r.EndDate >= ? " +
+                "AND TIMESTAMP(r.StartDate, r.StartTime) <= ? " +
+                "AND TIMESTAMP(r.EndDate, r.EndTime) >= ?) " +
+                "ORDER BY s.SlotNumber";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, parkingId);
+            preparedStatement.setString(2, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(3, Constants.RESERVATION_PAID);
+            preparedStatement.setDate(4, java.sql.Date.valueOf(endDateTime.toLocalDate()));
+            preparedStatement.setDate(5, java.sql.Date.valueOf(startDateTime.toLocalDate()));
+            preparedStatement.setTimestamp(6, Timestamp.valueOf(endDateTime));
+            preparedStatement.setTimestamp(7, Timestamp.valueOf(startDateTime));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    parkingSlots.add(new ParkingSlot(
+                            resultSet.getString("SlotNumber"),
+                            resultSet.getBoolean("Availability"),
+                            resultSet.getString("ParkingID")));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting available slots for period", e);
         }
         return parkingSlots;
     }
@@ -410,11 +495,11 @@ public class ParkingSlotRepository {
      */
     public static List<Map<String, Object>> getActiveReservationsForSlot(String slotNumber) {
         List<Map<String, Object>> reservations = new ArrayList<>();
-        connection = DatabaseConnection.getConnection();
-        sql = "SELECT r.* FROM PARKING_RESERVATION r " +
+        String sql = "SELECT r.* FROM PARKING_RESERVATION r " +
                 "WHERE r.SlotNumber = ? AND r.Status IN ('Processing', 'In Use') " +
                 "AND ((r.EndDate > CURRENT_DATE) OR (r.EndDate = CURRENT_DATE AND r.EndTime > CURRENT_TIME))";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, slotNumber);
             ResultSet resultSet = preparedStatement.executeQuery();
             while (resultSet.next()) {
@@ -441,8 +526,6 @@ public class ParkingSlotRepository {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error getting active reservations for slot", e);
-        } finally {
-            DatabaseConnection.closeConnection(connection);
         }
         return reservations;
     }
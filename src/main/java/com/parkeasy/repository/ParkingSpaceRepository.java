@@ -1,6 +1,7 @@
 package main.java.com.parkeasy.repository;
 
 import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.model.SearchPage;
 import main.java.com.parkeasy.util.DatabaseConnection;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -8,6 +9,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -20,6 +23,14 @@ public class ParkingSpaceRepository {
     private static final Logger LOGGER = Logger.getLogger(ParkingSpaceRepository.class.getName());
     private static final String TABLE_NAME = "PARKING_SPACE";
 
+    private static volatile boolean ratingColumnsReady;
+
+    // Name of the rating aggregate fill in ROLLUP_STATE
+    private static final String RATING_AGGREGATES = "PARKING_SPACE rating aggregates";
+
+    private final ParkingLookupCache lookupCache = ParkingLookupCache.getInstance();
+    private final BackfillStateRepository backfillStateRepository = new BackfillStateRepository();
+
     /**
      * Add a new parking space and return the generated ID
      *
@@ -92,6 +103,8 @@ public class ParkingSpaceRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error updating parking space: " + parkingSpace.getParkingID(), e);
             return false; // Return false if there was an error
+        } finally {
+            lookupCache.invalidateParkingSpace(parkingSpace.getParkingID());
         }
     }
 
@@ -117,6 +130,8 @@ public class ParkingSpaceRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error deleting parking space: " + spaceId, e);
             return false;
+        } finally {
+            lookupCache.invalidateParkingSpace(spaceId);
         }
     }
 
@@ -143,11 +158,16 @@ public class ParkingSpaceRepository {
 
     /**
      * Get a parking space by its ID
+     * Served from the shared lookup cache; the returned object is a copy and may be modified.
      *
      * @param parkingID The ID of the parking space
      * @return The parking space or null if not found
      */
     public ParkingSpace getParkingSpaceById(String parkingID) {
+        return lookupCache.getParkingSpace(parkingID, this::loadParkingSpaceById);
+    }
+
+    private ParkingSpace loadParkingSpaceById(String parkingID) {
         String sql = "SELECT * FROM " + TABLE_NAME + " WHERE ParkingID = ?";
         try (Connection connection = DatabaseConnection.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
@@ -421,6 +441,44 @@ public class ParkingSpaceRepository {
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error checking or creating indexes", e);
         }
+
+        createSortIndexes();
+    }
+
+    /**
+     * Create the indexes that serve the search page orders, so that a page is read in index order
+     * instead of sorting every match
+     */
+    private void createSortIndexes() {
+        ensureRatingColumns();
+        String[][] indexes = {
+                {"idx_space_address_sort", "ParkingAddress, ParkingID"},
+                {"idx_space_cost_sort", "CostOfParking, ParkingID"},
+                {"idx_space_rating_sort", "AverageRating DESC, ParkingID"}
+        };
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            for (String[] index : indexes) {
+                try (PreparedStatement checkStatement = connection.prepareStatement(
+                        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS " +
+                                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?")) {
+                    checkStatement.setString(1, TABLE_NAME);
+                    checkStatement.setString(2, index[0]);
+                    try (ResultSet rs = checkStatement.executeQuery()) {
+                        if (rs.next() && rs.getInt(1) > 0) {
+                            continue;
+                        }
+                    }
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE INDEX " + index[0] + " ON " + TABLE_NAME + " (" + index[1] + ")");
+                    LOGGER.info("Created index " + index[0] + " on " + TABLE_NAME);
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Could not create index " + index[0] + ", that order will be sorted per query", e);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error checking or creating sort indexes", e);
+        }
     }
 
     /**
@@ -498,6 +556,140 @@ public class ParkingSpaceRepository {
         }
     }
 
+    /**
+     * Get one page of parking spaces matching a search term, together with the total number of matches
+     * Page and count come back from a single query. The page is sought from a cursor on
+     * (sort key, ParkingID) instead of skipped over with OFFSET, so deep pages and re-sorts only read
+     * one page of rows. The cursor's sort key is re-read from its row, which keeps the comparison of
+     * FLOAT columns exact; the value held in the cursor is only used if that row has been deleted.
+     *
+     * @param searchTerm The search term; empty matches every parking space
+     * @param sort One of the SearchPage.SORT_* orders
+     * @param cursor The row to continue from, or null for the first page
+     * @param forward true for the rows after the cursor, false for the rows before it
+     * @param pageSize The number of results per page
+     * @return The page, or an empty page if an error occurs
+     */
+    public SearchPage searchParkingSpacePage(String searchTerm, String sort, SearchPage.Cursor cursor,
+                                             boolean forward, int pageSize) {
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        // Same choice between full-text and LIKE search as searchParkingSpaces
+        boolean useFullTextSearch = term.length() > 3 && term.contains(" ");
+
+        SearchPage page = searchParkingSpacePage(term, useFullTextSearch, sort, cursor, forward, pageSize);
+        if (page == null && useFullTextSearch) {
+            LOGGER.info("Falling back to regular search after full-text search failure");
+            page = searchParkingSpacePage(term, false, sort, cursor, forward, pageSize);
+        }
+        return page != null ? page : SearchPage.empty();
+    }
+
+    private SearchPage searchParkingSpacePage(String term, boolean useFullTextSearch, String sort,
+                                              SearchPage.Cursor cursor, boolean forward, int pageSize) {
+        String sortColumn = sortColumn(sort);
+        if ("AverageRating".equals(sortColumn)) {
+            ensureRatingColumns();
+        }
+        boolean descending = SearchPage.SORT_PRICE_DESC.equals(sort) || SearchPage.SORT_RATING.equals(sort);
+        // A previous page is read by walking the order backwards from the cursor, then flipped
+        boolean keyDescending = descending == forward;
+        String keyOrder = keyDescending ? " DESC" : "";
+        String idOrder = forward ? "" : " DESC";
+
+        List<Object> filterParameters = new ArrayList<>();
+        String filter;
+        String innerFilter;
+        if (term.isEmpty()) {
+            filter = "TRUE";
+            innerFilter = "TRUE";
+        } else if (useFullTextSearch) {
+            filter = "MATCH(ParkingAddress, Description) AGAINST(? IN BOOLEAN MODE)";
+            innerFilter = "MATCH(ps.ParkingAddress, ps.Description) AGAINST(? IN BOOLEAN MODE)";
+            filterParameters.add(formatSearchTermForFullText(term));
+        } else {
+            filter = "(ParkingAddress LIKE ? OR Description LIKE ?)";
+            innerFilter = "(ps.ParkingAddress LIKE ? OR ps.Description LIKE ?)";
+            filterParameters.add("%" + term + "%");
+            filterParameters.add("%" + term + "%");
+        }
+
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT c.TotalCount, p.* FROM ")
+                .append("(SELECT COUNT(*) AS TotalCount FROM ").append(TABLE_NAME).append(" WHERE ").append(filter).append(") c ")
+                .append("LEFT JOIN (SELECT ps.* FROM ").append(TABLE_NAME).append(" ps ");
+        if (cursor != null) {
+            sql.append("CROSS JOIN (SELECT COALESCE((SELECT ").append(sortColumn).append(" FROM ").append(TABLE_NAME)
+                    .append(" WHERE ParkingID = ?), ?) AS SortKey) cur ");
+        }
+        sql.append("WHERE ").append(innerFilter);
+        if (cursor != null) {
+            sql.append(" AND (ps.").append(sortColumn).append(keyDescending ? " < " : " > ").append("cur.SortKey")
+                    .append(" OR (ps.").append(sortColumn).append(" = cur.SortKey AND ps.ParkingID")
+                    .append(forward ? " > " : " < ").append("?))");
+        }
+        sql.append(" ORDER BY ps.").append(sortColumn).append(keyOrder).append(", ps.ParkingID").append(idOrder)
+                .append(" LIMIT ?) p ON TRUE ")
+                .append("ORDER BY p.").append(sortColumn).append(keyOrder).append(", p.ParkingID").append(idOrder);
+
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Object parameter : filterParameters) {
+                preparedStatement.setObject(index++, parameter);
+            }
+            if (cursor != null) {
+                preparedStatement.setString(index++, cursor.getParkingID());
+                preparedStatement.setObject(index++, cursor.getSortValue());
+            }
+            for (Object parameter : filterParameters) {
+                preparedStatement.setObject(index++, parameter);
+            }
+            if (cursor != null) {
+                preparedStatement.setString(index++, cursor.getParkingID());
+            }
+            preparedStatement.setInt(index, pageSize);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                int totalCount = 0;
+                List<ParkingSpace> parkingSpaces = new ArrayList<>();
+                List<SearchPage.Cursor> cursors = new ArrayList<>();
+                while (resultSet.next()) {
+                    totalCount = resultSet.getInt("TotalCount");
+                    // The count row comes back alone when the page is empty
+                    if (resultSet.getString("ParkingID") == null) {
+                        continue;
+                    }
+                    ParkingSpace parkingSpace = extractParkingSpaceFromResultSet(resultSet);
+                    Object sortValue = "ParkingAddress".equals(sortColumn)
+                            ? resultSet.getString(sortColumn) : (Object) resultSet.getFloat(sortColumn);
+                    parkingSpaces.add(parkingSpace);
+                    cursors.add(new SearchPage.Cursor(sortValue, parkingSpace.getParkingID()));
+                }
+                if (!forward) {
+                    Collections.reverse(parkingSpaces);
+                    Collections.reverse(cursors);
+                }
+                if (parkingSpaces.isEmpty()) {
+                    return new SearchPage(parkingSpaces, totalCount, null, null);
+                }
+                return new SearchPage(parkingSpaces, totalCount, cursors.get(0), cursors.get(cursors.size() - 1));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error searching parking space page: " + term, e);
+            return null;
+        }
+    }
+
+    private static String sortColumn(String sort) {
+        if (SearchPage.SORT_PRICE_ASC.equals(sort) || SearchPage.SORT_PRICE_DESC.equals(sort)) {
+            return "CostOfParking";
+        }
+        if (SearchPage.SORT_RATING.equals(sort)) {
+            return "AverageRating";
+        }
+        return "ParkingAddress";
+    }
+
     /**
      * Check if a parking space exists by its ID
      *
@@ -686,6 +878,251 @@ public class ParkingSpaceRepository {
         return 0;
     }
 
+    /**
+     * Add the RatingSum / RatingCount / AverageRating aggregate columns on first use
+     * The columns are filled from PARKING_REVIEW once and are then maintained by the review write
+     * paths through {@link #applyRatingDelta}. The fill records its completion in ROLLUP_STATE in
+     * the same transaction, and runs again on every call until that record exists, so a fill cut
+     * short after the columns were added is repaired. Runs on its own connection because DDL
+     * commits implicitly; call it before opening a transaction that changes reviews.
+     */
+    public void ensureRatingColumns() {
+        if (ratingColumnsReady) {
+            return;
+        }
+        synchronized (ParkingSpaceRepository.class) {
+            if (ratingColumnsReady) {
+                return;
+            }
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                addColumnIfMissing(connection, "RatingSum", "INT NOT NULL DEFAULT 0");
+                addColumnIfMissing(connection, "RatingCount", "INT NOT NULL DEFAULT 0");
+                addColumnIfMissing(connection, "AverageRating", "FLOAT NOT NULL DEFAULT 0");
+                backfillStateRepository.ensureTable(connection);
+                if (!backfillStateRepository.isRecorded(connection, RATING_AGGREGATES)) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("CREATE INDEX idx_space_rating ON " + TABLE_NAME +
+                                " (AverageRating DESC, RatingCount DESC)");
+                    } catch (SQLException e) {
+                        // Already there when an earlier fill was cut short
+                        LOGGER.log(Level.FINE, "Rating index not created", e);
+                    }
+                    rebuildRatingAggregates(connection);
+                }
+                ratingColumnsReady = true;
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error adding rating columns", e);
+            }
+        }
+    }
+
+    private boolean addColumnIfMissing(Connection connection, String column, String definition) throws SQLException {
+        try (PreparedStatement checkStatement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?")) {
+            checkStatement.setString(1, TABLE_NAME);
+            checkStatement.setString(2, column);
+            try (ResultSet rs = checkStatement.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    return false;
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + column + " " + definition);
+        }
+        LOGGER.info("Added " + column + " column to " + TABLE_NAME);
+        return true;
+    }
+
+    /**
+     * Recompute every parking space's rating aggregates from PARKING_REVIEW
+     *
+     * @return true if successful, false otherwise
+     */
+    public boolean rebuildRatingAggregates() {
+        ensureRatingColumns();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            backfillStateRepository.ensureTable(connection);
+            rebuildRatingAggregates(connection);
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error rebuilding rating aggregates", e);
+            return false;
+        }
+    }
+
+    /**
+     * Recompute the aggregates and record the completed fill in one transaction
+     *
+     * @param connection Connection in autocommit mode
+     * @throws SQLException if a database error occurs
+     */
+    private void rebuildRatingAggregates(Connection connection) throws SQLException {
+        String sql = "UPDATE " + TABLE_NAME + " ps " +
+                "LEFT JOIN (SELECT ParkingID, SUM(Rating) AS RatingSum, COUNT(*) AS RatingCount " +
+                "FROM PARKING_REVIEW GROUP BY ParkingID) r ON ps.ParkingID = r.ParkingID " +
+                "SET ps.RatingSum = COALESCE(r.RatingSum, 0), ps.RatingCount = COALESCE(r.RatingCount, 0), " +
+                "ps.AverageRating = IF(COALESCE(r.RatingCount, 0) = 0, 0, r.RatingSum / r.RatingCount)";
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            int rows = statement.executeUpdate(sql);
+            backfillStateRepository.record(connection, RATING_AGGREGATES);
+            connection.commit();
+            LOGGER.log(Level.INFO, "Rebuilt rating aggregates for {0} parking spaces", rows);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Apply a review change to a parking space's rating aggregates, as part of the caller's transaction
+     * MySQL evaluates single-table SET assignments left to right, so AverageRating is computed
+     * from the already adjusted sum and count.
+     *
+     * @param connection Connection with the open transaction
+     * @param parkingId The ID of the parking space
+     * @param ratingDelta Change of the rating sum
+     * @param countDelta Change of the review count (+1 add, 0 update, -1 delete)
+     * @return true if the parking space row was updated
+     * @throws SQLException if a database error occurs
+     */
+    public boolean applyRatingDelta(Connection connection, String parkingId, int ratingDelta, int countDelta)
+            throws SQLException {
+        String sql = "UPDATE " + TABLE_NAME + " SET RatingSum = RatingSum + ?, RatingCount = RatingCount + ?, " +
+                "AverageRating = IF(RatingCount = 0, 0, RatingSum / RatingCount) WHERE ParkingID = ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, ratingDelta);
+            preparedStatement.setInt(2, countDelta);
+            preparedStatement.setString(3, parkingId);
+            return preparedStatement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Get the average rating of a parking space from its aggregate columns
+     *
+     * @param parkingId The ID of the parking space
+     * @return The average rating or 0 if the space has no reviews
+     */
+    public float getAverageRating(String parkingId) {
+        ensureRatingColumns();
+        String sql = "SELECT AverageRating FROM " + TABLE_NAME + " WHERE ParkingID = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, parkingId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getFloat("AverageRating");
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting average rating for parking space: " + parkingId, e);
+        }
+        return 0.0F;
+    }
+
+    /**
+     * Get the average rating of every parking space, for the in-memory search index
+     *
+     * @return ParkingID -> AverageRating, or null if an error occurs
+     */
+    public Map<String, Float> getAverageRatings() {
+        ensureRatingColumns();
+        String sql = "SELECT ParkingID, AverageRating FROM " + TABLE_NAME;
+        Map<String, Float> ratings = new HashMap<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ratings.put(resultSet.getString("ParkingID"), resultSet.getFloat("AverageRating"));
+            }
+            return ratings;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting average ratings of parking spaces", e);
+            return null;
+        }
+    }
+
+    /**
+     * Find the average rating of a parking space, telling a failed read apart from a space without reviews
+     *
+     * @param parkingId The ID of the parking space
+     * @return The stored AverageRating, or null if the space does not exist or an error occurs
+     */
+    public Float findAverageRating(String parkingId) {
+        ensureRatingColumns();
+        String sql = "SELECT AverageRating FROM " + TABLE_NAME + " WHERE ParkingID = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, parkingId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? resultSet.getFloat("AverageRating") : null;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding average rating for parking space: " + parkingId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Get parking spaces ordered by average rating, highest first
+     * Ties are broken by review count, then ID; the order is served by idx_space_rating.
+     *
+     * @param limit Maximum number of spaces to return, 0 for all
+     * @return Parking spaces ordered by rating
+     */
+    public List<ParkingSpace> getParkingSpacesByRating(int limit) {
+        ensureRatingColumns();
+        String sql = "SELECT * FROM " + TABLE_NAME + " ORDER BY AverageRating DESC, RatingCount DESC, ParkingID" +
+                (limit > 0 ? " LIMIT ?" : "");
+        List<ParkingSpace> parkingSpaces = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            if (limit > 0) {
+                preparedStatement.setInt(1, limit);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    parkingSpaces.add(extractParkingSpaceFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting parking spaces by rating", e);
+        }
+        return parkingSpaces;
+    }
+
+    /**
+     * Get parking space IDs ordered by average rating, highest first
+     *
+     * @param limit Maximum number of IDs to return, 0 for all
+     * @return Parking space IDs ordered by rating
+     */
+    public List<String> getParkingSpaceIdsByRating(int limit) {
+        ensureRatingColumns();
+        String sql = "SELECT ParkingID FROM " + TABLE_NAME + " ORDER BY AverageRating DESC, RatingCount DESC, ParkingID" +
+                (limit > 0 ? " LIMIT ?" : "");
+        List<String> parkingIds = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            if (limit > 0) {
+                preparedStatement.setInt(1, limit);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    parkingIds.add(resultSet.getString("ParkingID"));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting parking space IDs by rating", e);
+        }
+        return parkingIds;
+    }
+
     /**
      * Helper method to extract a ParkingSpace object from a ResultSet
      *
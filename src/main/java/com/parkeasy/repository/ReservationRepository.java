@@ -1,8 +1,10 @@
 package main.java.com.parkeasy.repository;
 
+import main.java.com.parkeasy.model.LedgerEntry;
 import main.java.com.parkeasy.model.Reservation;
 import main.java.com.parkeasy.util.Constants;
 import main.java.com.parkeasy.util.DatabaseConnection;
+import main.java.com.parkeasy.util.DateTimeUtil;
 
 import java.sql.*;
 import java.time.LocalDateTime;
@@ -15,6 +17,21 @@ import java.util.logging.Logger;
 public class ReservationRepository {
     private static final Logger LOGGER = Logger.getLogger(ReservationRepository.class.getName());
     private static final String TABLE_NAME = "PARKING_RESERVATION";
+    // Reservations of a user's vehicles joined with the parking space of their slot
+    private static final String SELECT_WITH_PARKING =
+            "SELECT r.*, s.ParkingID, ps.ParkingAddress, ps.CostOfParking FROM " + TABLE_NAME + " r " +
+            "JOIN VEHICLE v ON r.VehicleID = v.VehicleID " +
+            "LEFT JOIN PARKING_SLOT s ON r.SlotNumber = s.SlotNumber " +
+            "LEFT JOIN PARKING_SPACE ps ON s.ParkingID = ps.ParkingID ";
+    // The fee of reservation r was taken: the ledger holds the user's payment for it, or it was
+    // booked before the ledger recorded opening balances, when every booking was charged up front.
+    // Takes the name of the opening-balance backfill as its one parameter.
+    private static final String CHARGED_CONDITION =
+            "(EXISTS (SELECT 1 FROM LEDGER_ENTRY l WHERE l.ReservationID = r.ReservationID " +
+            "AND l.AccountType = '" + LedgerEntry.ACCOUNT_USER + "' AND l.EntryType = '" +
+            LedgerEntry.TYPE_PAYMENT + "') " +
+            "OR r.CreatedAt IS NULL " +
+            "OR NOT EXISTS (SELECT 1 FROM ROLLUP_STATE st WHERE st.RollupName = ? AND st.BackfilledAt <= r.CreatedAt))";
 
     /**
      * Insert a new reservation into the database
@@ -28,16 +45,7 @@ public class ReservationRepository {
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         try (Connection connection = DatabaseConnection.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            preparedStatement.setInt(1, reservation.getReservationID());
-            preparedStatement.setDate(2, reservation.getStartDate());
-            preparedStatement.setDate(3, reservation.getEndDate());
-            preparedStatement.setTime(4, reservation.getStartTime());
-            preparedStatement.setTime(5, reservation.getEndTime());
-            preparedStatement.setTimestamp(6, reservation.getCreatedAt());
-            preparedStatement.setString(7, reservation.getStatus());
-            preparedStatement.setFloat(8, reservation.getFee()); // Add Fee parameter
-            preparedStatement.setString(9, reservation.getVehicleID());
-            preparedStatement.setString(10, reservation.getSlotNumber());
+            bindReservationInsert(preparedStatement, reservation);
 
             int rowsAffected = preparedStatement.executeUpdate();
             if (rowsAffected > 0) {
@@ -53,6 +61,91 @@ public class ReservationRepository {
         return 0;
     }
 
+    /**
+     * Insert a new reservation as part of a caller-managed transaction
+     *
+     * @param connection Connection with the open transaction
+     * @param reservation The reservation to insert
+     * @return true if the row was inserted
+     * @throws SQLException if a database error occurs
+     */
+    public boolean insertReservation(Connection connection, Reservation reservation) throws SQLException {
+        String sql = "INSERT INTO " + TABLE_NAME +
+                " (ReservationID, StartDate, EndDate, StartTime, EndTime, CreatedAt, Status, Fee, VehicleID, SlotNumber) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            bindReservationInsert(preparedStatement, reservation);
+            return preparedStatement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Change a reservation's status only if it still has the expected one, as part of a caller-managed transaction
+     * Concurrent callers race on the row lock; only the first of them sees the expected status.
+     *
+     * @param connection Connection with the open transaction
+     * @param reservationId ID of the reservation
+     * @param expectedStatus Status the reservation must have
+     * @param newStatus Status to set
+     * @return true if the reservation had the expected status and was changed
+     * @throws SQLException if a database error occurs
+     */
+    public boolean updateStatusIf(Connection connection, int reservationId, String expectedStatus, String newStatus)
+            throws SQLException {
+        String sql = "UPDATE " + TABLE_NAME + " SET Status = ? WHERE ReservationID = ? AND Status = ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, newStatus);
+            preparedStatement.setInt(2, reservationId);
+            preparedStatement.setString(3, expectedStatus);
+            return preparedStatement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Check for a blocking reservation on a slot overlapping a period, as part of a caller-managed transaction
+     * Bounds are inclusive, matching the availability checks in the service layer.
+     *
+     * @param connection Connection with the open transaction
+     * @param slotNumber The slot number
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return true if an overlapping Processing/Paid/In Use reservation exists
+     * @throws SQLException if a database error occurs
+     */
+    public boolean hasBlockingReservation(Connection connection, String slotNumber,
+                                          LocalDateTime startDateTime, LocalDateTime endDateTime) throws SQLException {
+        String sql = "SELECT 1 FROM " + TABLE_NAME + " " +
+                "WHERE SlotNumber = ? AND Status IN (?, ?, 'In Use') " +
+                "AND StartDate <= ? AND EndDate >= ? " +
+                "AND TIMESTAMP(StartDate, StartTime) <= ? " +
+                "AND TIMESTAMP(EndDate, EndTime) >= ? LIMIT 1";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, slotNumber);
+            preparedStatement.setString(2, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(3, Constants.RESERVATION_PAID);
+            preparedStatement.setDate(4, java.sql.Date.valueOf(endDateTime.toLocalDate()));
+            preparedStatement.setDate(5, java.sql.Date.valueOf(startDateTime.toLocalDate()));
+            preparedStatement.setTimestamp(6, Timestamp.valueOf(endDateTime));
+            preparedStatement.setTimestamp(7, Timestamp.valueOf(startDateTime));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private void bindReservationInsert(PreparedStatement preparedStatement, Reservation reservation) throws SQLException {
+        preparedStatement.setInt(1, reservation.getReservationID());
+        preparedStatement.setDate(2, reservation.getStartDate());
+        preparedStatement.setDate(3, reservation.getEndDate());
+        preparedStatement.setTime(4, reservation.getStartTime());
+        preparedStatement.setTime(5, reservation.getEndTime());
+        preparedStatement.setTimestamp(6, reservation.getCreatedAt());
+        preparedStatement.setString(7, reservation.getStatus());
+        preparedStatement.setFloat(8, reservation.getFee()); // Add Fee parameter
+        preparedStatement.setString(9, reservation.getVehicleID());
+        preparedStatement.setString(10, reservation.getSlotNumber());
+    }
+
 
     /**
      * Get a reservation by its ID
@@ -439,6 +532,89 @@ public class ReservationRepository {
 
         return 0;
     }
+    /**
+     * Gets the total number of reservations of a user
+     *
+     * @param userId The ID of the user
+     * @return Count of reservations over all the user's vehicles
+     */
+    public int getReservationCountByUserId(int userId) {
+        String sql = "SELECT COUNT(*) FROM " + TABLE_NAME + " r " +
+                "JOIN VEHICLE v ON r.VehicleID = v.VehicleID " +
+                "WHERE v.UserID = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, userId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting reservation count by user ID: " + userId, e);
+        }
+        return 0;
+    }
+
+    /**
+     * Get a user's reservations that still hold their slot (Processing or Paid) and have not ended,
+     * over all the user's vehicles, with parking ID, address and hourly rate filled in
+     *
+     * @param userId The ID of the user
+     * @param now The current time
+     * @return Reservations ordered by start, soonest first
+     */
+    public List<Reservation> getOpenReservationsWithParkingByUserId(int userId, LocalDateTime now) {
+        String sql = SELECT_WITH_PARKING +
+                "WHERE v.UserID = ? AND r.Status IN (?, ?) AND TIMESTAMP(r.EndDate, r.EndTime) > ? " +
+                "ORDER BY r.StartDate, r.StartTime, r.ReservationID";
+        List<Reservation> reservations = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, userId);
+            preparedStatement.setString(2, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(3, Constants.RESERVATION_PAID);
+            preparedStatement.setTimestamp(4, Timestamp.valueOf(now));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    reservations.add(extractReservationWithParking(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting open reservations by user ID: " + userId, e);
+        }
+        return reservations;
+    }
+
+    /**
+     * Get a user's most recently created reservations, over all the user's vehicles, with parking
+     * ID, address and hourly rate filled in
+     *
+     * @param userId The ID of the user
+     * @param limit Maximum number of reservations to return
+     * @return Reservations ordered by creation time, newest first
+     */
+    public List<Reservation> getRecentReservationsWithParkingByUserId(int userId, int limit) {
+        String sql = SELECT_WITH_PARKING +
+                "WHERE v.UserID = ? " +
+                "ORDER BY r.CreatedAt DESC, r.ReservationID DESC " +
+                "LIMIT ?";
+        List<Reservation> reservations = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, userId);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    reservations.add(extractReservationWithParking(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting recent reservations by user ID: " + userId, e);
+        }
+        return reservations;
+    }
+
     /**
      * Get the admin ID associated with a parking space
      *
@@ -446,7 +622,7 @@ public class ReservationRepository {
      * @return The ID of the admin who owns the parking space, or 0 if not found
      */
     public int getAdminIdByParkingId(String parkingId) {
-        String sql = "SELECT AdminID FROM parkingspace WHERE ParkingID = ?";
+        String sql = "SELECT AdminID FROM PARKING_SPACE WHERE ParkingID = ?";
         try (Connection connection = DatabaseConnection.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, parkingId);
@@ -460,6 +636,274 @@ public class ReservationRepository {
         return 0; // Return 0 as an invalid/not found admin ID
     }
 
+    /**
+     * Get every reservation that still holds its slot (Processing, Paid or In Use), ended or not
+     *
+     * @return List of blocking reservations
+     */
+    public List<Reservation> getBlockingReservations() {
+        String sql = "SELECT * FROM " + TABLE_NAME + " WHERE Status IN (?, ?, 'In Use')";
+        List<Reservation> reservations = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(2, Constants.RESERVATION_PAID);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    reservations.add(extractReservationFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting blocking reservations", e);
+        }
+        return reservations;
+    }
+
+    /**
+     * Get the reservations of a parking space that still hold their slot (Processing, Paid or
+     * In Use) and end at or after a given time
+     *
+     * @param parkingId The ID of the parking space
+     * @param endingFrom Reservations that ended before this are left out
+     * @return List of blocking reservations
+     */
+    public List<Reservation> getBlockingReservationsByParkingId(String parkingId, LocalDateTime endingFrom) {
+        String sql = "SELECT r.* FROM " + TABLE_NAME + " r " +
+                "JOIN PARKING_SLOT ps ON r.SlotNumber = ps.SlotNumber " +
+                "WHERE ps.ParkingID = ? AND r.Status IN (?, ?, 'In Use') " +
+                "AND r.EndDate >= ? AND TIMESTAMP(r.EndDate, r.EndTime) >= ?";
+        List<Reservation> reservations = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, parkingId);
+            preparedStatement.setString(2, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(3, Constants.RESERVATION_PAID);
+            preparedStatement.setDate(4, java.sql.Date.valueOf(endingFrom.toLocalDate()));
+            preparedStatement.setTimestamp(5, Timestamp.valueOf(endingFrom));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    reservations.add(extractReservationFromResultSet(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting blocking reservations by parking ID: " + parkingId, e);
+        }
+        return reservations;
+    }
+
+    /**
+     * Mark charged reservations Completed, as part of the caller's transaction
+     * Only reservations that were paid for and whose end has passed are changed: Paid and In Use
+     * ones, and Processing ones whose fee was taken at booking. A reservation completed, cancelled
+     * or extended in the meantime is left alone. Uncharged ones are left to
+     * {@link #expireUnpaidReservations}.
+     *
+     * @param connection Connection with the open transaction
+     * @param reservationIds IDs of the reservations that ended
+     * @param now The current time
+     * @return IDs of the reservations completed
+     * @throws SQLException if a database error occurs
+     */
+    public List<Integer> completeEndedReservations(Connection connection, List<Integer> reservationIds,
+                                                   LocalDateTime now) throws SQLException {
+        List<Integer> completed = lockEndedReservations(connection, reservationIds, now,
+                "(r.Status IN (?, 'In Use') OR (r.Status = ? AND " + CHARGED_CONDITION + "))",
+                Constants.RESERVATION_PAID, Constants.RESERVATION_IN_PROCESS, LedgerRepository.OPENING_BALANCES);
+        setStatus(connection, completed, Constants.RESERVATION_COMPLETE);
+        return completed;
+    }
+
+    /**
+     * Cancel reservations that ended without being paid, as part of the caller's transaction
+     * A Processing reservation whose end has passed and that has no payment in the ledger was never
+     * charged; it becomes Cancelled rather than Completed, so it does not count as revenue and
+     * there is nothing to refund.
+     *
+     * @param connection Connection with the open transaction
+     * @param reservationIds IDs of the reservations that ended
+     * @param now The current time
+     * @return IDs of the reservations cancelled
+     * @throws SQLException if a database error occurs
+     */
+    public List<Integer> expireUnpaidReservations(Connection connection, List<Integer> reservationIds,
+                                                  LocalDateTime now) throws SQLException {
+        List<Integer> cancelled = lockEndedReservations(connection, reservationIds, now,
+                "r.Status = ? AND NOT " + CHARGED_CONDITION,
+                Constants.RESERVATION_IN_PROCESS, LedgerRepository.OPENING_BALANCES);
+        setStatus(connection, cancelled, Constants.RESERVATION_CANCELLED);
+        return cancelled;
+    }
+
+    /**
+     * Lock the given reservations whose end has passed and that match a status condition
+     */
+    private List<Integer> lockEndedReservations(Connection connection, List<Integer> reservationIds,
+                                                LocalDateTime now, String condition, String... conditionValues)
+            throws SQLException {
+        List<Integer> locked = new ArrayList<>();
+        if (reservationIds.isEmpty()) {
+            return locked;
+        }
+        String sql = "SELECT r.ReservationID FROM " + TABLE_NAME + " r " +
+                "WHERE r.ReservationID IN (" + placeholders(reservationIds.size()) + ") " +
+                "AND TIMESTAMP(r.EndDate, r.EndTime) <= ? AND " + condition + " FOR UPDATE";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer reservationId : reservationIds) {
+                preparedStatement.setInt(index++, reservationId);
+            }
+            preparedStatement.setTimestamp(index++, Timestamp.valueOf(now));
+            for (String value : conditionValues) {
+                preparedStatement.setString(index++, value);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    locked.add(resultSet.getInt(1));
+                }
+            }
+        }
+        return locked;
+    }
+
+    private void setStatus(Connection connection, List<Integer> reservationIds, String status)
+            throws SQLException {
+        if (reservationIds.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE " + TABLE_NAME + " SET Status = ? " +
+                "WHERE ReservationID IN (" + placeholders(reservationIds.size()) + ")";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int index = 1;
+            preparedStatement.setString(index++, status);
+            for (Integer reservationId : reservationIds) {
+                preparedStatement.setInt(index++, reservationId);
+            }
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Clear the Occupied flag of slots whose reservation ended or went away, as part of the
+     * caller's transaction
+     * A slot stays occupied while a blocking reservation of it is running. Availability is not
+     * touched, so a slot an admin disabled stays disabled.
+     *
+     * @param connection Connection with the open transaction
+     * @param slotNumbers Slots of the reservations that ended
+     * @param now The current time
+     * @return Number of slots released
+     * @throws SQLException if a database error occurs
+     */
+    public int releaseSlots(Connection connection, List<String> slotNumbers, LocalDateTime now)
+            throws SQLException {
+        if (slotNumbers.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE PARKING_SLOT s SET s.Occupied = FALSE " +
+                "WHERE s.SlotNumber IN (" + placeholders(slotNumbers.size()) + ") AND s.Occupied = TRUE " +
+                "AND NOT EXISTS (SELECT 1 FROM " + TABLE_NAME + " o WHERE o.SlotNumber = s.SlotNumber " +
+                "AND o.Status IN (?, ?, 'In Use') " +
+                "AND TIMESTAMP(o.StartDate, o.StartTime) <= ? AND TIMESTAMP(o.EndDate, o.EndTime) > ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (String slotNumber : slotNumbers) {
+                preparedStatement.setString(index++, slotNumber);
+            }
+            preparedStatement.setString(index++, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(index++, Constants.RESERVATION_PAID);
+            preparedStatement.setTimestamp(index++, Timestamp.valueOf(now));
+            preparedStatement.setTimestamp(index, Timestamp.valueOf(now));
+            return preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Set the Occupied flag of the slots of reservations that have started, as part of the caller's transaction
+     * Only reservations that are still blocking and running right now take their slot. Availability
+     * is not touched; it stays the admin's switch for whether a slot can be booked.
+     *
+     * @param connection Connection with the open transaction
+     * @param reservationIds IDs of the reservations that started
+     * @param now The current time
+     * @return Number of slots occupied
+     * @throws SQLException if a database error occurs
+     */
+    public int occupySlotsOfStartedReservations(Connection connection, List<Integer> reservationIds,
+                                                LocalDateTime now) throws SQLException {
+        if (reservationIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE PARKING_SLOT s JOIN " + TABLE_NAME + " r ON r.SlotNumber = s.SlotNumber " +
+                "SET s.Occupied = TRUE " +
+                "WHERE r.ReservationID IN (" + placeholders(reservationIds.size()) + ") " +
+                "AND r.Status IN (?, ?, 'In Use') " +
+                "AND TIMESTAMP(r.StartDate, r.StartTime) <= ? AND TIMESTAMP(r.EndDate, r.EndTime) > ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer reservationId : reservationIds) {
+                preparedStatement.setInt(index++, reservationId);
+            }
+            preparedStatement.setString(index++, Constants.RESERVATION_IN_PROCESS);
+            preparedStatement.setString(index++, Constants.RESERVATION_PAID);
+            preparedStatement.setTimestamp(index++, Timestamp.valueOf(now));
+            preparedStatement.setTimestamp(index, Timestamp.valueOf(now));
+            return preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Receives the rows of scanReservationTimeline one at a time
+     */
+    @FunctionalInterface
+    public interface TimelineRowHandler {
+        void accept(int reservationId, String slotNumber, String parkingId, long startEpochSecond,
+                    long endEpochSecond, float fee, String status);
+    }
+
+    /**
+     * Stream the slot, parking ID, times, fee and status of every reservation to a handler,
+     * ordered by start, without building Reservation objects
+     * Times are wall-clock epoch seconds as in Reservation.getStartEpochSecond. Reservations without
+     * dates or times are left out; the parking ID is null when the slot no longer exists.
+     *
+     * @param handler Receives each row
+     * @return true if the whole table was read, false on a database error
+     */
+    public boolean scanReservationTimeline(TimelineRowHandler handler) {
+        String sql = "SELECT r.ReservationID, r.SlotNumber, s.ParkingID, r.StartDate, r.StartTime, " +
+                "r.EndDate, r.EndTime, r.Fee, r.Status FROM " + TABLE_NAME + " r " +
+                "LEFT JOIN PARKING_SLOT s ON r.SlotNumber = s.SlotNumber " +
+                "WHERE r.StartDate IS NOT NULL AND r.StartTime IS NOT NULL " +
+                "AND r.EndDate IS NOT NULL AND r.EndTime IS NOT NULL " +
+                "ORDER BY r.StartDate, r.StartTime";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Have the driver stream rows instead of buffering the whole table
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    handler.accept(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3),
+                            DateTimeUtil.toEpochSecond(resultSet.getDate(4), resultSet.getTime(5)),
+                            DateTimeUtil.toEpochSecond(resultSet.getDate(6), resultSet.getTime(7)),
+                            resultSet.getFloat(8), resultSet.getString(9));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error scanning reservation timeline", e);
+            return false;
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return placeholders.toString();
+    }
+
     /**
      * Helper method to extract a Reservation object from a ResultSet
      *
@@ -483,4 +927,16 @@ public class ReservationRepository {
 
         return reservation;
     }
-}
\ No newline at end of file
+
+    /**
+     * Extract a Reservation joined with its parking space (see SELECT_WITH_PARKING)
+     */
+    private Reservation extractReservationWithParking(ResultSet resultSet) throws SQLException {
+        Reservation reservation = extractReservationFromResultSet(resultSet);
+        reservation.setParkingID(resultSet.getString("ParkingID"));
+        reservation.setParkingAddress(resultSet.getString("ParkingAddress"));
+        float hourlyRate = resultSet.getFloat("CostOfParking");
+        reservation.setHourlyRate(resultSet.wasNull() ? null : hourlyRate);
+        return reservation;
+    }
+}
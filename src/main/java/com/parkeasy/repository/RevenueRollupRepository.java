@@ -0,0 +1,223 @@
+package main.java.com.parkeasy.repository;
+
+import main.java.com.parkeasy.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Repository for the REVENUE_DAILY rollup
+ * One row per parking space and day holding the summed transaction amounts and their count.
+ * A transaction counts towards the day its reservation was created, which is the date the
+ * revenue reports have always filtered on.
+ */
+public class RevenueRollupRepository {
+    private static final Logger LOGGER = Logger.getLogger(RevenueRollupRepository.class.getName());
+    private static final String TABLE_NAME = "REVENUE_DAILY";
+
+    private static volatile boolean tableReady;
+
+    // Records whether the backfill has completed, so a backfill cut short is run again
+    private final BackfillStateRepository backfillStateRepository = new BackfillStateRepository();
+
+    /**
+     * Create the rollup table on first use and backfill it from existing transactions
+     * The rollup only counts as ready once a backfill has committed, which the backfill records in
+     * ROLLUP_STATE in its own transaction; one that failed or was cut short by a crash is retried
+     * on the next call. Runs on its own connection because DDL commits implicitly; call it before
+     * opening a transaction that records revenue.
+     *
+     * @return true if the rollup is complete and can be read
+     */
+    public boolean ensureTable() {
+        if (tableReady) {
+            return true;
+        }
+        synchronized (RevenueRollupRepository.class) {
+            if (tableReady) {
+                return true;
+            }
+            boolean backfilled;
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                createTables(connection);
+                backfilled = backfillStateRepository.isRecorded(connection, TABLE_NAME);
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error creating revenue rollup table", e);
+                return false;
+            }
+
+            if (!backfilled && !backfill()) {
+                return false;
+            }
+            tableReady = true;
+            return true;
+        }
+    }
+
+    private void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+                    "ParkingID VARCHAR(50) NOT NULL, " +
+                    "Day DATE NOT NULL, " +
+                    "Revenue DECIMAL(14,2) NOT NULL DEFAULT 0, " +
+                    "TxCount INT NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY (ParkingID, Day), " +
+                    "INDEX idx_revenue_day (Day))");
+        }
+        backfillStateRepository.ensureTable(connection);
+    }
+
+    /**
+     * Add one transaction to its parking space's daily row, as part of the caller's transaction
+     * The parking space and day are resolved inside the statement, so this is a single round trip.
+     *
+     * @param connection Connection with the open transaction
+     * @param reservationId Reservation the transaction pays for
+     * @param amount Transaction amount
+     * @return true if a row was inserted or updated
+     * @throws SQLException if a database error occurs
+     */
+    public boolean addTransaction(Connection connection, int reservationId, float amount) throws SQLException {
+        String sql = "INSERT INTO " + TABLE_NAME + " (ParkingID, Day, Revenue, TxCount) " +
+                "SELECT s.ParkingID, DATE(r.CreatedAt), ?, 1 FROM PARKING_RESERVATION r " +
+                "JOIN PARKING_SLOT s ON r.SlotNumber = s.SlotNumber " +
+                "WHERE r.ReservationID = ? " +
+                "ON DUPLICATE KEY UPDATE Revenue = Revenue + VALUES(Revenue), TxCount = TxCount + 1";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setFloat(1, amount);
+            preparedStatement.setInt(2, reservationId);
+            return preparedStatement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Rebuild the rollup from the TRANSACTION table
+     * Runs automatically until one run has completed; can be run again to repair drift. The rows
+     * and the completion record commit together, so readers never see a partial rollup.
+     *
+     * @return true if successful, false otherwise
+     */
+    public boolean backfill() {
+        Connection connection = null;
+        try {
+            connection = DatabaseConnection.getConnection();
+            createTables(connection);
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DELETE FROM " + TABLE_NAME);
+                int rows = statement.executeUpdate("INSERT INTO " + TABLE_NAME + " (ParkingID, Day, Revenue, TxCount) " +
+                        "SELECT s.ParkingID, DATE(r.CreatedAt), SUM(t.Amount), COUNT(*) FROM TRANSACTION t " +
+                        "JOIN PARKING_RESERVATION r ON t.ReservationID = r.ReservationID " +
+                        "JOIN PARKING_SLOT s ON r.SlotNumber = s.SlotNumber " +
+                        "GROUP BY s.ParkingID, DATE(r.CreatedAt)");
+                backfillStateRepository.record(connection, TABLE_NAME);
+                connection.commit();
+                LOGGER.log(Level.INFO, "Backfilled {0} rows into " + TABLE_NAME, rows);
+                return true;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error backfilling revenue rollup", e);
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back revenue backfill", ex);
+            }
+            return false;
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Get per-day revenue across all parking spaces of an admin
+     *
+     * @param adminId Admin ID
+     * @param fromDay First day (inclusive)
+     * @param toDay Last day (inclusive)
+     * @return Map of day to a map with "revenue" (Float) and "transactionCount" (Integer); days without revenue are absent
+     */
+    public Map<LocalDate, Map<String, Object>> getDailyRevenueByAdminId(int adminId, LocalDate fromDay, LocalDate toDay) {
+        Map<LocalDate, Map<String, Object>> days = new HashMap<>();
+        if (!ensureTable()) {
+            LOGGER.log(Level.WARNING, "Revenue rollup is not backfilled yet; no daily revenue for admin: {0}", adminId);
+            return days;
+        }
+        String sql = "SELECT rd.Day, SUM(rd.Revenue) AS Revenue, SUM(rd.TxCount) AS TxCount " +
+                "FROM " + TABLE_NAME + " rd " +
+                "JOIN PARKING_SPACE ps ON rd.ParkingID = ps.ParkingID " +
+                "WHERE ps.AdminID = ? AND rd.Day BETWEEN ? AND ? " +
+                "GROUP BY rd.Day";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, adminId);
+            preparedStatement.setDate(2, java.sql.Date.valueOf(fromDay));
+            preparedStatement.setDate(3, java.sql.Date.valueOf(toDay));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    Map<String, Object> day = new HashMap<>();
+                    day.put("revenue", resultSet.getFloat("Revenue"));
+                    day.put("transactionCount", resultSet.getInt("TxCount"));
+                    days.put(resultSet.getDate("Day").toLocalDate(), day);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting daily revenue for admin: " + adminId, e);
+        }
+        return days;
+    }
+
+    /**
+     * Get per-day revenue rows for one parking space
+     *
+     * @param parkingId Parking space ID
+     * @param fromDay First day (inclusive)
+     * @param toDay Last day (inclusive)
+     * @return Rows with "date" (LocalDate), "revenue" (Float) and "transactionCount" (Integer), oldest first
+     */
+    public List<Map<String, Object>> getDailyRevenueByParkingId(String parkingId, LocalDate fromDay, LocalDate toDay) {
+        List<Map<String, Object>> days = new ArrayList<>();
+        if (!ensureTable()) {
+            LOGGER.log(Level.WARNING, "Revenue rollup is not backfilled yet; no daily revenue for parking ID: {0}", parkingId);
+            return days;
+        }
+        String sql = "SELECT Day, Revenue, TxCount FROM " + TABLE_NAME + " " +
+                "WHERE ParkingID = ? AND Day BETWEEN ? AND ? ORDER BY Day";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, parkingId);
+            preparedStatement.setDate(2, java.sql.Date.valueOf(fromDay));
+            preparedStatement.setDate(3, java.sql.Date.valueOf(toDay));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    Map<String, Object> day = new HashMap<>();
+                    day.put("date", resultSet.getDate("Day").toLocalDate());
+                    day.put("revenue", resultSet.getFloat("Revenue"));
+                    day.put("transactionCount", resultSet.getInt("TxCount"));
+                    days.add(day);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting daily revenue for parking space: " + parkingId, e);
+        }
+        return days;
+    }
+}
@@ -7,10 +7,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,6 +20,9 @@ import java.util.logging.Logger;
  */
 public class ReviewRepository {
     private static final Logger LOGGER = Logger.getLogger(ReviewRepository.class.getName());
+    private static final IdAllocator REVIEW_IDS = new SegmentIdAllocator("PARKING_REVIEW", "ReviewID");
+
+    private final ParkingSpaceRepository parkingSpaceRepository = new ParkingSpaceRepository();
 
     /**
      * Generate a new unique review ID
@@ -28,16 +31,8 @@ public class ReviewRepository {
      * @throws SQLException If a database error occurs
      */
     public int generateReviewId() throws SQLException {
-        int newId = 1;
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT MAX(ReviewID) FROM PARKING_REVIEW")) {
-
-            if (rs.next() && rs.getObject(1) != null) {
-                newId = rs.getInt(1) + 1;
-            }
-        }
-        return newId;
+        // Served from a reserved block; MAX(ReviewID) + 1 handed the same ID to concurrent writers
+        return REVIEW_IDS.nextId();
     }
 
     /**
@@ -52,17 +47,30 @@ public class ReviewRepository {
         // Updated SQL query to include ParkingID
         String query = "INSERT INTO PARKING_REVIEW (ReviewID, UserID, ReservationID, Rating, ParkingID) VALUES (?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+        parkingSpaceRepository.ensureRatingColumns();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setInt(1, review.getReviewID());
-            pstmt.setInt(2, review.getUserID());
-            pstmt.setInt(3, review.getReservationID());
-            pstmt.setInt(4, review.getRating());
-            pstmt.setString(5, parkingId);
+                pstmt.setInt(1, review.getReviewID());
+                pstmt.setInt(2, review.getUserID());
+                pstmt.setInt(3, review.getReservationID());
+                pstmt.setInt(4, review.getRating());
+                pstmt.setString(5, parkingId);
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                parkingSpaceRepository.applyRatingDelta(conn, parkingId, review.getRating(), 1);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
 
@@ -181,14 +189,32 @@ public class ReviewRepository {
         // Updated SQL query to only update the Rating field
         String query = "UPDATE PARKING_REVIEW SET Rating = ? WHERE ReviewID = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+        parkingSpaceRepository.ensureRatingColumns();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map.Entry<String, Integer> existing = lockReviewRating(conn, review.getReviewID());
+                if (existing == null) {
+                    conn.rollback();
+                    return false;
+                }
 
-            pstmt.setInt(1, review.getRating());
-            pstmt.setInt(2, review.getReviewID());
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    pstmt.setInt(1, review.getRating());
+                    pstmt.setInt(2, review.getReviewID());
+                    pstmt.executeUpdate();
+                }
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+                parkingSpaceRepository.applyRatingDelta(conn, existing.getKey(),
+                        review.getRating() - existing.getValue(), 0);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
 
@@ -202,36 +228,75 @@ public class ReviewRepository {
     public boolean deleteReview(int reviewId) throws SQLException {
         String query = "DELETE FROM PARKING_REVIEW WHERE ReviewID = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+        parkingSpaceRepository.ensureRatingColumns();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map.Entry<String, Integer> existing = lockReviewRating(conn, reviewId);
+                if (existing == null) {
+                    conn.rollback();
+                    return false;
+                }
 
-            pstmt.setInt(1, reviewId);
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    pstmt.setInt(1, reviewId);
+                    pstmt.executeUpdate();
+                }
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+                parkingSpaceRepository.applyRatingDelta(conn, existing.getKey(), -existing.getValue(), -1);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
 
     /**
-     * Update the average rating for a parking space
+     * Lock a review row for the rest of the caller's transaction
+     * The Review model does not carry the ParkingID, so it is returned alongside the rating.
      *
-     * @param parkingId The ID of the parking space
-     * @param newRating The new average rating
-     * @return true if successful, false otherwise
+     * @param conn Connection with the open transaction
+     * @param reviewId The ID of the review
+     * @return ParkingID and current rating, or null if not found
+     * @throws SQLException If a database error occurs
+     */
+    private Map.Entry<String, Integer> lockReviewRating(Connection conn, int reviewId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT ParkingID, Rating FROM PARKING_REVIEW WHERE ReviewID = ? FOR UPDATE")) {
+            pstmt.setInt(1, reviewId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? Map.entry(rs.getString("ParkingID"), rs.getInt("Rating")) : null;
+            }
+        }
+    }
+
+    /**
+     * Get the parking ID stored with a review
+     *
+     * @param reviewId The ID of the review
+     * @return The parking ID, or null if not found
      * @throws SQLException If a database error occurs
      */
-    public boolean updateParkingSpaceRating(String parkingId, double newRating) throws SQLException {
-        String query = "UPDATE PARKING_SPACE SET AverageRating = ? WHERE ParkingID = ?";
+    public String getParkingIdByReviewId(int reviewId) throws SQLException {
+        String query = "SELECT ParkingID FROM PARKING_REVIEW WHERE ReviewID = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setDouble(1, newRating);
-            pstmt.setString(2, parkingId);
+            pstmt.setInt(1, reviewId);
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("ParkingID");
+                }
+            }
         }
+
+        return null;
     }
 
     /**
@@ -0,0 +1,171 @@
+package main.java.com.parkeasy.repository;
+
+import main.java.com.parkeasy.util.AppConfig;
+import main.java.com.parkeasy.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hi/lo style ID allocator backed by the ID_SEQUENCE table
+ * Each call to the database reserves a whole block of IDs with one atomic UPDATE, and the
+ * block is then handed out from memory. IDs are unique across threads and across application
+ * instances sharing the database; a block that is not used up before shutdown leaves a gap.
+ * The ID columns are INT. Legacy IDs derived from timestamps can sit close to the int limit, so
+ * seeding refuses to start a sequence with less than db.idMinHeadroom IDs left, and a sequence
+ * that runs low logs a warning well before it fails.
+ */
+public class SegmentIdAllocator implements IdAllocator {
+    private static final Logger LOGGER = Logger.getLogger(SegmentIdAllocator.class.getName());
+
+    private static final String SEQUENCE_TABLE = "ID_SEQUENCE";
+    private static volatile boolean tableReady;
+
+    private final String sequenceName;
+    private final String tableName;
+    private final String idColumn;
+    private final int blockSize;
+    private final long minHeadroom;
+    private boolean warnedLow;
+
+    // Guarded by this
+    private long next;
+    private long limit;
+
+    /**
+     * Create an allocator using the configured block size (db.idBlockSize, default 50)
+     *
+     * @param tableName Table whose IDs are allocated; also used as the sequence name
+     * @param idColumn Primary key column, used once to seed the sequence above existing rows
+     */
+    public SegmentIdAllocator(String tableName, String idColumn) {
+        this(tableName, idColumn, AppConfig.getInt("db.idBlockSize", 50),
+                AppConfig.getLong("db.idMinHeadroom", 1_000_000L));
+    }
+
+    /**
+     * Create an allocator with an explicit block size
+     *
+     * @param tableName Table whose IDs are allocated; also used as the sequence name
+     * @param idColumn Primary key column, used once to seed the sequence above existing rows
+     * @param blockSize Number of IDs reserved per database round trip
+     * @param minHeadroom Fewest IDs that must remain below the int limit when the sequence is seeded
+     */
+    public SegmentIdAllocator(String tableName, String idColumn, int blockSize, long minHeadroom) {
+        this.sequenceName = tableName;
+        this.tableName = tableName;
+        this.idColumn = idColumn;
+        this.blockSize = Math.max(1, blockSize);
+        this.minHeadroom = Math.max(0, minHeadroom);
+    }
+
+    @Override
+    public synchronized int nextId() throws SQLException {
+        if (next >= limit) {
+            long start = reserveBlock();
+            if (start > Integer.MAX_VALUE) {
+                throw new SQLException("ID sequence " + sequenceName + " exhausted the int range of "
+                        + tableName + "." + idColumn);
+            }
+            long headroom = Integer.MAX_VALUE - start + 1;
+            if (headroom < minHeadroom && !warnedLow) {
+                LOGGER.log(Level.WARNING, "ID sequence {0} has only {1} IDs left below the int limit",
+                        new Object[]{sequenceName, headroom});
+                warnedLow = true;
+            }
+            next = start;
+            limit = Math.min(start + blockSize, Integer.MAX_VALUE + 1L);
+        }
+        return (int) next++;
+    }
+
+    /**
+     * Move the sequence forward by one block and return the first ID of that block
+     */
+    private long reserveBlock() throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            if (connection == null) {
+                throw new SQLException("No database connection available");
+            }
+            ensureTable(connection);
+
+            long start = advance(connection);
+            if (start < 0) {
+                seed(connection);
+                start = advance(connection);
+            }
+            if (start < 0) {
+                throw new SQLException("Could not reserve IDs from sequence " + sequenceName);
+            }
+            LOGGER.log(Level.FINE, "Reserved IDs {0}..{1} for {2}",
+                    new Object[]{start, start + blockSize - 1, sequenceName});
+            return start;
+        }
+    }
+
+    /**
+     * Atomically bump NextValue; LAST_INSERT_ID(expr) returns the new value on this connection
+     * without a second locking read
+     *
+     * @return First ID of the reserved block, or -1 if the sequence row does not exist yet
+     */
+    private long advance(Connection connection) throws SQLException {
+        String sql = "UPDATE " + SEQUENCE_TABLE + " SET NextValue = LAST_INSERT_ID(NextValue + ?) " +
+                "WHERE SequenceName = ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, blockSize);
+            preparedStatement.setString(2, sequenceName);
+            if (preparedStatement.executeUpdate() == 0) {
+                return -1;
+            }
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+            return resultSet.next() ? resultSet.getLong(1) - blockSize : -1;
+        }
+    }
+
+    /**
+     * Create the sequence row starting just above the highest existing ID
+     * INSERT IGNORE lets concurrent instances race here safely; only one row wins.
+     *
+     * @throws SQLException if the existing IDs leave fewer than minHeadroom IDs below the int limit
+     */
+    private void seed(Connection connection) throws SQLException {
+        long start;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + tableName)) {
+            start = resultSet.next() ? resultSet.getLong(1) : 1;
+        }
+        long headroom = Integer.MAX_VALUE - start + 1;
+        if (headroom < minHeadroom) {
+            throw new SQLException("Existing IDs of " + tableName + "." + idColumn + " leave only "
+                    + Math.max(0, headroom) + " IDs below the int limit; renumber them or widen the column to BIGINT");
+        }
+
+        String sql = "INSERT IGNORE INTO " + SEQUENCE_TABLE + " (SequenceName, NextValue) VALUES (?, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setString(1, sequenceName);
+            preparedStatement.setLong(2, start);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private static void ensureTable(Connection connection) throws SQLException {
+        if (tableReady) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + SEQUENCE_TABLE + " (" +
+                    "SequenceName VARCHAR(64) NOT NULL PRIMARY KEY, " +
+                    "NextValue BIGINT NOT NULL)");
+        }
+        tableReady = true;
+    }
+}
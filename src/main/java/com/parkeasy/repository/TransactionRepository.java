@@ -18,6 +18,17 @@ import java.util.logging.Logger;
 public class TransactionRepository {
     private static final Logger LOGGER = Logger.getLogger(TransactionRepository.class.getName());
 
+    private final RevenueRollupRepository revenueRollupRepository = new RevenueRollupRepository();
+
+    /**
+     * Make sure the REVENUE_DAILY rollup exists
+     * Must be called before opening a transaction that creates transactions, since creating the
+     * table commits implicitly.
+     */
+    public void ensureRevenueRollup() {
+        revenueRollupRepository.ensureTable();
+    }
+
     /**
      * Create a new transaction in the database
      * 
@@ -25,10 +36,52 @@ public class TransactionRepository {
      * @return true if successful, false otherwise
      */
     public boolean createTransaction(Transaction transaction) {
+        ensureRevenueRollup();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            if (!createTransaction(conn, transaction)) {
+                conn.rollback();
+                return false;
+            }
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error creating transaction", e);
+            try {
+                if (conn != null) {
+                    conn.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back transaction", ex);
+            }
+            return false;
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Create a new transaction as part of a caller-managed transaction
+     * The amount is also added to the REVENUE_DAILY rollup in the same transaction.
+     * 
+     * @param connection Connection with the open transaction
+     * @param transaction Transaction object to create
+     * @return true if successful, false otherwise
+     * @throws SQLException if a database error occurs
+     */
+    public boolean createTransaction(Connection connection, Transaction transaction) throws SQLException {
         String sql = "INSERT INTO TRANSACTION (Amount, ReservationID) VALUES (?, ?)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setFloat(1, transaction.getAmount());
             pstmt.setInt(2, transaction.getReservationID());
@@ -39,14 +92,12 @@ public class TransactionRepository {
                 try (ResultSet rs = pstmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         transaction.setTransactionID(rs.getInt(1));
-                        return true;
+                        return revenueRollupRepository.addTransaction(connection,
+                                transaction.getReservationID(), transaction.getAmount());
                     }
                 }
             }
             
-            return false;
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error creating transaction", e);
             return false;
         }
     }
@@ -138,6 +189,83 @@ public class TransactionRepository {
             return transactions;
         }
     }
+
+    /**
+     * Get transactions for a parking space together with their reservation dates
+     * A single join replaces the slot -> reservation -> transaction lookups.
+     * 
+     * @param parkingId ID of the parking space
+     * @param startDate Only reservations created after this time, or null for no lower bound
+     * @param endDate Only reservations created before this time, or null for no upper bound
+     * @return List of transactions, oldest reservation first
+     */
+    public List<Transaction> getTransactionsByParkingId(String parkingId, LocalDateTime startDate, LocalDateTime endDate) {
+        return getJoinedTransactions("s.ParkingID = ?", parkingId, startDate, endDate);
+    }
+    
+    /**
+     * Get transactions for the parking spaces of an admin together with their reservation dates
+     * 
+     * @param adminId ID of the admin
+     * @param startDate Only reservations created after this time, or null for no lower bound
+     * @param endDate Only reservations created before this time, or null for no upper bound
+     * @return List of transactions, oldest reservation first
+     */
+    public List<Transaction> getTransactionsByAdminId(int adminId, LocalDateTime startDate, LocalDateTime endDate) {
+        return getJoinedTransactions("ps.AdminID = ?", adminId, startDate, endDate);
+    }
+    
+    private List<Transaction> getJoinedTransactions(String ownerCondition, Object owner,
+                                                    LocalDateTime startDate, LocalDateTime endDate) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT t.TransactionID, t.Amount, t.ReservationID, r.CreatedAt, " +
+                "TIMESTAMP(r.StartDate, r.StartTime) AS ReservationStart, " +
+                "TIMESTAMP(r.EndDate, r.EndTime) AS ReservationEnd " +
+                "FROM TRANSACTION t " +
+                "JOIN PARKING_RESERVATION r ON t.ReservationID = r.ReservationID " +
+                "JOIN PARKING_SLOT s ON r.SlotNumber = s.SlotNumber " +
+                "JOIN PARKING_SPACE ps ON s.ParkingID = ps.ParkingID ");
+        sql.append("WHERE ").append(ownerCondition);
+        // Exclusive bounds, as the date-range filters in TransactionService always were
+        if (startDate != null) {
+            sql.append(" AND r.CreatedAt > ?");
+        }
+        if (endDate != null) {
+            sql.append(" AND r.CreatedAt < ?");
+        }
+        sql.append(" ORDER BY r.CreatedAt, t.TransactionID");
+        
+        List<Transaction> transactions = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            pstmt.setObject(index++, owner);
+            if (startDate != null) {
+                pstmt.setTimestamp(index++, Timestamp.valueOf(startDate));
+            }
+            if (endDate != null) {
+                pstmt.setTimestamp(index, Timestamp.valueOf(endDate));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Transaction transaction = mapResultSetToTransaction(rs);
+                    transaction.setReservationCreatedAt(rs.getTimestamp("CreatedAt"));
+                    transaction.setReservationStart(rs.getTimestamp("ReservationStart"));
+                    transaction.setReservationEnd(rs.getTimestamp("ReservationEnd"));
+                    transactions.add(transaction);
+                }
+            }
+            
+            return transactions;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting transactions where " + ownerCondition + ": " + owner, e);
+            return transactions;
+        }
+    }
+    
     // Add this method to TransactionRepository
     public Map<String, Float> calculateRevenueForAllParkingSpaces(int adminId, LocalDateTime startDate, LocalDateTime endDate) {
         Map<String, Float> revenueBySpace = new HashMap<>();
@@ -46,14 +46,16 @@ public class UserRepository {
     }
 
     /**
-     * Updates an existing user in the database
+     * Updates an existing user's profile in the database
+     * Balance is not written here; money moves only through updateBalance and debitBalance
+     * so a stale User object cannot overwrite a concurrent balance change.
      *
      * @param user User object with updated data
      * @return true if successful, false otherwise
      * @throws SQLException if a database error occurs
      */
     public boolean updateUser(User user) throws SQLException {
-        String sql = "UPDATE USER SET UserName = ?, Phone = ?, Email = ?, Password = ?, Balance = ? WHERE UserID = ?";
+        String sql = "UPDATE USER SET UserName = ?, Phone = ?, Email = ?, Password = ? WHERE UserID = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -62,8 +64,7 @@ public class UserRepository {
             pstmt.setString(2, user.getPhone());
             pstmt.setString(3, user.getEmail());
             pstmt.setString(4, user.getPassword());
-            pstmt.setFloat(5, user.getBalance());
-            pstmt.setInt(6, user.getUserID());
+            pstmt.setInt(5, user.getUserID());
 
             int rowsAffected = pstmt.executeUpdate();
             return rowsAffected > 0;
@@ -92,6 +93,62 @@ public class UserRepository {
         }
     }
 
+    /**
+     * Deducts an amount from user's balance only if the balance covers it
+     *
+     * @param userId User ID
+     * @param amount Amount to deduct (positive)
+     * @return true if the balance was debited, false if the user does not exist or has insufficient funds
+     * @throws SQLException if a database error occurs
+     */
+    public boolean debitBalance(int userId, float amount) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return debitBalance(conn, userId, amount);
+        }
+    }
+
+    /**
+     * Deducts an amount from user's balance only if the balance covers it, as part of a caller-managed transaction
+     * The guarded UPDATE both checks and debits, so no prior SELECT of the balance is needed.
+     *
+     * @param connection Connection with the open transaction
+     * @param userId User ID
+     * @param amount Amount to deduct (positive)
+     * @return true if the balance was debited, false if the user does not exist or has insufficient funds
+     * @throws SQLException if a database error occurs
+     */
+    public boolean debitBalance(Connection connection, int userId, float amount) throws SQLException {
+        String sql = "UPDATE USER SET Balance = Balance - ? WHERE UserID = ? AND Balance >= ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setFloat(1, amount);
+            pstmt.setInt(2, userId);
+            pstmt.setFloat(3, amount);
+
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Updates user's balance as part of a caller-managed transaction
+     *
+     * @param connection Connection with the open transaction
+     * @param userId User ID
+     * @param amount Amount to add to balance (use negative for deduction)
+     * @return true if successful, false otherwise
+     * @throws SQLException if a database error occurs
+     */
+    public boolean updateBalance(Connection connection, int userId, float amount) throws SQLException {
+        String sql = "UPDATE USER SET Balance = Balance + ? WHERE UserID = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setFloat(1, amount);
+            pstmt.setInt(2, userId);
+
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
     /**
      * Deletes a user from the database
      *
@@ -8,10 +8,23 @@ import main.java.com.parkeasy.repository.ParkingSlotRepository;
 import main.java.com.parkeasy.repository.ParkingSpaceRepository;
 import main.java.com.parkeasy.repository.ReservationRepository;
 import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.util.AppConfig;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,6 +34,10 @@ import java.util.logging.Logger;
 public class AdminService {
     private static final Logger LOGGER = Logger.getLogger(AdminService.class.getName());
 
+    // Shared by all dashboards so concurrent refreshes cannot exhaust the connection pool
+    private static final ExecutorService DASHBOARD_EXECUTOR = createDashboardExecutor();
+    private static final long SECTION_TIMEOUT_MILLIS = AppConfig.getLong("dashboard.sectionTimeoutMillis", 5000);
+
     private final AdminRepository adminRepository;
     private final ParkingSpaceRepository parkingSpaceRepository;
     private final ParkingSlotRepository parkingSlotRepository;
@@ -163,6 +180,9 @@ public class AdminService {
         try {
             LOGGER.log(Level.INFO, "Creating new parking space: {0}", parkingSpace.getParkingID());
             int id = parkingSpaceRepository.addParkingSpace(parkingSpace);
+            if (id > 0) {
+                ParkingSearchIndex.getInstance().put(parkingSpace);
+            }
             return id > 0;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error creating parking space", e);
@@ -179,7 +199,11 @@ public class AdminService {
      */
     public boolean updateParkingSpace(ParkingSpace parkingSpace) throws SQLException {
         LOGGER.log(Level.INFO, "Updating parking space: {0}", parkingSpace.getParkingID());
-        return parkingSpaceRepository.updateParkingSpace(parkingSpace);
+        boolean updated = parkingSpaceRepository.updateParkingSpace(parkingSpace);
+        if (updated) {
+            ParkingSearchIndex.getInstance().put(parkingSpace);
+        }
+        return updated;
     }
 
     /**
@@ -196,7 +220,11 @@ public class AdminService {
             parkingSlotRepository.deleteParkingSlotsByParkingId(parkingId);
 
             // Then delete the parking space itself
-            return parkingSpaceRepository.deleteParkingSpace(parkingId);
+            boolean deleted = parkingSpaceRepository.deleteParkingSpace(parkingId);
+            if (deleted) {
+                ParkingSearchIndex.getInstance().remove(parkingId);
+            }
+            return deleted;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error deleting parking space", e);
             return false;
@@ -223,62 +251,165 @@ public class AdminService {
      * @return Map containing dashboard summary data
      */
     public Map<String, Object> getDashboardSummary(int adminId) {
-        Map<String, Object> summary = new HashMap<>();
         try {
-            // Get admin information
-            Admin admin = getAdminById(adminId);
-            if (admin == null) {
-                LOGGER.log(Level.WARNING, "Admin not found: {0}", adminId);
-                return Map.of(
-                        "success", false,
-                        "message", "Admin not found"
-                );
-            }
-
-            summary.put("admin", admin);
-
-            // Get parking spaces managed by this admin
-            List<ParkingSpace> parkingSpaces = parkingSpaceRepository.getParkingSpacesByAdminId(adminId);
-            summary.put("parkingSpaceCount", parkingSpaces.size());
-            summary.put("parkingSpaces", parkingSpaces);
-
-            // Calculate total slots
-            int totalSlots = getTotalSlotsByAdminId(adminId);
-            summary.put("totalSlots", totalSlots);
-
-            // Calculate occupied slots
-            int occupiedSlots = getOccupiedSlotCountByAdminId(adminId);
-            summary.put("occupiedSlots", occupiedSlots);
+            return getDashboardSummaryAsync(adminId, null).join();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error generating dashboard summary for admin: " + adminId, e);
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("success", false);
+            summary.put("message", "Error generating dashboard summary: " + e.getMessage());
+            return summary;
+        }
+    }
 
-            // Calculate occupancy rate
-            float occupancyRate = totalSlots > 0 ? (float)(occupiedSlots) / totalSlots * 100 : 0;
-            summary.put("occupancyRate", occupancyRate);
+    /**
+     * Compute the dashboard summary with its sections running in parallel
+     * Each section (admin, parking spaces, occupied slots, today/monthly revenue, most popular space)
+     * runs on the shared dashboard executor with its own timeout (dashboard.sectionTimeoutMillis),
+     * after which it is cancelled.
+     * A section that fails or times out is left out of the summary and listed under "failedSections";
+     * the rest of the summary is still returned, with "partial" set to true.
+     *
+     * @param adminId Admin ID
+     * @param sectionListener Called with each summary key and value as soon as it is known, on a
+     *                        worker thread; may be null
+     * @return Future of the same map {@link #getDashboardSummary(int)} returns, plus "partial" and "failedSections"
+     */
+    public CompletableFuture<Map<String, Object>> getDashboardSummaryAsync(int adminId,
+                                                                          BiConsumer<String, Object> sectionListener) {
+        Map<String, Object> summary = new ConcurrentHashMap<>();
+        List<String> failedSections = Collections.synchronizedList(new ArrayList<>());
+        BiConsumer<String, Object> publish = (key, value) -> {
+            if (value == null) {
+                return;
+            }
+            summary.put(key, value);
+            if (sectionListener != null) {
+                sectionListener.accept(key, value);
+            }
+        };
+
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        LocalDateTime endOfDay = startOfDay.plusDays(1);
+        LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        LocalDateTime endOfMonth = startOfMonth.plusMonths(1);
+
+        CompletableFuture<Admin> adminFuture = runSection("admin", adminId, failedSections,
+                () -> getAdminById(adminId));
+        adminFuture.thenAccept(admin -> publish.accept("admin", admin));
+
+        // Total slots are summed from the parking spaces instead of loading them a second time
+        CompletableFuture<List<ParkingSpace>> spacesFuture = runSection("parkingSpaces", adminId, failedSections,
+                () -> parkingSpaceRepository.getParkingSpacesByAdminId(adminId));
+        CompletableFuture<Integer> totalSlotsFuture = spacesFuture.thenApply(spaces -> {
+            if (spaces == null) {
+                return null;
+            }
+            publish.accept("parkingSpaces", spaces);
+            publish.accept("parkingSpaceCount", spaces.size());
+            int totalSlots = 0;
+            for (ParkingSpace space : spaces) {
+                totalSlots += space.getNumberOfSlots();
+            }
+            publish.accept("totalSlots", totalSlots);
+            return totalSlots;
+        });
 
-            // Get revenue statistics for today
-            LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime endOfDay = startOfDay.plusDays(1);
-            Map<String, Object> todayRevenue = revenueService.getRevenueStatistics(adminId, startOfDay, endOfDay);
-            summary.put("todayRevenue", todayRevenue.getOrDefault("totalRevenue", 0.0));
+        CompletableFuture<Integer> occupiedFuture = runSection("occupiedSlots", adminId, failedSections,
+                () -> getOccupiedSlotCountByAdminId(adminId));
+        occupiedFuture.thenAccept(occupied -> publish.accept("occupiedSlots", occupied));
 
-            // Get revenue statistics for this month
-            LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime endOfMonth = startOfMonth.plusMonths(1);
-            Map<String, Object> monthlyRevenue = revenueService.getRevenueStatistics(adminId, startOfMonth, endOfMonth);
-            summary.put("monthlyRevenue", monthlyRevenue.getOrDefault("totalRevenue", 0.0));
+        CompletableFuture<Void> occupancyFuture = totalSlotsFuture.thenAcceptBoth(occupiedFuture, (total, occupied) -> {
+            if (total != null && occupied != null) {
+                publish.accept("occupancyRate", total > 0 ? (float) occupied / total * 100 : 0.0f);
+            }
+        });
 
-            // Get most popular parking space
-            String mostPopular = getMostPopularParkingSpace(adminId, startOfMonth, endOfMonth);
-            summary.put("mostPopularParkingSpace", mostPopular);
+        CompletableFuture<Void> todayRevenueFuture = runSection("todayRevenue", adminId, failedSections,
+                () -> revenueService.getRevenueStatistics(adminId, startOfDay, endOfDay))
+                .thenAccept(stats -> {
+                    if (stats != null) {
+                        publish.accept("todayRevenue", stats.getOrDefault("totalRevenue", 0.0));
+                    }
+                });
 
-            summary.put("success", true);
+        CompletableFuture<Void> monthlyRevenueFuture = runSection("monthlyRevenue", adminId, failedSections,
+                () -> revenueService.getRevenueStatistics(adminId, startOfMonth, endOfMonth))
+                .thenAccept(stats -> {
+                    if (stats != null) {
+                        publish.accept("monthlyRevenue", stats.getOrDefault("totalRevenue", 0.0));
+                    }
+                });
+
+        CompletableFuture<Void> mostPopularFuture = runSection("mostPopularParkingSpace", adminId, failedSections,
+                () -> getMostPopularParkingSpace(adminId, startOfMonth, endOfMonth))
+                .thenAccept(mostPopular -> publish.accept("mostPopularParkingSpace", mostPopular));
+
+        return CompletableFuture.allOf(adminFuture, occupancyFuture, todayRevenueFuture,
+                        monthlyRevenueFuture, mostPopularFuture)
+                .thenApply(ignored -> {
+                    Map<String, Object> result = new HashMap<>();
+                    if (adminFuture.join() == null && !failedSections.contains("admin")) {
+                        LOGGER.log(Level.WARNING, "Admin not found: {0}", adminId);
+                        result.put("success", false);
+                        result.put("message", "Admin not found");
+                        return result;
+                    }
+                    result.putAll(summary);
+                    result.put("success", true);
+                    result.put("partial", !failedSections.isEmpty());
+                    result.put("failedSections", List.copyOf(failedSections));
+                    return result;
+                });
+    }
 
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error generating dashboard summary for admin: " + adminId, e);
-            summary.put("success", false);
-            summary.put("message", "Error generating dashboard summary: " + e.getMessage());
-        }
+    /**
+     * Run one dashboard section on the dashboard executor
+     * Failures and timeouts are logged and recorded, and complete the section with null. A section
+     * that times out is cancelled, which interrupts its worker thread.
+     */
+    private <T> CompletableFuture<T> runSection(String section, int adminId, List<String> failedSections,
+                                                Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = DASHBOARD_EXECUTOR.submit(() -> {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result
+                .orTimeout(SECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .whenComplete((value, ex) -> {
+                    if (ex instanceof TimeoutException) {
+                        running.cancel(true);
+                    }
+                })
+                .handle((value, ex) -> {
+                    if (ex != null) {
+                        LOGGER.log(Level.WARNING, "Dashboard section " + section + " failed for admin: " + adminId, ex);
+                        failedSections.add(section);
+                        return null;
+                    }
+                    return value;
+                });
+    }
 
-        return summary;
+    /**
+     * Keeps dashboard.threads workers ready and hands sections straight to a thread, never to a queue
+     * A section stuck in a call that ignores the interrupt keeps its thread, so when every worker
+     * is busy an extra thread is started instead of queuing; later refreshes never wait behind a
+     * hung section, and extra threads exit after a minute idle.
+     */
+    private static ExecutorService createDashboardExecutor() {
+        int threads = Math.max(1, AppConfig.getInt("dashboard.threads", 6));
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "dashboard-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     /**
@@ -351,11 +482,12 @@ public class AdminService {
 
             // Get total revenue for the period
             TransactionService transactionService = new TransactionService();
-            float totalRevenue = transactionService.calculateRevenueForAdminByDateRange(adminId, startDate, endDate);
-            statistics.put("totalRevenue", totalRevenue);
-
-            // Get all transactions for the period
             List<Transaction> transactions = transactionService.getTransactionsByAdminIdAndDateRange(adminId, startDate, endDate);
+            float totalRevenue = 0.0f;
+            for (Transaction transaction : transactions) {
+                totalRevenue += transaction.getAmount();
+            }
+            statistics.put("totalRevenue", totalRevenue);
             statistics.put("transactionCount", transactions.size());
 
             // Get parking spaces managed by this admin
@@ -0,0 +1,120 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.ParkingSlot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Slot allocator that scores the free slots on their in-memory timelines
+ * The occupancy calendar gives, for each free slot, the idle time left around the period and how
+ * much of the horizon is already booked; the strategy turns that into a score and the lowest score
+ * wins, ties going to the earlier candidate. Periods outside the calendar's horizon fall back to the
+ * first candidate the availability index reports free.
+ */
+public class CalendarSlotAllocator implements SlotAllocator {
+    private static final Logger LOGGER = Logger.getLogger(CalendarSlotAllocator.class.getName());
+
+    /**
+     * How free slots are ranked
+     */
+    public enum Strategy {
+        /** The first free slot in candidate order */
+        FIRST_FIT {
+            @Override
+            long score(OccupancyCalendar.SlotTimeline timeline) {
+                return 0;
+            }
+        },
+        /** The slot whose idle time around the period is smallest, leaving long gaps free for long bookings */
+        BEST_FIT {
+            @Override
+            long score(OccupancyCalendar.SlotTimeline timeline) {
+                return (long) timeline.getIdleCellsBefore() + timeline.getIdleCellsAfter();
+            }
+        },
+        /** The least booked slot, spreading use evenly over the lot */
+        SPREAD {
+            @Override
+            long score(OccupancyCalendar.SlotTimeline timeline) {
+                return timeline.getOccupiedCells();
+            }
+        };
+
+        abstract long score(OccupancyCalendar.SlotTimeline timeline);
+
+        /**
+         * Parse a strategy name such as "best-fit"
+         *
+         * @param name Strategy name, case-insensitive, with '-' or '_'
+         * @param defaultValue Strategy used when the name is missing or unknown
+         * @return The strategy
+         */
+        public static Strategy fromName(String name, Strategy defaultValue) {
+            if (name == null) {
+                return defaultValue;
+            }
+            try {
+                return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Unknown slot allocation strategy {0}, using {1}",
+                        new Object[]{name, defaultValue});
+                return defaultValue;
+            }
+        }
+    }
+
+    private final OccupancyCalendar occupancyCalendar;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final Strategy strategy;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param occupancyCalendar Calendar the timelines are read from
+     * @param availabilityIndex Index used for periods outside the calendar's horizon
+     * @param strategy How free slots are ranked
+     */
+    public CalendarSlotAllocator(OccupancyCalendar occupancyCalendar, SlotAvailabilityIndex availabilityIndex,
+                                 Strategy strategy) {
+        this.occupancyCalendar = occupancyCalendar;
+        this.availabilityIndex = availabilityIndex;
+        this.strategy = strategy;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public ParkingSlot allocate(String parkingId, List<ParkingSlot> candidates,
+                                LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        List<OccupancyCalendar.SlotTimeline> timelines =
+                occupancyCalendar.freeSlotTimelines(parkingId, candidates, startDateTime, endDateTime);
+        if (timelines == null) {
+            for (ParkingSlot slot : candidates) {
+                if (availabilityIndex.isAvailable(slot.getSlotNumber(), startDateTime, endDateTime)) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+
+        OccupancyCalendar.SlotTimeline best = null;
+        long bestScore = Long.MAX_VALUE;
+        for (OccupancyCalendar.SlotTimeline timeline : timelines) {
+            long score = strategy.score(timeline);
+            if (score < bestScore) {
+                best = timeline;
+                bestScore = score;
+            }
+        }
+        return best != null ? best.getSlot() : null;
+    }
+}
@@ -0,0 +1,265 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.LedgerEntry;
+import main.java.com.parkeasy.repository.AdminRepository;
+import main.java.com.parkeasy.repository.LedgerRepository;
+import main.java.com.parkeasy.repository.UserRepository;
+import main.java.com.parkeasy.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service for money movement through the double-entry ledger
+ * Every movement appends entries that sum to zero. The user side is applied to USER.Balance in the
+ * same transaction (the guarded debit is what enforces sufficient funds), while admin credits are
+ * only appended and later folded into ADMIN.Balance by {@link #settlePending(int)}. That keeps the
+ * shared admin row, which every booking of a garage used to update, off the payment hot path.
+ */
+public class LedgerService {
+    private static final Logger LOGGER = Logger.getLogger(LedgerService.class.getName());
+
+    // Balances are FLOAT columns; differences below a cent are rounding, not drift
+    private static final double TOLERANCE = 0.01;
+
+    private final LedgerRepository ledgerRepository;
+    private final UserRepository userRepository;
+    private final AdminRepository adminRepository;
+
+    /**
+     * Constructor with dependency injection
+     */
+    public LedgerService(LedgerRepository ledgerRepository,
+                         UserRepository userRepository,
+                         AdminRepository adminRepository) {
+        this.ledgerRepository = ledgerRepository;
+        this.userRepository = userRepository;
+        this.adminRepository = adminRepository;
+    }
+
+    /**
+     * Default constructor
+     */
+    public LedgerService() {
+        this.ledgerRepository = new LedgerRepository();
+        this.userRepository = new UserRepository();
+        this.adminRepository = new AdminRepository();
+    }
+
+    /**
+     * Make sure the ledger table exists
+     * Must be called before opening a transaction that records a payment, since creating the
+     * table commits implicitly.
+     */
+    public void ensureLedger() {
+        ledgerRepository.ensureTable();
+    }
+
+    /**
+     * Record a payment from a user to the admin owning a parking space, inside the caller's transaction
+     * The user is debited immediately (only if the balance covers it); the admin credit is queued for settlement.
+     *
+     * @param connection Connection with the open transaction
+     * @param userId Paying user
+     * @param adminId Receiving admin
+     * @param reservationId Reservation being paid for
+     * @param amount Amount to move (positive)
+     * @return true if the payment was recorded, false if the user has insufficient funds
+     * @throws SQLException if a database error occurs
+     */
+    public boolean recordPayment(Connection connection, int userId, int adminId, int reservationId, float amount)
+            throws SQLException {
+        if (!userRepository.debitBalance(connection, userId, amount)) {
+            return false;
+        }
+        List<LedgerEntry> entries = new ArrayList<>(2);
+        entries.add(new LedgerEntry(LedgerEntry.ACCOUNT_USER, userId, -amount,
+                LedgerEntry.TYPE_PAYMENT, reservationId, true));
+        entries.add(new LedgerEntry(LedgerEntry.ACCOUNT_ADMIN, adminId, amount,
+                LedgerEntry.TYPE_PAYMENT, reservationId, false));
+        return ledgerRepository.appendEntries(connection, entries);
+    }
+
+    /**
+     * Add external funds to a user's balance
+     *
+     * @param userId User ID
+     * @param amount Amount to add (positive)
+     * @return true if successful, false otherwise
+     */
+    public boolean topUp(int userId, float amount) {
+        return applyUserMovement(userId, amount, LedgerEntry.TYPE_TOP_UP);
+    }
+
+    /**
+     * Remove funds from a user's balance, only if the balance covers it
+     *
+     * @param userId User ID
+     * @param amount Amount to remove (positive)
+     * @return true if successful, false if the user has insufficient funds or on error
+     */
+    public boolean withdraw(int userId, float amount) {
+        return applyUserMovement(userId, -amount, LedgerEntry.TYPE_WITHDRAWAL);
+    }
+
+    private boolean applyUserMovement(int userId, float delta, String entryType) {
+        ensureLedger();
+        Connection connection = null;
+        try {
+            connection = DatabaseConnection.getConnection();
+            connection.setAutoCommit(false);
+
+            boolean applied = delta >= 0
+                    ? userRepository.updateBalance(connection, userId, delta)
+                    : userRepository.debitBalance(connection, userId, -delta);
+            if (!applied) {
+                connection.rollback();
+                return false;
+            }
+
+            List<LedgerEntry> entries = new ArrayList<>(2);
+            entries.add(new LedgerEntry(LedgerEntry.ACCOUNT_USER, userId, delta, entryType, null, true));
+            entries.add(new LedgerEntry(LedgerEntry.ACCOUNT_EXTERNAL, 0, -delta, entryType, null, true));
+            if (!ledgerRepository.appendEntries(connection, entries)) {
+                connection.rollback();
+                return false;
+            }
+
+            connection.commit();
+            return true;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error recording " + entryType + " for user: " + userId, e);
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back ledger movement", ex);
+            }
+            return false;
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Fold one batch of unsettled entries into account balances
+     * Amounts are summed per account first, so a busy garage gets one balance update per batch
+     * rather than one per booking.
+     *
+     * @param batchSize Maximum number of entries to settle
+     * @return Number of entries settled (0 when nothing was pending or on error)
+     */
+    public int settlePending(int batchSize) {
+        ensureLedger();
+        Connection connection = null;
+        try {
+            connection = DatabaseConnection.getConnection();
+            connection.setAutoCommit(false);
+
+            List<LedgerEntry> pending = ledgerRepository.lockUnsettledEntries(connection, batchSize);
+            if (pending.isEmpty()) {
+                connection.rollback();
+                return 0;
+            }
+
+            Map<Integer, Float> userDeltas = new HashMap<>();
+            Map<Integer, Float> adminDeltas = new HashMap<>();
+            for (LedgerEntry entry : pending) {
+                if (LedgerEntry.ACCOUNT_USER.equals(entry.getAccountType())) {
+                    userDeltas.merge(entry.getAccountID(), entry.getAmount(), Float::sum);
+                } else if (LedgerEntry.ACCOUNT_ADMIN.equals(entry.getAccountType())) {
+                    adminDeltas.merge(entry.getAccountID(), entry.getAmount(), Float::sum);
+                }
+            }
+
+            // Lock order user -> admin, as in the booking transaction
+            for (Map.Entry<Integer, Float> delta : userDeltas.entrySet()) {
+                userRepository.updateBalance(connection, delta.getKey(), delta.getValue());
+            }
+            for (Map.Entry<Integer, Float> delta : adminDeltas.entrySet()) {
+                adminRepository.updateBalance(connection, delta.getKey(), delta.getValue());
+            }
+            ledgerRepository.markSettled(connection, pending);
+
+            connection.commit();
+            LOGGER.log(Level.FINE, "Settled {0} ledger entries", pending.size());
+            return pending.size();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error settling ledger entries", e);
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back settlement", ex);
+            }
+            return 0;
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Check balances against the ledger
+     * Every USER/ADMIN balance must equal the sum of its settled entries, and the entries of each
+     * reservation must net to zero. Totals and balances are read separately, so a settlement that
+     * commits in between can show up as a one-off mismatch; only repeated reports indicate drift.
+     *
+     * @return Human-readable discrepancies; empty when the books balance
+     */
+    public List<String> reconcile() {
+        List<String> discrepancies = new ArrayList<>();
+        try {
+            Map<Integer, Double> userTotals = ledgerRepository.getSettledTotals(LedgerEntry.ACCOUNT_USER);
+            Map<Integer, Float> userBalances = new HashMap<>();
+            userRepository.findAll().forEach(user -> userBalances.put(user.getUserID(), user.getBalance()));
+            compare("User", userBalances, userTotals, discrepancies);
+
+            Map<Integer, Double> adminTotals = ledgerRepository.getSettledTotals(LedgerEntry.ACCOUNT_ADMIN);
+            Map<Integer, Float> adminBalances = new HashMap<>();
+            adminRepository.getAllAdmins().forEach(admin -> adminBalances.put(admin.getAdminID(), admin.getBalance()));
+            compare("Admin", adminBalances, adminTotals, discrepancies);
+
+            for (Map.Entry<Integer, Double> posting : ledgerRepository.getUnbalancedReservations().entrySet()) {
+                discrepancies.add(String.format("Reservation %d entries net to %.2f instead of 0",
+                        posting.getKey(), posting.getValue()));
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error reconciling ledger", e);
+            discrepancies.add("Reconciliation failed: " + e.getMessage());
+        }
+        return discrepancies;
+    }
+
+    private void compare(String label, Map<Integer, Float> balances, Map<Integer, Double> totals,
+                         List<String> discrepancies) {
+        for (Map.Entry<Integer, Float> balance : balances.entrySet()) {
+            double expected = totals.getOrDefault(balance.getKey(), 0.0);
+            if (Math.abs(balance.getValue() - expected) >= TOLERANCE) {
+                discrepancies.add(String.format("%s %d balance %.2f does not match ledger %.2f",
+                        label, balance.getKey(), balance.getValue(), expected));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.util.AppConfig;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background jobs for the payment ledger
+ * Settles queued ledger entries into account balances every ledger.settleIntervalMillis and
+ * reconciles balances against the ledger every ledger.reconcileIntervalMillis.
+ */
+public final class LedgerSettler {
+    private static final Logger LOGGER = Logger.getLogger(LedgerSettler.class.getName());
+
+    private static ScheduledExecutorService scheduler;
+
+    private LedgerSettler() {
+    }
+
+    /**
+     * Start the settlement and reconciliation jobs; calling it again has no effect
+     */
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        LedgerService ledgerService = new LedgerService();
+        long settleInterval = AppConfig.getLong("ledger.settleIntervalMillis", 5000);
+        long reconcileInterval = AppConfig.getLong("ledger.reconcileIntervalMillis", 3600000);
+        int batchSize = AppConfig.getInt("ledger.settleBatchSize", 500);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ledger-settler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                // Keep going while full batches come back so a backlog drains in one run
+                while (ledgerService.settlePending(batchSize) == batchSize) {
+                    LOGGER.log(Level.FINE, "Ledger backlog, settling another batch");
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Ledger settlement failed", e);
+            }
+        }, settleInterval, settleInterval, TimeUnit.MILLISECONDS);
+
+        if (reconcileInterval > 0) {
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    List<String> discrepancies = ledgerService.reconcile();
+                    if (discrepancies.isEmpty()) {
+                        LOGGER.info("Ledger reconciliation: balances match");
+                    } else {
+                        for (String discrepancy : discrepancies) {
+                            LOGGER.warning("Ledger reconciliation: " + discrepancy);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Ledger reconciliation failed", e);
+                }
+            }, reconcileInterval, reconcileInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop the jobs and settle whatever is still queued
+     */
+    public static synchronized void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+
+        LedgerService ledgerService = new LedgerService();
+        int batchSize = AppConfig.getInt("ledger.settleBatchSize", 500);
+        while (ledgerService.settlePending(batchSize) == batchSize) {
+            LOGGER.log(Level.FINE, "Settling remaining ledger entries");
+        }
+    }
+}
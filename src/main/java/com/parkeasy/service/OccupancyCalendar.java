@@ -0,0 +1,532 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.ParkingSlot;
+import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.repository.ParkingSlotRepository;
+import main.java.com.parkeasy.repository.ReservationRepository;
+import main.java.com.parkeasy.util.AppConfig;
+import main.java.com.parkeasy.util.DateTimeUtil;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per parking space occupancy calendar for free-slot searches
+ * Each slot has a bitset with one bit per cell (15 minutes by default) from the start of today
+ * over a rolling horizon (30 days by default). A bit is set when a blocking reservation touches
+ * the cell, so checking a slot for a period is a few word-wise ANDs over the period's cells:
+ * a set bit strictly inside the period is a certain overlap, no set bit is a certain miss, and
+ * only a set bit in the first or last cell, which the period covers partly, is confirmed against
+ * the slot's bookings. Results therefore match the inclusive overlap check of the database query.
+ * A parking space is loaded with one query the first time it is searched, and rebuilt when the
+ * day rolls over. It is then kept current by the changes reported to ReservationChangeDispatcher.
+ * Periods that start before today or end beyond the horizon are left to the database.
+ */
+public class OccupancyCalendar implements ReservationChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(OccupancyCalendar.class.getName());
+
+    private static final OccupancyCalendar INSTANCE = new OccupancyCalendar(
+            new ReservationRepository(),
+            new ParkingSlotRepository(),
+            AppConfig.getInt("occupancy.horizonDays", 30),
+            AppConfig.getInt("occupancy.cellMinutes", 15));
+
+    private final ReservationRepository reservationRepository;
+    private final ParkingSlotRepository parkingSlotRepository;
+    private final long cellSeconds;
+    private final int cells;
+    private final Map<String, ParkingCalendar> calendars = new ConcurrentHashMap<>();
+    // Reservation ID -> parking space whose calendar holds it, so updates that move a reservation can find it
+    private final Map<Integer, String> parkingByReservation = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param reservationRepository Repository the calendars are loaded from
+     * @param parkingSlotRepository Repository used to find the parking space of a reservation's slot
+     * @param horizonDays Number of days covered from the start of today, 0 to disable the calendar
+     * @param cellMinutes Length of one cell
+     */
+    public OccupancyCalendar(ReservationRepository reservationRepository,
+                             ParkingSlotRepository parkingSlotRepository,
+                             int horizonDays, int cellMinutes) {
+        this.reservationRepository = reservationRepository;
+        this.parkingSlotRepository = parkingSlotRepository;
+        this.cellSeconds = Math.max(1, cellMinutes) * 60L;
+        this.cells = (int) (Math.max(0, horizonDays) * 86_400L / cellSeconds);
+    }
+
+    /**
+     * Get the application-wide calendar shared by all services
+     *
+     * @return The shared calendar
+     */
+    public static OccupancyCalendar getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Check whether a period lies within the calendar's horizon
+     *
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return true if freeSlots can answer for this period
+     */
+    public boolean covers(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        long origin = startOfToday();
+        long start = DateTimeUtil.toEpochSecond(startDateTime);
+        long end = DateTimeUtil.toEpochSecond(endDateTime);
+        return cells > 0 && start >= origin && start <= end && end < origin + cells * cellSeconds;
+    }
+
+    /**
+     * Keep the slots that no blocking reservation overlaps during a period
+     * Bounds are inclusive, as in ParkingSlotRepository.getAvailableSlotsForPeriod.
+     *
+     * @param parkingId The ID of the parking space the slots belong to
+     * @param slots Candidate slots
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return The free slots in their original order, or null if the period is outside the horizon
+     */
+    public List<ParkingSlot> freeSlots(String parkingId, List<ParkingSlot> slots,
+                                       LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (!covers(startDateTime, endDateTime)) {
+            return null;
+        }
+        long start = DateTimeUtil.toEpochSecond(startDateTime);
+        long end = DateTimeUtil.toEpochSecond(endDateTime);
+        ParkingCalendar calendar = loadedCalendar(parkingId);
+        List<ParkingSlot> free = new ArrayList<>();
+        synchronized (calendar) {
+            if (start < calendar.origin || end >= calendar.origin + cells * cellSeconds) {
+                // The day rolled over since the covers check
+                return null;
+            }
+            for (ParkingSlot slot : slots) {
+                if (calendar.isFree(slot.getSlotNumber(), start, end)) {
+                    free.add(slot);
+                }
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Describe the timeline around a period of each slot that is free during it
+     * Used to choose between free slots, see SlotAllocator.
+     *
+     * @param parkingId The ID of the parking space the slots belong to
+     * @param slots Candidate slots
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return One timeline per free slot in the original order, or null if the period is outside the horizon
+     */
+    public List<SlotTimeline> freeSlotTimelines(String parkingId, List<ParkingSlot> slots,
+                                                LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (!covers(startDateTime, endDateTime)) {
+            return null;
+        }
+        long start = DateTimeUtil.toEpochSecond(startDateTime);
+        long end = DateTimeUtil.toEpochSecond(endDateTime);
+        ParkingCalendar calendar = loadedCalendar(parkingId);
+        List<SlotTimeline> free = new ArrayList<>();
+        synchronized (calendar) {
+            if (start < calendar.origin || end >= calendar.origin + cells * cellSeconds) {
+                return null;
+            }
+            for (ParkingSlot slot : slots) {
+                if (calendar.isFree(slot.getSlotNumber(), start, end)) {
+                    free.add(calendar.timeline(slot, start, end));
+                }
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Record a newly created reservation
+     *
+     * @param reservation The reservation that was inserted
+     */
+    @Override
+    public void onReservationCreated(Reservation reservation) {
+        onReservationUpdated(reservation);
+    }
+
+    /**
+     * Apply a change to an existing reservation (status, period or slot)
+     * Reservations that no longer block their slot are dropped from the calendar.
+     *
+     * @param reservation The reservation as written to the database
+     */
+    @Override
+    public void onReservationUpdated(Reservation reservation) {
+        if (reservation == null || calendars.isEmpty()) {
+            return;
+        }
+        int reservationId = reservation.getReservationID();
+
+        String previousParking = parkingByReservation.remove(reservationId);
+        if (previousParking != null) {
+            ParkingCalendar previous = calendars.get(previousParking);
+            if (previous != null) {
+                previous.remove(reservationId);
+            }
+        }
+
+        if (!SlotAvailabilityIndex.isBlocking(reservation.getStatus()) || reservation.getSlotNumber() == null
+                || reservation.getStartEpochSecond() == Reservation.NO_TIME
+                || reservation.getEndEpochSecond() == Reservation.NO_TIME) {
+            return;
+        }
+        String parkingId = reservation.getParkingID() != null
+                ? reservation.getParkingID()
+                : parkingSlotRepository.getParkingIdBySlotNumber(reservation.getSlotNumber());
+        ParkingCalendar calendar = parkingId != null ? calendars.get(parkingId) : null;
+        if (calendar != null && calendar.addIfLoaded(toBooking(reservation))) {
+            parkingByReservation.put(reservationId, parkingId);
+        }
+    }
+
+    /**
+     * Forget a reservation that was deleted
+     *
+     * @param reservationId ID of the deleted reservation
+     */
+    @Override
+    public void onReservationDeleted(int reservationId) {
+        String parkingId = parkingByReservation.remove(reservationId);
+        ParkingCalendar calendar = parkingId != null ? calendars.get(parkingId) : null;
+        if (calendar != null) {
+            calendar.remove(reservationId);
+        }
+    }
+
+    /**
+     * Drop reservations the lifecycle scheduler completed or cancelled
+     *
+     * @param completedIds IDs of the reservations marked Completed
+     * @param cancelledIds IDs of the reservations marked Cancelled
+     */
+    @Override
+    public void onReservationsEnded(List<Integer> completedIds, List<Integer> cancelledIds) {
+        completedIds.forEach(this::onReservationDeleted);
+        cancelledIds.forEach(this::onReservationDeleted);
+    }
+
+    /**
+     * Drop every calendar, e.g. after slots were renumbered directly in the database
+     */
+    public void invalidateAll() {
+        calendars.clear();
+        parkingByReservation.clear();
+    }
+
+    private ParkingCalendar loadedCalendar(String parkingId) {
+        ParkingCalendar calendar = calendars.computeIfAbsent(parkingId, k -> new ParkingCalendar());
+        synchronized (calendar) {
+            long origin = startOfToday();
+            if (!calendar.loaded || calendar.origin != origin) {
+                // Loading under the calendar's lock means a concurrent write either waits and is
+                // applied on top of the loaded rows, or committed early enough to be part of them
+                LocalDateTime from = LocalDate.now().atStartOfDay();
+                List<Reservation> reservations = reservationRepository.getBlockingReservationsByParkingId(parkingId, from);
+                calendar.reset(origin);
+                for (Reservation reservation : reservations) {
+                    if (reservation.getSlotNumber() == null || reservation.getStartEpochSecond() == Reservation.NO_TIME
+                            || reservation.getEndEpochSecond() == Reservation.NO_TIME) {
+                        continue;
+                    }
+                    calendar.add(toBooking(reservation));
+                    parkingByReservation.put(reservation.getReservationID(), parkingId);
+                }
+                calendar.loaded = true;
+                LOGGER.log(Level.FINE, "Built occupancy calendar of parking space {0} from {1} reservations",
+                        new Object[]{parkingId, reservations.size()});
+            }
+        }
+        return calendar;
+    }
+
+    private static Booking toBooking(Reservation reservation) {
+        return new Booking(reservation.getReservationID(), reservation.getSlotNumber(),
+                reservation.getStartEpochSecond(), reservation.getEndEpochSecond());
+    }
+
+    // Wall-clock seconds, the same scale as Reservation's epoch-second fields
+    private static long startOfToday() {
+        return DateTimeUtil.toEpochSecond(LocalDate.now().atStartOfDay());
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            words[word] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    private static void clearRange(long[] words, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (firstWord == lastWord) {
+            words[firstWord] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[firstWord] &= ~firstMask;
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            words[word] = 0L;
+        }
+        words[lastWord] &= ~lastMask;
+    }
+
+    private static boolean anySet(long[] words, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (firstWord == lastWord) {
+            return (words[firstWord] & firstMask & lastMask) != 0;
+        }
+        if ((words[firstWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            if (words[word] != 0) {
+                return true;
+            }
+        }
+        return (words[lastWord] & lastMask) != 0;
+    }
+
+    private static boolean isSet(long[] words, int cell) {
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    // Lowest set cell at or after from, or limit if there is none
+    private static int nextSetCell(long[] words, int from, int limit) {
+        int word = from >>> 6;
+        long bits = words[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == words.length) {
+                return limit;
+            }
+            bits = words[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    // Highest set cell at or before from, or -1 if there is none
+    private static int previousSetCell(long[] words, int from) {
+        int word = from >>> 6;
+        long bits = words[word] & (-1L >>> (63 - (from & 63)));
+        while (bits == 0) {
+            if (--word < 0) {
+                return -1;
+            }
+            bits = words[word];
+        }
+        return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+    }
+
+    /**
+     * A free slot and how a booking for a period would sit in its timeline, in cells
+     */
+    public static final class SlotTimeline {
+        private final ParkingSlot slot;
+        private final int idleCellsBefore;
+        private final int idleCellsAfter;
+        private final int occupiedCells;
+
+        private SlotTimeline(ParkingSlot slot, int idleCellsBefore, int idleCellsAfter, int occupiedCells) {
+            this.slot = slot;
+            this.idleCellsBefore = idleCellsBefore;
+            this.idleCellsAfter = idleCellsAfter;
+            this.occupiedCells = occupiedCells;
+        }
+
+        public ParkingSlot getSlot() {
+            return slot;
+        }
+
+        /**
+         * @return Free cells between the slot's previous booking (or the start of today) and the period
+         */
+        public int getIdleCellsBefore() {
+            return idleCellsBefore;
+        }
+
+        /**
+         * @return Free cells between the period and the slot's next booking (or the end of the horizon)
+         */
+        public int getIdleCellsAfter() {
+            return idleCellsAfter;
+        }
+
+        /**
+         * @return Booked cells of the slot over the whole horizon
+         */
+        public int getOccupiedCells() {
+            return occupiedCells;
+        }
+    }
+
+    /**
+     * A blocking reservation of a slot, in seconds
+     */
+    private static final class Booking {
+        private final int reservationId;
+        private final String slotNumber;
+        private final long start;
+        private final long end;
+
+        private Booking(int reservationId, String slotNumber, long start, long end) {
+            this.reservationId = reservationId;
+            this.slotNumber = slotNumber;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * The bitsets of one parking space's slots and the bookings they were built from
+     */
+    private final class ParkingCalendar {
+        private final Map<String, long[]> cellsBySlot = new HashMap<>();
+        private final Map<String, List<Booking>> bookingsBySlot = new HashMap<>();
+        private final Map<Integer, Booking> bookingsById = new HashMap<>();
+        private long origin;
+        private boolean loaded;
+
+        synchronized void reset(long newOrigin) {
+            cellsBySlot.clear();
+            bookingsBySlot.clear();
+            bookingsById.clear();
+            origin = newOrigin;
+            loaded = false;
+        }
+
+        synchronized boolean addIfLoaded(Booking booking) {
+            // Until the calendar is loaded the database is the source of truth, and the row is already there
+            if (!loaded) {
+                return false;
+            }
+            add(booking);
+            return true;
+        }
+
+        synchronized void add(Booking booking) {
+            Booking previous = bookingsById.put(booking.reservationId, booking);
+            if (previous != null) {
+                unmark(previous);
+            }
+            bookingsBySlot.computeIfAbsent(booking.slotNumber, k -> new ArrayList<>()).add(booking);
+            int from = firstCell(booking.start);
+            int to = lastCell(booking.end);
+            if (from <= to) {
+                setRange(cellsBySlot.computeIfAbsent(booking.slotNumber, k -> new long[(cells + 63) >>> 6]), from, to);
+            }
+        }
+
+        synchronized void remove(int reservationId) {
+            Booking previous = bookingsById.remove(reservationId);
+            if (previous != null) {
+                unmark(previous);
+            }
+        }
+
+        /**
+         * Clear a booking's cells, then set again those still touched by the slot's other bookings
+         */
+        private void unmark(Booking booking) {
+            List<Booking> bookings = bookingsBySlot.get(booking.slotNumber);
+            bookings.remove(booking);
+            long[] words = cellsBySlot.get(booking.slotNumber);
+            int from = firstCell(booking.start);
+            int to = lastCell(booking.end);
+            if (words == null || from > to) {
+                return;
+            }
+            clearRange(words, from, to);
+            for (Booking other : bookings) {
+                int otherFrom = Math.max(from, firstCell(other.start));
+                int otherTo = Math.min(to, lastCell(other.end));
+                if (otherFrom <= otherTo) {
+                    setRange(words, otherFrom, otherTo);
+                }
+            }
+        }
+
+        /**
+         * Check a slot for a period that lies within the horizon
+         */
+        boolean isFree(String slotNumber, long start, long end) {
+            long[] words = cellsBySlot.get(slotNumber);
+            if (words == null) {
+                return true;
+            }
+            int first = firstCell(start);
+            int last = lastCell(end);
+            // Cells strictly inside the period lie wholly within it
+            if (last - first >= 2 && anySet(words, first + 1, last - 1)) {
+                return false;
+            }
+            if (!isSet(words, first) && !isSet(words, last)) {
+                return true;
+            }
+            for (Booking booking : bookingsBySlot.get(slotNumber)) {
+                if (booking.start <= end && booking.end >= start) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Measure a free slot's timeline around a period that lies within the horizon
+         */
+        SlotTimeline timeline(ParkingSlot slot, long start, long end) {
+            int first = firstCell(start);
+            int last = lastCell(end);
+            long[] words = cellsBySlot.get(slot.getSlotNumber());
+            if (words == null) {
+                return new SlotTimeline(slot, first, cells - 1 - last, 0);
+            }
+            // A booking may share the period's edge cells, which then leaves no gap on that side
+            int previous = previousSetCell(words, first);
+            int next = nextSetCell(words, last, cells);
+            int occupied = 0;
+            for (long word : words) {
+                occupied += Long.bitCount(word);
+            }
+            return new SlotTimeline(slot, Math.max(0, first - previous - 1), Math.max(0, next - last - 1), occupied);
+        }
+
+        // Cell of a booking's start or end, clamped to just outside the horizon
+        private int firstCell(long second) {
+            return (int) Math.min(cells, Math.max(0, Math.floorDiv(second - origin, cellSeconds)));
+        }
+
+        private int lastCell(long second) {
+            return (int) Math.max(-1, Math.min(cells - 1, Math.floorDiv(second - origin, cellSeconds)));
+        }
+    }
+}
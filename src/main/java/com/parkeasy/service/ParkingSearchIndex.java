@@ -0,0 +1,505 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.ParkingSpace;
+import main.java.com.parkeasy.model.SearchPage;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over parking space addresses and descriptions
+ * Text is lower-cased and stripped of accents, so "Đường" matches "duong" as it does under the
+ * database's accent-insensitive collation. Every query word must match (AND):
+ * - words of {@value #GRAM_LENGTH} or more characters match anywhere in the text, like the old
+ *   LIKE '%word%'; candidates come from a trigram posting list and are confirmed with a substring check;
+ * - shorter words match the start of a word, which is what search-as-you-type needs after one or
+ *   two keystrokes.
+ * Results are ordered by address, price or average rating, then ID, and counts are exact.
+ * The index is loaded once at startup and then kept current by the parking space write paths
+ * (create, update, delete) and, for the average ratings, by the review write paths.
+ */
+public class ParkingSearchIndex {
+    private static final Logger LOGGER = Logger.getLogger(ParkingSearchIndex.class.getName());
+
+    private static final int GRAM_LENGTH = 3;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // For text that still has its accents, which may be stored decomposed
+    private static final Pattern RAW_TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    // Keeps a gram from spanning address and description
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private static final ParkingSearchIndex INSTANCE = new ParkingSearchIndex();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Document> documents = new HashMap<>();
+    private Map<String, Set<String>> gramPostings = new HashMap<>();
+    // Normalized word -> display form and the spaces containing it; sorted for prefix lookups
+    private NavigableMap<String, TokenPosting> tokenPostings = new TreeMap<>();
+    // ParkingID -> AverageRating as stored; spaces without an entry have no reviews
+    private Map<String, Float> averageRatings = new HashMap<>();
+    private boolean loaded;
+    // Changes made while a load is reading the database; replayed on top of the loaded data
+    private List<Consumer<ParkingSearchIndex>> changesDuringLoad;
+
+    /**
+     * Get the application-wide index shared by all services
+     *
+     * @return The shared index
+     */
+    public static ParkingSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Check whether the index has been loaded and can answer searches
+     *
+     * @return true once {@link #load} has completed
+     */
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mark the start of a load; writes from now on are kept and replayed by {@link #load}
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the index contents with the given parking spaces
+     * The new index is built without holding the lock, so searches keep answering from the old one.
+     *
+     * @param parkingSpaces Every parking space
+     * @param ratings ParkingID -> average rating of every parking space
+     */
+    public void load(List<ParkingSpace> parkingSpaces, Map<String, Float> ratings) {
+        ParkingSearchIndex fresh = new ParkingSearchIndex();
+        for (ParkingSpace space : parkingSpaces) {
+            fresh.add(space);
+            Float rating = ratings.get(space.getParkingID());
+            if (rating != null) {
+                fresh.averageRatings.put(space.getParkingID(), rating);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            documents = fresh.documents;
+            gramPostings = fresh.gramPostings;
+            tokenPostings = fresh.tokenPostings;
+            averageRatings = fresh.averageRatings;
+            List<Consumer<ParkingSearchIndex>> changes = changesDuringLoad;
+            changesDuringLoad = null;
+            if (changes != null) {
+                for (Consumer<ParkingSearchIndex> change : changes) {
+                    change.accept(this);
+                }
+            }
+            loaded = true;
+            LOGGER.log(Level.INFO, "Search index loaded with {0} parking spaces ({1} grams, {2} words)",
+                    new Object[]{documents.size(), gramPostings.size(), tokenPostings.size()});
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a parking space
+     *
+     * @param parkingSpace The parking space as stored
+     */
+    public void put(ParkingSpace parkingSpace) {
+        if (parkingSpace == null || parkingSpace.getParkingID() == null) {
+            return;
+        }
+        ParkingSpace copy = copy(parkingSpace);
+        lock.writeLock().lock();
+        try {
+            remove(copy.getParkingID(), false);
+            add(copy);
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(index -> index.put(copy));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Set the average rating of a parking space after one of its reviews changed
+     *
+     * @param parkingId The ID of the parking space
+     * @param averageRating The AverageRating as stored after the change
+     */
+    public void putRating(String parkingId, float averageRating) {
+        if (parkingId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // A rating for a space that is not indexed (yet) is kept and applies once it is added
+            averageRatings.put(parkingId, averageRating);
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(index -> index.putRating(parkingId, averageRating));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a parking space
+     *
+     * @param parkingId The ID of the parking space
+     */
+    public void remove(String parkingId) {
+        lock.writeLock().lock();
+        try {
+            remove(parkingId, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get one page of parking spaces matching a search term
+     *
+     * @param searchTerm The search term
+     * @param page The page number (0-based)
+     * @param pageSize The number of results per page
+     * @return Copies of the matching parking spaces on that page
+     */
+    public List<ParkingSpace> search(String searchTerm, int page, int pageSize) {
+        lock.readLock().lock();
+        try {
+            List<Document> matches = match(searchTerm);
+            matches.sort(Comparator.comparing((Document document) -> document.sortKey)
+                    .thenComparing(document -> document.space.getParkingID()));
+
+            int from = Math.max(0, page) * Math.max(0, pageSize);
+            int to = Math.min(matches.size(), from + Math.max(0, pageSize));
+            List<ParkingSpace> result = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                result.add(copy(matches.get(i).space));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get one page of parking spaces matching a search term, together with the total number of matches
+     * Paging works like ParkingSpaceRepository#searchParkingSpacePage, so cursors from either one
+     * can continue in the other.
+     *
+     * @param searchTerm The search term; empty matches every parking space
+     * @param sort One of the SearchPage.SORT_* orders
+     * @param cursor The row to continue from, or null for the first page
+     * @param forward true for the rows after the cursor, false for the rows before it
+     * @param pageSize The number of results per page
+     * @return The page with copies of the parking spaces
+     */
+    public SearchPage searchPage(String searchTerm, String sort, SearchPage.Cursor cursor, boolean forward,
+                                 int pageSize) {
+        lock.readLock().lock();
+        try {
+            List<Document> matches = isBlank(searchTerm) ? new ArrayList<>(documents.values()) : match(searchTerm);
+            int totalCount = matches.size();
+
+            Comparator<Document> order = documentOrder(sort, averageRatings);
+            List<Document> candidates = matches;
+            if (cursor != null) {
+                candidates = new ArrayList<>();
+                for (Document document : matches) {
+                    int comparison = compareToCursor(document, sort, cursor, averageRatings);
+                    if (forward ? comparison > 0 : comparison < 0) {
+                        candidates.add(document);
+                    }
+                }
+            }
+            candidates.sort(order);
+
+            int size = Math.min(candidates.size(), Math.max(0, pageSize));
+            int from = forward ? 0 : candidates.size() - size;
+            List<ParkingSpace> parkingSpaces = new ArrayList<>(size);
+            for (int i = from; i < from + size; i++) {
+                parkingSpaces.add(copy(candidates.get(i).space));
+            }
+            if (parkingSpaces.isEmpty()) {
+                return new SearchPage(parkingSpaces, totalCount, null, null);
+            }
+            return new SearchPage(parkingSpaces, totalCount, cursorOf(parkingSpaces.get(0), sort, averageRatings),
+                    cursorOf(parkingSpaces.get(size - 1), sort, averageRatings));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count the parking spaces matching a search term
+     *
+     * @param searchTerm The search term
+     * @return Exact number of matches
+     */
+    public int count(String searchTerm) {
+        lock.readLock().lock();
+        try {
+            return match(searchTerm).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Complete the last word of a search term from the indexed words
+     *
+     * @param prefix What has been typed of the word
+     * @param limit Maximum number of suggestions
+     * @return Indexed words starting with the prefix, most widely used first
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix == null ? "" : prefix.trim());
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            List<TokenPosting> candidates = new ArrayList<>(
+                    tokenPostings.subMap(key, true, key + Character.MAX_VALUE, true).values());
+            candidates.sort(Comparator.comparingInt((TokenPosting posting) -> -posting.parkingIds.size())
+                    .thenComparing(posting -> posting.display));
+            List<String> suggestions = new ArrayList<>(Math.min(limit, candidates.size()));
+            for (int i = 0; i < candidates.size() && i < limit; i++) {
+                suggestions.add(candidates.get(i).display);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Comparator<Document> documentOrder(String sort, Map<String, Float> ratings) {
+        Comparator<Document> byKey;
+        if (SearchPage.SORT_RATING.equals(sort)) {
+            byKey = Comparator.comparingDouble((Document document) -> ratingOf(document.space, ratings)).reversed();
+        } else if (SearchPage.SORT_PRICE_ASC.equals(sort)) {
+            byKey = Comparator.comparingDouble(document -> document.space.getCostOfParking());
+        } else if (SearchPage.SORT_PRICE_DESC.equals(sort)) {
+            byKey = Comparator.comparingDouble((Document document) -> document.space.getCostOfParking()).reversed();
+        } else {
+            byKey = Comparator.comparing(document -> document.sortKey);
+        }
+        return byKey.thenComparing(document -> document.space.getParkingID());
+    }
+
+    private static int compareToCursor(Document document, String sort, SearchPage.Cursor cursor,
+                                       Map<String, Float> ratings) {
+        int comparison;
+        Object value = cursor.getSortValue();
+        if (SearchPage.SORT_RATING.equals(sort)) {
+            float rating = value instanceof Number ? ((Number) value).floatValue() : 0.0F;
+            comparison = -Float.compare(ratingOf(document.space, ratings), rating);
+        } else if (SearchPage.SORT_PRICE_ASC.equals(sort) || SearchPage.SORT_PRICE_DESC.equals(sort)) {
+            float price = value instanceof Number ? ((Number) value).floatValue() : 0.0F;
+            comparison = Float.compare(document.space.getCostOfParking(), price);
+            if (SearchPage.SORT_PRICE_DESC.equals(sort)) {
+                comparison = -comparison;
+            }
+        } else {
+            comparison = document.sortKey.compareTo(normalize(value == null ? "" : value.toString()));
+        }
+        return comparison != 0 ? comparison : document.space.getParkingID().compareTo(cursor.getParkingID());
+    }
+
+    private static SearchPage.Cursor cursorOf(ParkingSpace space, String sort, Map<String, Float> ratings) {
+        Object value;
+        if (SearchPage.SORT_RATING.equals(sort)) {
+            value = ratingOf(space, ratings);
+        } else if (SearchPage.SORT_PRICE_ASC.equals(sort) || SearchPage.SORT_PRICE_DESC.equals(sort)) {
+            value = space.getCostOfParking();
+        } else {
+            value = space.getParkingAddress();
+        }
+        return new SearchPage.Cursor(value, space.getParkingID());
+    }
+
+    private static float ratingOf(ParkingSpace space, Map<String, Float> ratings) {
+        Float rating = ratings.get(space.getParkingID());
+        return rating == null ? 0.0F : rating;
+    }
+
+    private static boolean isBlank(String searchTerm) {
+        return searchTerm == null || searchTerm.trim().isEmpty();
+    }
+
+    private List<Document> match(String searchTerm) {
+        String[] words = TOKEN_SEPARATOR.split(normalize(searchTerm == null ? "" : searchTerm.trim()));
+        Set<String> result = null;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            Set<String> wordMatches = matchWord(word);
+            if (result == null) {
+                result = wordMatches;
+            } else {
+                result.retainAll(wordMatches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+
+        List<Document> matches = new ArrayList<>();
+        if (result != null) {
+            for (String parkingId : result) {
+                matches.add(documents.get(parkingId));
+            }
+        }
+        return matches;
+    }
+
+    private Set<String> matchWord(String word) {
+        Set<String> ids = new HashSet<>();
+        if (word.length() < GRAM_LENGTH) {
+            for (TokenPosting posting : tokenPostings.subMap(word, true, word + Character.MAX_VALUE, true).values()) {
+                ids.addAll(posting.parkingIds);
+            }
+            return ids;
+        }
+
+        // Scan the rarest gram's spaces and confirm the whole word is there
+        Set<String> rarest = null;
+        for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+            Set<String> posting = gramPostings.get(word.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return ids;
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        for (String parkingId : rarest) {
+            if (documents.get(parkingId).text.contains(word)) {
+                ids.add(parkingId);
+            }
+        }
+        return ids;
+    }
+
+    private void add(ParkingSpace space) {
+        String address = space.getParkingAddress() == null ? "" : space.getParkingAddress();
+        String description = space.getDescription() == null ? "" : space.getDescription();
+        Document document = new Document(space, normalize(address) + FIELD_SEPARATOR + normalize(description),
+                normalize(address));
+        documents.put(space.getParkingID(), document);
+
+        String text = document.text;
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            gramPostings.computeIfAbsent(text.substring(i, i + GRAM_LENGTH), gram -> new HashSet<>())
+                    .add(space.getParkingID());
+        }
+        for (String field : new String[]{address, description}) {
+            for (String token : RAW_TOKEN_SEPARATOR.split(field.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    tokenPostings.computeIfAbsent(normalize(token), key -> new TokenPosting(token))
+                            .parkingIds.add(space.getParkingID());
+                }
+            }
+        }
+    }
+
+    private void remove(String parkingId, boolean deleted) {
+        Document document = documents.remove(parkingId);
+        // put() replaces the document and keeps the rating; only a deleted space loses it
+        if (deleted) {
+            averageRatings.remove(parkingId);
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(index -> index.remove(parkingId, true));
+            }
+        }
+        if (document == null) {
+            return;
+        }
+
+        String text = document.text;
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM_LENGTH);
+            Set<String> posting = gramPostings.get(gram);
+            if (posting != null && posting.remove(parkingId) && posting.isEmpty()) {
+                gramPostings.remove(gram);
+            }
+        }
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            TokenPosting posting = tokenPostings.get(token);
+            if (posting != null && posting.parkingIds.remove(parkingId) && posting.parkingIds.isEmpty()) {
+                tokenPostings.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Lower-case and strip accents so that matching ignores both
+     */
+    static String normalize(String text) {
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        // đ has no decomposition
+        return stripped.replace('đ', 'd').replace('Đ', 'D').toLowerCase(Locale.ROOT);
+    }
+
+    private static ParkingSpace copy(ParkingSpace space) {
+        return new ParkingSpace(space.getParkingID(), space.getParkingAddress(), space.getCostOfParking(),
+                space.getNumberOfSlots(), space.getDescription(), space.getAdminID());
+    }
+
+    private static final class Document {
+        private final ParkingSpace space;
+        // Normalized address and description, separated by FIELD_SEPARATOR
+        private final String text;
+        private final String sortKey;
+
+        private Document(ParkingSpace space, String text, String sortKey) {
+            this.space = space;
+            this.text = text;
+            this.sortKey = sortKey;
+        }
+    }
+
+    private static final class TokenPosting {
+        private final String display;
+        private final Set<String> parkingIds = new HashSet<>();
+
+        private TokenPosting(String display) {
+            this.display = display;
+        }
+    }
+}
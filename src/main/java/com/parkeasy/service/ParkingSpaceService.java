@@ -3,10 +3,12 @@ package main.java.com.parkeasy.service;
 import main.java.com.parkeasy.model.ParkingSlot;
 import main.java.com.parkeasy.model.ParkingSpace;
 import main.java.com.parkeasy.model.ParkingReview;
+import main.java.com.parkeasy.model.SearchPage;
 import main.java.com.parkeasy.repository.ParkingSlotRepository;
 import main.java.com.parkeasy.repository.ParkingSpaceRepository;
 import main.java.com.parkeasy.repository.ParkingReviewRepository;
 import main.java.com.parkeasy.repository.ReservationRepository;
+import main.java.com.parkeasy.util.AppConfig;
 import main.java.com.parkeasy.util.DatabaseConnection;
 
 import java.sql.Connection;
@@ -16,11 +18,11 @@ import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Service class for parking space operations
@@ -28,10 +30,20 @@ import java.util.stream.Collectors;
 public class ParkingSpaceService {
     private static final Logger LOGGER = Logger.getLogger(ParkingSpaceService.class.getName());
 
+    private static final SlotAllocator SLOT_ALLOCATOR = new CalendarSlotAllocator(
+            OccupancyCalendar.getInstance(),
+            SlotAvailabilityIndex.getInstance(),
+            CalendarSlotAllocator.Strategy.fromName(AppConfig.getString("allocation.strategy", null),
+                    CalendarSlotAllocator.Strategy.BEST_FIT));
+
     private final ParkingSpaceRepository parkingSpaceRepository;
     private final ParkingSlotRepository parkingSlotRepository;
     private final ParkingReviewRepository parkingReviewRepository;
     private final ReservationRepository reservationRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final OccupancyCalendar occupancyCalendar;
+    private final ParkingSearchIndex searchIndex;
+    private final SlotAllocator slotAllocator;
 
     /**
      * Constructor with dependency injection
@@ -44,6 +56,10 @@ public class ParkingSpaceService {
         this.parkingSlotRepository = parkingSlotRepository;
         this.parkingReviewRepository = parkingReviewRepository;
         this.reservationRepository = reservationRepository;
+        this.availabilityIndex = SlotAvailabilityIndex.getInstance();
+        this.occupancyCalendar = OccupancyCalendar.getInstance();
+        this.searchIndex = ParkingSearchIndex.getInstance();
+        this.slotAllocator = SLOT_ALLOCATOR;
     }
 
     /**
@@ -54,14 +70,33 @@ public class ParkingSpaceService {
         this.parkingSlotRepository = new ParkingSlotRepository();
         this.parkingReviewRepository = new ParkingReviewRepository();
         this.reservationRepository = new ReservationRepository();
+        this.availabilityIndex = SlotAvailabilityIndex.getInstance();
+        this.occupancyCalendar = OccupancyCalendar.getInstance();
+        this.searchIndex = ParkingSearchIndex.getInstance();
+        this.slotAllocator = SLOT_ALLOCATOR;
     }
     /**
      * Initialize search functionality - call this during application startup
+     * Creates the database search indexes used as a fallback and loads the in-memory search index.
      */
     public void initializeSearch() {
         try {
             LOGGER.log(Level.INFO, "Initializing search indexes");
             parkingSpaceRepository.createSearchIndexes();
+
+            searchIndex.beginLoad();
+            List<ParkingSpace> parkingSpaces = parkingSpaceRepository.findAll();
+            if (parkingSpaces.isEmpty()) {
+                // Could as well be a failed query; keep searching in the database
+                LOGGER.log(Level.WARNING, "No parking spaces loaded, search stays on the database");
+                return;
+            }
+            Map<String, Float> ratings = parkingSpaceRepository.getAverageRatings();
+            if (ratings == null) {
+                LOGGER.log(Level.WARNING, "Average ratings not loaded, search stays on the database");
+                return;
+            }
+            searchIndex.load(parkingSpaces, ratings);
             LOGGER.log(Level.INFO, "Search indexes initialized successfully");
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error initializing search indexes", e);
@@ -162,28 +197,51 @@ public class ParkingSpaceService {
         try {
             LOGGER.log(Level.INFO, "Getting available slots for time range at parking ID: {0}", parkingId);
 
-            // Get all slots for the parking space
-            List<ParkingSlot> allSlots = parkingSlotRepository.getParkingSlotsByParkingSpaceId(parkingId);
-            List<ParkingSlot> availableSlots = new ArrayList<>();
-
-
-            // Check each slot for availability during the time range
-            for (ParkingSlot slot : allSlots) {
-                if (slot.getAvailability()) {
-                    // Check if there are any overlapping reservations
-                    if (isSlotAvailableForPeriod(slot.getSlotNumber(), startDateTime, endDateTime)) {
-                        availableSlots.add(slot);
+            if (occupancyCalendar.covers(startDateTime, endDateTime)) {
+                // Read only the slot rows and check reservations against the in-memory calendar
+                List<ParkingSlot> slots = new ArrayList<>();
+                for (ParkingSlot slot : parkingSlotRepository.getParkingSlotsByParkingId(parkingId)) {
+                    if (slot.getAvailability()) {
+                        slots.add(slot);
                     }
                 }
+                slots.sort(Comparator.comparing(ParkingSlot::getSlotNumber));
+                List<ParkingSlot> freeSlots = occupancyCalendar.freeSlots(parkingId, slots, startDateTime, endDateTime);
+                if (freeSlots != null) {
+                    return freeSlots;
+                }
             }
 
-            return availableSlots;
+            // One anti-join query instead of a slot lookup and reservation fetch per slot
+            return parkingSlotRepository.getAvailableSlotsForPeriod(parkingId, startDateTime, endDateTime);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting available slots for time range", e);
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Choose a free slot for a specific time range so the user does not have to pick one
+     *
+     * @param parkingId The ID of the parking space
+     * @param candidates Slots to choose from, e.g. the result of getAvailableSlotsForTimeRange
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return The chosen slot, or null if none of the candidates is free
+     */
+    public ParkingSlot allocateSlot(String parkingId, List<ParkingSlot> candidates,
+                                    LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        try {
+            ParkingSlot slot = slotAllocator.allocate(parkingId, candidates, startDateTime, endDateTime);
+            LOGGER.log(Level.INFO, "Allocated slot {0} at parking ID: {1}",
+                    new Object[]{slot != null ? slot.getSlotNumber() : null, parkingId});
+            return slot;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error allocating a slot", e);
+            return null;
+        }
+    }
+
     /**
      * Check if a slot is available for a specific time period
      *
@@ -200,23 +258,8 @@ public class ParkingSpaceService {
                 return false;
             }
 
-            // Get active reservations for this slot
-            List<Map<String, Object>> reservations = parkingSlotRepository.getActiveReservationsForSlot(slotNumber);
-
-            // Check for overlapping reservations
-            for (Map<String, Object> reservation : reservations) {
-                LocalDateTime resStart = (LocalDateTime) reservation.get("startDateTime");
-                LocalDateTime resEnd = (LocalDateTime) reservation.get("endDateTime");
-
-                // Check for overlap
-                if (!(endDateTime.isBefore(resStart) || startDateTime.isAfter(resEnd))) {
-                    // There is an overlap
-                    return false;
-                }
-            }
-
-            // No overlapping reservations found
-            return true;
+            // Check for overlapping reservations against the in-memory index
+            return availabilityIndex.isAvailable(slotNumber, startDateTime, endDateTime);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error checking slot availability for period", e);
             return false;
@@ -315,31 +358,15 @@ public class ParkingSpaceService {
 
     /**
      * Get highest rated parking spaces
+     * Ordered in the database by the maintained AverageRating column.
      *
-     * @param limit Maximum number of spaces to return
+     * @param limit Maximum number of spaces to return, 0 for all
      * @return List of highest rated parking spaces
      */
     public List<ParkingSpace> getHighestRatedParkingSpaces(int limit) {
         try {
             LOGGER.log(Level.INFO, "Getting highest rated parking spaces, limit: {0}", limit);
-
-            // Get all parking spaces
-            List<ParkingSpace> allSpaces = parkingSpaceRepository.getAllParkingSpaces();
-
-            // Calculate average rating for each space
-            List<Map.Entry<ParkingSpace, Float>> spacesWithRatings = new ArrayList<>();
-
-            for (ParkingSpace space : allSpaces) {
-                float avgRating = getAverageRatingForParkingSpace(space.getParkingID());
-                spacesWithRatings.add(Map.entry(space, avgRating));
-            }
-
-            // Sort by rating (highest first) and get top spaces
-            return spacesWithRatings.stream()
-                    .sorted(Map.Entry.<ParkingSpace, Float>comparingByValue().reversed())
-                    .limit(limit)
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
+            return parkingSpaceRepository.getParkingSpacesByRating(limit);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting highest rated parking spaces", e);
             return new ArrayList<>();
@@ -349,15 +376,12 @@ public class ParkingSpaceService {
     /**
      * Get IDs of highest rated parking spaces
      *
-     * @param limit Maximum number of IDs to return
+     * @param limit Maximum number of IDs to return, 0 for all
      * @return List of parking space IDs
      */
     public List<String> getHighestRatedParkingSpaceIds(int limit) {
         try {
-            List<ParkingSpace> highestRated = getHighestRatedParkingSpaces(limit);
-            return highestRated.stream()
-                    .map(ParkingSpace::getParkingID)
-                    .collect(Collectors.toList());
+            return parkingSpaceRepository.getParkingSpaceIdsByRating(limit);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting highest rated parking space IDs", e);
             return new ArrayList<>();
@@ -458,9 +482,9 @@ public class ParkingSpaceService {
      * @throws SQLException If database error occurs
      */
     public int getOccupiedSlotCountByParkingId(String parkingId) throws SQLException {
-        // The query is changed to count slots where availability = 0
-        // because in your database, 1 means available and 0 means occupied
-        String query = "SELECT COUNT(*) FROM parking_slot WHERE ParkingID = ? AND Availability = 0";
+        // Availability is the admin's on/off switch; occupancy is tracked in its own column
+        parkingSlotRepository.ensureOccupiedColumn();
+        String query = "SELECT COUNT(*) FROM parking_slot WHERE ParkingID = ? AND Occupied = TRUE";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -519,6 +543,7 @@ public class ParkingSpaceService {
             boolean success = (generatedId > 0);
 
             if (success) {
+                searchIndex.put(parkingSpace);
                 LOGGER.log(Level.INFO, "Successfully added parking space with ID: {0}, generated ID: {1}",
                         new Object[]{parkingSpace.getParkingID(), generatedId});
             } else {
@@ -566,6 +591,7 @@ public class ParkingSpaceService {
             boolean success = parkingSpaceRepository.deleteParkingSpace(parkingId);
 
             if (success) {
+                searchIndex.remove(parkingId);
                 LOGGER.log(Level.INFO, "Successfully deleted parking space with ID: {0}", parkingId);
             } else {
                 LOGGER.log(Level.WARNING, "Failed to delete parking space with ID: {0}", parkingId);
@@ -611,6 +637,7 @@ public class ParkingSpaceService {
             boolean success = parkingSpaceRepository.updateParkingSpace(parkingSpace);
 
             if (success) {
+                searchIndex.put(parkingSpace);
                 LOGGER.log(Level.INFO, "Successfully updated parking space with ID: {0}", parkingSpace.getParkingID());
             } else {
                 LOGGER.log(Level.WARNING, "Failed to update parking space with ID: {0}", parkingSpace.getParkingID());
@@ -650,8 +677,11 @@ public class ParkingSpaceService {
      */
     public List<ParkingSpace> searchParkingSpaces(String searchTerm, int page, int pageSize) {
         try {
-            LOGGER.log(Level.INFO, "Searching parking spaces with term: {0}, page: {1}, pageSize: {2}",
+            LOGGER.log(Level.FINE, "Searching parking spaces with term: {0}, page: {1}, pageSize: {2}",
                     new Object[]{searchTerm, page, pageSize});
+            if (searchIndex.isLoaded()) {
+                return searchIndex.search(searchTerm, page, pageSize);
+            }
             return parkingSpaceRepository.searchParkingSpaces(searchTerm, page, pageSize);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error searching parking spaces with pagination", e);
@@ -659,6 +689,48 @@ public class ParkingSpaceService {
         }
     }
 
+    /**
+     * Get one page of matching parking spaces together with the total number of matches
+     * Served by the in-memory index once it is loaded, otherwise by one database query.
+     *
+     * @param searchTerm The search term; empty matches every parking space
+     * @param sort One of the SearchPage.SORT_* orders
+     * @param cursor The row to continue from (a cursor of the previous page), or null for the first page
+     * @param forward true for the rows after the cursor, false for the rows before it
+     * @param pageSize The number of results per page
+     * @return The page, or an empty page if an error occurs
+     */
+    public SearchPage searchParkingSpacePage(String searchTerm, String sort, SearchPage.Cursor cursor,
+                                             boolean forward, int pageSize) {
+        try {
+            LOGGER.log(Level.FINE, "Searching parking spaces with term: {0}, sort: {1}, cursor: {2}",
+                    new Object[]{searchTerm, sort, cursor});
+            if (searchIndex.isLoaded()) {
+                return searchIndex.searchPage(searchTerm, sort, cursor, forward, pageSize);
+            }
+            return parkingSpaceRepository.searchParkingSpacePage(searchTerm, sort, cursor, forward, pageSize);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error searching parking space page", e);
+            return SearchPage.empty();
+        }
+    }
+
+    /**
+     * Get completions for the word being typed into the search field
+     *
+     * @param prefix The start of the word
+     * @param limit Maximum number of suggestions
+     * @return Matching indexed words; empty until the search index is loaded
+     */
+    public List<String> getSearchSuggestions(String prefix, int limit) {
+        try {
+            return searchIndex.suggest(prefix, limit);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error getting search suggestions", e);
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Get the total count of search results for pagination
      *
@@ -667,7 +739,10 @@ public class ParkingSpaceService {
      */
     public int countSearchResults(String searchTerm) {
         try {
-            LOGGER.log(Level.INFO, "Counting search results for term: {0}", searchTerm);
+            LOGGER.log(Level.FINE, "Counting search results for term: {0}", searchTerm);
+            if (searchIndex.isLoaded()) {
+                return searchIndex.count(searchTerm);
+            }
             return parkingSpaceRepository.countSearchResults(searchTerm);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error counting search results", e);
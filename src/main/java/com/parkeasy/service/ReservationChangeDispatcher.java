@@ -0,0 +1,114 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.Reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single place the reservation write paths report committed changes to
+ * Every in-memory structure that mirrors reservations registers here once, so a write path makes
+ * one call instead of notifying each structure itself. A listener that fails is logged and skipped,
+ * so the others still see the change.
+ */
+public class ReservationChangeDispatcher {
+    private static final Logger LOGGER = Logger.getLogger(ReservationChangeDispatcher.class.getName());
+
+    private static final ReservationChangeDispatcher INSTANCE = createShared();
+
+    private final List<ReservationChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Get the application-wide dispatcher, with the shared index, calendar, column store and
+     * lifecycle scheduler registered
+     *
+     * @return The shared dispatcher
+     */
+    public static ReservationChangeDispatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register a listener; it is notified after those registered before it
+     *
+     * @param listener Listener to add
+     */
+    public void addListener(ReservationChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister a listener
+     *
+     * @param listener Listener to remove
+     */
+    public void removeListener(ReservationChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Report a newly created reservation
+     *
+     * @param reservation The reservation that was inserted
+     */
+    public void reservationCreated(Reservation reservation) {
+        dispatch("creation", listener -> listener.onReservationCreated(reservation));
+    }
+
+    /**
+     * Report a change to an existing reservation
+     *
+     * @param reservation The reservation as written to the database
+     */
+    public void reservationUpdated(Reservation reservation) {
+        dispatch("update", listener -> listener.onReservationUpdated(reservation));
+    }
+
+    /**
+     * Report a deleted reservation
+     *
+     * @param reservationId ID of the deleted reservation
+     */
+    public void reservationDeleted(int reservationId) {
+        dispatch("deletion", listener -> listener.onReservationDeleted(reservationId));
+    }
+
+    /**
+     * Report reservations the lifecycle scheduler completed or cancelled
+     *
+     * @param completedIds IDs of the reservations marked Completed
+     * @param cancelledIds IDs of the reservations marked Cancelled
+     */
+    public void reservationsEnded(List<Integer> completedIds, List<Integer> cancelledIds) {
+        if (completedIds.isEmpty() && cancelledIds.isEmpty()) {
+            return;
+        }
+        List<Integer> completed = new ArrayList<>(completedIds);
+        List<Integer> cancelled = new ArrayList<>(cancelledIds);
+        dispatch("end", listener -> listener.onReservationsEnded(completed, cancelled));
+    }
+
+    private void dispatch(String change, Consumer<ReservationChangeListener> notification) {
+        for (ReservationChangeListener listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error applying reservation " + change + " to "
+                        + listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private static ReservationChangeDispatcher createShared() {
+        ReservationChangeDispatcher dispatcher = new ReservationChangeDispatcher();
+        dispatcher.addListener(SlotAvailabilityIndex.getInstance());
+        dispatcher.addListener(ReservationLifecycleScheduler.getInstance());
+        dispatcher.addListener(OccupancyCalendar.getInstance());
+        dispatcher.addListener(ReservationColumnStore.getInstance());
+        return dispatcher;
+    }
+}
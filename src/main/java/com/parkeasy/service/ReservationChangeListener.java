@@ -0,0 +1,41 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.Reservation;
+
+import java.util.List;
+
+/**
+ * In-memory structure that mirrors the PARKING_RESERVATION table and is kept current by
+ * {@link ReservationChangeDispatcher} after each reservation write commits
+ */
+public interface ReservationChangeListener {
+
+    /**
+     * Record a newly created reservation
+     *
+     * @param reservation The reservation that was inserted
+     */
+    void onReservationCreated(Reservation reservation);
+
+    /**
+     * Apply a change to an existing reservation (status, period or slot)
+     *
+     * @param reservation The reservation as written to the database
+     */
+    void onReservationUpdated(Reservation reservation);
+
+    /**
+     * Forget a reservation that was deleted
+     *
+     * @param reservationId ID of the deleted reservation
+     */
+    void onReservationDeleted(int reservationId);
+
+    /**
+     * Record the reservations the lifecycle scheduler completed or cancelled when they ended
+     *
+     * @param completedIds IDs of the reservations marked Completed
+     * @param cancelledIds IDs of the reservations marked Cancelled
+     */
+    void onReservationsEnded(List<Integer> completedIds, List<Integer> cancelledIds);
+}
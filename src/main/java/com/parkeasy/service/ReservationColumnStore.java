@@ -0,0 +1,822 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.repository.ParkingSlotRepository;
+import main.java.com.parkeasy.repository.ReservationRepository;
+import main.java.com.parkeasy.util.AppConfig;
+import main.java.com.parkeasy.util.Constants;
+import main.java.com.parkeasy.util.DateTimeUtil;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented in-memory copy of PARKING_RESERVATION for revenue and utilization reports
+ * Each column (ID, slot, start, end, fee, status) is a primitive array. Rows are grouped by parking
+ * space and sorted by start within a group, so the reservations of one parking space in a date
+ * range are one contiguous run of positions and a report is a sum over flat arrays, split across
+ * cores for large runs. Slot numbers and parking IDs are stored once in dictionaries and
+ * referenced by index.
+ * The snapshot is loaded on first use and then kept current through ReservationChangeDispatcher: a
+ * changed reservation hides its old row and goes to a small overlay, which is merged into the
+ * sorted columns once it grows past a threshold. The snapshot is reloaded in full once it is
+ * older than a configurable age, to pick up changes made outside this application.
+ * Off unless analytics.columnStore.enabled is set; while off the queries return empty and callers
+ * read from the database as before.
+ */
+public class ReservationColumnStore implements ReservationChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(ReservationColumnStore.class.getName());
+
+    private static final ReservationColumnStore INSTANCE = new ReservationColumnStore(
+            new ReservationRepository(),
+            new ParkingSlotRepository(),
+            AppConfig.getBoolean("analytics.columnStore.enabled", false),
+            AppConfig.getInt("analytics.columnStore.compactThreshold", 4096),
+            AppConfig.getLong("analytics.columnStore.maxAgeMillis", 900000L));
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    // Runs shorter than this are summed on the calling thread
+    private static final int PARALLEL_THRESHOLD = 16_384;
+
+    private static final byte STATUS_OTHER = 0;
+    private static final byte STATUS_PROCESSING = 1;
+    private static final byte STATUS_PAID = 2;
+    private static final byte STATUS_COMPLETED = 3;
+    private static final byte STATUS_IN_USE = 4;
+
+    private final ReservationRepository reservationRepository;
+    private final ParkingSlotRepository parkingSlotRepository;
+    private final boolean enabled;
+    private final int compactThreshold;
+    private final long maxAgeMillis;
+
+    // Slot number / parking ID -> dictionary index; indexes are never reused
+    private final Map<String, Integer> slotIndexes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> parkingIndexes = new ConcurrentHashMap<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+    // Changes made while a load runs, replayed on top of it; guarded by writeLock
+    private List<UnaryOperator<Snapshot>> changesDuringLoad;
+    private boolean invalidatedDuringLoad;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param reservationRepository Repository the snapshot is loaded from
+     * @param parkingSlotRepository Repository used to look up the parking of a newly seen slot
+     * @param enabled Whether the store is used at all
+     * @param compactThreshold Number of changed reservations held in the overlay before it is merged
+     * @param maxAgeMillis Age after which the snapshot is reloaded, 0 to never reload
+     */
+    public ReservationColumnStore(ReservationRepository reservationRepository,
+                                  ParkingSlotRepository parkingSlotRepository,
+                                  boolean enabled, int compactThreshold, long maxAgeMillis) {
+        this.reservationRepository = reservationRepository;
+        this.parkingSlotRepository = parkingSlotRepository;
+        this.enabled = enabled;
+        this.compactThreshold = Math.max(1, compactThreshold);
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    public static ReservationColumnStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sum the fees of Completed and Paid reservations of a parking space whose start or end date
+     * falls between two dates, like calculating it from getReservationsByParkingIdAndDateRange
+     *
+     * @param parkingId Parking space ID
+     * @param firstDay First day, inclusive
+     * @param lastDay Last day, inclusive
+     * @return Total fees, or empty if the store is off or could not be loaded
+     */
+    public OptionalDouble sumRevenue(String parkingId, LocalDate firstDay, LocalDate lastDay) {
+        Snapshot current = loadedSnapshot();
+        if (current == null) {
+            return OptionalDouble.empty();
+        }
+        Query query = new Query(current, parkingId, firstDay, lastDay);
+        Columns base = current.base;
+        double total = query.basePositions()
+                .filter(i -> countsAsRevenue(base.statuses[i]))
+                .mapToDouble(i -> base.fees[i])
+                .sum();
+        for (Row row : query.overlayRows()) {
+            if (countsAsRevenue(row.status)) {
+                total += row.fee;
+            }
+        }
+        return OptionalDouble.of(total);
+    }
+
+    /**
+     * Count the reservations of a parking space, in any status, whose start or end date falls
+     * between two dates
+     *
+     * @param parkingId Parking space ID
+     * @param firstDay First day, inclusive
+     * @param lastDay Last day, inclusive
+     * @return Number of reservations, or empty if the store is off or could not be loaded
+     */
+    public OptionalLong countReservations(String parkingId, LocalDate firstDay, LocalDate lastDay) {
+        Snapshot current = loadedSnapshot();
+        if (current == null) {
+            return OptionalLong.empty();
+        }
+        Query query = new Query(current, parkingId, firstDay, lastDay);
+        return OptionalLong.of(query.basePositions().count() + query.overlayRows().size());
+    }
+
+    /**
+     * Sum the whole hours reservations of a parking space occupy within a period
+     * Takes the reservations, in any status, whose start or end date falls on a day of the period
+     * and clips each to the period, as getParkingSpaceUtilization does.
+     *
+     * @param parkingId Parking space ID
+     * @param from Start of the period
+     * @param to End of the period
+     * @return Reserved slot-hours, or empty if the store is off or could not be loaded
+     */
+    public OptionalLong sumReservedHours(String parkingId, LocalDateTime from, LocalDateTime to) {
+        Snapshot current = loadedSnapshot();
+        if (current == null) {
+            return OptionalLong.empty();
+        }
+        long rangeStart = DateTimeUtil.toEpochSecond(from);
+        long rangeEnd = DateTimeUtil.toEpochSecond(to);
+        Query query = new Query(current, parkingId, from.toLocalDate(), to.toLocalDate());
+        Columns base = current.base;
+        long hours = query.basePositions()
+                .mapToLong(i -> clippedHours(base.starts[i], base.ends[i], rangeStart, rangeEnd))
+                .sum();
+        for (Row row : query.overlayRows()) {
+            hours += clippedHours(row.start, row.end, rangeStart, rangeEnd);
+        }
+        return OptionalLong.of(hours);
+    }
+
+    /**
+     * Count, for each day of a range, the reservations of a parking space whose start or end date
+     * is that day or the next, as countReservations(parkingId, day, day + 1) would
+     *
+     * @param parkingId Parking space ID
+     * @param firstDay First day, inclusive
+     * @param lastDay Last day, inclusive
+     * @return One count per day starting at firstDay, or empty if the store is off or could not be loaded
+     */
+    public Optional<int[]> countReservationsPerDay(String parkingId, LocalDate firstDay, LocalDate lastDay) {
+        Snapshot current = loadedSnapshot();
+        if (current == null) {
+            return Optional.empty();
+        }
+        long first = firstDay.toEpochDay();
+        int days = (int) Math.max(0, lastDay.toEpochDay() - first + 1);
+        // Days whose [day, day + 1] window contains the start or end date
+        Query query = new Query(current, parkingId, firstDay, lastDay.plusDays(1));
+        Columns base = current.base;
+        int[] counts = query.basePositions().collect(
+                () -> new int[days],
+                (acc, i) -> countDays(acc, first, base.starts[i], base.ends[i]),
+                (left, right) -> {
+                    for (int day = 0; day < days; day++) {
+                        left[day] += right[day];
+                    }
+                });
+        for (Row row : query.overlayRows()) {
+            countDays(counts, first, row.start, row.end);
+        }
+        return Optional.of(counts);
+    }
+
+    /**
+     * Record a newly created reservation
+     */
+    @Override
+    public void onReservationCreated(Reservation reservation) {
+        onReservationUpdated(reservation);
+    }
+
+    /**
+     * Record the new state of a reservation; its previous state is hidden
+     */
+    @Override
+    public void onReservationUpdated(Reservation reservation) {
+        if (!enabled || reservation == null) {
+            return;
+        }
+        int reservationId = reservation.getReservationID();
+        long start = reservation.getStartEpochSecond();
+        long end = reservation.getEndEpochSecond();
+        if (start == Reservation.NO_TIME || end == Reservation.NO_TIME || reservation.getSlotNumber() == null) {
+            // No longer matches any date range
+            apply(current -> current.with(Collections.singletonMap(reservationId, null)));
+            return;
+        }
+        String slotNumber = reservation.getSlotNumber();
+        int slot = indexOf(slotIndexes, slotNumber);
+        Snapshot current = snapshot;
+        int parking = current != null ? current.parkingOfSlot(slot) : -1;
+        if (parking < 0) {
+            String parkingId = parkingSlotRepository.getParkingIdBySlotNumber(slotNumber);
+            parking = parkingId != null ? indexOf(parkingIndexes, parkingId) : -1;
+        }
+        Row row = new Row(reservationId, slot, start, end, reservation.getFee(), statusCode(reservation.getStatus()));
+        int slotParking = parking;
+        apply(latest -> latest.withSlotParking(slot, slotParking).with(Collections.singletonMap(reservationId, row)));
+    }
+
+    /**
+     * Hide the row of a deleted reservation
+     */
+    @Override
+    public void onReservationDeleted(int reservationId) {
+        if (!enabled) {
+            return;
+        }
+        apply(current -> current.with(Collections.singletonMap(reservationId, null)));
+    }
+
+    /**
+     * Record the reservations the lifecycle scheduler completed or cancelled
+     *
+     * @param completedIds IDs of the reservations marked Completed
+     * @param cancelledIds IDs of the reservations marked Cancelled
+     */
+    @Override
+    public void onReservationsEnded(List<Integer> completedIds, List<Integer> cancelledIds) {
+        if (!enabled || (completedIds.isEmpty() && cancelledIds.isEmpty())) {
+            return;
+        }
+        apply(current -> {
+            Map<Integer, Row> ended = new HashMap<>();
+            for (Integer reservationId : completedIds) {
+                Row row = current.find(reservationId);
+                if (row != null) {
+                    ended.put(reservationId, row.withStatus(STATUS_COMPLETED));
+                }
+            }
+            for (Integer reservationId : cancelledIds) {
+                Row row = current.find(reservationId);
+                if (row != null) {
+                    ended.put(reservationId, row.withStatus(STATUS_OTHER));
+                }
+            }
+            return ended.isEmpty() ? current : current.with(ended);
+        });
+    }
+
+    /**
+     * Drop the snapshot after a bulk change made behind the store's back (e.g. slots renumbered)
+     * The next query loads it again.
+     */
+    public void invalidateAll() {
+        synchronized (writeLock) {
+            snapshot = null;
+            if (changesDuringLoad != null) {
+                invalidatedDuringLoad = true;
+            }
+        }
+    }
+
+    private void apply(UnaryOperator<Snapshot> change) {
+        synchronized (writeLock) {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(change);
+            }
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = compactIfNeeded(change.apply(current));
+            }
+        }
+    }
+
+    /**
+     * Get the current snapshot, loading it on first use or when it is too old
+     * While one caller reloads a stale snapshot, others keep answering from it.
+     *
+     * @return The snapshot, or null if the store is off or could not be loaded
+     */
+    private Snapshot loadedSnapshot() {
+        if (!enabled) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            if (maxAgeMillis > 0 && System.currentTimeMillis() - current.loadedAt > maxAgeMillis
+                    && loadLock.tryLock()) {
+                try {
+                    reload();
+                } finally {
+                    loadLock.unlock();
+                }
+                Snapshot reloaded = snapshot;
+                return reloaded != null ? reloaded : current;
+            }
+            return current;
+        }
+        loadLock.lock();
+        try {
+            if (snapshot == null) {
+                reload();
+            }
+            return snapshot;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void reload() {
+        synchronized (writeLock) {
+            changesDuringLoad = new ArrayList<>();
+            invalidatedDuringLoad = false;
+        }
+        Snapshot loaded = null;
+        try {
+            loaded = load();
+        } finally {
+            synchronized (writeLock) {
+                if (loaded != null && !invalidatedDuringLoad) {
+                    for (UnaryOperator<Snapshot> change : changesDuringLoad) {
+                        loaded = change.apply(loaded);
+                    }
+                    snapshot = compactIfNeeded(loaded);
+                }
+                changesDuringLoad = null;
+            }
+        }
+    }
+
+    private Snapshot load() {
+        long startedAt = System.currentTimeMillis();
+        ColumnsBuilder builder = new ColumnsBuilder(1024);
+        int[][] slotParking = {new int[0]};
+        boolean complete = reservationRepository.scanReservationTimeline(
+                (reservationId, slotNumber, parkingId, start, end, fee, status) -> {
+                    int slot = slotNumber != null ? indexOf(slotIndexes, slotNumber) : -1;
+                    if (slot >= 0) {
+                        int parking = parkingId != null ? indexOf(parkingIndexes, parkingId) : -1;
+                        slotParking[0] = withEntry(slotParking[0], slot, parking);
+                    }
+                    builder.add(reservationId, slot, start, end, fee, statusCode(status));
+                });
+        if (!complete) {
+            LOGGER.log(Level.WARNING, "Reservation column store not loaded, reports read from the database");
+            return null;
+        }
+        Columns base = builder.build(slotParking[0]);
+        LOGGER.log(Level.INFO, "Reservation column store loaded {0} reservations in {1} ms",
+                new Object[]{base.size, System.currentTimeMillis() - startedAt});
+        return new Snapshot(base, new BitSet(), Collections.emptyMap(), slotParking[0], startedAt);
+    }
+
+    private Snapshot compactIfNeeded(Snapshot current) {
+        if (current.overlay.size() < compactThreshold) {
+            return current;
+        }
+        Columns base = current.base;
+        int[] slotParking = current.slotParking;
+        // Changed rows, plus rows whose slot was since mapped to another parking space
+        List<Row> changed = new ArrayList<>(current.overlay.values());
+        BitSet skipped = (BitSet) current.hidden.clone();
+        for (int partition = 0; partition < base.partitionCount(); partition++) {
+            for (int i = base.partitionStarts[partition]; i < base.partitionStarts[partition + 1]; i++) {
+                if (!skipped.get(i) && partitionOf(slotParking, base.slots[i]) != partition) {
+                    changed.add(base.rowAt(i));
+                    skipped.set(i);
+                }
+            }
+        }
+        Comparator<Row> order = Comparator.<Row>comparingInt(row -> partitionOf(slotParking, row.slot))
+                .thenComparingLong(row -> row.start);
+        changed.sort(order);
+
+        // Merge the two runs, both ordered by parking space then start
+        ColumnsBuilder builder = new ColumnsBuilder(base.size + changed.size());
+        int next = 0;
+        for (int partition = 0; partition < base.partitionCount(); partition++) {
+            for (int i = base.partitionStarts[partition]; i < base.partitionStarts[partition + 1]; i++) {
+                if (skipped.get(i)) {
+                    continue;
+                }
+                while (next < changed.size() && comesBefore(changed.get(next), slotParking, partition, base.starts[i])) {
+                    builder.add(changed.get(next++));
+                }
+                builder.add(base.ids[i], base.slots[i], base.starts[i], base.ends[i], base.fees[i], base.statuses[i]);
+            }
+        }
+        while (next < changed.size()) {
+            builder.add(changed.get(next++));
+        }
+        return new Snapshot(builder.build(slotParking), new BitSet(), Collections.emptyMap(), slotParking,
+                current.loadedAt);
+    }
+
+    private static boolean comesBefore(Row row, int[] slotParking, int partition, long start) {
+        int rowPartition = partitionOf(slotParking, row.slot);
+        return rowPartition < partition || (rowPartition == partition && row.start < start);
+    }
+
+    /**
+     * Rows are grouped by parking index + 1; group 0 holds slots whose parking space is unknown
+     */
+    private static int partitionOf(int[] slotParking, int slot) {
+        return (slot >= 0 && slot < slotParking.length ? slotParking[slot] : -1) + 1;
+    }
+
+    private static int indexOf(Map<String, Integer> dictionary, String key) {
+        Integer index = dictionary.get(key);
+        if (index != null) {
+            return index;
+        }
+        synchronized (dictionary) {
+            return dictionary.computeIfAbsent(key, k -> dictionary.size());
+        }
+    }
+
+    private static int[] withEntry(int[] slotParking, int slot, int parking) {
+        if (slot < slotParking.length && slotParking[slot] == parking) {
+            return slotParking;
+        }
+        int oldLength = slotParking.length;
+        int[] grown = Arrays.copyOf(slotParking, Math.max(oldLength, slot + 1 + (slot >> 1)));
+        Arrays.fill(grown, oldLength, grown.length, -1);
+        grown[slot] = parking;
+        return grown;
+    }
+
+    private static byte statusCode(String status) {
+        if (Constants.RESERVATION_IN_PROCESS.equals(status)) {
+            return STATUS_PROCESSING;
+        }
+        if (Constants.RESERVATION_PAID.equals(status)) {
+            return STATUS_PAID;
+        }
+        if (Constants.RESERVATION_COMPLETE.equals(status)) {
+            return STATUS_COMPLETED;
+        }
+        if ("In Use".equals(status)) {
+            return STATUS_IN_USE;
+        }
+        return STATUS_OTHER;
+    }
+
+    private static boolean countsAsRevenue(byte status) {
+        return status == STATUS_COMPLETED || status == STATUS_PAID;
+    }
+
+    private static boolean isBlocking(byte status) {
+        return status == STATUS_PROCESSING || status == STATUS_PAID || status == STATUS_IN_USE;
+    }
+
+    private static long clippedHours(long start, long end, long rangeStart, long rangeEnd) {
+        long hours = (Math.min(end, rangeEnd) - Math.max(start, rangeStart)) / 3600;
+        return Math.max(0, hours);
+    }
+
+    private static void countDays(int[] counts, long firstDay, long start, long end) {
+        long startDay = Math.floorDiv(start, SECONDS_PER_DAY);
+        long endDay = Math.floorDiv(end, SECONDS_PER_DAY);
+        // Day d counts the reservation if its start or end date is d or d + 1
+        for (long day = startDay - 1; day <= startDay; day++) {
+            countDay(counts, firstDay, day);
+        }
+        for (long day = Math.max(endDay - 1, startDay + 1); day <= endDay; day++) {
+            countDay(counts, firstDay, day);
+        }
+    }
+
+    private static void countDay(int[] counts, long firstDay, long day) {
+        if (day >= firstDay && day < firstDay + counts.length) {
+            counts[(int) (day - firstDay)]++;
+        }
+    }
+
+    /**
+     * The reservations of one parking space whose start or end date lies within a range of days
+     */
+    private static final class Query {
+        private final Snapshot snapshot;
+        private final int parking;
+        private final long firstDay;
+        private final long lastDay;
+
+        Query(Snapshot snapshot, String parkingId, LocalDate firstDay, LocalDate lastDay) {
+            this.snapshot = snapshot;
+            Integer index = parkingId != null ? snapshot.parkingIndexOf(parkingId) : null;
+            this.parking = index != null ? index : -2;
+            this.firstDay = firstDay.toEpochDay();
+            this.lastDay = lastDay.toEpochDay();
+        }
+
+        IntStream basePositions() {
+            Columns base = snapshot.base;
+            int partition = parking + 1;
+            if (parking < 0 || lastDay < firstDay || partition >= base.partitionCount()) {
+                return IntStream.empty();
+            }
+            int partitionStart = base.partitionStarts[partition];
+            int partitionEnd = base.partitionStarts[partition + 1];
+            // Rows starting within the range match; rows starting up to maxDuration before it match
+            // if they end within it
+            int from = base.firstStartingAtOrAfter(partitionStart, partitionEnd,
+                    firstDay * SECONDS_PER_DAY - base.maxDuration);
+            int startingInRange = base.firstStartingAtOrAfter(from, partitionEnd, firstDay * SECONDS_PER_DAY);
+            int to = base.firstStartingAtOrAfter(startingInRange, partitionEnd, (lastDay + 1) * SECONDS_PER_DAY);
+            IntStream positions = IntStream.concat(
+                    IntStream.range(from, startingInRange).filter(i -> matches(base.starts[i], base.ends[i])),
+                    IntStream.range(startingInRange, to));
+            if (to - from >= PARALLEL_THRESHOLD) {
+                positions = positions.parallel();
+            }
+            BitSet hidden = snapshot.hidden;
+            return hidden.isEmpty() ? positions : positions.filter(i -> !hidden.get(i));
+        }
+
+        List<Row> overlayRows() {
+            List<Row> rows = new ArrayList<>();
+            if (parking < 0 || lastDay < firstDay) {
+                return rows;
+            }
+            for (Row row : snapshot.overlay.values()) {
+                if (snapshot.parkingOfSlot(row.slot) == parking && matches(row.start, row.end)) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+
+        private boolean matches(long start, long end) {
+            long startDay = Math.floorDiv(start, SECONDS_PER_DAY);
+            long endDay = Math.floorDiv(end, SECONDS_PER_DAY);
+            return (startDay >= firstDay && startDay <= lastDay) || (endDay >= firstDay && endDay <= lastDay);
+        }
+    }
+
+    /**
+     * Immutable state of the store: the sorted columns, which of their rows are hidden, the
+     * reservations changed since the columns were built and the slot -> parking mapping
+     */
+    private final class Snapshot {
+        private final Columns base;
+        private final BitSet hidden;
+        private final Map<Integer, Row> overlay;
+        private final int[] slotParking;
+        private final long loadedAt;
+
+        Snapshot(Columns base, BitSet hidden, Map<Integer, Row> overlay, int[] slotParking, long loadedAt) {
+            this.base = base;
+            this.hidden = hidden;
+            this.overlay = overlay;
+            this.slotParking = slotParking;
+            this.loadedAt = loadedAt;
+        }
+
+        int parkingOfSlot(int slot) {
+            return slot >= 0 && slot < slotParking.length ? slotParking[slot] : -1;
+        }
+
+        Integer parkingIndexOf(String parkingId) {
+            return parkingIndexes.get(parkingId);
+        }
+
+        Row find(int reservationId) {
+            if (overlay.containsKey(reservationId)) {
+                return overlay.get(reservationId);
+            }
+            int position = base.positionOf(reservationId);
+            if (position < 0 || hidden.get(position)) {
+                return null;
+            }
+            return base.rowAt(position);
+        }
+
+        /**
+         * Replace reservations by ID; a null row removes the reservation
+         */
+        Snapshot with(Map<Integer, Row> changes) {
+            BitSet nextHidden = null;
+            Map<Integer, Row> nextOverlay = new HashMap<>(overlay);
+            for (Map.Entry<Integer, Row> change : changes.entrySet()) {
+                int position = base.positionOf(change.getKey());
+                if (position >= 0 && !hidden.get(position)) {
+                    if (nextHidden == null) {
+                        nextHidden = (BitSet) hidden.clone();
+                    }
+                    nextHidden.set(position);
+                }
+                if (change.getValue() != null) {
+                    nextOverlay.put(change.getKey(), change.getValue());
+                } else {
+                    nextOverlay.remove(change.getKey());
+                }
+            }
+            return new Snapshot(base, nextHidden != null ? nextHidden : hidden, nextOverlay, slotParking, loadedAt);
+        }
+
+        Snapshot withSlotParking(int slot, int parking) {
+            if (parking < 0 || parkingOfSlot(slot) == parking) {
+                return this;
+            }
+            return new Snapshot(base, hidden, overlay, withEntry(slotParking, slot, parking), loadedAt);
+        }
+    }
+
+    /**
+     * One reservation outside the sorted columns
+     */
+    private static final class Row {
+        private final int id;
+        private final int slot;
+        private final long start;
+        private final long end;
+        private final float fee;
+        private final byte status;
+
+        Row(int id, int slot, long start, long end, float fee, byte status) {
+            this.id = id;
+            this.slot = slot;
+            this.start = start;
+            this.end = end;
+            this.fee = fee;
+            this.status = status;
+        }
+
+        Row withStatus(byte newStatus) {
+            return new Row(id, slot, start, end, fee, newStatus);
+        }
+    }
+
+    /**
+     * Reservations as parallel primitive arrays, grouped by parking space and sorted by start
+     */
+    private static final class Columns {
+        private final int size;
+        private final int[] ids;
+        private final int[] slots;
+        private final long[] starts;
+        private final long[] ends;
+        private final float[] fees;
+        private final byte[] statuses;
+        // Longest reservation, bounds how far before a range its reservations can start
+        private final long maxDuration;
+        // (ID << 32 | position), sorted, to find the row of a reservation
+        private final long[] idPositions;
+        // Group g (see partitionOf) occupies positions partitionStarts[g] until partitionStarts[g + 1]
+        private final int[] partitionStarts;
+
+        Columns(int size, int[] ids, int[] slots, long[] starts, long[] ends, float[] fees, byte[] statuses,
+                int[] partitionStarts) {
+            this.size = size;
+            this.partitionStarts = partitionStarts;
+            this.ids = ids;
+            this.slots = slots;
+            this.starts = starts;
+            this.ends = ends;
+            this.fees = fees;
+            this.statuses = statuses;
+            long longest = 0;
+            long[] byId = new long[size];
+            for (int i = 0; i < size; i++) {
+                longest = Math.max(longest, ends[i] - starts[i]);
+                byId[i] = ((long) ids[i] << 32) | i;
+            }
+            Arrays.sort(byId);
+            this.maxDuration = longest;
+            this.idPositions = byId;
+        }
+
+        int positionOf(int reservationId) {
+            int at = Arrays.binarySearch(idPositions, (long) reservationId << 32);
+            if (at < 0) {
+                at = -at - 1;
+            }
+            if (at < size && (int) (idPositions[at] >>> 32) == reservationId) {
+                return (int) idPositions[at];
+            }
+            return -1;
+        }
+
+        int partitionCount() {
+            return partitionStarts.length - 1;
+        }
+
+        Row rowAt(int position) {
+            return new Row(ids[position], slots[position], starts[position], ends[position], fees[position],
+                    statuses[position]);
+        }
+
+        int firstStartingAtOrAfter(int from, int to, long epochSecond) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < epochSecond) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class ColumnsBuilder {
+        private int size;
+        private int[] ids;
+        private int[] slots;
+        private long[] starts;
+        private long[] ends;
+        private float[] fees;
+        private byte[] statuses;
+
+        ColumnsBuilder(int capacity) {
+            int initial = Math.max(16, capacity);
+            ids = new int[initial];
+            slots = new int[initial];
+            starts = new long[initial];
+            ends = new long[initial];
+            fees = new float[initial];
+            statuses = new byte[initial];
+        }
+
+        void add(Row row) {
+            add(row.id, row.slot, row.start, row.end, row.fee, row.status);
+        }
+
+        void add(int id, int slot, long start, long end, float fee, byte status) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                slots = Arrays.copyOf(slots, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                fees = Arrays.copyOf(fees, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+            }
+            ids[size] = id;
+            slots[size] = slot;
+            starts[size] = start;
+            ends[size] = end;
+            fees[size] = fee;
+            statuses[size] = status;
+            size++;
+        }
+
+        /**
+         * Group the rows by parking space, keeping their order within a group (a stable counting sort)
+         */
+        Columns build(int[] slotParking) {
+            int partitions = 1;
+            int[] partitionOfRow = new int[size];
+            for (int i = 0; i < size; i++) {
+                partitionOfRow[i] = partitionOf(slotParking, slots[i]);
+                partitions = Math.max(partitions, partitionOfRow[i] + 1);
+            }
+            int[] partitionStarts = new int[partitions + 1];
+            for (int i = 0; i < size; i++) {
+                partitionStarts[partitionOfRow[i] + 1]++;
+            }
+            for (int partition = 0; partition < partitions; partition++) {
+                partitionStarts[partition + 1] += partitionStarts[partition];
+            }
+
+            int[] next = Arrays.copyOf(partitionStarts, partitions);
+            int[] groupedIds = new int[size];
+            int[] groupedSlots = new int[size];
+            long[] groupedStarts = new long[size];
+            long[] groupedEnds = new long[size];
+            float[] groupedFees = new float[size];
+            byte[] groupedStatuses = new byte[size];
+            for (int i = 0; i < size; i++) {
+                int position = next[partitionOfRow[i]]++;
+                groupedIds[position] = ids[i];
+                groupedSlots[position] = slots[i];
+                groupedStarts[position] = starts[i];
+                groupedEnds[position] = ends[i];
+                groupedFees[position] = fees[i];
+                groupedStatuses[position] = statuses[i];
+            }
+            return new Columns(size, groupedIds, groupedSlots, groupedStarts, groupedEnds, groupedFees,
+                    groupedStatuses, partitionStarts);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.repository.LedgerRepository;
+import main.java.com.parkeasy.repository.ParkingSlotRepository;
+import main.java.com.parkeasy.repository.ReservationRepository;
+import main.java.com.parkeasy.util.AppConfig;
+import main.java.com.parkeasy.util.DatabaseConnection;
+import main.java.com.parkeasy.util.HashedTimerWheel;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves reservations through their lifecycle when their time comes instead of when a user clicks
+ * Holds the start and end of every blocking reservation in a hashed timer wheel. When a
+ * reservation starts its slot is marked Occupied; when it ends the reservation is marked Completed,
+ * or Cancelled if its fee was never taken, and the slot's Occupied flag is cleared unless another
+ * reservation of the slot is running. Slot Availability, the admin's switch, is never touched. A
+ * running reservation that is cancelled, moved or deleted releases its slot on the next tick.
+ * Everything that fell due in one tick is written in one transaction with one statement per kind of change.
+ * The wheel is rebuilt from the database on start, so reservations that ended while the
+ * application was down are completed on the first tick. It is then kept current by the changes
+ * reported to ReservationChangeDispatcher, which it also reports its own ends to. Each statement
+ * re-checks status and time in the database, so an event that has gone stale (e.g. a reservation completed by hand in the meantime) changes nothing.
+ */
+public class ReservationLifecycleScheduler implements ReservationChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(ReservationLifecycleScheduler.class.getName());
+
+    private static final ReservationLifecycleScheduler INSTANCE = new ReservationLifecycleScheduler(
+            new ReservationRepository(),
+            AppConfig.getLong("lifecycle.tickMillis", 1000L),
+            AppConfig.getInt("lifecycle.wheelSize", 512),
+            AppConfig.getInt("lifecycle.batchSize", 500),
+            AppConfig.getLong("lifecycle.retryDelayMillis", 30000L));
+
+    private final ReservationRepository reservationRepository;
+    private final ParkingSlotRepository parkingSlotRepository = new ParkingSlotRepository();
+    private final LedgerRepository ledgerRepository = new LedgerRepository();
+    private final HashedTimerWheel<Event> wheel;
+    private final long tickMillis;
+    private final int batchSize;
+    private final long retryDelayMillis;
+    // Reservation ID -> its pending start and end; guarded by this
+    private final Map<Integer, Timers> timersByReservation = new HashMap<>();
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param reservationRepository Repository used to load and update reservations
+     * @param tickMillis Precision of the wheel and how often it is advanced
+     * @param wheelSize Number of wheel buckets
+     * @param batchSize Maximum number of reservations per statement
+     * @param retryDelayMillis How long to wait before retrying changes whose transaction failed
+     */
+    public ReservationLifecycleScheduler(ReservationRepository reservationRepository, long tickMillis,
+                                         int wheelSize, int batchSize, long retryDelayMillis) {
+        this.reservationRepository = reservationRepository;
+        this.tickMillis = Math.max(1, tickMillis);
+        this.wheel = new HashedTimerWheel<>(this.tickMillis, wheelSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    /**
+     * Get the application-wide scheduler shared by all services
+     *
+     * @return The shared scheduler
+     */
+    public static ReservationLifecycleScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Rebuild the schedule from the database and start advancing it; calling it again has no effect
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reservation-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::rebuild);
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Reservation lifecycle tick failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop advancing the schedule
+     */
+    public synchronized void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * Schedule a newly created reservation
+     *
+     * @param reservation The reservation that was inserted
+     */
+    @Override
+    public void onReservationCreated(Reservation reservation) {
+        onReservationUpdated(reservation);
+    }
+
+    /**
+     * Reschedule a changed reservation (status, period or slot)
+     * Reservations that no longer block their slot are dropped from the schedule.
+     *
+     * @param reservation The reservation as written to the database
+     */
+    @Override
+    public synchronized void onReservationUpdated(Reservation reservation) {
+        if (reservation == null) {
+            return;
+        }
+        cancel(reservation.getReservationID());
+        if (SlotAvailabilityIndex.isBlocking(reservation.getStatus())) {
+            schedule(reservation);
+        }
+    }
+
+    /**
+     * Drop a deleted reservation from the schedule
+     *
+     * @param reservationId ID of the deleted reservation
+     */
+    @Override
+    public synchronized void onReservationDeleted(int reservationId) {
+        cancel(reservationId);
+    }
+
+    /**
+     * Nothing to do: the ends come from this scheduler, which dropped their timers when they fell due
+     */
+    @Override
+    public void onReservationsEnded(List<Integer> completedIds, List<Integer> cancelledIds) {
+    }
+
+    /**
+     * Get the number of starts and ends waiting in the schedule
+     *
+     * @return Number of pending events
+     */
+    public int getPendingEventCount() {
+        return wheel.size();
+    }
+
+    private void rebuild() {
+        parkingSlotRepository.ensureOccupiedColumn();
+        // Completion looks up each booking's payment in the ledger
+        ledgerRepository.ensureTable();
+        List<Reservation> reservations = reservationRepository.getBlockingReservations();
+        int scheduled = 0;
+        synchronized (this) {
+            for (Reservation reservation : reservations) {
+                // A write path that got here first has the newer state
+                if (!timersByReservation.containsKey(reservation.getReservationID()) && schedule(reservation)) {
+                    scheduled++;
+                }
+            }
+        }
+        LOGGER.log(Level.INFO, "Reservation lifecycle schedule rebuilt with {0} reservations", scheduled);
+    }
+
+    /**
+     * Apply everything that fell due since the last tick
+     */
+    private void tick() {
+        List<Event> due = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), due::add);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<Integer> started = new ArrayList<>();
+        List<Integer> ended = new ArrayList<>();
+        Set<String> endedSlots = new LinkedHashSet<>();
+        synchronized (this) {
+            for (Event event : due) {
+                Timers timers = timersByReservation.get(event.reservationId);
+                if (event.start) {
+                    started.add(event.reservationId);
+                    if (timers != null && timers.start != null && timers.start.getItem() == event) {
+                        timers.start = null;
+                    }
+                } else {
+                    ended.add(event.reservationId);
+                    endedSlots.add(event.slotNumber);
+                    if (timers != null && timers.end != null && timers.end.getItem() == event) {
+                        timersByReservation.remove(event.reservationId);
+                    }
+                }
+            }
+        }
+
+        if (!apply(started, ended, new ArrayList<>(endedSlots))) {
+            // Try again later; the database re-checks every change, so repeating one is harmless
+            long retryAt = System.currentTimeMillis() + retryDelayMillis;
+            synchronized (this) {
+                for (Event event : due) {
+                    Timers timers = timersByReservation.computeIfAbsent(event.reservationId, id -> new Timers());
+                    if (event.start && timers.start == null) {
+                        timers.start = wheel.schedule(retryAt, event);
+                    } else if (!event.start && timers.end == null) {
+                        timers.end = wheel.schedule(retryAt, event);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean apply(List<Integer> started, List<Integer> ended, List<String> endedSlots) {
+        LocalDateTime now = LocalDateTime.now();
+        Connection connection = null;
+        try {
+            connection = DatabaseConnection.getConnection();
+            connection.setAutoCommit(false);
+
+            List<Integer> completed = new ArrayList<>();
+            List<Integer> cancelled = new ArrayList<>();
+            int released = 0;
+            int occupied = 0;
+            // Ends first, so a slot handed from one reservation to the next stays occupied
+            for (int from = 0; from < ended.size(); from += batchSize) {
+                List<Integer> batch = ended.subList(from, Math.min(ended.size(), from + batchSize));
+                completed.addAll(reservationRepository.completeEndedReservations(connection, batch, now));
+                cancelled.addAll(reservationRepository.expireUnpaidReservations(connection, batch, now));
+            }
+            for (int from = 0; from < endedSlots.size(); from += batchSize) {
+                List<String> batch = endedSlots.subList(from, Math.min(endedSlots.size(), from + batchSize));
+                released += reservationRepository.releaseSlots(connection, batch, now);
+            }
+            for (int from = 0; from < started.size(); from += batchSize) {
+                List<Integer> batch = started.subList(from, Math.min(started.size(), from + batchSize));
+                occupied += reservationRepository.occupySlotsOfStartedReservations(connection, batch, now);
+            }
+
+            connection.commit();
+            ReservationChangeDispatcher.getInstance().reservationsEnded(completed, cancelled);
+            LOGGER.log(Level.INFO,
+                    "Reservation lifecycle: {0} completed, {1} unpaid cancelled, {2} slots released, {3} slots occupied",
+                    new Object[]{completed.size(), cancelled.size(), released, occupied});
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error applying reservation lifecycle changes", e);
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back reservation lifecycle changes", ex);
+            }
+            return false;
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Add a reservation's start and end to the wheel; caller holds this
+     *
+     * @return true if the reservation was scheduled
+     */
+    private boolean schedule(Reservation reservation) {
+        if (reservation.getStartDate() == null || reservation.getStartTime() == null
+                || reservation.getEndDate() == null || reservation.getEndTime() == null) {
+            return false;
+        }
+        long startMillis = toMillis(LocalDateTime.of(
+                reservation.getStartDate().toLocalDate(), reservation.getStartTime().toLocalTime()));
+        long endMillis = toMillis(LocalDateTime.of(
+                reservation.getEndDate().toLocalDate(), reservation.getEndTime().toLocalTime()));
+
+        int reservationId = reservation.getReservationID();
+        String slotNumber = reservation.getSlotNumber();
+        Timers timers = new Timers();
+        timers.slotNumber = slotNumber;
+        // A reservation that is already over only needs completing
+        if (endMillis > System.currentTimeMillis()) {
+            timers.start = wheel.schedule(startMillis, new Event(reservationId, slotNumber, true));
+        }
+        timers.end = wheel.schedule(endMillis, new Event(reservationId, slotNumber, false));
+        timersByReservation.put(reservationId, timers);
+        return true;
+    }
+
+    /**
+     * Remove a reservation's pending start and end from the wheel; caller holds this
+     * If the reservation had already started, its slot may be marked occupied, so an end is
+     * scheduled for the next tick; the release re-checks whether the slot is still in use.
+     */
+    private void cancel(int reservationId) {
+        Timers timers = timersByReservation.remove(reservationId);
+        if (timers != null) {
+            wheel.cancel(timers.start);
+            wheel.cancel(timers.end);
+            if (timers.start == null && timers.end != null) {
+                wheel.schedule(System.currentTimeMillis(), new Event(reservationId, timers.slotNumber, false));
+            }
+        }
+    }
+
+    // Reservations are stored in local wall-clock time
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * The start or end of a reservation
+     */
+    private static final class Event {
+        private final int reservationId;
+        // The slot as scheduled; the reservation row may have moved or gone by the time the event fires
+        private final String slotNumber;
+        private final boolean start;
+
+        private Event(int reservationId, String slotNumber, boolean start) {
+            this.reservationId = reservationId;
+            this.slotNumber = slotNumber;
+            this.start = start;
+        }
+    }
+
+    /**
+     * Pending wheel entries of one reservation; null once due or when not needed
+     */
+    private static final class Timers {
+        private String slotNumber;
+        private HashedTimerWheel.Timeout<Event> start;
+        private HashedTimerWheel.Timeout<Event> end;
+    }
+}
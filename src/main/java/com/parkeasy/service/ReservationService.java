@@ -3,7 +3,10 @@ package main.java.com.parkeasy.service;
 import main.java.com.parkeasy.model.*;
 import main.java.com.parkeasy.repository.*;
 import main.java.com.parkeasy.util.Constants;
+import main.java.com.parkeasy.util.DateTimeUtil;
+import main.java.com.parkeasy.util.DatabaseConnection;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.Duration;
@@ -11,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -26,6 +30,13 @@ public class ReservationService {
     private final ParkingSpaceRepository parkingSpaceRepository;
     private final UserRepository userRepository;
     private final AdminRepository adminRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final ReservationColumnStore columnStore;
+    private final ReservationChangeDispatcher changeDispatcher;
+    private final IdAllocator reservationIdAllocator;
+    private final LedgerService ledgerService;
+
+    private static final IdAllocator RESERVATION_IDS = new SegmentIdAllocator("PARKING_RESERVATION", "ReservationID");
 
     /**
      * Constructor with dependency injection
@@ -34,12 +45,19 @@ public class ReservationService {
                               ParkingSlotRepository parkingSlotRepository,
                               ParkingSpaceRepository parkingSpaceRepository,
                               UserRepository userRepository,
-                              AdminRepository adminRepository) {
+                              AdminRepository adminRepository,
+                              IdAllocator reservationIdAllocator,
+                              LedgerService ledgerService) {
         this.reservationRepository = reservationRepository;
         this.parkingSlotRepository = parkingSlotRepository;
         this.parkingSpaceRepository = parkingSpaceRepository;
         this.userRepository = userRepository;
         this.adminRepository = adminRepository;
+        this.availabilityIndex = SlotAvailabilityIndex.getInstance();
+        this.columnStore = ReservationColumnStore.getInstance();
+        this.changeDispatcher = ReservationChangeDispatcher.getInstance();
+        this.reservationIdAllocator = reservationIdAllocator;
+        this.ledgerService = ledgerService;
     }
 
     /**
@@ -51,10 +69,17 @@ public class ReservationService {
         this.parkingSpaceRepository = new ParkingSpaceRepository();
         this.userRepository = new UserRepository();
         this.adminRepository = new AdminRepository();
+        this.availabilityIndex = SlotAvailabilityIndex.getInstance();
+        this.columnStore = ReservationColumnStore.getInstance();
+        this.changeDispatcher = ReservationChangeDispatcher.getInstance();
+        this.reservationIdAllocator = RESERVATION_IDS;
+        this.ledgerService = new LedgerService();
     }
 
     /**
      * Create a new reservation with balance transfer
+     * The slot check, the insert and both balance updates run in one transaction that holds a
+     * row lock on the slot, so two users booking the same slot at once cannot both succeed.
      *
      * @param reservation The reservation to create
      * @param userId The ID of the user making the reservation
@@ -62,6 +87,7 @@ public class ReservationService {
      * @return true if successful, false otherwise
      */
     public boolean createReservation(Reservation reservation, int userId, String parkingId) {
+        Connection connection = null;
         try {
             LOGGER.log(Level.INFO, "Creating new reservation for vehicle: {0}", reservation.getVehicleID());
 
@@ -88,39 +114,72 @@ public class ReservationService {
             reservation.setFee(fee);
 
 
-            // Get user and admin
-            User user = userRepository.getUserById(userId);
             ParkingSpace parkingSpace = parkingSpaceRepository.getParkingSpaceById(parkingId);
-            Admin admin = adminRepository.getAdminById(parkingSpace.getAdminID());
-
-            // Check if user has enough balance
-            if (user.getBalance() < fee) {
-                LOGGER.log(Level.WARNING, "Insufficient balance for user: {0}", userId);
+            if (parkingSpace == null) {
+                LOGGER.log(Level.WARNING, "Parking space not found: {0}", parkingId);
                 return false;
             }
 
             // Set status to IN_PROCESS
             reservation.setStatus(Constants.RESERVATION_IN_PROCESS);
 
-            // Insert the reservation
-            int reservationId = reservationRepository.insertReservation(reservation);
+            ledgerService.ensureLedger();
+            connection = DatabaseConnection.getConnection();
+            connection.setAutoCommit(false);
 
-            if (reservationId > 0) {
-                // Deduct fee from user's balance
-                user.setBalance(user.getBalance() - fee);
-                userRepository.updateUser(user);
+            // Locks are always taken slot -> user so concurrent bookings cannot deadlock
+            if (parkingSlotRepository.lockParkingSlot(connection, reservation.getSlotNumber()) == null) {
+                LOGGER.log(Level.WARNING, "Parking slot not found: {0}", reservation.getSlotNumber());
+                connection.rollback();
+                return false;
+            }
 
-                // Credit fee to admin's balance
-                admin.setBalance(admin.getBalance() + fee);
-                adminRepository.updateAdmin(admin);
+            // Re-check the slot now that no other booking can slip in
+            if (reservationRepository.hasBlockingReservation(connection, reservation.getSlotNumber(),
+                    startDateTime, endDateTime)) {
+                LOGGER.log(Level.WARNING, "Slot {0} was booked for an overlapping period",
+                        reservation.getSlotNumber());
+                connection.rollback();
+                return false;
+            }
 
-                return true;
+            // Insert the reservation
+            if (!reservationRepository.insertReservation(connection, reservation)) {
+                LOGGER.log(Level.WARNING, "Failed to book reservation for vehicle: {0}", reservation.getVehicleID());
+                connection.rollback();
+                return false;
             }
 
-            return false;
+            // Debit the user (only if the balance covers it) and queue the admin credit in the ledger
+            if (!ledgerService.recordPayment(connection, userId, parkingSpace.getAdminID(),
+                    reservation.getReservationID(), fee)) {
+                LOGGER.log(Level.WARNING, "Insufficient balance for user: {0}", userId);
+                connection.rollback();
+                return false;
+            }
+
+            connection.commit();
+            changeDispatcher.reservationCreated(reservation);
+            return true;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error creating reservation", e);
+            try {
+                if (connection != null) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back reservation", ex);
+            }
             return false;
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
         }
     }
 
@@ -179,36 +238,8 @@ public class ReservationService {
                 return false;
             }
 
-            // Get active reservations for this slot
-            List<Reservation> reservations = reservationRepository.getReservationsByParkingSlotNumber(slotNumber);
-
-            // Filter for IN_PROCESS reservations only
-            List<Reservation> activeReservations = reservations.stream()
-                    .filter(res -> res.getStatus().equals(Constants.RESERVATION_IN_PROCESS))
-                    .collect(Collectors.toList());
-
-            // Check for overlapping reservations
-            for (Reservation res : activeReservations) {
-                // Convert SQL dates to LocalDateTime
-                LocalDateTime resStart = LocalDateTime.of(
-                        res.getStartDate().toLocalDate(),
-                        res.getStartTime().toLocalTime()
-                );
-
-                LocalDateTime resEnd = LocalDateTime.of(
-                        res.getEndDate().toLocalDate(),
-                        res.getEndTime().toLocalTime()
-                );
-
-                // Check if there is an overlap
-                if (!(endDateTime.isBefore(resStart) || startDateTime.isAfter(resEnd))) {
-                    // There is an overlap
-                    return false;
-                }
-            }
-
-            // No overlapping reservations found
-            return true;
+            // Check for overlapping reservations against the in-memory index
+            return availabilityIndex.isAvailable(slotNumber, startDateTime, endDateTime);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error checking slot availability for period", e);
             return false;
@@ -218,14 +249,14 @@ public class ReservationService {
      * Generate a unique reservation ID
      *
      * @return A unique reservation ID
+     * @throws SQLException if no ID could be allocated; the booking must then fail
      */
-    public int generateReservationId() {
+    public int generateReservationId() throws SQLException {
         try {
-            // A simple implementation to generate a unique ID
-            return (int) (System.currentTimeMillis() % Integer.MAX_VALUE);
-        } catch (Exception e) {
+            return reservationIdAllocator.nextId();
+        } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error generating reservation ID", e);
-            return (int) (Math.random() * Integer.MAX_VALUE);
+            throw e;
         }
     }
     /**
@@ -287,7 +318,12 @@ public class ReservationService {
             }
 
             // Call the repository method to update the reservation
-            return reservationRepository.updateReservationById(reservation.getReservationID(), reservation);
+            boolean updated = reservationRepository.updateReservationById(reservation.getReservationID(), reservation);
+            if (updated) {
+                // Keeps the in-memory copies current for cancel/complete and rescheduling
+                changeDispatcher.reservationUpdated(reservation);
+            }
+            return updated;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error updating reservation", e);
             return false;
@@ -301,12 +337,8 @@ public class ReservationService {
      */
     public String getParkingIdBySlotNumber(String slotNumber) {
         try {
-            LOGGER.log(Level.INFO, "Retrieving parking ID for slot: {0}", slotNumber);
-            ParkingSlot slot = parkingSlotRepository.findParkingSlotByNumber(slotNumber);
-            if (slot != null) {
-                return slot.getParkingID();
-            }
-            return null;
+            LOGGER.log(Level.FINE, "Retrieving parking ID for slot: {0}", slotNumber);
+            return parkingSlotRepository.getParkingIdBySlotNumber(slotNumber);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error retrieving parking ID for slot: " + slotNumber, e);
             return null;
@@ -379,22 +411,32 @@ public class ReservationService {
         try {
             LOGGER.log(Level.INFO, "Retrieving recent reservations for user: {0}", userId);
 
-            // Get all reservations for the user
-            List<Reservation> allReservations = reservationRepository.getReservationsByUserId(userId);
-
-            // Sort by creation date (newest first)
-            List<Reservation> sortedReservations = allReservations.stream()
-                    .sorted((r1, r2) -> r2.getCreatedAt().compareTo(r1.getCreatedAt()))
-                    .limit(limit)
-                    .collect(Collectors.toList());
-
-            return sortedReservations;
+            // Newest first, already joined with the parking space of each slot
+            return reservationRepository.getRecentReservationsWithParkingByUserId(userId, limit);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error retrieving recent reservations for user: " + userId, e);
             return new ArrayList<>(); // Return empty list on error
         }
     }
 
+    /**
+     * Get a user's reservations that still hold their slot and have not ended yet
+     * One query over all the user's vehicles; each reservation comes with its parking ID, address
+     * and hourly rate.
+     *
+     * @param userId The ID of the user
+     * @return Processing and Paid reservations, soonest start first
+     */
+    public List<Reservation> getOpenReservationsForUser(int userId) {
+        try {
+            LOGGER.log(Level.INFO, "Retrieving open reservations for user: {0}", userId);
+            return reservationRepository.getOpenReservationsWithParkingByUserId(userId, LocalDateTime.now());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving open reservations for user: " + userId, e);
+            return new ArrayList<>(); // Return empty list on error
+        }
+    }
+
     /**
      * Get recent parking space IDs used by a user
      *
@@ -412,8 +454,7 @@ public class ReservationService {
             // Extract unique parking space IDs
             List<String> parkingIds = new ArrayList<>();
             for (Reservation reservation : recentReservations) {
-                String slotNumber = reservation.getSlotNumber();
-                String parkingId = getParkingIdBySlotNumber(slotNumber);
+                String parkingId = reservation.getParkingID();
 
                 if (parkingId != null && !parkingIds.contains(parkingId)) {
                     parkingIds.add(parkingId);
@@ -470,10 +511,7 @@ public class ReservationService {
         try {
             LOGGER.log(Level.INFO, "Counting total reservations for user: {0}", userId);
 
-            // Get all reservations for the user
-            List<Reservation> allReservations = reservationRepository.getReservationsByUserId(userId);
-
-            return allReservations.size();
+            return reservationRepository.getReservationCountByUserId(userId);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error counting total reservations for user: " + userId, e);
             return 0;
@@ -531,6 +569,12 @@ public class ReservationService {
             LOGGER.log(Level.INFO, "Calculating revenue for parking space: {0} between {1} and {2}",
                     new Object[]{parkingId, startDateTime, endDateTime});
 
+            OptionalDouble storedRevenue = columnStore.sumRevenue(
+                    parkingId, startDateTime.toLocalDate(), endDateTime.toLocalDate());
+            if (storedRevenue.isPresent()) {
+                return (float) storedRevenue.getAsDouble();
+            }
+
             // Convert LocalDateTime to java.util.Date for the repository method
             java.util.Date startDate = java.sql.Timestamp.valueOf(startDateTime);
             java.util.Date endDate = java.sql.Timestamp.valueOf(endDateTime);
@@ -619,7 +663,7 @@ public class ReservationService {
             List<Reservation> reservations = getReservationsByVehicleId(vehicleId);
 
             // Current time
-            LocalDateTime now = LocalDateTime.now();
+            long now = DateTimeUtil.toEpochSecond(LocalDateTime.now());
 
             // Find the active reservation (status is IN_PROCESS or PAID, and current time is between start and end)
             for (Reservation reservation : reservations) {
@@ -627,19 +671,8 @@ public class ReservationService {
                 if (reservation.getStatus().equals(Constants.RESERVATION_IN_PROCESS) ||
                         reservation.getStatus().equals(Constants.RESERVATION_PAID)) {
 
-                    // Convert to LocalDateTime for comparison
-                    LocalDateTime startDateTime = LocalDateTime.of(
-                            reservation.getStartDate().toLocalDate(),
-                            reservation.getStartTime().toLocalTime()
-                    );
-
-                    LocalDateTime endDateTime = LocalDateTime.of(
-                            reservation.getEndDate().toLocalDate(),
-                            reservation.getEndTime().toLocalTime()
-                    );
-
                     // Check if current time is within the reservation period
-                    if (now.isAfter(startDateTime) && now.isBefore(endDateTime)) {
+                    if (reservation.isInProgressAt(now)) {
                         LOGGER.log(Level.INFO, "Found active reservation for vehicle: {0}", vehicleId);
                         return reservation;
                     }
@@ -684,26 +717,17 @@ public class ReservationService {
                     .collect(Collectors.toList());
 
             // Check for overlapping time periods
+            long start = DateTimeUtil.toEpochSecond(startDateTime);
+            long end = DateTimeUtil.toEpochSecond(endDateTime);
             for (Reservation res : activeReservations) {
                 // Skip the current reservation if updating
                 if (excludeReservationId != null && res.getReservationID() == excludeReservationId) {
                     continue;
                 }
 
-                // Convert to LocalDateTime for comparison
-                LocalDateTime resStart = LocalDateTime.of(
-                        res.getStartDate().toLocalDate(),
-                        res.getStartTime().toLocalTime()
-                );
-
-                LocalDateTime resEnd = LocalDateTime.of(
-                        res.getEndDate().toLocalDate(),
-                        res.getEndTime().toLocalTime()
-                );
-
                 // Check if there is an overlap
                 // Two reservations overlap if one starts before the other ends and ends after the other starts
-                if (!(endDateTime.isBefore(resStart) || startDateTime.isAfter(resEnd))) {
+                if (res.overlaps(start, end)) {
                     LOGGER.log(Level.INFO, "Found overlapping reservation: {0}", res.getReservationID());
                     return true;
                 }
@@ -738,7 +762,7 @@ public class ReservationService {
 
             // Check if there are any active reservations for this slot before making it available
             if (isAvailable) {
-                LocalDateTime now = LocalDateTime.now();
+                long now = DateTimeUtil.toEpochSecond(LocalDateTime.now());
                 List<Reservation> activeReservations = reservationRepository.getReservationsByParkingSlotNumber(slotNumber);
 
                 boolean hasActiveReservation = activeReservations.stream()
@@ -747,19 +771,8 @@ public class ReservationService {
                             if (res.getStatus().equals(Constants.RESERVATION_IN_PROCESS) ||
                                     res.getStatus().equals(Constants.RESERVATION_PAID)) {
 
-                                // Convert to LocalDateTime for comparison
-                                LocalDateTime startDateTime = LocalDateTime.of(
-                                        res.getStartDate().toLocalDate(),
-                                        res.getStartTime().toLocalTime()
-                                );
-
-                                LocalDateTime endDateTime = LocalDateTime.of(
-                                        res.getEndDate().toLocalDate(),
-                                        res.getEndTime().toLocalTime()
-                                );
-
                                 // Check if current time is within the reservation period
-                                return now.isAfter(startDateTime) && now.isBefore(endDateTime);
+                                return res.isInProgressAt(now);
                             }
                             return false;
                         });
@@ -812,7 +825,7 @@ public class ReservationService {
             List<Reservation> allReservations = getReservationsByVehicleId(vehicleId);
 
             // Current time
-            LocalDateTime now = LocalDateTime.now();
+            long now = DateTimeUtil.toEpochSecond(LocalDateTime.now());
 
             // Filter for active or future reservations
             List<Reservation> activeReservations = allReservations.stream()
@@ -821,14 +834,9 @@ public class ReservationService {
                         if (reservation.getStatus().equals(Constants.RESERVATION_IN_PROCESS) ||
                                 reservation.getStatus().equals(Constants.RESERVATION_PAID)) {
 
-                            // Convert to LocalDateTime for comparison
-                            LocalDateTime endDateTime = LocalDateTime.of(
-                                    reservation.getEndDate().toLocalDate(),
-                                    reservation.getEndTime().toLocalTime()
-                            );
-
                             // Check if reservation has not yet ended
-                            return now.isBefore(endDateTime);
+                            return reservation.getEndEpochSecond() != Reservation.NO_TIME
+                                    && now < reservation.getEndEpochSecond();
                         }
                         return false;
                     })
@@ -6,13 +6,17 @@ import main.java.com.parkeasy.model.Transaction;
 import main.java.com.parkeasy.repository.ParkingSpaceRepository;
 import main.java.com.parkeasy.repository.ParkingSlotRepository;
 import main.java.com.parkeasy.repository.ReservationRepository;
+import main.java.com.parkeasy.repository.RevenueRollupRepository;
+import main.java.com.parkeasy.util.DateTimeUtil;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,6 +30,8 @@ public class RevenueService {
     private final ReservationRepository reservationRepository;
     private final ParkingSpaceRepository parkingSpaceRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final ReservationColumnStore columnStore;
 
     /**
      * Constructor with dependency injection
@@ -33,11 +39,14 @@ public class RevenueService {
     public RevenueService(TransactionService transactionService,
                           ReservationRepository reservationRepository,
                           ParkingSpaceRepository parkingSpaceRepository,
-                          ParkingSlotRepository parkingSlotRepository) {
+                          ParkingSlotRepository parkingSlotRepository,
+                          RevenueRollupRepository revenueRollupRepository) {
         this.transactionService = transactionService;
         this.reservationRepository = reservationRepository;
         this.parkingSpaceRepository = parkingSpaceRepository;
         this.parkingSlotRepository = parkingSlotRepository;
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.columnStore = ReservationColumnStore.getInstance();
     }
 
     /**
@@ -48,6 +57,8 @@ public class RevenueService {
         this.reservationRepository = new ReservationRepository();
         this.parkingSpaceRepository = new ParkingSpaceRepository();
         this.parkingSlotRepository = new ParkingSlotRepository();
+        this.revenueRollupRepository = new RevenueRollupRepository();
+        this.columnStore = ReservationColumnStore.getInstance();
     }
 
     /**
@@ -63,12 +74,15 @@ public class RevenueService {
         try {
             LOGGER.log(Level.INFO, "Getting revenue statistics for admin: {0}", adminId);
 
-            // Calculate total revenue using TransactionService
-            float totalRevenue = transactionService.calculateRevenueForAdminByDateRange(adminId, startDate, endDate);
-
             // Get all transactions for this admin in the date range
             List<Transaction> transactions = transactionService.getTransactionsByAdminIdAndDateRange(adminId, startDate, endDate);
 
+            // Calculate total revenue from the same rows instead of querying them twice
+            float totalRevenue = 0.0f;
+            for (Transaction transaction : transactions) {
+                totalRevenue += transaction.getAmount();
+            }
+
             // Calculate average transaction amount
             float avgTransactionAmount = transactions.isEmpty() ? 0.0f : totalRevenue / transactions.size();
 
@@ -117,48 +131,24 @@ public class RevenueService {
         try {
             LOGGER.log(Level.INFO, "Getting daily revenue breakdown for admin: {0}", adminId);
 
-            // Get all parking spaces managed by this admin
-            List<String> parkingIds = parkingSpaceRepository.getAllParkingSpaceIdsByAdminId(adminId);
-
-            if (parkingIds.isEmpty()) {
-                return dailyBreakdown;
-            }
+            // One rollup read for the whole period instead of one query per day and parking space
+            Map<LocalDate, Map<String, Object>> rollup = revenueRollupRepository.getDailyRevenueByAdminId(
+                    adminId, startDate.toLocalDate(), endDate.toLocalDate());
 
             // Calculate number of days in the period
             long daysBetween = ChronoUnit.DAYS.between(startDate.toLocalDate(), endDate.toLocalDate());
 
             // Generate daily breakdown
             for (long i = 0; i <= daysBetween; i++) {
-                LocalDateTime dayStart = startDate.plusDays(i).toLocalDate().atStartOfDay();
-                LocalDateTime dayEnd = dayStart.plusDays(1);
-
-                // Skip if day is after end date
-                if (dayStart.isAfter(endDate)) {
-                    break;
-                }
-
-                float dailyRevenue = 0.0F;
-                int reservationCount = 0;
-                int transactionCount = 0;
-
-                // Get transactions for this day (for all parking spaces)
-                for (String parkingId : parkingIds) {
-                    List<Transaction> transactions = transactionService.getTransactionsByParkingIdAndDateRange(parkingId, dayStart, dayEnd);
-
-                    for (Transaction transaction : transactions) {
-                        dailyRevenue += transaction.getAmount();
-                        transactionCount++;
-
-                        // Count each transaction as one reservation
-                        reservationCount++;
-                    }
-                }
+                LocalDate day = startDate.toLocalDate().plusDays(i);
+                float[] totals = sumRollup(rollup, day, day);
 
                 Map<String, Object> dayData = new HashMap<>();
-                dayData.put("date", dayStart.toLocalDate());
-                dayData.put("revenue", dailyRevenue);
-                dayData.put("reservationCount", reservationCount);
-                dayData.put("transactionCount", transactionCount);
+                dayData.put("date", day);
+                dayData.put("revenue", totals[0]);
+                // Each transaction pays for one reservation
+                dayData.put("reservationCount", (int) totals[1]);
+                dayData.put("transactionCount", (int) totals[1]);
 
                 dailyBreakdown.add(dayData);
             }
@@ -183,6 +173,9 @@ public class RevenueService {
         try {
             LOGGER.log(Level.INFO, "Getting weekly revenue breakdown for admin: {0}", adminId);
 
+            Map<LocalDate, Map<String, Object>> rollup = revenueRollupRepository.getDailyRevenueByAdminId(
+                    adminId, startDate.toLocalDate(), endDate.toLocalDate());
+
             // Calculate number of weeks in the period
             LocalDateTime currentWeekStart = startDate;
 
@@ -194,27 +187,14 @@ public class RevenueService {
                     weekEnd = endDate;
                 }
 
-                float weeklyRevenue = 0.0F;
-                int reservationCount = 0;
-                int transactionCount = 0;
-
-                // Get transactions for all parking spaces in this week
-                List<Transaction> weeklyTransactions = transactionService.getTransactionsByAdminIdAndDateRange(adminId, currentWeekStart, weekEnd);
-
-                for (Transaction transaction : weeklyTransactions) {
-                    weeklyRevenue += transaction.getAmount();
-                    transactionCount++;
-
-                    // Count each transaction as one reservation
-                    reservationCount++;
-                }
+                float[] totals = sumRollup(rollup, currentWeekStart.toLocalDate(), weekEnd.toLocalDate());
 
                 Map<String, Object> weekData = new HashMap<>();
                 weekData.put("weekStart", currentWeekStart.toLocalDate());
                 weekData.put("weekEnd", weekEnd.toLocalDate());
-                weekData.put("revenue", weeklyRevenue);
-                weekData.put("reservationCount", reservationCount);
-                weekData.put("transactionCount", transactionCount);
+                weekData.put("revenue", totals[0]);
+                weekData.put("reservationCount", (int) totals[1]);
+                weekData.put("transactionCount", (int) totals[1]);
 
                 weeklyBreakdown.add(weekData);
 
@@ -245,6 +225,9 @@ public class RevenueService {
             // Start from the first day of the month of startDate
             LocalDateTime currentMonthStart = startDate.withDayOfMonth(1);
 
+            Map<LocalDate, Map<String, Object>> rollup = revenueRollupRepository.getDailyRevenueByAdminId(
+                    adminId, currentMonthStart.toLocalDate(), endDate.toLocalDate());
+
             // Process month by month
             while (!currentMonthStart.isAfter(endDate)) {
                 // Calculate month end (last day of the month or endDate, whichever comes first)
@@ -253,27 +236,14 @@ public class RevenueService {
                     monthEnd = endDate;
                 }
 
-                float monthlyRevenue = 0.0F;
-                int reservationCount = 0;
-                int transactionCount = 0;
-
-                // Get transactions for all parking spaces in this month
-                List<Transaction> monthlyTransactions = transactionService.getTransactionsByAdminIdAndDateRange(adminId, currentMonthStart, monthEnd);
-
-                for (Transaction transaction : monthlyTransactions) {
-                    monthlyRevenue += transaction.getAmount();
-                    transactionCount++;
-
-                    // Count each transaction as one reservation
-                    reservationCount++;
-                }
+                float[] totals = sumRollup(rollup, currentMonthStart.toLocalDate(), monthEnd.toLocalDate());
 
                 Map<String, Object> monthData = new HashMap<>();
                 monthData.put("month", currentMonthStart.getMonth());
                 monthData.put("year", currentMonthStart.getYear());
-                monthData.put("revenue", monthlyRevenue);
-                monthData.put("reservationCount", reservationCount);
-                monthData.put("transactionCount", transactionCount);
+                monthData.put("revenue", totals[0]);
+                monthData.put("reservationCount", (int) totals[1]);
+                monthData.put("transactionCount", (int) totals[1]);
 
                 monthlyBreakdown.add(monthData);
 
@@ -288,6 +258,34 @@ public class RevenueService {
         }
     }
 
+    /**
+     * Rebuild the daily revenue rollup from all recorded transactions
+     *
+     * @return true if successful, false otherwise
+     */
+    public boolean rebuildRevenueRollup() {
+        LOGGER.info("Rebuilding daily revenue rollup");
+        return revenueRollupRepository.backfill();
+    }
+
+    /**
+     * Sum rollup days in an inclusive date range
+     *
+     * @return {revenue, transaction count}
+     */
+    private float[] sumRollup(Map<LocalDate, Map<String, Object>> rollup, LocalDate from, LocalDate to) {
+        float revenue = 0.0F;
+        int count = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Map<String, Object> dayData = rollup.get(day);
+            if (dayData != null) {
+                revenue += (Float) dayData.get("revenue");
+                count += (Integer) dayData.get("transactionCount");
+            }
+        }
+        return new float[]{revenue, count};
+    }
+
     /**
      * Get parking space utilization rate
      *
@@ -312,13 +310,6 @@ public class RevenueService {
                 return 0.0F;
             }
 
-            // Convert to java.util.Date for getReservationsByParkingIdAndDateRange
-            java.util.Date startUtilDate = java.util.Date.from(startDate.atZone(java.time.ZoneId.systemDefault()).toInstant());
-            java.util.Date endUtilDate = java.util.Date.from(endDate.atZone(java.time.ZoneId.systemDefault()).toInstant());
-
-            // Get reservations for this parking space
-            List<Reservation> reservations = reservationRepository.getReservationsByParkingIdAndDateRange(parkingId, startUtilDate, endUtilDate);
-
             // Calculate total hours in the date range
             long totalHoursInRange = ChronoUnit.HOURS.between(startDate, endDate);
             if (totalHoursInRange <= 0) {
@@ -328,35 +319,11 @@ public class RevenueService {
             // Calculate total slot-hours available
             long totalSlotHours = totalSlots * totalHoursInRange;
 
-            // Calculate reserved slot-hours
-            long reservedSlotHours = 0;
-            for (Reservation reservation : reservations) {
-                // Convert SQL dates to LocalDateTime
-                LocalDateTime resStart = LocalDateTime.of(
-                        reservation.getStartDate().toLocalDate(),
-                        reservation.getStartTime().toLocalTime()
-                );
-
-                LocalDateTime resEnd = LocalDateTime.of(
-                        reservation.getEndDate().toLocalDate(),
-                        reservation.getEndTime().toLocalTime()
-                );
-
-                // Adjust to be within the range
-                if (resStart.isBefore(startDate)) {
-                    resStart = startDate;
-                }
-
-                if (resEnd.isAfter(endDate)) {
-                    resEnd = endDate;
-                }
-
-                // Calculate hours for this reservation
-                long resHours = ChronoUnit.HOURS.between(resStart, resEnd);
-                if (resHours > 0) {
-                    reservedSlotHours += resHours;
-                }
-            }
+            // Calculate reserved slot-hours, clipping each reservation to the range
+            OptionalLong storedHours = columnStore.sumReservedHours(parkingId, startDate, endDate);
+            long reservedSlotHours = storedHours.isPresent()
+                    ? storedHours.getAsLong()
+                    : loadReservedSlotHours(parkingId, startDate, endDate);
 
             // Calculate utilization rate
             return (float) reservedSlotHours / totalSlotHours * 100;
@@ -366,6 +333,30 @@ public class RevenueService {
         }
     }
 
+    private long loadReservedSlotHours(String parkingId, LocalDateTime startDate, LocalDateTime endDate) {
+        // Convert to java.util.Date for getReservationsByParkingIdAndDateRange
+        java.util.Date startUtilDate = java.util.Date.from(startDate.atZone(java.time.ZoneId.systemDefault()).toInstant());
+        java.util.Date endUtilDate = java.util.Date.from(endDate.atZone(java.time.ZoneId.systemDefault()).toInstant());
+
+        // Get reservations for this parking space
+        List<Reservation> reservations = reservationRepository.getReservationsByParkingIdAndDateRange(parkingId, startUtilDate, endUtilDate);
+
+        long rangeStart = DateTimeUtil.toEpochSecond(startDate);
+        long rangeEnd = DateTimeUtil.toEpochSecond(endDate);
+        long reservedSlotHours = 0;
+        for (Reservation reservation : reservations) {
+            long resStart = Math.max(reservation.getStartEpochSecond(), rangeStart);
+            long resEnd = Math.min(reservation.getEndEpochSecond(), rangeEnd);
+
+            // Calculate whole hours for this reservation
+            long resHours = (resEnd - resStart) / 3600;
+            if (resHours > 0) {
+                reservedSlotHours += resHours;
+            }
+        }
+        return reservedSlotHours;
+    }
+
     /**
      * Get revenue for a specific parking space
      *
@@ -395,10 +386,17 @@ public class RevenueService {
                 totalRevenue += transaction.getAmount();
             }
 
-            // Get reservations for this parking space
-            java.util.Date startUtilDate = java.util.Date.from(startDate.atZone(java.time.ZoneId.systemDefault()).toInstant());
-            java.util.Date endUtilDate = java.util.Date.from(endDate.atZone(java.time.ZoneId.systemDefault()).toInstant());
-            List<Reservation> reservations = reservationRepository.getReservationsByParkingIdAndDateRange(parkingId, startUtilDate, endUtilDate);
+            // Count reservations for this parking space
+            OptionalLong storedCount = columnStore.countReservations(
+                    parkingId, startDate.toLocalDate(), endDate.toLocalDate());
+            int reservationCount;
+            if (storedCount.isPresent()) {
+                reservationCount = (int) storedCount.getAsLong();
+            } else {
+                java.util.Date startUtilDate = java.util.Date.from(startDate.atZone(java.time.ZoneId.systemDefault()).toInstant());
+                java.util.Date endUtilDate = java.util.Date.from(endDate.atZone(java.time.ZoneId.systemDefault()).toInstant());
+                reservationCount = reservationRepository.getReservationsByParkingIdAndDateRange(parkingId, startUtilDate, endUtilDate).size();
+            }
 
             // Calculate average transaction amount
             float avgTransactionAmount = (float) (transactions.isEmpty() ? 0.0 : totalRevenue / transactions.size());
@@ -410,7 +408,7 @@ public class RevenueService {
             revenueData.put("parkingId", parkingId);
             revenueData.put("parkingAddress", parkingSpace.getParkingAddress());
             revenueData.put("totalRevenue", totalRevenue);
-            revenueData.put("reservationCount", reservations.size());
+            revenueData.put("reservationCount", reservationCount);
             revenueData.put("transactionCount", transactions.size());
             revenueData.put("averageTransactionAmount", avgTransactionAmount);
             revenueData.put("utilizationRate", utilizationRate);
@@ -438,9 +436,19 @@ public class RevenueService {
         try {
             LOGGER.log(Level.INFO, "Getting daily revenue trend for parking space: {0}", parkingId);
 
+            Map<LocalDate, Map<String, Object>> rollup = new HashMap<>();
+            for (Map<String, Object> row : revenueRollupRepository.getDailyRevenueByParkingId(
+                    parkingId, startDate.toLocalDate(), endDate.toLocalDate())) {
+                rollup.put((LocalDate) row.get("date"), row);
+            }
+
             // Calculate number of days in the period
             long daysBetween = ChronoUnit.DAYS.between(startDate.toLocalDate(), endDate.toLocalDate());
 
+            // Reservation counts for every day in one pass, when the column store is on
+            int[] storedCounts = columnStore.countReservationsPerDay(
+                    parkingId, startDate.toLocalDate(), endDate.toLocalDate()).orElse(null);
+
             // Process day by day
             for (long i = 0; i <= daysBetween; i++) {
                 LocalDateTime dayStart = startDate.plusDays(i).toLocalDate().atStartOfDay();
@@ -451,25 +459,24 @@ public class RevenueService {
                     break;
                 }
 
-                // Get transactions for this day
-                List<Transaction> transactions = transactionService.getTransactionsByParkingIdAndDateRange(parkingId, dayStart, dayEnd);
-
-                // Calculate daily revenue
-                float dailyRevenue = 0.0F;
-                for (Transaction transaction : transactions) {
-                    dailyRevenue += transaction.getAmount();
-                }
+                // Revenue for this day from the rollup
+                float[] totals = sumRollup(rollup, dayStart.toLocalDate(), dayStart.toLocalDate());
 
                 // Get reservations for this day (for calculating reservation count)
-                java.util.Date dayStartUtilDate = java.util.Date.from(dayStart.atZone(java.time.ZoneId.systemDefault()).toInstant());
-                java.util.Date dayEndUtilDate = java.util.Date.from(dayEnd.atZone(java.time.ZoneId.systemDefault()).toInstant());
-                List<Reservation> reservations = reservationRepository.getReservationsByParkingIdAndDateRange(parkingId, dayStartUtilDate, dayEndUtilDate);
+                int reservationCount;
+                if (storedCounts != null) {
+                    reservationCount = storedCounts[(int) i];
+                } else {
+                    java.util.Date dayStartUtilDate = java.util.Date.from(dayStart.atZone(java.time.ZoneId.systemDefault()).toInstant());
+                    java.util.Date dayEndUtilDate = java.util.Date.from(dayEnd.atZone(java.time.ZoneId.systemDefault()).toInstant());
+                    reservationCount = reservationRepository.getReservationsByParkingIdAndDateRange(parkingId, dayStartUtilDate, dayEndUtilDate).size();
+                }
 
                 Map<String, Object> dayData = new HashMap<>();
                 dayData.put("date", dayStart.toLocalDate());
-                dayData.put("revenue", dailyRevenue);
-                dayData.put("reservationCount", reservations.size());
-                dayData.put("transactionCount", transactions.size());
+                dayData.put("revenue", totals[0]);
+                dayData.put("reservationCount", reservationCount);
+                dayData.put("transactionCount", (int) totals[1]);
 
                 dailyTrend.add(dayData);
             }
@@ -1,8 +1,10 @@
 package main.java.com.parkeasy.service;
 
 import main.java.com.parkeasy.model.Review;
+import main.java.com.parkeasy.repository.ParkingSpaceRepository;
 import main.java.com.parkeasy.repository.ReviewRepository;
 
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +18,8 @@ import java.util.logging.Logger;
 public class ReviewService {
     private static final Logger LOGGER = Logger.getLogger(ReviewService.class.getName());
     private final ReviewRepository reviewRepository;
+    private final ParkingSpaceRepository parkingSpaceRepository = new ParkingSpaceRepository();
+    private final ParkingSearchIndex searchIndex = ParkingSearchIndex.getInstance();
 
     /**
      * Default constructor
@@ -37,14 +41,14 @@ public class ReviewService {
      * Generate a new unique review ID
      *
      * @return A new unique review ID
+     * @throws SQLException if no ID could be allocated; the review must then fail
      */
-    public int generateReviewId() {
+    public int generateReviewId() throws SQLException {
         try {
             return reviewRepository.generateReviewId();
-        } catch (Exception e) {
+        } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error generating review ID", e);
-            // Fallback to a timestamp-based ID in case of repository failure
-            return (int) (System.currentTimeMillis() % Integer.MAX_VALUE);
+            throw e;
         }
     }
 
@@ -70,7 +74,11 @@ public class ReviewService {
                 review.setCreatedAt(new Timestamp(System.currentTimeMillis()));
             }
 
-            return reviewRepository.createReview(review, parkingId);
+            if (!reviewRepository.createReview(review, parkingId)) {
+                return false;
+            }
+            refreshIndexedRating(parkingId);
+            return true;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error creating review", e);
             return false;
@@ -106,7 +114,11 @@ public class ReviewService {
                 return false;
             }
 
-            return reviewRepository.createReview(review, parkingId);
+            if (!reviewRepository.createReview(review, parkingId)) {
+                return false;
+            }
+            refreshIndexedRating(parkingId);
+            return true;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error creating review", e);
             return false;
@@ -189,7 +201,11 @@ public class ReviewService {
                 return false;
             }
 
-            return reviewRepository.updateReview(review);
+            if (!reviewRepository.updateReview(review)) {
+                return false;
+            }
+            refreshIndexedRating(reviewRepository.getParkingIdByReviewId(review.getReviewID()));
+            return true;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error updating review", e);
             return false;
@@ -204,13 +220,38 @@ public class ReviewService {
      */
     public boolean deleteReview(int reviewId) {
         try {
-            return reviewRepository.deleteReview(reviewId);
+            // Read before the row is gone
+            String parkingId = reviewRepository.getParkingIdByReviewId(reviewId);
+            if (!reviewRepository.deleteReview(reviewId)) {
+                return false;
+            }
+            refreshIndexedRating(parkingId);
+            return true;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error deleting review: " + reviewId, e);
             return false;
         }
     }
 
+    /**
+     * Copy a parking space's average rating, as stored after a review change, into the search index
+     * Rating-sorted search pages are served from the index, so a skipped refresh shows as a stale order.
+     *
+     * @param parkingId The ID of the reviewed parking space
+     */
+    private void refreshIndexedRating(String parkingId) {
+        if (parkingId == null) {
+            LOGGER.log(Level.WARNING, "Review changed for an unknown parking space, search index rating not refreshed");
+            return;
+        }
+        Float averageRating = parkingSpaceRepository.findAverageRating(parkingId);
+        if (averageRating == null) {
+            LOGGER.log(Level.WARNING, "Search index rating not refreshed for parking space: {0}", parkingId);
+            return;
+        }
+        searchIndex.putRating(parkingId, averageRating);
+    }
+
     /**
      * Calculate the average rating for a parking space
      *
@@ -237,22 +278,6 @@ public class ReviewService {
         }
     }
 
-    /**
-     * Update the average rating for a parking space
-     *
-     * @param parkingId The ID of the parking space
-     * @param newRating The new average rating
-     * @return true if successful, false otherwise
-     */
-    public boolean updateParkingSpaceRating(String parkingId, double newRating) {
-        try {
-            return reviewRepository.updateParkingSpaceRating(parkingId, newRating);
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error updating parking space rating", e);
-            return false;
-        }
-    }
-
     /**
      * Get the parking ID for a reservation
      *
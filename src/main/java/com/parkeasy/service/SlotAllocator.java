@@ -0,0 +1,24 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.ParkingSlot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Chooses the slot for a booking when the user does not pick one
+ */
+public interface SlotAllocator {
+
+    /**
+     * Pick one of the slots that are free during a period
+     *
+     * @param parkingId The ID of the parking space the slots belong to
+     * @param candidates Slots to choose from, in the order ties are broken
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return The chosen slot, or null if none of the candidates is free
+     */
+    ParkingSlot allocate(String parkingId, List<ParkingSlot> candidates,
+                         LocalDateTime startDateTime, LocalDateTime endDateTime);
+}
@@ -0,0 +1,322 @@
+package main.java.com.parkeasy.service;
+
+import main.java.com.parkeasy.model.Reservation;
+import main.java.com.parkeasy.repository.ReservationRepository;
+import main.java.com.parkeasy.util.AppConfig;
+import main.java.com.parkeasy.util.Constants;
+import main.java.com.parkeasy.util.DateTimeUtil;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory index of the reservations that block each parking slot
+ * Each slot keeps its reservations in a set sorted by start time, so an overlap check only
+ * looks at the reservations whose start falls inside the query window instead of the whole history.
+ * A slot is loaded from the database the first time it is queried and is then kept current by the
+ * reservation changes reported to ReservationChangeDispatcher. Those only see this process's writes,
+ * so a slot is reloaded once it is older than availability.index.ttlMillis to pick up bookings made
+ * by other application instances. Bookings themselves never rely on the index: createReservation
+ * repeats the overlap check in the database under the slot's row lock.
+ */
+public class SlotAvailabilityIndex implements ReservationChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(SlotAvailabilityIndex.class.getName());
+
+    private static final SlotAvailabilityIndex INSTANCE = new SlotAvailabilityIndex(
+            new ReservationRepository(), AppConfig.getLong("availability.index.ttlMillis", 60000));
+
+    private final ReservationRepository reservationRepository;
+    private final long ttlMillis;
+    private final Map<String, SlotIntervals> slots = new ConcurrentHashMap<>();
+    // Reservation ID -> slot it is currently indexed under, so updates that move a reservation can find it
+    private final Map<Integer, String> slotByReservation = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with dependency injection; slots are never reloaded
+     */
+    public SlotAvailabilityIndex(ReservationRepository reservationRepository) {
+        this(reservationRepository, 0);
+    }
+
+    /**
+     * Constructor with dependency injection
+     *
+     * @param reservationRepository Repository the slots are loaded from
+     * @param ttlMillis How long a loaded slot is trusted before it is reloaded, 0 to keep it forever
+     */
+    public SlotAvailabilityIndex(ReservationRepository reservationRepository, long ttlMillis) {
+        this.reservationRepository = reservationRepository;
+        this.ttlMillis = Math.max(0, ttlMillis);
+    }
+
+    /**
+     * Get the application-wide index shared by all services
+     *
+     * @return The shared index
+     */
+    public static SlotAvailabilityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Check whether a reservation status holds the slot
+     * Processing and Paid reservations still occupy their time window; "In Use" is written by older data
+     *
+     * @param status Reservation status
+     * @return true if a reservation with this status blocks the slot
+     */
+    public static boolean isBlocking(String status) {
+        return Constants.RESERVATION_IN_PROCESS.equals(status)
+                || Constants.RESERVATION_PAID.equals(status)
+                || "In Use".equals(status);
+    }
+
+    /**
+     * Check if a slot has no blocking reservation overlapping the given period
+     * Uses the same inclusive bounds as the previous linear scan: touching periods overlap
+     *
+     * @param slotNumber Slot number
+     * @param startDateTime Start date and time
+     * @param endDateTime End date and time
+     * @return true if no blocking reservation overlaps the period
+     */
+    public boolean isAvailable(String slotNumber, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        SlotIntervals intervals = loadedSlot(slotNumber);
+        return !intervals.overlaps(toKey(startDateTime), toKey(endDateTime));
+    }
+
+    /**
+     * Record a newly created reservation
+     *
+     * @param reservation The reservation that was inserted
+     */
+    @Override
+    public void onReservationCreated(Reservation reservation) {
+        onReservationUpdated(reservation);
+    }
+
+    /**
+     * Apply a change to an existing reservation (status, period or slot)
+     * Cancelled and completed reservations are dropped from the index.
+     *
+     * @param reservation The reservation as written to the database
+     */
+    @Override
+    public void onReservationUpdated(Reservation reservation) {
+        if (reservation == null) {
+            return;
+        }
+        int reservationId = reservation.getReservationID();
+
+        String previousSlot = slotByReservation.remove(reservationId);
+        if (previousSlot != null) {
+            SlotIntervals previous = slots.get(previousSlot);
+            if (previous != null) {
+                previous.remove(reservationId);
+            }
+        }
+
+        if (!isBlocking(reservation.getStatus()) || reservation.getSlotNumber() == null) {
+            return;
+        }
+
+        SlotIntervals intervals = slots.computeIfAbsent(reservation.getSlotNumber(), k -> new SlotIntervals());
+        Interval interval = toInterval(reservation);
+        if (interval != null && intervals.addIfLoaded(interval)) {
+            slotByReservation.put(reservationId, reservation.getSlotNumber());
+        }
+    }
+
+    /**
+     * Forget a reservation that was deleted
+     *
+     * @param reservationId ID of the deleted reservation
+     */
+    @Override
+    public void onReservationDeleted(int reservationId) {
+        String slotNumber = slotByReservation.remove(reservationId);
+        if (slotNumber != null) {
+            SlotIntervals intervals = slots.get(slotNumber);
+            if (intervals != null) {
+                intervals.remove(reservationId);
+            }
+        }
+    }
+
+    /**
+     * Drop reservations the lifecycle scheduler completed or cancelled
+     *
+     * @param completedIds IDs of the reservations marked Completed
+     * @param cancelledIds IDs of the reservations marked Cancelled
+     */
+    @Override
+    public void onReservationsEnded(List<Integer> completedIds, List<Integer> cancelledIds) {
+        completedIds.forEach(this::onReservationDeleted);
+        cancelledIds.forEach(this::onReservationDeleted);
+    }
+
+    /**
+     * Drop everything cached for a slot; it is reloaded on the next query
+     *
+     * @param slotNumber Slot number
+     */
+    public void invalidate(String slotNumber) {
+        SlotIntervals removed = slots.remove(slotNumber);
+        if (removed != null) {
+            slotByReservation.values().removeIf(slotNumber::equals);
+        }
+    }
+
+    /**
+     * Drop the whole index, e.g. after slots were renumbered directly in the database
+     */
+    public void invalidateAll() {
+        slots.clear();
+        slotByReservation.clear();
+    }
+
+    private SlotIntervals loadedSlot(String slotNumber) {
+        SlotIntervals intervals = slots.computeIfAbsent(slotNumber, k -> new SlotIntervals());
+        synchronized (intervals) {
+            long nowMillis = System.currentTimeMillis();
+            if (intervals.loaded && ttlMillis > 0 && nowMillis - intervals.loadedAtMillis >= ttlMillis) {
+                for (Integer reservationId : intervals.byId.keySet()) {
+                    slotByReservation.remove(reservationId, slotNumber);
+                }
+                intervals.clear();
+            }
+            if (!intervals.loaded) {
+                // Loading under the slot's lock means a concurrent write either waits and is applied
+                // on top of the loaded rows, or committed early enough to be part of them
+                List<Reservation> reservations = reservationRepository.getReservationsByParkingSlotNumber(slotNumber);
+                long now = toKey(LocalDateTime.now());
+                for (Reservation reservation : reservations) {
+                    if (!isBlocking(reservation.getStatus())) {
+                        continue;
+                    }
+                    Interval interval = toInterval(reservation);
+                    // Reservations that are already over can never overlap a new booking
+                    if (interval != null && interval.end >= now) {
+                        intervals.add(interval);
+                        slotByReservation.put(interval.reservationId, slotNumber);
+                    }
+                }
+                intervals.loaded = true;
+                intervals.loadedAtMillis = nowMillis;
+                LOGGER.log(Level.FINE, "Indexed {0} blocking reservations for slot {1}",
+                        new Object[]{intervals.byId.size(), slotNumber});
+            }
+        }
+        return intervals;
+    }
+
+    private static Interval toInterval(Reservation reservation) {
+        if (reservation.getStartDate() == null || reservation.getStartTime() == null
+                || reservation.getEndDate() == null || reservation.getEndTime() == null) {
+            return null;
+        }
+        return new Interval(reservation.getReservationID(),
+                reservation.getStartEpochSecond(), reservation.getEndEpochSecond());
+    }
+
+    // Wall-clock seconds, the same scale as Reservation's epoch-second fields
+    private static long toKey(LocalDateTime dateTime) {
+        return DateTimeUtil.toEpochSecond(dateTime);
+    }
+
+    /**
+     * A reserved period of a slot, in seconds
+     */
+    private static final class Interval implements Comparable<Interval> {
+        private final int reservationId;
+        private final long start;
+        private final long end;
+
+        private Interval(int reservationId, long start, long end) {
+            this.reservationId = reservationId;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int compareTo(Interval other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Integer.compare(reservationId, other.reservationId);
+        }
+    }
+
+    /**
+     * Blocking reservations of one slot ordered by start time
+     * The longest indexed reservation bounds how far before the query start an overlapping
+     * reservation can begin, which limits the range scan to [start - longest, end]. Lengths are
+     * counted in a sorted multiset, so the bound shrinks again once the longest reservation is removed.
+     */
+    private static final class SlotIntervals {
+        private final NavigableSet<Interval> byStart = new TreeSet<>();
+        private final Map<Integer, Interval> byId = new HashMap<>();
+        // Reservation length -> number of indexed reservations of that length
+        private final NavigableMap<Long, Integer> lengthCounts = new TreeMap<>();
+        private boolean loaded;
+        private long loadedAtMillis;
+
+        synchronized boolean overlaps(long start, long end) {
+            long longest = lengthCounts.isEmpty() ? 0 : lengthCounts.lastKey();
+            Interval from = new Interval(Integer.MIN_VALUE, start - longest, 0);
+            Interval to = new Interval(Integer.MAX_VALUE, end, 0);
+            for (Interval interval : byStart.subSet(from, true, to, true)) {
+                if (interval.end >= start) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized boolean addIfLoaded(Interval interval) {
+            // Until the slot is loaded the database is the source of truth, and the row is already there
+            if (!loaded) {
+                return false;
+            }
+            add(interval);
+            return true;
+        }
+
+        synchronized void add(Interval interval) {
+            Interval previous = byId.put(interval.reservationId, interval);
+            if (previous != null) {
+                byStart.remove(previous);
+                forgetLength(previous);
+            }
+            byStart.add(interval);
+            lengthCounts.merge(interval.end - interval.start, 1, Integer::sum);
+        }
+
+        synchronized void remove(int reservationId) {
+            Interval previous = byId.remove(reservationId);
+            if (previous != null) {
+                byStart.remove(previous);
+                forgetLength(previous);
+            }
+        }
+
+        private void forgetLength(Interval interval) {
+            lengthCounts.computeIfPresent(interval.end - interval.start,
+                    (length, count) -> count > 1 ? count - 1 : null);
+        }
+
+        synchronized void clear() {
+            byStart.clear();
+            byId.clear();
+            lengthCounts.clear();
+            loaded = false;
+        }
+    }
+}
@@ -7,10 +7,12 @@ import main.java.com.parkeasy.repository.TransactionRepository;
 import main.java.com.parkeasy.repository.UserRepository;
 import main.java.com.parkeasy.repository.ParkingSlotRepository;
 import main.java.com.parkeasy.util.Constants;
+import main.java.com.parkeasy.util.DatabaseConnection;
 import main.java.com.parkeasy.util.TransactionUtil;
 import main.java.com.parkeasy.repository.VehicleRepository;
 
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -33,6 +35,7 @@ public class TransactionService {
     private final AdminRepository adminRepository;
     private final ReservationRepository reservationRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final LedgerService ledgerService;
 
     /**
      * Constructor with dependency injection
@@ -41,12 +44,14 @@ public class TransactionService {
                               UserRepository userRepository,
                               AdminRepository adminRepository,
                               ReservationRepository reservationRepository,
-                              ParkingSlotRepository parkingSlotRepository) {
+                              ParkingSlotRepository parkingSlotRepository,
+                              LedgerService ledgerService) {
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
         this.adminRepository = adminRepository;
         this.reservationRepository = reservationRepository;
         this.parkingSlotRepository = parkingSlotRepository;
+        this.ledgerService = ledgerService;
     }
 
     /**
@@ -58,20 +63,24 @@ public class TransactionService {
         this.adminRepository = new AdminRepository();
         this.reservationRepository = new ReservationRepository();
         this.parkingSlotRepository = new ParkingSlotRepository();
+        this.ledgerService = new LedgerService();
     }
 
     /**
      * Process a payment for a reservation
      * This method:
-     * 1. Creates a transaction record
-     * 2. Updates the user's balance (deducts the fee)
-     * 3. Updates the admin's balance (adds the fee)
-     * 4. Updates the reservation status to paid
+     * 1. Updates the reservation status from Processing to Paid
+     * 2. Deducts the fee from the user's balance (only if the balance covers it)
+     * 3. Records the payment in the ledger; the admin's balance is credited by the settler
+     * 4. Creates a transaction record
+     * All steps run in one database transaction. Step 1 only succeeds for a reservation that is
+     * still Processing, so concurrent payments of the same reservation charge the user once.
      *
      * @param reservationId ID of the reservation
      * @return true if successful, false otherwise
      */
     public boolean processPayment(int reservationId) {
+        Connection connection = null;
         try {
             LOGGER.log(Level.INFO, "Processing payment for reservation: {0}", reservationId);
 
@@ -99,58 +108,72 @@ public class TransactionService {
             }
 
             int adminId = reservationRepository.getAdminIdByParkingId(parkingId);
-            Admin admin = adminRepository.getAdminById(adminId);
-            if (admin == null) {
+            if (adminId <= 0) {
                 LOGGER.log(Level.WARNING, "Admin not found for parking ID: {0}", parkingId);
                 return false;
             }
 
-            // Check if user has sufficient balance
-            if (user.getBalance() < reservation.getFee()) {
-                LOGGER.log(Level.WARNING, "User {0} has insufficient balance for reservation {1}",
-                        new Object[]{user.getUserID(), reservationId});
-                return false;
-            }
-
             // Create transaction
             Transaction transaction = new Transaction();
             transaction.setAmount(reservation.getFee());
             transaction.setReservationID(reservationId);
 
-            // Save transaction
-            boolean transactionCreated = transactionRepository.createTransaction(transaction);
-            if (!transactionCreated) {
-                LOGGER.log(Level.WARNING, "Failed to create transaction for reservation: {0}", reservationId);
+            ledgerService.ensureLedger();
+            transactionRepository.ensureRevenueRollup();
+            connection = DatabaseConnection.getConnection();
+            connection.setAutoCommit(false);
+
+            // Claim the reservation before moving money; a concurrent payment or the lifecycle scheduler
+            // having changed the status in the meantime leaves nothing to pay for
+            if (!reservationRepository.updateStatusIf(connection, reservationId,
+                    Constants.RESERVATION_IN_PROCESS, Constants.RESERVATION_PAID)) {
+                LOGGER.log(Level.WARNING, "Reservation {0} is no longer awaiting payment", reservationId);
+                connection.rollback();
                 return false;
             }
 
-            // Transfer funds from user to admin
-            user.setBalance(user.getBalance() - reservation.getFee());
-            admin.setBalance(admin.getBalance() + reservation.getFee());
-
-            // Update user and admin
-            boolean userUpdated = userRepository.updateUser(user);
-            boolean adminUpdated = adminRepository.updateAdmin(admin);
-
-            if (!userUpdated || !adminUpdated) {
-                LOGGER.log(Level.WARNING, "Failed to update user/admin balances for reservation: {0}", reservationId);
+            // Transfer funds from user to admin; the guarded debit doubles as the balance check
+            if (!ledgerService.recordPayment(connection, user.getUserID(), adminId, reservationId,
+                    reservation.getFee())) {
+                LOGGER.log(Level.WARNING, "User {0} has insufficient balance for reservation {1}",
+                        new Object[]{user.getUserID(), reservationId});
+                connection.rollback();
                 return false;
             }
 
-            // Update reservation status
-            reservation.setStatus(Constants.RESERVATION_PAID);
-            boolean reservationUpdated = reservationRepository.updateReservationById(reservationId, reservation);
-
-            if (!reservationUpdated) {
-                LOGGER.log(Level.WARNING, "Failed to update reservation status: {0}", reservationId);
+            // Save transaction
+            if (!transactionRepository.createTransaction(connection, transaction)) {
+                LOGGER.log(Level.WARNING, "Failed to create transaction for reservation: {0}", reservationId);
+                connection.rollback();
                 return false;
             }
 
+            connection.commit();
+
+            reservation.setStatus(Constants.RESERVATION_PAID);
+            ReservationChangeDispatcher.getInstance().reservationUpdated(reservation);
+
             LOGGER.log(Level.INFO, "Payment processed successfully for reservation: {0}", reservationId);
             return true;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error processing payment for reservation: " + reservationId, e);
+            try {
+                if (connection != null && !connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+            } catch (SQLException ex) {
+                LOGGER.log(Level.SEVERE, "Error rolling back payment", ex);
+            }
             return false;
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.setAutoCommit(true);
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error closing connection", e);
+            }
         }
     }
 
@@ -231,20 +254,7 @@ public class TransactionService {
             LOGGER.log(Level.INFO, "Getting transactions for admin {0} between {1} and {2}",
                     new Object[]{adminId, startDate, endDate});
 
-            List<Transaction> allTransactions = transactionRepository.getTransactionsByAdminId(adminId);
-            List<Transaction> filteredTransactions = new ArrayList<>();
-
-            for (Transaction transaction : allTransactions) {
-                Reservation reservation = reservationRepository.getReservationById(transaction.getReservationID());
-                if (reservation != null) {
-                    LocalDateTime reservationDateTime = reservation.getCreatedAt().toLocalDateTime();
-                    if (reservationDateTime.isAfter(startDate) && reservationDateTime.isBefore(endDate)) {
-                        filteredTransactions.add(transaction);
-                    }
-                }
-            }
-
-            return filteredTransactions;
+            return transactionRepository.getTransactionsByAdminId(adminId, startDate, endDate);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting transactions for admin by date range: " + adminId, e);
             return List.of(); // Return empty list on error
@@ -288,22 +298,7 @@ public class TransactionService {
         try {
             LOGGER.log(Level.INFO, "Getting transactions for parking space: {0}", parkingId);
 
-            // Get all slots for this parking space
-            List<ParkingSlot> slots = parkingSlotRepository.getParkingSlotsByParkingId(parkingId);
-            List<Transaction> transactions = new ArrayList<>();
-
-            for (ParkingSlot slot : slots) {
-                // Get reservations for this slot
-                List<Reservation> reservations = reservationRepository.getReservationsByParkingSlotNumber(slot.getSlotNumber());
-
-                for (Reservation reservation : reservations) {
-                    // Get transactions for this reservation
-                    List<Transaction> reservationTransactions = transactionRepository.getTransactionsByReservationId(reservation.getReservationID());
-                    transactions.addAll(reservationTransactions);
-                }
-            }
-
-            return transactions;
+            return transactionRepository.getTransactionsByParkingId(parkingId, null, null);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting transactions for parking space: " + parkingId, e);
             return List.of(); // Return empty list on error
@@ -323,20 +318,7 @@ public class TransactionService {
             LOGGER.log(Level.INFO, "Getting transactions for parking space {0} between {1} and {2}",
                     new Object[]{parkingId, startDate, endDate});
 
-            List<Transaction> allTransactions = getTransactionsByParkingId(parkingId);
-            List<Transaction> filteredTransactions = new ArrayList<>();
-
-            for (Transaction transaction : allTransactions) {
-                Reservation reservation = reservationRepository.getReservationById(transaction.getReservationID());
-                if (reservation != null) {
-                    LocalDateTime reservationDateTime = reservation.getCreatedAt().toLocalDateTime();
-                    if (reservationDateTime.isAfter(startDate) && reservationDateTime.isBefore(endDate)) {
-                        filteredTransactions.add(transaction);
-                    }
-                }
-            }
-
-            return filteredTransactions;
+            return transactionRepository.getTransactionsByParkingId(parkingId, startDate, endDate);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error getting transactions for parking space by date range: " + parkingId, e);
             return List.of(); // Return empty list on error
@@ -20,15 +20,17 @@ public class UserService {
     private final UserRepository userRepository;
     private final VehicleRepository vehicleRepository;
     private final ReservationRepository reservationRepository;
+    private final LedgerService ledgerService;
 
     /**
      * Constructor with dependency injection
      */
     public UserService(UserRepository userRepository, VehicleRepository vehicleRepository,
-                       ReservationRepository reservationRepository) {
+                       ReservationRepository reservationRepository, LedgerService ledgerService) {
         this.userRepository = userRepository;
         this.vehicleRepository = vehicleRepository;
         this.reservationRepository = reservationRepository;
+        this.ledgerService = ledgerService;
     }
 
     /**
@@ -38,6 +40,7 @@ public class UserService {
         this.userRepository = new UserRepository();
         this.vehicleRepository = new VehicleRepository();
         this.reservationRepository = new ReservationRepository();
+        this.ledgerService = new LedgerService();
     }
 
     /**
@@ -277,7 +280,7 @@ public class UserService {
                 return false;
             }
 
-            return userRepository.updateBalance(userId, amount);
+            return ledgerService.topUp(userId, amount);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error adding funds to user account", e);
             return false;
@@ -298,21 +301,13 @@ public class UserService {
                 return false;
             }
 
-            // Get current balance
-            User user = getUserById(userId);
-            if (user == null) {
-                return false;
-            }
-
-            // Check if user has sufficient balance
-            if (user.getBalance() < amount) {
-                LOGGER.log(Level.WARNING, "Insufficient balance. Required: {0}, Available: {1}",
-                        new Object[]{amount, user.getBalance()});
-                return false;
+            // Guarded debit: fails instead of going negative when the balance is too low
+            boolean debited = ledgerService.withdraw(userId, amount);
+            if (!debited) {
+                LOGGER.log(Level.WARNING, "Insufficient balance for user {0}. Required: {1}",
+                        new Object[]{userId, amount});
             }
-
-            // Deduct amount (negative value)
-            return userRepository.updateBalance(userId, -amount);
+            return debited;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error deducting funds from user account", e);
             return false;
@@ -0,0 +1,108 @@
+package main.java.com.parkeasy.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only access to config/application.properties
+ * Values are loaded once on first use; missing keys fall back to the supplied defaults
+ */
+public final class AppConfig {
+    private static final Logger LOGGER = Logger.getLogger(AppConfig.class.getName());
+
+    // The file sits under src/main/resources, which is either the classpath root
+    // (packaged build) or reachable through the "src" source root used by the IDE
+    private static final String[] CONFIG_LOCATIONS = {
+            "/config/application.properties",
+            "/main/resources/config/application.properties"
+    };
+
+    private static final Properties PROPERTIES = load();
+
+    private AppConfig() {
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        for (String location : CONFIG_LOCATIONS) {
+            try (InputStream in = AppConfig.class.getResourceAsStream(location)) {
+                if (in != null) {
+                    properties.load(in);
+                    LOGGER.log(Level.INFO, "Loaded configuration from {0}", location);
+                    return properties;
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error reading configuration from " + location, e);
+            }
+        }
+        LOGGER.log(Level.WARNING, "application.properties not found on classpath, using defaults");
+        return properties;
+    }
+
+    /**
+     * Get a string property
+     *
+     * @param key Property key
+     * @param defaultValue Value to use when the key is missing or blank
+     * @return The configured value or the default
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key, PROPERTIES.getProperty(key));
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Get an integer property
+     *
+     * @param key Property key
+     * @param defaultValue Value to use when the key is missing or not a number
+     * @return The configured value or the default
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Invalid integer for {0}: {1}", new Object[]{key, value});
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a long property
+     *
+     * @param key Property key
+     * @param defaultValue Value to use when the key is missing or not a number
+     * @return The configured value or the default
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Invalid long for {0}: {1}", new Object[]{key, value});
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a boolean property
+     *
+     * @param key Property key
+     * @param defaultValue Value to use when the key is missing
+     * @return The configured value or the default
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
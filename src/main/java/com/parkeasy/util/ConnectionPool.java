@@ -0,0 +1,705 @@
+package main.java.com.parkeasy.util;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe JDBC connection pool
+ * Connections handed out by {@link #getConnection()} are proxies; calling close() on them
+ * returns the physical connection to the pool instead of closing it.
+ * Supports a min/max size, a borrow timeout, idle eviction and validation on borrow.
+ * Each physical connection also keeps an LRU cache of prepared statements keyed by SQL text,
+ * so repositories that prepare the same constant SQL on every call reuse the parsed statement.
+ */
+public class ConnectionPool implements DataSource {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    // A connection used this recently is assumed alive and is not pinged on borrow
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final boolean validateOnBorrow;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+    private PrintWriter logWriter;
+
+    /**
+     * Create a pool and start its housekeeping thread
+     *
+     * @param url JDBC URL
+     * @param username Database user
+     * @param password Database password
+     * @param settings Pool sizing, timeout and caching settings
+     */
+    public ConnectionPool(String url, String username, String password, Settings settings) {
+        if (settings.getMaxSize() <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + settings.getMaxSize());
+        }
+        this.url = url;
+        this.connectionProperties = new Properties();
+        connectionProperties.setProperty("user", username);
+        connectionProperties.setProperty("password", password);
+        if (settings.isServerPreparedStatements()) {
+            // Let MySQL parse each statement once; the per-connection cache below then reuses it
+            connectionProperties.setProperty("useServerPrepStmts", "true");
+        }
+        this.maxSize = settings.getMaxSize();
+        this.minSize = Math.max(0, Math.min(settings.getMinSize(), maxSize));
+        this.borrowTimeoutMillis = settings.getBorrowTimeoutMillis();
+        this.idleTimeoutMillis = settings.getIdleTimeoutMillis();
+        this.validateOnBorrow = settings.isValidateOnBorrow();
+        this.validationTimeoutSeconds = settings.getValidationTimeoutSeconds();
+        this.statementCacheSize = Math.max(0, settings.getStatementCacheSize());
+        this.permits = new Semaphore(maxSize, true);
+
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            LOGGER.log(Level.SEVERE, "MySQL JDBC driver not found on classpath", e);
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, Math.min(idleTimeoutMillis / 2, 30_000L));
+        housekeeper.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting up to the borrow timeout
+     *
+     * @return A pooled connection; close it to return it to the pool
+     * @throws SQLException if the pool is closed, the wait times out or a new connection cannot be opened
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + borrowTimeoutMillis
+                        + "ms waiting for a database connection (max pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled.lease();
+                }
+                discard(pooled);
+            }
+            return openConnection().lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the configured credentials");
+    }
+
+    /**
+     * Close all idle connections and stop handing out new ones
+     * Borrowed connections are closed as they are returned.
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            discard(pooled);
+        }
+        LOGGER.log(Level.INFO, "Connection pool shut down");
+    }
+
+    /**
+     * @return Number of connections currently borrowed
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * @return Number of open connections waiting in the pool
+     */
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * @return Number of physical connections currently open
+     */
+    public int getTotalCount() {
+        return totalConnections.get();
+    }
+
+    /**
+     * @return Number of threads blocked waiting for a connection
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return Number of prepareStatement calls served from a connection's statement cache
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    /**
+     * @return Number of prepareStatement calls that had to prepare a new statement
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * @return Number of cached statements closed to make room for newer ones
+     */
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions.get();
+    }
+
+    /**
+     * @return Fraction of cacheable prepareStatement calls served from the cache (0 when unused)
+     */
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHits.get();
+        long total = hits + statementCacheMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (!validateOnBorrow || System.nanoTime() - pooled.lastUsedNanos < VALIDATION_BYPASS_NANOS) {
+                return true;
+            }
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Pooled connection failed validation", e);
+            return false;
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProperties);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing discarded connection", e);
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            pooled.reset();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error resetting pooled connection, discarding it", e);
+            pooled.broken = true;
+        }
+
+        if (closed || pooled.broken || idleConnections.size() >= maxSize) {
+            discard(pooled);
+        } else {
+            pooled.lastUsedNanos = System.nanoTime();
+            idleConnections.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    /**
+     * Evict connections idle for longer than the idle timeout, then top the pool back up to minSize
+     */
+    private void maintain() {
+        try {
+            long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+            // Oldest connections sit at the tail because released connections are pushed to the head
+            Iterator<PooledConnection> oldestFirst = idleConnections.descendingIterator();
+            while (oldestFirst.hasNext() && totalConnections.get() > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (pooled.lastUsedNanos < cutoff && idleConnections.remove(pooled)) {
+                    discard(pooled);
+                }
+            }
+
+            while (!closed && totalConnections.get() < minSize) {
+                PooledConnection pooled = openConnection();
+                pooled.lastUsedNanos = System.nanoTime();
+                idleConnections.offerLast(pooled);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not top up connection pool: " + e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Unexpected error in connection pool housekeeping", e);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool, together with its prepared statement cache
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private final Map<String, CachedStatement> statementCache;
+        private volatile long lastUsedNanos = System.nanoTime();
+        private volatile boolean broken;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            // Access-ordered map so the least recently prepared statement is evicted first
+            this.statementCache = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= statementCacheSize || eldest.getValue().inUse) {
+                        return false;
+                    }
+                    statementCacheEvictions.incrementAndGet();
+                    DatabaseConnection.closePreparedStatement(eldest.getValue().statement);
+                    return true;
+                }
+            };
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Lease(this));
+        }
+
+        /**
+         * Hand out the cached statement for this SQL, preparing and caching it on a miss
+         *
+         * @param owner The borrower's connection proxy, returned from Statement.getConnection()
+         * @param sql SQL text
+         * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS / NO_GENERATED_KEYS, or null for the plain form
+         * @return A statement whose close() puts it back in the cache
+         */
+        private PreparedStatement prepareCached(Connection owner, String sql, Integer autoGeneratedKeys)
+                throws SQLException {
+            String key = autoGeneratedKeys == null ? sql : autoGeneratedKeys + "|" + sql;
+            synchronized (statementCache) {
+                CachedStatement cached = statementCache.get(key);
+                if (cached != null && !cached.inUse) {
+                    statementCacheHits.incrementAndGet();
+                    return cached.checkOut(owner);
+                }
+
+                statementCacheMisses.incrementAndGet();
+                PreparedStatement statement = autoGeneratedKeys == null
+                        ? physical.prepareStatement(sql)
+                        : physical.prepareStatement(sql, autoGeneratedKeys);
+                if (cached != null) {
+                    // The same SQL is already open on this connection (e.g. a nested loop);
+                    // give this caller a private statement rather than sharing the cached one
+                    openStatements.add(statement);
+                    return statement;
+                }
+                CachedStatement fresh = new CachedStatement(this, statement);
+                statementCache.put(key, fresh);
+                return fresh.checkOut(owner);
+            }
+        }
+
+        /**
+         * Put a statement back in the cache after its borrower closed it
+         */
+        private void checkIn(CachedStatement cached) {
+            synchronized (statementCache) {
+                if (!cached.inUse) {
+                    return;
+                }
+                cached.inUse = false;
+                cached.generation++;
+                try {
+                    DatabaseConnection.closeResultSet(cached.lastResultSet);
+                    cached.lastResultSet = null;
+                    cached.statement.clearParameters();
+                    cached.statement.clearBatch();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Dropping cached statement that could not be reset", e);
+                    statementCache.values().remove(cached);
+                    DatabaseConnection.closePreparedStatement(cached.statement);
+                }
+            }
+        }
+
+        /**
+         * Close statements the borrower leaked and undo per-session state before reuse
+         */
+        private void reset() throws SQLException {
+            synchronized (statementCache) {
+                for (Statement statement : openStatements) {
+                    DatabaseConnection.closeStatement(statement);
+                }
+                openStatements.clear();
+                for (CachedStatement cached : new ArrayList<>(statementCache.values())) {
+                    checkIn(cached);
+                }
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+        }
+    }
+
+    /**
+     * A prepared statement kept open across borrowers of the same physical connection
+     */
+    private final class CachedStatement {
+        private final PooledConnection pooled;
+        private final PreparedStatement statement;
+        // The fields below are guarded by the owning connection's statementCache lock
+        private boolean inUse;
+        private int generation;
+        private ResultSet lastResultSet;
+
+        private CachedStatement(PooledConnection pooled, PreparedStatement statement) {
+            this.pooled = pooled;
+            this.statement = statement;
+        }
+
+        private PreparedStatement checkOut(Connection owner) {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandle(this, owner, generation));
+        }
+    }
+
+    /**
+     * The view of a cached statement given to one borrower; close() returns it to the cache
+     */
+    private final class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private final int generation;
+
+        private StatementHandle(CachedStatement cached, Connection owner, int generation) {
+            this.cached = cached;
+            this.owner = owner;
+            this.generation = generation;
+        }
+
+        private boolean isCheckedIn() {
+            synchronized (cached.pooled.statementCache) {
+                return cached.generation != generation;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!isCheckedIn()) {
+                        cached.pooled.checkIn(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return isCheckedIn() || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + cached.statement + "]";
+                default:
+                    break;
+            }
+
+            if (isCheckedIn()) {
+                throw new SQLException("Statement is closed");
+            }
+
+            try {
+                Object result = method.invoke(cached.statement, args);
+                if (result instanceof ResultSet) {
+                    synchronized (cached.pooled.statementCache) {
+                        cached.lastResultSet = (ResultSet) result;
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw unwrap(cached.pooled, e);
+            }
+        }
+    }
+
+    /**
+     * The handle given to one borrower; close() hands the connection back exactly once
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (statementCacheSize > 0 && "prepareStatement".equals(method.getName())) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return pooled.prepareCached((Connection) proxy, (String) args[0], null);
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return pooled.prepareCached((Connection) proxy, (String) args[0], (Integer) args[1]);
+                }
+            }
+
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement) {
+                    synchronized (pooled.statementCache) {
+                        pooled.openStatements.add((Statement) result);
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw unwrap(pooled, e);
+            }
+        }
+    }
+
+    /**
+     * Unwrap a reflective call failure, marking the connection broken on connection-level errors
+     */
+    private static Throwable unwrap(PooledConnection pooled, InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof SQLException) {
+            String state = ((SQLException) cause).getSQLState();
+            // SQLState class 08 means the connection itself is unusable
+            if (state != null && state.startsWith("08")) {
+                pooled.broken = true;
+            }
+        }
+        return cause;
+    }
+
+    /**
+     * Tunable pool settings; defaults match config/application.properties
+     */
+    public static class Settings {
+        private int minSize = 2;
+        private int maxSize = 10;
+        private long borrowTimeoutMillis = 5000L;
+        private long idleTimeoutMillis = 300_000L;
+        private boolean validateOnBorrow = true;
+        private int validationTimeoutSeconds = 2;
+        private int statementCacheSize = 64;
+        private boolean serverPreparedStatements = true;
+
+        /**
+         * Read the db.pool.* keys from application.properties
+         *
+         * @return Settings with configured values applied over the defaults
+         */
+        public static Settings fromConfig() {
+            Settings settings = new Settings();
+            settings.setMinSize(AppConfig.getInt("db.pool.minSize", settings.getMinSize()));
+            settings.setMaxSize(AppConfig.getInt("db.pool.maxSize", settings.getMaxSize()));
+            settings.setBorrowTimeoutMillis(AppConfig.getLong("db.pool.borrowTimeoutMillis", settings.getBorrowTimeoutMillis()));
+            settings.setIdleTimeoutMillis(AppConfig.getLong("db.pool.idleTimeoutMillis", settings.getIdleTimeoutMillis()));
+            settings.setValidateOnBorrow(AppConfig.getBoolean("db.pool.validateOnBorrow", settings.isValidateOnBorrow()));
+            settings.setValidationTimeoutSeconds(AppConfig.getInt("db.pool.validationTimeoutSeconds", settings.getValidationTimeoutSeconds()));
+            settings.setStatementCacheSize(AppConfig.getInt("db.pool.statementCacheSize", settings.getStatementCacheSize()));
+            settings.setServerPreparedStatements(AppConfig.getBoolean("db.pool.serverPreparedStatements", settings.isServerPreparedStatements()));
+            return settings;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getBorrowTimeoutMillis() {
+            return borrowTimeoutMillis;
+        }
+
+        public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+            this.borrowTimeoutMillis = borrowTimeoutMillis;
+        }
+
+        public long getIdleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+        }
+
+        public boolean isValidateOnBorrow() {
+            return validateOnBorrow;
+        }
+
+        public void setValidateOnBorrow(boolean validateOnBorrow) {
+            this.validateOnBorrow = validateOnBorrow;
+        }
+
+        public int getValidationTimeoutSeconds() {
+            return validationTimeoutSeconds;
+        }
+
+        public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+        }
+
+        public int getStatementCacheSize() {
+            return statementCacheSize;
+        }
+
+        public void setStatementCacheSize(int statementCacheSize) {
+            this.statementCacheSize = statementCacheSize;
+        }
+
+        public boolean isServerPreparedStatements() {
+            return serverPreparedStatements;
+        }
+
+        public void setServerPreparedStatements(boolean serverPreparedStatements) {
+            this.serverPreparedStatements = serverPreparedStatements;
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool is not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
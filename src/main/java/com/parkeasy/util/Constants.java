@@ -16,6 +16,7 @@ public class Constants {
     public static final String RESERVATION_IN_PROCESS = "Processing";
     public static final String RESERVATION_COMPLETE = "Completed";
     public static final String RESERVATION_PAID = "Paid";
+    public static final String RESERVATION_CANCELLED = "Cancelled";
 
     // Payment status constants
     public static final String PAYMENT_COMPLETED = "COMPLETED";
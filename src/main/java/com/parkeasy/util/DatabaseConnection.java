@@ -1,17 +1,20 @@
 package main.java.com.parkeasy.util;
 
+import javax.sql.DataSource;
 import java.sql.*;
 
 public class DatabaseConnection {
 
+    // Connection backing the legacy getStatement/getPreparedStatement/getResultSet helpers
     private static Connection connection;
     private static Statement statement;
     private static ResultSet resultSet;
     private static PreparedStatement preparedStatement;
-    private static final String URL = Constants.URL;
-    private static final String USERNAME = Constants.USERNAME;
-    private static final String PASSWORD = Constants.PASSWORD;
+    private static final String URL = AppConfig.getString("db.url", Constants.URL);
+    private static final String USERNAME = AppConfig.getString("db.username", Constants.USERNAME);
+    private static final String PASSWORD = AppConfig.getString("db.password", Constants.PASSWORD);
 
+    private static volatile ConnectionPool pool;
     private static DatabaseConnection instance = null;
 
     public static DatabaseConnection getInstance() {
@@ -61,22 +64,73 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * Get the shared connection pool, creating it from application.properties on first use
+     *
+     * @return The pool backing getConnection()
+     */
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(URL, USERNAME, PASSWORD, ConnectionPool.Settings.fromConfig());
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return The pool as a standard DataSource
+     */
+    public static DataSource getDataSource() {
+        return getPool();
+    }
+
+    /**
+     * Borrow a connection from the pool. Closing it returns it to the pool.
+     *
+     * @return A pooled connection, or null if none could be obtained
+     */
     public static Connection getConnection() {
         try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            }
-        } catch (SQLException | ClassNotFoundException e) {
+            return getPool().getConnection();
+        } catch (SQLException e) {
             System.err.println("Error establishing connection: " + e.getMessage());
         }
+        return null;
+    }
+
+    /**
+     * Close every pooled connection; call when the application exits
+     */
+    public static void shutdown() {
+        closeAll();
+        synchronized (DatabaseConnection.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+
+    private static Connection getSharedConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = getConnection();
+            if (connection == null) {
+                throw new SQLException("No database connection available");
+            }
+        }
         return connection;
     }
 
     public static Statement getStatement() {
         try {
             if (statement == null || statement.isClosed()) {
-                statement = getConnection().createStatement();
+                statement = getSharedConnection().createStatement();
             }
         } catch (SQLException e) {
             System.err.println("Error creating statement: " + e.getMessage());
@@ -87,7 +141,7 @@ public class DatabaseConnection {
     public static PreparedStatement getPreparedStatement(String sql) {
         try {
             if (preparedStatement == null || preparedStatement.isClosed()) {
-                preparedStatement = getConnection().prepareStatement(sql);
+                preparedStatement = getSharedConnection().prepareStatement(sql);
             }
         } catch (SQLException e) {
             System.err.println("Error creating prepared statement: " + e.getMessage());
@@ -118,10 +172,11 @@ public class DatabaseConnection {
     }
 
     public static void closeAll() {
-        closeConnection(connection);
+        closeResultSet(resultSet);
         closeStatement(statement);
         closePreparedStatement(preparedStatement);
-        closeResultSet(resultSet);
+        closeConnection(connection);
+        connection = null;
     }
 
     // use to test connection
@@ -8,6 +8,7 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
 import java.util.concurrent.TimeUnit;
@@ -380,49 +381,40 @@ public class DateTimeUtil {
         }
     }
 
+    /**
+     * Convert a date-time to wall-clock epoch seconds, the scale of Reservation's start and end fields
+     * Reservations are stored without a zone, so UTC only serves as a fixed offset.
+     */
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Convert a java.sql.Date and java.sql.Time pair to wall-clock epoch seconds
+     */
+    public static long toEpochSecond(Date date, Time time) {
+        return date.toLocalDate().toEpochDay() * 86_400L + time.toLocalTime().toSecondOfDay();
+    }
+
     /**
      * Check if a time period overlaps with another time period
+     * Bounds are inclusive: periods that touch overlap.
      */
     public static boolean isOverlapping(Date start1, Time time1, Date end1, Time time1End,
                                         Date start2, Time time2, Date end2, Time time2End) {
-        try {
-            Calendar startCal1 = Calendar.getInstance();
-            startCal1.setTime(start1);
-            Calendar timeCal1 = Calendar.getInstance();
-            timeCal1.setTime(time1);
-            startCal1.set(Calendar.HOUR_OF_DAY, timeCal1.get(Calendar.HOUR_OF_DAY));
-            startCal1.set(Calendar.MINUTE, timeCal1.get(Calendar.MINUTE));
-            startCal1.set(Calendar.SECOND, timeCal1.get(Calendar.SECOND));
-
-            Calendar endCal1 = Calendar.getInstance();
-            endCal1.setTime(end1);
-            Calendar timeCal1End = Calendar.getInstance();
-            timeCal1End.setTime(time1End);
-            endCal1.set(Calendar.HOUR_OF_DAY, timeCal1End.get(Calendar.HOUR_OF_DAY));
-            endCal1.set(Calendar.MINUTE, timeCal1End.get(Calendar.MINUTE));
-            endCal1.set(Calendar.SECOND, timeCal1End.get(Calendar.SECOND));
-
-            Calendar startCal2 = Calendar.getInstance();
-            startCal2.setTime(start2);
-            Calendar timeCal2 = Calendar.getInstance();
-            timeCal2.setTime(time2);
-            startCal2.set(Calendar.HOUR_OF_DAY, timeCal2.get(Calendar.HOUR_OF_DAY));
-            startCal2.set(Calendar.MINUTE, timeCal2.get(Calendar.MINUTE));
-            startCal2.set(Calendar.SECOND, timeCal2.get(Calendar.SECOND));
-
-            Calendar endCal2 = Calendar.getInstance();
-            endCal2.setTime(end2);
-            Calendar timeCal2End = Calendar.getInstance();
-            timeCal2End.setTime(time2End);
-            endCal2.set(Calendar.HOUR_OF_DAY, timeCal2End.get(Calendar.HOUR_OF_DAY));
-            endCal2.set(Calendar.MINUTE, timeCal2End.get(Calendar.MINUTE));
-            endCal2.set(Calendar.SECOND, timeCal2End.get(Calendar.SECOND));
-
-            // Check for overlap
-            return !(endCal1.before(startCal2) || startCal1.after(endCal2));
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error checking for time period overlap", e);
+        if (start1 == null || time1 == null || end1 == null || time1End == null
+                || start2 == null || time2 == null || end2 == null || time2End == null) {
+            LOGGER.log(Level.SEVERE, "Error checking for time period overlap: missing date or time");
             return false;
         }
+        return isOverlapping(toEpochSecond(start1, time1), toEpochSecond(end1, time1End),
+                toEpochSecond(start2, time2), toEpochSecond(end2, time2End));
+    }
+
+    /**
+     * Check if two periods given in epoch seconds overlap, with inclusive bounds
+     */
+    public static boolean isOverlapping(long start1, long end1, long start2, long end2) {
+        return start1 <= end2 && start2 <= end1;
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package main.java.com.parkeasy.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel holding items that fall due at a given time
+ * Time is cut into ticks of a fixed length and the wheel has a power-of-two number of buckets; an
+ * item goes into the bucket of its deadline tick and remembers how many full turns of the wheel
+ * are left before it is due. Scheduling and cancelling are O(1), and advancing the wheel by one
+ * tick only looks at one bucket, however many items are waiting or how far away they are.
+ * Items are due at the end of their deadline's tick, never early. The wheel does not run a thread
+ * of its own: the owner calls {@link #advance} regularly, e.g. from a scheduled executor.
+ * Thread-safe.
+ *
+ * @param <T> Item type
+ */
+public class HashedTimerWheel<T> {
+    private final long tickMillis;
+    private final long originMillis;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    // Next tick to process, counted from originMillis
+    private long currentTick;
+    private int size;
+
+    /**
+     * Create a wheel starting at the current time
+     *
+     * @param tickMillis Length of a tick, the precision of the wheel
+     * @param wheelSize Number of buckets, rounded up to a power of two
+     */
+    public HashedTimerWheel(long tickMillis, int wheelSize) {
+        this(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Create a wheel
+     *
+     * @param tickMillis Length of a tick, the precision of the wheel
+     * @param wheelSize Number of buckets, rounded up to a power of two
+     * @param originMillis Start of the first tick
+     */
+    public HashedTimerWheel(long tickMillis, int wheelSize, long originMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        int buckets = Integer.highestOneBit(Math.max(1, Math.min(wheelSize, 1 << 30)) * 2 - 1);
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+        @SuppressWarnings("unchecked")
+        Timeout<T>[] table = (Timeout<T>[]) new Timeout<?>[buckets];
+        this.buckets = table;
+        this.mask = buckets - 1;
+    }
+
+    /**
+     * Add an item
+     * A deadline that has already passed is due as soon as the current tick has ended.
+     *
+     * @param deadlineMillis When the item is due
+     * @param item The item
+     * @return Handle for {@link #cancel}
+     */
+    public synchronized Timeout<T> schedule(long deadlineMillis, T item) {
+        long deadlineTick = Math.max(currentTick, Math.floorDiv(deadlineMillis - originMillis, tickMillis));
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis, (deadlineTick - currentTick) / buckets.length);
+
+        int index = (int) (deadlineTick & mask);
+        timeout.bucket = index;
+        timeout.next = buckets[index];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        buckets[index] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Remove an item before it is due
+     *
+     * @param timeout Handle returned by {@link #schedule}
+     * @return true if the item was still waiting, false if it was already due or cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.bucket < 0) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /**
+     * Process every tick that has ended by the given time and hand out the items that fell due
+     *
+     * @param nowMillis The current time
+     * @param due Receives the due items; called while the wheel is locked, so it must not schedule or cancel
+     * @return Number of items handed out
+     */
+    public synchronized int advance(long nowMillis, Consumer<? super T> due) {
+        long lastTick = Math.floorDiv(nowMillis - originMillis, tickMillis) - 1;
+        int count = 0;
+        while (currentTick <= lastTick) {
+            if (size == 0) {
+                // Nothing can fall due on the way; jump straight to the present
+                currentTick = lastTick + 1;
+                break;
+            }
+            Timeout<T> timeout = buckets[(int) (currentTick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    unlink(timeout);
+                    due.accept(timeout.item);
+                    count++;
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+            currentTick++;
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of items waiting
+     *
+     * @return Items scheduled and neither due nor cancelled
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    /**
+     * A scheduled item; a node of its bucket's linked list while it is waiting
+     *
+     * @param <T> Item type
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadlineMillis;
+        private long remainingRounds;
+        // -1 once due or cancelled
+        private int bucket;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T item, long deadlineMillis, long remainingRounds) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+            this.remainingRounds = remainingRounds;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+}
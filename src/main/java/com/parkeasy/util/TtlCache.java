@@ -0,0 +1,185 @@
+package main.java.com.parkeasy.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache whose entries expire after a fixed time
+ * Entries are evicted least-recently-used first once the cache is full. A null value from the
+ * loader is returned but not cached, so a missing row is looked up again next time.
+ * Loads run outside the lock: two threads missing the same key at once may both query the
+ * database, which is cheaper than serializing every miss behind one lock. A load that overlaps an
+ * invalidation is returned to its caller but not cached, so a write cannot be undone by a read
+ * that started before it.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class TtlCache<K, V> {
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Bumped by every invalidation; guarded by entries
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Create a cache
+     *
+     * @param name Name used in statistics
+     * @param maxEntries Maximum number of entries kept (0 disables caching)
+     * @param ttlMillis How long an entry stays valid after it was loaded
+     */
+    public TtlCache(String name, int maxEntries, long ttlMillis) {
+        this.name = name;
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a value, loading and caching it on a miss
+     *
+     * @param key The key
+     * @param loader Loads the value from the database; may return null
+     * @return The cached or freshly loaded value, or null
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                entries.remove(key);
+            }
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        V value = loader.apply(key);
+        if (value != null && maxEntries > 0) {
+            synchronized (entries) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Store a value, replacing any cached one
+     *
+     * @param key The key
+     * @param value The value (not null)
+     */
+    public void put(K key, V value) {
+        if (maxEntries == 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * Drop one entry
+     *
+     * @param key The key
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drop every entry matching a condition
+     *
+     * @param condition Receives key and cached value
+     */
+    public void invalidateIf(BiPredicate<? super K, ? super V> condition) {
+        synchronized (entries) {
+            generation++;
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Entry<V>> entry = iterator.next();
+                if (condition.test(entry.getKey(), entry.getValue().value)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop every entry
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get the fraction of lookups served from the cache
+     *
+     * @return Hits divided by lookups, 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Get cache statistics
+     *
+     * @return Map with name, size, maxEntries, hits, misses, evictions and hitRatio
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", getHitRatio());
+        return stats;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
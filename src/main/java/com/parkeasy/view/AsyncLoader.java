@@ -0,0 +1,181 @@
+package main.java.com.parkeasy.view;
+
+import main.java.com.parkeasy.util.AppConfig;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs view data loads off the Event Dispatch Thread
+ * Each view owns one loader. A load belongs to a channel (e.g. "slots"); at most one load per channel
+ * is in flight:
+ * - requesting the same channel with an equal request key while a load is running joins that load
+ *   instead of querying again (e.g. a double-clicked Refresh button);
+ * - requesting it with a different key cancels the running load, whose result is then dropped
+ *   (e.g. switching the revenue period before the previous one arrived).
+ * Results and errors are delivered on the EDT. Loads still running when the owning window is
+ * disposed are cancelled and never delivered.
+ * Must be used from the EDT.
+ */
+public class AsyncLoader {
+    private static final Logger LOGGER = Logger.getLogger(AsyncLoader.class.getName());
+
+    // Shared by all views; bounded so that a busy screen cannot take every pooled connection
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private final Map<String, PendingLoad<?>> pending = new HashMap<>();
+    private boolean closed;
+
+    /**
+     * Create a loader whose loads are cancelled when the window is disposed
+     *
+     * @param window The owning window
+     * @return A new loader
+     */
+    public static AsyncLoader forWindow(Window window) {
+        AsyncLoader loader = new AsyncLoader();
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                loader.close();
+            }
+        });
+        return loader;
+    }
+
+    /**
+     * Load data in the background, coalesced per channel
+     *
+     * @param channel What is being loaded; one load per channel is in flight
+     * @param requestKey Parameters of the load; an equal key joins the running load, a different one replaces it
+     * @param task The controller call to run in the background
+     * @param onSuccess Receives the result on the EDT
+     * @param onError Receives the failure on the EDT; null to only log it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void load(String channel, Object requestKey, Callable<T> task,
+                         Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        if (closed) {
+            return;
+        }
+        PendingLoad<?> current = pending.get(channel);
+        if (current != null) {
+            if (Objects.equals(current.requestKey, requestKey)) {
+                ((PendingLoad<T>) current).addCallbacks(onSuccess, onError);
+                return;
+            }
+            current.future.cancel(true);
+        }
+
+        PendingLoad<T> load = new PendingLoad<>(requestKey);
+        load.addCallbacks(onSuccess, onError);
+        pending.put(channel, load);
+        load.future = EXECUTOR.submit(() -> {
+            T result = null;
+            Throwable error = null;
+            try {
+                result = task.call();
+            } catch (Throwable t) {
+                error = t;
+            }
+            final T finalResult = result;
+            final Throwable finalError = error;
+            SwingUtilities.invokeLater(() -> complete(channel, load, finalResult, finalError));
+        });
+    }
+
+    /**
+     * Load data in the background; repeated requests for the channel join the running load
+     *
+     * @param channel What is being loaded
+     * @param task The controller call to run in the background
+     * @param onSuccess Receives the result on the EDT
+     */
+    public <T> void load(String channel, Callable<T> task, Consumer<? super T> onSuccess) {
+        load(channel, null, task, onSuccess, null);
+    }
+
+    /**
+     * Check whether a load is in flight for a channel
+     *
+     * @param channel The channel
+     * @return true if a load is running
+     */
+    public boolean isLoading(String channel) {
+        return pending.containsKey(channel);
+    }
+
+    /**
+     * Cancel every running load and ignore further requests
+     */
+    public void close() {
+        closed = true;
+        for (PendingLoad<?> load : pending.values()) {
+            load.future.cancel(true);
+        }
+        pending.clear();
+    }
+
+    private <T> void complete(String channel, PendingLoad<T> load, T result, Throwable error) {
+        if (pending.get(channel) != load) {
+            // Replaced by a newer request or cancelled with the window
+            return;
+        }
+        pending.remove(channel);
+
+        for (int i = 0; i < load.onSuccess.size(); i++) {
+            try {
+                if (error == null) {
+                    load.onSuccess.get(i).accept(result);
+                } else if (load.onError.get(i) != null) {
+                    load.onError.get(i).accept(error);
+                } else {
+                    LOGGER.log(Level.WARNING, "Background load failed: " + channel, error);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error publishing background load: " + channel, e);
+            }
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        int threads = Math.max(1, AppConfig.getInt("view.loaderThreads", 4));
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "view-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class PendingLoad<T> {
+        private final Object requestKey;
+        private final List<Consumer<? super T>> onSuccess = new ArrayList<>(1);
+        private final List<Consumer<Throwable>> onError = new ArrayList<>(1);
+        private Future<?> future;
+
+        private PendingLoad(Object requestKey) {
+            this.requestKey = requestKey;
+        }
+
+        private void addCallbacks(Consumer<? super T> success, Consumer<Throwable> error) {
+            onSuccess.add(success);
+            onError.add(error);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import main.java.com.parkeasy.model.ParkingSpace;
 import main.java.com.parkeasy.service.AdminService;
 import main.java.com.parkeasy.service.ParkingSpaceService;
 import main.java.com.parkeasy.service.ReservationService;
+import main.java.com.parkeasy.view.AsyncLoader;
 import main.java.com.parkeasy.view.auth.LoginView;
 
 import javax.swing.*;
@@ -15,7 +16,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -39,6 +41,17 @@ public class AdminDashboardView extends JFrame {
     private JLabel revenueLabel;
     private JLabel revenueTitleLabel;
 
+    private static final String LOADING_TEXT = "...";
+    private static final String UNAVAILABLE_TEXT = "n/a";
+    private JLabel totalParkingSpacesValue;
+    private JLabel totalSlotsValue;
+    private JLabel occupiedSlotsValue;
+    private JLabel availableSlotsValue;
+    private JLabel occupancyRateValue;
+    private Integer loadedTotalSlots;
+    private Integer loadedOccupiedSlots;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
+
     private AdminDashboardController adminDashboardController;
     private Admin currentAdmin;
 
@@ -205,79 +218,103 @@ public class AdminDashboardView extends JFrame {
     }
 
     private void loadDashboardData() {
-        try {
-            // Show loading indicator
-            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-
-            // Get comprehensive dashboard data in a single call to reduce database queries
-            Map<String, Object> dashboardSummary = adminDashboardController.getDashboardSummary(currentAdmin.getAdminID());
-
-            if (dashboardSummary == null || !((boolean) dashboardSummary.getOrDefault("success", false))) {
-                JOptionPane.showMessageDialog(this,
-                        "Error retrieving dashboard data: " + dashboardSummary.getOrDefault("message", "Unknown error"),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            // Extract data from the summary
-            int totalParkingSpaces = (int) dashboardSummary.getOrDefault("parkingSpaceCount", 0);
-            int totalSlots = (int) dashboardSummary.getOrDefault("totalSlots", 0);
-            int occupiedSlots = (int) dashboardSummary.getOrDefault("occupiedSlots", 0);
-            int availableSlots = totalSlots - occupiedSlots;
-            float occupancyRate = (float) dashboardSummary.getOrDefault("occupancyRate", 0.0f);
-
-            // Get the list of parking spaces
-            @SuppressWarnings("unchecked")
-            List<ParkingSpace> parkingSpaces = (List<ParkingSpace>) dashboardSummary.getOrDefault("parkingSpaces", Collections.emptyList());
-
-            // Update table
-            updateParkingSpacesTable(parkingSpaces);
-
-            // Update statistics panel
-            statisticsPanel.removeAll();
-
-            addStatisticItem("Total Parking Spaces", String.valueOf(totalParkingSpaces));
-            addStatisticItem("Total Slots", String.valueOf(totalSlots));
-            addStatisticItem("Occupied Slots", String.valueOf(occupiedSlots));
-            addStatisticItem("Available Slots", String.valueOf(availableSlots));
-            addStatisticItem("Occupancy Rate", String.format("%.2f%%", occupancyRate));
+        // Show loading indicator; the sections fill in as they arrive
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        refreshButton.setEnabled(false);
+        loadedTotalSlots = null;
+        loadedOccupiedSlots = null;
+
+        statisticsPanel.removeAll();
+        totalParkingSpacesValue = addStatisticItem("Total Parking Spaces", LOADING_TEXT);
+        totalSlotsValue = addStatisticItem("Total Slots", LOADING_TEXT);
+        occupiedSlotsValue = addStatisticItem("Occupied Slots", LOADING_TEXT);
+        availableSlotsValue = addStatisticItem("Available Slots", LOADING_TEXT);
+        occupancyRateValue = addStatisticItem("Occupancy Rate", LOADING_TEXT);
+
+        // Add the revenue panel instead of single revenue item
+        statisticsPanel.add(revenuePanel);
+        statisticsPanel.revalidate();
+        statisticsPanel.repaint();
+
+        final int adminId = currentAdmin.getAdminID();
+        loader.load("summary", adminId,
+                () -> adminDashboardController.getDashboardSummaryAsync(adminId,
+                        (key, value) -> SwingUtilities.invokeLater(() -> showSummarySection(key, value))).join(),
+                summary -> finishDashboardLoad(summary, null),
+                ex -> finishDashboardLoad(null, ex));
+
+        // Revenue and the parking space table load in the background as well
+        updateRevenueData();
+    }
 
-            // Add the revenue panel instead of single revenue item
-            statisticsPanel.add(revenuePanel);
+    private void showSummarySection(String key, Object value) {
+        switch (key) {
+            case "parkingSpaceCount":
+                totalParkingSpacesValue.setText(String.valueOf(value));
+                break;
+            case "totalSlots":
+                loadedTotalSlots = (Integer) value;
+                totalSlotsValue.setText(String.valueOf(value));
+                showAvailableSlots();
+                break;
+            case "occupiedSlots":
+                loadedOccupiedSlots = (Integer) value;
+                occupiedSlotsValue.setText(String.valueOf(value));
+                showAvailableSlots();
+                break;
+            case "occupancyRate":
+                occupancyRateValue.setText(String.format("%.2f%%", (Float) value));
+                break;
+            default:
+                break;
+        }
+    }
 
-            // Initial update of revenue data
-            updateRevenueData();
+    private void showAvailableSlots() {
+        if (loadedTotalSlots != null && loadedOccupiedSlots != null) {
+            availableSlotsValue.setText(String.valueOf(loadedTotalSlots - loadedOccupiedSlots));
+        }
+    }
 
-            statisticsPanel.revalidate();
-            statisticsPanel.repaint();
+    private void finishDashboardLoad(Map<String, Object> dashboardSummary, Throwable error) {
+        // Reset cursor
+        setCursor(Cursor.getDefaultCursor());
+        refreshButton.setEnabled(true);
 
+        // Sections that never arrived are shown as unavailable
+        for (JLabel valueLabel : new JLabel[]{totalParkingSpacesValue, totalSlotsValue, occupiedSlotsValue,
+                availableSlotsValue, occupancyRateValue}) {
+            if (LOADING_TEXT.equals(valueLabel.getText())) {
+                valueLabel.setText(UNAVAILABLE_TEXT);
+            }
+        }
 
-        } catch (Exception ex) {
+        if (error != null) {
+            LOGGER.log(Level.SEVERE, "Error loading dashboard data", error);
             JOptionPane.showMessageDialog(this,
-                    "Error loading dashboard data: " + ex.getMessage(),
+                    "Error loading dashboard data: " + error.getMessage(),
                     "Error",
                     JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
-        } finally {
-            // Reset cursor
-            setCursor(Cursor.getDefaultCursor());
+            return;
         }
-    }
-
-    private void updateParkingSpacesTable(List<ParkingSpace> parkingSpaces) {
-        DefaultTableModel model = (DefaultTableModel) parkingSpacesTable.getModel();
-        model.setRowCount(0); // Clear table
 
-        // Get the selected revenue period to show appropriate revenue data
-        String selectedPeriod = (String) revenuePeriodComboBox.getSelectedItem();
+        if (dashboardSummary == null || !((boolean) dashboardSummary.getOrDefault("success", false))) {
+            JOptionPane.showMessageDialog(this,
+                    "Error retrieving dashboard data: " + (dashboardSummary == null ? "Unknown error"
+                            : dashboardSummary.getOrDefault("message", "Unknown error")),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-        // Update revenue column header to reflect the period
-        model.setColumnIdentifiers(new String[]{
-                "Parking ID", "Address", "Slots", "Occupied",
-                "Occupancy Rate", selectedPeriod + " Revenue"
-        });
+        if ((boolean) dashboardSummary.getOrDefault("partial", false)) {
+            LOGGER.log(Level.WARNING, "Dashboard loaded without sections: {0}",
+                    dashboardSummary.get("failedSections"));
+        }
+    }
 
+    private List<Object[]> buildParkingSpaceRows(List<ParkingSpace> parkingSpaces, String selectedPeriod) {
+        List<Object[]> rows = new ArrayList<>();
         for (ParkingSpace space : parkingSpaces) {
             int spaceSlots = space.getNumberOfSlots();
 
@@ -290,15 +327,29 @@ public class AdminDashboardView extends JFrame {
             // Get revenue based on selected period
             float spaceRevenue = getParkingSpaceRevenue(space.getParkingID(), selectedPeriod);
 
-            Object[] row = {
+            rows.add(new Object[]{
                     space.getParkingID(),
                     space.getParkingAddress(),
                     spaceSlots,
                     spaceOccupiedSlots,
                     String.format("%.2f%%", spaceOccupancyRate),
                     String.format("%,.0f VND", spaceRevenue)
-            };
+            });
+        }
+        return rows;
+    }
+
+    private void updateParkingSpacesTable(List<Object[]> rows, String selectedPeriod) {
+        DefaultTableModel model = (DefaultTableModel) parkingSpacesTable.getModel();
+        model.setRowCount(0); // Clear table
+
+        // Update revenue column header to reflect the period
+        model.setColumnIdentifiers(new String[]{
+                "Parking ID", "Address", "Slots", "Occupied",
+                "Occupancy Rate", selectedPeriod + " Revenue"
+        });
 
+        for (Object[] row : rows) {
             model.addRow(row);
         }
     }
@@ -320,37 +371,48 @@ public class AdminDashboardView extends JFrame {
     }
 
     private void updateRevenueData() {
-        try {
-            String selectedPeriod = (String) revenuePeriodComboBox.getSelectedItem();
-            float revenue = 0.0F;
-
-            if ("Daily".equals(selectedPeriod)) {
-                revenueTitleLabel.setText("Daily Revenue");
-                revenue = adminDashboardController.getDailyRevenue(currentAdmin.getAdminID());
-            } else if ("Weekly".equals(selectedPeriod)) {
-                revenueTitleLabel.setText("Weekly Revenue");
-                revenue = adminDashboardController.getWeeklyRevenue(currentAdmin.getAdminID());
-            } else if ("Monthly".equals(selectedPeriod)) {
-                revenueTitleLabel.setText("Monthly Revenue");
-                revenue = adminDashboardController.getMonthlyRevenue(currentAdmin.getAdminID());
-            }
-
-            // Format revenue in VND with thousands separators
-            revenueLabel.setText(String.format("%,.0f VND", revenue));
-
-            // Update parking spaces table to reflect the selected period
-            List<ParkingSpace> parkingSpaces = adminDashboardController.getAdminParkingSpaces(currentAdmin.getAdminID());
-            updateParkingSpacesTable(parkingSpaces);
-
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error updating revenue data: " + ex.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        final String selectedPeriod = (String) revenuePeriodComboBox.getSelectedItem();
+        final int adminId = currentAdmin.getAdminID();
+
+        revenueTitleLabel.setText(selectedPeriod + " Revenue");
+        revenueLabel.setText(LOADING_TEXT);
+
+        // Switching the period again cancels this load, so only the latest selection is shown
+        loader.load("revenue", selectedPeriod,
+                () -> {
+                    Map<String, Object> revenueData = new HashMap<>();
+                    float revenue = 0.0F;
+                    if ("Daily".equals(selectedPeriod)) {
+                        revenue = adminDashboardController.getDailyRevenue(adminId);
+                    } else if ("Weekly".equals(selectedPeriod)) {
+                        revenue = adminDashboardController.getWeeklyRevenue(adminId);
+                    } else if ("Monthly".equals(selectedPeriod)) {
+                        revenue = adminDashboardController.getMonthlyRevenue(adminId);
+                    }
+                    revenueData.put("revenue", revenue);
+
+                    // Update parking spaces table to reflect the selected period
+                    List<ParkingSpace> parkingSpaces = adminDashboardController.getAdminParkingSpaces(adminId);
+                    revenueData.put("rows", buildParkingSpaceRows(parkingSpaces, selectedPeriod));
+                    return revenueData;
+                },
+                revenueData -> {
+                    // Format revenue in VND with thousands separators
+                    revenueLabel.setText(String.format("%,.0f VND", (Float) revenueData.get("revenue")));
+                    @SuppressWarnings("unchecked")
+                    List<Object[]> rows = (List<Object[]>) revenueData.get("rows");
+                    updateParkingSpacesTable(rows, selectedPeriod);
+                },
+                ex -> {
+                    revenueLabel.setText(UNAVAILABLE_TEXT);
+                    JOptionPane.showMessageDialog(this,
+                            "Error updating revenue data: " + ex.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                });
     }
 
-    private void addStatisticItem(String label, String value) {
+    private JLabel addStatisticItem(String label, String value) {
         JPanel itemPanel = new JPanel(new BorderLayout());
         JLabel titleLabel = new JLabel(label);
         titleLabel.setFont(new Font("Arial", Font.PLAIN, 12));
@@ -365,20 +427,21 @@ public class AdminDashboardView extends JFrame {
         ));
 
         statisticsPanel.add(itemPanel);
+        return valueLabel;
     }
 
     private void openParkingSpaceDetails(String parkingId) {
-        try {
-            ParkingSpace parkingSpace = getParkingSpaceById(parkingId);
-            if (parkingSpace != null) {
-                new ParkingPlotDetailView(currentAdmin, parkingSpace);
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error opening parking space details: " + ex.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        loader.load("parkingSpaceDetails", parkingId,
+                () -> getParkingSpaceById(parkingId),
+                parkingSpace -> {
+                    if (parkingSpace != null) {
+                        new ParkingPlotDetailView(currentAdmin, parkingSpace);
+                    }
+                },
+                ex -> JOptionPane.showMessageDialog(this,
+                        "Error opening parking space details: " + ex.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE));
     }
 
     private ParkingSpace getParkingSpaceById(String parkingId) {
@@ -3,6 +3,7 @@ package main.java.com.parkeasy.view.admin;
 import main.java.com.parkeasy.model.Admin;
 import main.java.com.parkeasy.service.AdminService;
 import main.java.com.parkeasy.util.DatabaseConnection;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
 import java.awt.*;
@@ -25,6 +26,7 @@ public class AdminProfileView extends JFrame {
     private JButton backButton;
     
     private AdminService adminService;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
     private Admin currentAdmin;
     
     public AdminProfileView(Admin admin) {
@@ -200,23 +202,28 @@ public class AdminProfileView extends JFrame {
     }
     
     private void loadAdminData() {
-        try {
-            // Refresh admin data from the database
-            Admin refreshedAdmin = adminService.getAdminById(currentAdmin.getAdminID());
-            if (refreshedAdmin != null) {
-                currentAdmin = refreshedAdmin;
-            }
-            
-            // Set field values
-            nameField.setText(currentAdmin.getAdminName());
-            emailField.setText(currentAdmin.getEmail());
-            phoneField.setText(currentAdmin.getPhone());
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, 
+        // Show what we have, then refresh admin data from the database
+        showAdminData();
+        final int adminId = currentAdmin.getAdminID();
+        loader.load("admin", adminId,
+            () -> adminService.getAdminById(adminId),
+            refreshedAdmin -> {
+                if (refreshedAdmin != null) {
+                    currentAdmin = refreshedAdmin;
+                    showAdminData();
+                }
+            },
+            ex -> JOptionPane.showMessageDialog(this, 
                 "Error loading admin data: " + ex.getMessage(), 
                 "Error", 
-                JOptionPane.ERROR_MESSAGE);
-        }
+                JOptionPane.ERROR_MESSAGE));
+    }
+    
+    private void showAdminData() {
+        // Set field values
+        nameField.setText(currentAdmin.getAdminName());
+        emailField.setText(currentAdmin.getEmail());
+        phoneField.setText(currentAdmin.getPhone());
     }
     
     private void updateProfile() {
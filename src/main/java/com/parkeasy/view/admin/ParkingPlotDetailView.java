@@ -5,6 +5,7 @@ import main.java.com.parkeasy.model.Admin;
 import main.java.com.parkeasy.model.ParkingSlot;
 import main.java.com.parkeasy.model.ParkingSpace;
 import main.java.com.parkeasy.util.DatabaseConnection;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
@@ -35,6 +36,7 @@ public class ParkingPlotDetailView extends JFrame {
     private JButton backButton;
 
     private ParkingManagementController parkingManagementController;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
     private Admin currentAdmin;
     private ParkingSpace currentParkingSpace;
 
@@ -220,25 +222,15 @@ public class ParkingPlotDetailView extends JFrame {
             infoPanel.revalidate();
             infoPanel.repaint();
 
-            // Load slots data
-            List<ParkingSlot> slots = parkingManagementController.getParkingSlotsByParkingId(currentParkingSpace.getParkingID());
-
-            // Update slots table
-            DefaultTableModel model = (DefaultTableModel) slotsTable.getModel();
-            model.setRowCount(0); // Clear table
-
-            for (ParkingSlot slot : slots) {
-                Object[] row = {
-                        slot.getSlotNumber(),
-                        slot.getAvailability() ? "Available" : "Occupied",
-                        "Actions"  // Placeholder for action buttons
-                };
-
-                model.addRow(row);
-            }
-
-            // Add action buttons to the table
-            addButtonsToTable();
+            // Load slots data in the background
+            String parkingId = currentParkingSpace.getParkingID();
+            loader.load("slots", parkingId,
+                    () -> parkingManagementController.getParkingSlotsByParkingId(parkingId),
+                    this::showSlots,
+                    ex -> JOptionPane.showMessageDialog(this,
+                            "Error loading parking data: " + ex.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE));
 
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this,
@@ -249,6 +241,25 @@ public class ParkingPlotDetailView extends JFrame {
         }
     }
 
+    private void showSlots(List<ParkingSlot> slots) {
+        // Update slots table
+        DefaultTableModel model = (DefaultTableModel) slotsTable.getModel();
+        model.setRowCount(0); // Clear table
+
+        for (ParkingSlot slot : slots) {
+            Object[] row = {
+                    slot.getSlotNumber(),
+                    slot.getAvailability() ? "Available" : "Occupied",
+                    "Actions"  // Placeholder for action buttons
+            };
+
+            model.addRow(row);
+        }
+
+        // Add action buttons to the table
+        addButtonsToTable();
+    }
+
     private void addInfoField(String label, String value) {
         JLabel labelComponent = new JLabel(label);
         labelComponent.setFont(new Font("Arial", Font.BOLD, 14));
@@ -644,22 +655,24 @@ public class ParkingPlotDetailView extends JFrame {
                                 System.out.println("Clicked on occupied slot: " + slotNumber);
 
                                 // Get reservation details for this slot
-                                Map<String, Object> reservationInfo =
-                                        parkingManagementController.getActiveReservationInfoForSlot(slotNumber);
-
-                                if (reservationInfo != null && !reservationInfo.isEmpty()) {
-                                    System.out.println("Found reservation info with " +
-                                            reservationInfo.size() + " fields");
-
-                                    // Show the reservation info in a dialog
-                                    showReservationInfoDialog(slotNumber, reservationInfo);
-                                } else {
-                                    System.out.println("No reservation info found for slot: " + slotNumber);
-                                    JOptionPane.showMessageDialog(ParkingPlotDetailView.this,
-                                            "No active reservation details found for slot " + slotNumber,
-                                            "No Reservation Info",
-                                            JOptionPane.INFORMATION_MESSAGE);
-                                }
+                                loader.load("reservationInfo", slotNumber,
+                                        () -> parkingManagementController.getActiveReservationInfoForSlot(slotNumber),
+                                        reservationInfo -> {
+                                            if (reservationInfo != null && !reservationInfo.isEmpty()) {
+                                                System.out.println("Found reservation info with " +
+                                                        reservationInfo.size() + " fields");
+
+                                                // Show the reservation info in a dialog
+                                                showReservationInfoDialog(slotNumber, reservationInfo);
+                                            } else {
+                                                System.out.println("No reservation info found for slot: " + slotNumber);
+                                                JOptionPane.showMessageDialog(ParkingPlotDetailView.this,
+                                                        "No active reservation details found for slot " + slotNumber,
+                                                        "No Reservation Info",
+                                                        JOptionPane.INFORMATION_MESSAGE);
+                                            }
+                                        },
+                                        null);
                             }
                         }
                     }
@@ -1368,10 +1381,18 @@ public class ParkingPlotDetailView extends JFrame {
     }
 
     private void showSlotReservationHistory(String slotNumber) {
-        try {
-            // Retrieve all reservations for this slot (past and present)
-            List<Map<String, Object>> reservations = parkingManagementController.getAllReservationsForSlot(slotNumber);
+        // Retrieve all reservations for this slot (past and present)
+        loader.load("slotHistory", slotNumber,
+                () -> parkingManagementController.getAllReservationsForSlot(slotNumber),
+                reservations -> showSlotReservationHistory(slotNumber, reservations),
+                ex -> JOptionPane.showMessageDialog(this,
+                        "Error loading reservation history: " + ex.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
 
+    private void showSlotReservationHistory(String slotNumber, List<Map<String, Object>> reservations) {
+        try {
             if (reservations == null || reservations.isEmpty()) {
                 JOptionPane.showMessageDialog(this,
                         "No reservation history found for slot " + slotNumber,
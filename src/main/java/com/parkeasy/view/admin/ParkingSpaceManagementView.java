@@ -6,6 +6,7 @@ import main.java.com.parkeasy.model.ParkingSpace;
 import main.java.com.parkeasy.service.AdminService;
 import main.java.com.parkeasy.service.ParkingSpaceService;
 import main.java.com.parkeasy.service.ReservationService;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -26,6 +27,7 @@ public class ParkingSpaceManagementView extends JFrame {
     
     private AdminDashboardController adminDashboardController;
     private ParkingSpaceService parkingSpaceService;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
     private Admin currentAdmin;
     
     public ParkingSpaceManagementView(Admin admin) {
@@ -132,32 +134,33 @@ public class ParkingSpaceManagementView extends JFrame {
     }
     
     private void loadParkingSpaces() {
-        try {
-            // Get parking spaces from controller
-            List<ParkingSpace> parkingSpaces = adminDashboardController.getAdminParkingSpaces(currentAdmin.getAdminID());
-            
-            // Update table
-            DefaultTableModel model = (DefaultTableModel) parkingSpacesTable.getModel();
-            model.setRowCount(0); // Clear table
-            
-            for (ParkingSpace space : parkingSpaces) {
-                Object[] row = {
-                        space.getParkingID(),
-                        space.getParkingAddress(),
-                        String.format("$%.2f", space.getCostOfParking()),
-                        space.getNumberOfSlots(),
-                        space.getDescription()
-                };
-                
-                model.addRow(row);
-            }
+        final int adminId = currentAdmin.getAdminID();
+        
+        // Get parking spaces from controller
+        loader.load("parkingSpaces", adminId,
+                () -> adminDashboardController.getAdminParkingSpaces(adminId),
+                this::showParkingSpaces,
+                ex -> JOptionPane.showMessageDialog(this,
+                        "Error loading parking spaces: " + ex.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
+    
+    private void showParkingSpaces(List<ParkingSpace> parkingSpaces) {
+        // Update table
+        DefaultTableModel model = (DefaultTableModel) parkingSpacesTable.getModel();
+        model.setRowCount(0); // Clear table
+        
+        for (ParkingSpace space : parkingSpaces) {
+            Object[] row = {
+                    space.getParkingID(),
+                    space.getParkingAddress(),
+                    String.format("$%.2f", space.getCostOfParking()),
+                    space.getNumberOfSlots(),
+                    space.getDescription()
+            };
             
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error loading parking spaces: " + ex.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
+            model.addRow(row);
         }
     }
     
@@ -276,10 +279,18 @@ public class ParkingSpaceManagementView extends JFrame {
         
         String parkingId = (String) parkingSpacesTable.getValueAt(selectedRow, 0);
         
+        // Get the parking space from the service
+        loader.load("editParkingSpace", parkingId,
+                () -> parkingSpaceService.getParkingSpaceById(parkingId),
+                this::showEditParkingSpaceDialog,
+                ex -> JOptionPane.showMessageDialog(this,
+                        "Error loading parking space details: " + ex.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
+    
+    private void showEditParkingSpaceDialog(ParkingSpace space) {
         try {
-            // Get the parking space from the service
-            ParkingSpace space = parkingSpaceService.getParkingSpaceById(parkingId);
-            
             if (space == null) {
                 JOptionPane.showMessageDialog(this,
                         "Parking space not found",
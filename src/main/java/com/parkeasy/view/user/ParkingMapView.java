@@ -7,6 +7,7 @@ import main.java.com.parkeasy.model.ParkingSpace;
 import main.java.com.parkeasy.model.User;
 import main.java.com.parkeasy.model.Vehicle;
 import main.java.com.parkeasy.service.VehicleService;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -34,6 +35,7 @@ public class ParkingMapView extends JFrame {
     private ParkingSpace parkingSpace;
     private ParkingSpaceViewController parkingSpaceViewController;
     private VehicleService vehicleService;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
 
     private JLabel parkingNameLabel;
     private JTextArea descriptionArea;
@@ -56,6 +58,7 @@ public class ParkingMapView extends JFrame {
     private JButton addVehicleButton;
     private JButton checkAvailabilityButton;
     private JButton reserveButton;
+    private JButton bookAnyButton;
     private JButton backButton;
 
     private List<ParkingSlot> availableSlots;
@@ -106,9 +109,8 @@ public class ParkingMapView extends JFrame {
         ratingLabel = new JLabel("Rating: " + String.format("%.1f", averageRating) + "/5.0");
         ratingLabel.setFont(new Font("Arial", Font.BOLD, 16));
 
-        int totalSlots = parkingSpace.getNumberOfSlots();
-        int availableSlotCount = calculateAvailableSlots();
-        availabilityLabel = new JLabel("Availability: " + availableSlotCount + "/" + totalSlots + " slots available");
+        // Filled in once the slots for the default period are loaded
+        availabilityLabel = new JLabel("Availability: .../" + parkingSpace.getNumberOfSlots() + " slots available");
         availabilityLabel.setFont(new Font("Arial", Font.BOLD, 16));
 
         // Create parking slots table with better visual appearance
@@ -216,6 +218,11 @@ public class ParkingMapView extends JFrame {
         reserveButton.setForeground(Color.WHITE);
         reserveButton.setEnabled(false); // Disabled until availability check
 
+        bookAnyButton = new JButton("Book Any Slot");
+        bookAnyButton.setBackground(new Color(0, 128, 0)); // Green
+        bookAnyButton.setForeground(Color.WHITE);
+        bookAnyButton.setEnabled(false); // Disabled until availability check
+
         backButton = new JButton("Back to Search");
 
         // Add action listeners
@@ -233,6 +240,13 @@ public class ParkingMapView extends JFrame {
             }
         });
 
+        bookAnyButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                bookAnySlot();
+            }
+        });
+
         addVehicleButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -373,6 +387,7 @@ public class ParkingMapView extends JFrame {
 
         JPanel reservePanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         reservePanel.add(reserveButton);
+        reservePanel.add(bookAnyButton);
 
         buttonsPanel.add(checkPanel);
         buttonsPanel.add(reservePanel);
@@ -400,51 +415,64 @@ public class ParkingMapView extends JFrame {
 
 
     private void loadParkingSpaceDetails() {
-        try {
-            // Load available slots with default time range (now + 1 hour)
-            LocalDateTime startDateTime = LocalDateTime.now();
-            LocalDateTime endDateTime = startDateTime.plusHours(1);
-
-            availableSlots = parkingSpaceViewController.getAvailableSlots(
-                    parkingSpace.getParkingID(), startDateTime, endDateTime);
-
-            updateSlotsTable();
-
-            // Load reviews
-            List<ParkingReview> reviews = parkingSpaceViewController.getParkingReviews(parkingSpace.getParkingID());
-            updateReviewsTable(reviews);
+        final String parkingId = parkingSpace.getParkingID();
+
+        // Load available slots with default time range (now + 1 hour)
+        final LocalDateTime startDateTime = LocalDateTime.now();
+        final LocalDateTime endDateTime = startDateTime.plusHours(1);
+
+        loader.load("slots", startDateTime + "/" + endDateTime,
+                () -> parkingSpaceViewController.getAvailableSlots(parkingId, startDateTime, endDateTime),
+                slots -> {
+                    availableSlots = slots;
+                    updateSlotsTable();
+                    updateAvailabilityLabel();
+                },
+                this::showDetailsLoadError);
+
+        // Load reviews
+        loader.load("reviews", parkingId,
+                () -> parkingSpaceViewController.getParkingReviews(parkingId),
+                this::updateReviewsTable,
+                this::showDetailsLoadError);
+    }
 
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error loading parking space details: " + ex.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+    private void showDetailsLoadError(Throwable ex) {
+        JOptionPane.showMessageDialog(this,
+                "Error loading parking space details: " + ex.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
     }
 
     private void loadUserVehicles() {
-        try {
-            // Get vehicles from database using the VehicleService
-            userVehicles = vehicleService.getVehiclesByUserId(currentUser.getUserID());
+        final int userId = currentUser.getUserID();
 
-            // Update vehicle combobox
-            vehicleComboBox.removeAllItems();
-
-            if (userVehicles == null || userVehicles.isEmpty()) {
-                vehicleComboBox.addItem("No vehicles available");
-                reserveButton.setEnabled(false);
-            } else {
-                for (Vehicle v : userVehicles) {
-                    vehicleComboBox.addItem(v.getVehicleID());
-                }
-            }
-        } catch (Exception ex) {
-            LOGGER.log(Level.SEVERE, "Error loading vehicles for user: " + currentUser.getUserID(), ex);
-            JOptionPane.showMessageDialog(this,
-                    "Error loading vehicles: " + ex.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        // Get vehicles from database using the VehicleService
+        loader.load("vehicles", userId,
+                () -> vehicleService.getVehiclesByUserId(userId),
+                vehicles -> {
+                    userVehicles = vehicles;
+
+                    // Update vehicle combobox
+                    vehicleComboBox.removeAllItems();
+
+                    if (userVehicles == null || userVehicles.isEmpty()) {
+                        vehicleComboBox.addItem("No vehicles available");
+                        reserveButton.setEnabled(false);
+                        bookAnyButton.setEnabled(false);
+                    } else {
+                        for (Vehicle v : userVehicles) {
+                            vehicleComboBox.addItem(v.getVehicleID());
+                        }
+                    }
+                },
+                ex -> {
+                    LOGGER.log(Level.SEVERE, "Error loading vehicles for user: " + userId, ex);
+                    JOptionPane.showMessageDialog(this,
+                            "Error loading vehicles: " + ex.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                });
     }
 
     private void updateSlotsTable() {
@@ -482,10 +510,10 @@ public class ParkingMapView extends JFrame {
             });
         }
     }
-    private int calculateAvailableSlots() {
-        // This would typically use a service to get real data
-        // For this example, we'll use a placeholder calculation
-        return parkingSpace.getNumberOfSlots() / 2; // Simulating 50% occupancy
+    private void updateAvailabilityLabel() {
+        int totalSlots = parkingSpace.getNumberOfSlots();
+        int availableSlotCount = availableSlots != null ? availableSlots.size() : 0;
+        availabilityLabel.setText("Availability: " + availableSlotCount + "/" + totalSlots + " slots available");
     }
 
     private LocalDateTime getStartDateTime() {
@@ -541,26 +569,33 @@ public class ParkingMapView extends JFrame {
                 return;
             }
 
-            // Get available slots for the selected time period
-            availableSlots = parkingSpaceViewController.getAvailableSlots(
-                    parkingSpace.getParkingID(), startDateTime, endDateTime);
-
-            updateSlotsTable();
-
-            // Enable reserve button if there are available slots
-            reserveButton.setEnabled(availableSlots != null && !availableSlots.isEmpty());
-
-            // Update availability label
-            int totalSlots = parkingSpace.getNumberOfSlots();
-            int availableSlotCount = availableSlots != null ? availableSlots.size() : 0;
-            availabilityLabel.setText("Availability: " + availableSlotCount + "/" + totalSlots + " slots available");
-
-            // Show confirmation message
-            JOptionPane.showMessageDialog(this,
-                    "Found " + availableSlotCount + " available slots for the selected time period.\n" +
-                            "Please select a slot and click 'Make Reservation' to continue.",
-                    "Availability Check",
-                    JOptionPane.INFORMATION_MESSAGE);
+            // Get available slots for the selected time period; a newer check replaces this one
+            final String parkingId = parkingSpace.getParkingID();
+            loader.load("slots", startDateTime + "/" + endDateTime,
+                    () -> parkingSpaceViewController.getAvailableSlots(parkingId, startDateTime, endDateTime),
+                    slots -> {
+                        availableSlots = slots;
+                        updateSlotsTable();
+
+                        // Enable reserve buttons if there are available slots
+                        reserveButton.setEnabled(availableSlots != null && !availableSlots.isEmpty());
+                        bookAnyButton.setEnabled(reserveButton.isEnabled());
+
+                        // Update availability label
+                        updateAvailabilityLabel();
+                        int availableSlotCount = availableSlots != null ? availableSlots.size() : 0;
+
+                        // Show confirmation message
+                        JOptionPane.showMessageDialog(this,
+                                "Found " + availableSlotCount + " available slots for the selected time period.\n" +
+                                        "Please select a slot and click 'Make Reservation' to continue.",
+                                "Availability Check",
+                                JOptionPane.INFORMATION_MESSAGE);
+                    },
+                    ex -> JOptionPane.showMessageDialog(this,
+                            "Error checking availability: " + ex.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE));
 
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this,
@@ -614,71 +649,115 @@ public class ParkingMapView extends JFrame {
             ParkingSlot selectedSlot = availableSlots.get(selectedRow);
             System.out.println("Selected slot: " + selectedSlot.getSlotNumber());
 
-            // Check if user has a vehicle selected
-            System.out.println("Vehicle combo box selected index: " + vehicleComboBox.getSelectedIndex());
-            System.out.println("User vehicles list size: " + (userVehicles != null ? userVehicles.size() : "null"));
+            reserveSlot(selectedSlot);
 
-            if (vehicleComboBox.getSelectedIndex() < 0 || userVehicles.isEmpty()) {
-                System.out.println("Error: No vehicle selected");
-                int addVehicle = JOptionPane.showConfirmDialog(this,
-                        "You don't have any vehicles selected. Would you like to add a vehicle now?",
-                        "No Vehicle Selected",
-                        JOptionPane.YES_NO_OPTION);
+        } catch (Exception ex) {
+            System.out.println("EXCEPTION in makeReservation: " + ex.getMessage());
+            ex.printStackTrace();  // Print the stack trace for more detailed error info
+            JOptionPane.showMessageDialog(this,
+                    "Error making reservation: " + ex.getMessage(),
+                    "Reservation Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-                if (addVehicle == JOptionPane.YES_OPTION) {
-                    addNewVehicle();
-                }
+    private void bookAnySlot() {
+        try {
+            if (availableSlots == null || availableSlots.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                        "No slots available for reservation.",
+                        "Reservation Error",
+                        JOptionPane.ERROR_MESSAGE);
                 return;
             }
 
-            // Get selected vehicle
-            String selectedVehicleId = (String) vehicleComboBox.getSelectedItem();
-            System.out.println("Selected vehicle ID: " + selectedVehicleId);
-
-            // Get date and time for reservation
             LocalDateTime startDateTime = getStartDateTime();
             LocalDateTime endDateTime = getEndDateTime();
-            System.out.println("Start date/time: " + startDateTime);
-            System.out.println("End date/time: " + endDateTime);
-
-            // Validate date and time one more time
-            if (startDateTime.isAfter(endDateTime)) {
-                System.out.println("Error: Start time after end time");
-                JOptionPane.showMessageDialog(this,
-                        "End time must be after start time.",
-                        "Reservation Error",
-                        JOptionPane.ERROR_MESSAGE);
+            if (!isValidPeriod(startDateTime, endDateTime)) {
                 return;
             }
 
-            if (startDateTime.isBefore(LocalDateTime.now())) {
-                System.out.println("Error: Start time in the past");
+            // Let the allocator pick among the slots found by the last availability check
+            ParkingSlot allocatedSlot = parkingSpaceViewController.allocateSlot(parkingSpace.getParkingID(),
+                    availableSlots, startDateTime, endDateTime);
+            if (allocatedSlot == null) {
+                LOGGER.log(Level.FINE, "No slot could be allocated in parking space {0}", parkingSpace.getParkingID());
                 JOptionPane.showMessageDialog(this,
-                        "Start time cannot be in the past.",
+                        "No slot is free for the selected time period. Please check availability again.",
                         "Reservation Error",
                         JOptionPane.ERROR_MESSAGE);
                 return;
             }
+            LOGGER.log(Level.FINE, "Allocated slot {0}", allocatedSlot.getSlotNumber());
 
-            System.out.println("All validation passed, creating ReservationView...");
+            reserveSlot(allocatedSlot);
 
-            // Open reservation details view for confirmation
-            new ReservationView(currentUser, parkingSpace, selectedSlot, selectedVehicleId,
-                    startDateTime, endDateTime);
+        } catch (Exception ex) {
+            LOGGER.log(Level.SEVERE, "Error booking any slot in parking space: " + parkingSpace.getParkingID(), ex);
+            JOptionPane.showMessageDialog(this,
+                    "Error making reservation: " + ex.getMessage(),
+                    "Reservation Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-            System.out.println("ReservationView created, closing ParkingMapView");
+    /**
+     * Check the vehicle and period, then open the reservation details for a slot
+     */
+    private void reserveSlot(ParkingSlot selectedSlot) {
+        // Check if user has a vehicle selected
+        if (vehicleComboBox.getSelectedIndex() < 0 || userVehicles.isEmpty()) {
+            int addVehicle = JOptionPane.showConfirmDialog(this,
+                    "You don't have any vehicles selected. Would you like to add a vehicle now?",
+                    "No Vehicle Selected",
+                    JOptionPane.YES_NO_OPTION);
+
+            if (addVehicle == JOptionPane.YES_OPTION) {
+                addNewVehicle();
+            }
+            return;
+        }
 
-            // Close this window
-            dispose();
+        // Get selected vehicle
+        String selectedVehicleId = (String) vehicleComboBox.getSelectedItem();
 
-        } catch (Exception ex) {
-            System.out.println("EXCEPTION in makeReservation: " + ex.getMessage());
-            ex.printStackTrace();  // Print the stack trace for more detailed error info
+        // Get date and time for reservation
+        LocalDateTime startDateTime = getStartDateTime();
+        LocalDateTime endDateTime = getEndDateTime();
+
+        // Validate date and time one more time
+        if (!isValidPeriod(startDateTime, endDateTime)) {
+            return;
+        }
+
+        LOGGER.log(Level.FINE, "Opening reservation of slot {0} for vehicle {1}, {2} to {3}",
+                new Object[]{selectedSlot.getSlotNumber(), selectedVehicleId, startDateTime, endDateTime});
+
+        // Open reservation details view for confirmation
+        new ReservationView(currentUser, parkingSpace, selectedSlot, selectedVehicleId,
+                startDateTime, endDateTime);
+
+        // Close this window
+        dispose();
+    }
+
+    private boolean isValidPeriod(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (startDateTime.isAfter(endDateTime)) {
             JOptionPane.showMessageDialog(this,
-                    "Error making reservation: " + ex.getMessage(),
+                    "End time must be after start time.",
+                    "Reservation Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+
+        if (startDateTime.isBefore(LocalDateTime.now())) {
+            JOptionPane.showMessageDialog(this,
+                    "Start time cannot be in the past.",
                     "Reservation Error",
                     JOptionPane.ERROR_MESSAGE);
+            return false;
         }
+        return true;
     }
 
     private void addNewVehicle() {
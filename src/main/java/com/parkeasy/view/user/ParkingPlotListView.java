@@ -3,25 +3,37 @@ package main.java.com.parkeasy.view.user;
 import main.java.com.parkeasy.controller.user.ParkingSpaceViewController;
 import main.java.com.parkeasy.model.ParkingSpace;
 import main.java.com.parkeasy.model.User;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 /**
  * View for searching and displaying parking plots
  * Includes optimized search with pagination
  */
 public class ParkingPlotListView extends JFrame {
+    // Pause in typing after which the list is searched
+    private static final int SEARCH_DELAY_MILLIS = 150;
+
     private User currentUser;
     private ParkingSpaceViewController parkingSpaceViewController;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
 
     private JTextField searchField;
+    private Timer searchTimer;
+    private JPopupMenu suggestionPopup;
     private JButton searchButton;
     private JButton sortByPriceButton;
     private JButton sortByRatingButton;
@@ -134,6 +146,29 @@ public class ParkingPlotListView extends JFrame {
             }
         });
 
+        // Search as you type, once typing pauses
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> searchAsYouType());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes only
+            }
+        });
+
+        suggestionPopup = new JPopupMenu();
+        suggestionPopup.setFocusable(false);
+
         sortByPriceButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -234,48 +269,34 @@ public class ParkingPlotListView extends JFrame {
     }
 
     private void loadParkingSpaces() {
-        // Show loading indicator
-        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        statusLabel.setText("Loading...");
-
-        // Use SwingWorker for background loading
-        SwingWorker<List<ParkingSpace>, Void> worker = new SwingWorker<List<ParkingSpace>, Void>() {
-            @Override
-            protected List<ParkingSpace> doInBackground() throws Exception {
-                return parkingSpaceViewController.getAllParkingPlots();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    currentParkingSpaces = get();
-                    updateTable(currentParkingSpaces);
+        loadPlots("all", "Loading...", parkingSpaceViewController::getAllParkingPlots,
+                spaces -> {
+                    showPlots(spaces);
 
                     // Update pagination info
                     updatePaginationControls();
 
                     // Update result count
                     resultCountLabel.setText("Showing all parking spaces");
+                },
+                "Error loading parking spaces: ");
+    }
 
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(
-                            ParkingPlotListView.this,
-                            "Error loading parking spaces: " + ex.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                } finally {
-                    // Reset cursor and status
-                    setCursor(Cursor.getDefaultCursor());
-                    statusLabel.setText("");
-                }
-            }
-        };
+    private void searchParkingSpaces() {
+        searchTimer.stop();
+        suggestionPopup.setVisible(false);
+        searchParkingSpaces(true);
+    }
 
-        worker.execute();
+    private void searchAsYouType() {
+        searchParkingSpaces(false);
+        showSuggestions();
     }
 
-    private void searchParkingSpaces() {
+    /**
+     * @param reportEmpty Whether to tell the user with a dialog when nothing matched; not while typing
+     */
+    private void searchParkingSpaces(boolean reportEmpty) {
         final String searchTerm = searchField.getText().trim();
 
         if (searchTerm.isEmpty()) {
@@ -283,130 +304,84 @@ public class ParkingPlotListView extends JFrame {
             return;
         }
 
-        // Show loading indicator
-        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        statusLabel.setText("Searching...");
-
-        // Use SwingWorker for background searching
-        SwingWorker<List<ParkingSpace>, Void> worker = new SwingWorker<List<ParkingSpace>, Void>() {
-            @Override
-            protected List<ParkingSpace> doInBackground() throws Exception {
-                return parkingSpaceViewController.searchParkingPlots(searchTerm);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    currentParkingSpaces = get();
-                    updateTable(currentParkingSpaces);
+        loadPlots("search:" + searchTerm, "Searching...",
+                () -> parkingSpaceViewController.searchParkingPlots(searchTerm),
+                spaces -> {
+                    showPlots(spaces, reportEmpty);
 
                     // Update pagination info
                     updatePaginationControls();
 
                     // Update result count
-                    int totalResults = parkingSpaceViewController.getTotalPages() * 10; // Approximate
+                    int totalResults = parkingSpaceViewController.getTotalResultsCount();
                     resultCountLabel.setText("Found " + totalResults + " results for \"" + searchTerm + "\"");
+                },
+                "Error searching parking spaces: ");
+    }
 
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(
-                            ParkingPlotListView.this,
-                            "Error searching parking spaces: " + ex.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                } finally {
-                    // Reset cursor and status
-                    setCursor(Cursor.getDefaultCursor());
-                    statusLabel.setText("");
-                }
-            }
-        };
+    /**
+     * Offer completions for the word being typed
+     */
+    private void showSuggestions() {
+        String text = searchField.getText();
+        final String prefix = text.substring(text.lastIndexOf(' ') + 1);
+        if (prefix.isEmpty()) {
+            suggestionPopup.setVisible(false);
+            return;
+        }
 
-        worker.execute();
+        loader.load("suggestions", prefix,
+                () -> parkingSpaceViewController.getSearchSuggestions(prefix),
+                suggestions -> {
+                    suggestionPopup.setVisible(false);
+                    suggestionPopup.removeAll();
+                    for (String suggestion : suggestions) {
+                        if (suggestion.equalsIgnoreCase(prefix)) {
+                            continue;
+                        }
+                        JMenuItem item = new JMenuItem(suggestion);
+                        item.addActionListener(e -> applySuggestion(suggestion));
+                        suggestionPopup.add(item);
+                    }
+                    if (suggestionPopup.getComponentCount() > 0 && searchField.isShowing()) {
+                        suggestionPopup.show(searchField, 0, searchField.getHeight());
+                        searchField.requestFocusInWindow();
+                    }
+                },
+                null);
     }
 
-    private void loadNextPage() {
-        // Show loading indicator
-        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        statusLabel.setText("Loading next page...");
-
-        // Use SwingWorker for background loading
-        SwingWorker<List<ParkingSpace>, Void> worker = new SwingWorker<List<ParkingSpace>, Void>() {
-            @Override
-            protected List<ParkingSpace> doInBackground() throws Exception {
-                return parkingSpaceViewController.loadNextPage();
-            }
+    private void applySuggestion(String suggestion) {
+        String text = searchField.getText();
+        // Replacing the word triggers the search through the document listener
+        searchField.setText(text.substring(0, text.lastIndexOf(' ') + 1) + suggestion + " ");
+        searchField.requestFocusInWindow();
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    List<ParkingSpace> nextPageSpaces = get();
-                    if (!nextPageSpaces.isEmpty()) {
-                        currentParkingSpaces = nextPageSpaces;
-                        updateTable(currentParkingSpaces);
+    private void loadNextPage() {
+        loadPlots("next", "Loading next page...", parkingSpaceViewController::loadNextPage,
+                nextPageSpaces -> {
+                    if (!nextPageSpaces.spaces.isEmpty()) {
+                        showPlots(nextPageSpaces);
                     }
 
                     // Update pagination controls
                     updatePaginationControls();
-
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(
-                            ParkingPlotListView.this,
-                            "Error loading next page: " + ex.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                } finally {
-                    // Reset cursor and status
-                    setCursor(Cursor.getDefaultCursor());
-                    statusLabel.setText("");
-                }
-            }
-        };
-
-        worker.execute();
+                },
+                "Error loading next page: ");
     }
 
     private void loadPreviousPage() {
-        // Show loading indicator
-        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        statusLabel.setText("Loading previous page...");
-
-        // Use SwingWorker for background loading
-        SwingWorker<List<ParkingSpace>, Void> worker = new SwingWorker<List<ParkingSpace>, Void>() {
-            @Override
-            protected List<ParkingSpace> doInBackground() throws Exception {
-                return parkingSpaceViewController.loadPreviousPage();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<ParkingSpace> prevPageSpaces = get();
-                    if (!prevPageSpaces.isEmpty()) {
-                        currentParkingSpaces = prevPageSpaces;
-                        updateTable(currentParkingSpaces);
+        loadPlots("previous", "Loading previous page...", parkingSpaceViewController::loadPreviousPage,
+                prevPageSpaces -> {
+                    if (!prevPageSpaces.spaces.isEmpty()) {
+                        showPlots(prevPageSpaces);
                     }
 
                     // Update pagination controls
                     updatePaginationControls();
-
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(
-                            ParkingPlotListView.this,
-                            "Error loading previous page: " + ex.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                } finally {
-                    // Reset cursor and status
-                    setCursor(Cursor.getDefaultCursor());
-                    statusLabel.setText("");
-                }
-            }
-        };
-
-        worker.execute();
+                },
+                "Error loading previous page: ");
     }
 
     private void updatePaginationControls() {
@@ -422,95 +397,77 @@ public class ParkingPlotListView extends JFrame {
     }
 
     private void sortByPrice() {
-        // Show loading indicator
-        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        statusLabel.setText("Sorting by price...");
-
         final boolean ascending = priceAscending;
 
-        // Use SwingWorker for background sorting
-        SwingWorker<List<ParkingSpace>, Void> worker = new SwingWorker<List<ParkingSpace>, Void>() {
-            @Override
-            protected List<ParkingSpace> doInBackground() throws Exception {
-                return parkingSpaceViewController.sortParkingPlotsByPrice(ascending);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    currentParkingSpaces = get();
-                    updateTable(currentParkingSpaces);
+        loadPlots("price:" + ascending, "Sorting by price...",
+                () -> parkingSpaceViewController.sortParkingPlotsByPrice(ascending),
+                spaces -> {
+                    showPlots(spaces);
+                    updatePaginationControls();
 
                     // Toggle sorting direction for next click
-                    priceAscending = !priceAscending;
+                    priceAscending = !ascending;
                     sortByPriceButton.setText("Sort by Price (" + (priceAscending ? "↑" : "↓") + ")");
-
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(
-                            ParkingPlotListView.this,
-                            "Error sorting parking spaces by price: " + ex.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                    );
-                } finally {
-                    // Reset cursor and status
-                    setCursor(Cursor.getDefaultCursor());
-                    statusLabel.setText("");
-                }
-            }
-        };
-
-        worker.execute();
+                },
+                "Error sorting parking spaces by price: ");
     }
 
     private void sortByRating() {
+        loadPlots("rating", "Sorting by rating...", parkingSpaceViewController::sortParkingPlotsByRating,
+                spaces -> {
+                    showPlots(spaces);
+                    updatePaginationControls();
+                },
+                "Error sorting parking spaces by rating: ");
+    }
+
+    /**
+     * Load a list of parking spaces in the background, together with the ratings shown in the table
+     * All list operations share one channel, so a newer search, sort or page replaces an older one.
+     */
+    private void loadPlots(String requestKey, String status, Callable<List<ParkingSpace>> task,
+                           Consumer<PlotPage> onLoaded, String errorPrefix) {
         // Show loading indicator
         setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        statusLabel.setText("Sorting by rating...");
-
-        // Use SwingWorker for background sorting
-        SwingWorker<List<ParkingSpace>, Void> worker = new SwingWorker<List<ParkingSpace>, Void>() {
-            @Override
-            protected List<ParkingSpace> doInBackground() throws Exception {
-                return parkingSpaceViewController.sortParkingPlotsByRating();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    currentParkingSpaces = get();
-                    updateTable(currentParkingSpaces);
-
-                } catch (Exception ex) {
+        statusLabel.setText(status);
+
+        loader.load("plots", requestKey,
+                () -> {
+                    List<ParkingSpace> spaces = task.call();
+                    return new PlotPage(spaces, buildTableRows(spaces));
+                },
+                page -> {
+                    // Reset cursor and status
+                    setCursor(Cursor.getDefaultCursor());
+                    statusLabel.setText("");
+                    onLoaded.accept(page);
+                },
+                ex -> {
+                    setCursor(Cursor.getDefaultCursor());
+                    statusLabel.setText("");
                     JOptionPane.showMessageDialog(
                             ParkingPlotListView.this,
-                            "Error sorting parking spaces by rating: " + ex.getMessage(),
+                            errorPrefix + ex.getMessage(),
                             "Error",
                             JOptionPane.ERROR_MESSAGE
                     );
-                } finally {
-                    // Reset cursor and status
-                    setCursor(Cursor.getDefaultCursor());
-                    statusLabel.setText("");
-                }
-            }
-        };
+                });
+    }
 
-        worker.execute();
+    private void showPlots(PlotPage page) {
+        showPlots(page, true);
     }
 
-    private void updateTable(List<ParkingSpace> parkingSpaces) {
-        DefaultTableModel model = (DefaultTableModel) parkingSpacesTable.getModel();
-        model.setRowCount(0); // Clear table
+    private void showPlots(PlotPage page, boolean reportEmpty) {
+        currentParkingSpaces = page.spaces;
+        updateTable(page.rows, reportEmpty);
+    }
 
-        if (parkingSpaces == null || parkingSpaces.isEmpty()) {
-            JOptionPane.showMessageDialog(this,
-                    "No parking spaces found.",
-                    "Information",
-                    JOptionPane.INFORMATION_MESSAGE);
-            return;
+    private List<Object[]> buildTableRows(List<ParkingSpace> parkingSpaces) {
+        List<Object[]> rows = new ArrayList<>();
+        if (parkingSpaces == null) {
+            return rows;
         }
-
         for (ParkingSpace space : parkingSpaces) {
             // Get available slots count
             int availableSlots = calculateAvailableSlots(space);
@@ -518,14 +475,33 @@ public class ParkingPlotListView extends JFrame {
             // Get average rating
             float averageRating = parkingSpaceViewController.getAverageRating(space.getParkingID());
 
-            Object[] row = {
+            rows.add(new Object[]{
                     space.getParkingID(),
                     space.getParkingAddress(),
                     String.format("%,.0f VND", space.getCostOfParking()),
                     availableSlots + "/" + space.getNumberOfSlots(),
                     String.format("%.1f", averageRating)
-            };
+            });
+        }
+        return rows;
+    }
+
+    private void updateTable(List<Object[]> rows, boolean reportEmpty) {
+        DefaultTableModel model = (DefaultTableModel) parkingSpacesTable.getModel();
+        model.setRowCount(0); // Clear table
+
+        if (rows.isEmpty()) {
+            if (!reportEmpty) {
+                return;
+            }
+            JOptionPane.showMessageDialog(this,
+                    "No parking spaces found.",
+                    "Information",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
 
+        for (Object[] row : rows) {
             model.addRow(row);
         }
     }
@@ -566,4 +542,17 @@ public class ParkingPlotListView extends JFrame {
         }
         return null;
     }
+
+    /**
+     * A loaded list of parking spaces and its table rows
+     */
+    private static final class PlotPage {
+        private final List<ParkingSpace> spaces;
+        private final List<Object[]> rows;
+
+        private PlotPage(List<ParkingSpace> spaces, List<Object[]> rows) {
+            this.spaces = spaces != null ? spaces : new ArrayList<>();
+            this.rows = rows;
+        }
+    }
 }
\ No newline at end of file
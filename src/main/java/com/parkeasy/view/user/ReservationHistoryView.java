@@ -8,6 +8,7 @@ import main.java.com.parkeasy.service.ParkingSpaceService;
 import main.java.com.parkeasy.service.ReservationService;
 import main.java.com.parkeasy.service.ReviewService;
 import main.java.com.parkeasy.service.VehicleService;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -33,6 +34,7 @@ public class ReservationHistoryView extends JFrame {
     private User currentUser;
     private ReservationController reservationController;
     private ReviewController reviewController;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
 
     private JTabbedPane tabbedPane;
     private JTable activeReservationsTable;
@@ -166,37 +168,51 @@ public class ReservationHistoryView extends JFrame {
     }
 
     private void loadReservations() {
-        try {
-            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-
-            // Get active reservations
-            List<Map<String, Object>> activeReservations = reservationController.getActiveReservations(currentUser.getUserID());
-
-            // Update table
-            updateReservationsTable(activeReservationsTable, activeReservations);
-
-            // Get reservation history
-            List<Map<String, Object>> pastReservations = reservationController.getReservationHistory(currentUser.getUserID());
-            updateReservationsTable(pastReservationsTable, pastReservations);
-
-            // Update tab titles with count
-            tabbedPane.setTitleAt(0, "Active Reservations (" + activeReservations.size() + ")");
-            tabbedPane.setTitleAt(1, "Past Reservations (" + pastReservations.size() + ")");
-
-            // Apply custom row colors for better readability
-            applyTableColors(activeReservationsTable);
-            applyTableColors(pastReservationsTable);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        final int userId = currentUser.getUserID();
+
+        // Get active reservations
+        loader.load("activeReservations", userId,
+                () -> reservationController.getActiveReservations(userId),
+                activeReservations -> {
+                    // Update table
+                    updateReservationsTable(activeReservationsTable, activeReservations);
+
+                    // Update tab title with count
+                    tabbedPane.setTitleAt(0, "Active Reservations (" + activeReservations.size() + ")");
+
+                    // Apply custom row colors for better readability
+                    applyTableColors(activeReservationsTable);
+                    reservationsLoaded();
+                },
+                this::showReservationsLoadError);
+
+        // Get reservation history
+        loader.load("pastReservations", userId,
+                () -> reservationController.getReservationHistory(userId),
+                pastReservations -> {
+                    updateReservationsTable(pastReservationsTable, pastReservations);
+                    tabbedPane.setTitleAt(1, "Past Reservations (" + pastReservations.size() + ")");
+                    applyTableColors(pastReservationsTable);
+                    reservationsLoaded();
+                },
+                this::showReservationsLoadError);
+    }
 
+    private void reservationsLoaded() {
+        if (!loader.isLoading("activeReservations") && !loader.isLoading("pastReservations")) {
             setCursor(Cursor.getDefaultCursor());
-        } catch (Exception ex) {
-            setCursor(Cursor.getDefaultCursor());
-            JOptionPane.showMessageDialog(this,
-                    "Error loading reservations: " + ex.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    private void showReservationsLoadError(Throwable ex) {
+        reservationsLoaded();
+        JOptionPane.showMessageDialog(this,
+                "Error loading reservations: " + ex.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+    }
+
     private void applyTableColors(JTable table) {
         table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
             @Override
@@ -230,10 +246,18 @@ public class ReservationHistoryView extends JFrame {
     }
 
     private void showReservationDetailsWithActions(int reservationId) {
-        try {
-            Map<String, Object> details = reservationController.getReservationDetails(
-                    reservationId, currentUser.getUserID());
+        final int userId = currentUser.getUserID();
+        loader.load("reservationDetails", reservationId,
+                () -> reservationController.getReservationDetails(reservationId, userId),
+                details -> showReservationDetailsWithActions(reservationId, details),
+                ex -> JOptionPane.showMessageDialog(this,
+                        "Error retrieving reservation details: " + ex.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
 
+    private void showReservationDetailsWithActions(int reservationId, Map<String, Object> details) {
+        try {
             if ((boolean) details.get("success")) {
                 Reservation reservation = (Reservation) details.get("reservation");
                 LocalDateTime startDateTime = (LocalDateTime) details.get("startDateTime");
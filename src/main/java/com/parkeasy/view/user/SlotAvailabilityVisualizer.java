@@ -3,6 +3,7 @@ package main.java.com.parkeasy.view.user;
 
 import main.java.com.parkeasy.model.ParkingSlot;
 import main.java.com.parkeasy.controller.admin.ParkingManagementController;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
 import java.awt.*;
@@ -20,6 +21,7 @@ public class SlotAvailabilityVisualizer extends JPanel {
     private final String parkingId;
     private final ParkingManagementController controller;
     private final JFrame parentFrame;
+    private final AsyncLoader loader;
     
     private List<ParkingSlot> slots;
     private Map<String, Rectangle> slotRectangles = new HashMap<>();
@@ -37,6 +39,7 @@ public class SlotAvailabilityVisualizer extends JPanel {
         this.parkingId = parkingId;
         this.parentFrame = parentFrame;
         this.controller = new ParkingManagementController();
+        this.loader = parentFrame != null ? AsyncLoader.forWindow(parentFrame) : new AsyncLoader();
         
         setPreferredSize(new Dimension(600, 400));
         setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -68,15 +71,17 @@ public class SlotAvailabilityVisualizer extends JPanel {
     }
     
     private void loadSlots() {
-        try {
-            slots = controller.getParkingSlotsByParkingId(parkingId);
-            calculateSlotPositions();
-            repaint();
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(parentFrame, 
+        loader.load("slots", parkingId,
+            () -> controller.getParkingSlotsByParkingId(parkingId),
+            loadedSlots -> {
+                slots = loadedSlots;
+                slotRectangles.clear();
+                calculateSlotPositions();
+                repaint();
+            },
+            e -> JOptionPane.showMessageDialog(parentFrame, 
                 "Error loading parking slots: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+                "Error", JOptionPane.ERROR_MESSAGE));
     }
     
     private void calculateSlotPositions() {
@@ -128,8 +133,13 @@ public class SlotAvailabilityVisualizer extends JPanel {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
+        // Nothing to draw until the slots have loaded
+        if (slots == null) {
+            return;
+        }
+        
         // Recalculate positions if needed
-        if (slotRectangles.isEmpty() && slots != null && !slots.isEmpty()) {
+        if (slotRectangles.isEmpty() && !slots.isEmpty()) {
             calculateSlotPositions();
         }
         
@@ -236,23 +246,32 @@ public class SlotAvailabilityVisualizer extends JPanel {
     }
     
     private void showSlotDetails(String slotNumber) {
+        // Get selected slot
+        ParkingSlot slot = slots == null ? null : slots.stream()
+            .filter(s -> s.getSlotNumber().equals(slotNumber))
+            .findFirst()
+            .orElse(null);
+        
+        if (slot == null) {
+            return;
+        }
+        
+        // Get active reservation info if slot is occupied
+        if (slot.getAvailability()) {
+            showSlotDetails(slot, null);
+            return;
+        }
+        loader.load("reservationInfo", slotNumber,
+            () -> controller.getActiveReservationInfoForSlot(slotNumber),
+            reservationInfo -> showSlotDetails(slot, reservationInfo),
+            e -> JOptionPane.showMessageDialog(parentFrame, 
+                "Error showing slot details: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    private void showSlotDetails(ParkingSlot slot, Map<String, Object> reservationInfo) {
+        String slotNumber = slot.getSlotNumber();
         try {
-            // Get selected slot
-            ParkingSlot slot = slots.stream()
-                .filter(s -> s.getSlotNumber().equals(slotNumber))
-                .findFirst()
-                .orElse(null);
-            
-            if (slot == null) {
-                return;
-            }
-            
-            // Get active reservation info if slot is occupied
-            Map<String, Object> reservationInfo = null;
-            if (!slot.getAvailability()) {
-                reservationInfo = controller.getActiveReservationInfoForSlot(slotNumber);
-            }
-            
             // Show details dialog
             JDialog detailsDialog = new JDialog(parentFrame, "Slot Details", true);
             detailsDialog.setLayout(new BorderLayout());
@@ -348,10 +367,17 @@ public class SlotAvailabilityVisualizer extends JPanel {
     }
     
     private void showSlotReservations(String slotNumber) {
+        // Get reservations for this slot
+        loader.load("slotReservations", slotNumber,
+            () -> controller.getAllReservationsForSlot(slotNumber),
+            reservations -> showSlotReservations(slotNumber, reservations),
+            e -> JOptionPane.showMessageDialog(parentFrame,
+                "Error retrieving reservations: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    private void showSlotReservations(String slotNumber, List<Map<String, Object>> reservations) {
         try {
-            // Get reservations for this slot
-            List<Map<String, Object>> reservations = controller.getAllReservationsForSlot(slotNumber);
-            
             if (reservations == null || reservations.isEmpty()) {
                 JOptionPane.showMessageDialog(parentFrame,
                     "No reservations found for this slot.",
@@ -9,6 +9,7 @@ import main.java.com.parkeasy.service.ParkingSpaceService;
 import main.java.com.parkeasy.service.ReservationService;
 import main.java.com.parkeasy.service.UserService;
 import main.java.com.parkeasy.service.VehicleService;
+import main.java.com.parkeasy.view.AsyncLoader;
 import main.java.com.parkeasy.view.auth.LoginView;
 
 import javax.swing.*;
@@ -18,6 +19,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +42,7 @@ public class UserDashboardView extends JFrame {
 
     private UserDashboardController userDashboardController;
     private VehicleController vehicleController;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
     private User currentUser;
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
@@ -76,9 +80,7 @@ public class UserDashboardView extends JFrame {
     }
 
     private void initComponents() {
-        // Fetch fresh user data from database to ensure we have up-to-date information
-        currentUser = refreshUserData(currentUser.getUserID());
-
+        // Fresh user data (balance) is loaded in the background by loadDashboardData
         welcomeLabel = new JLabel("Welcome, " + currentUser.getUserName() + "!");
         welcomeLabel.setFont(new Font("Arial", Font.BOLD, 18));
 
@@ -201,78 +203,82 @@ public class UserDashboardView extends JFrame {
     }
 
     /**
-     * Refreshes user data from the database
-     * @param userId The user ID
-     * @return Updated User object
+     * Load dashboard data from database
      */
-    private User refreshUserData(int userId) {
-        try {
-            UserService userService = new UserService();
-            User updatedUser = userService.getUserById(userId);
-            if (updatedUser == null) {
-                throw new Exception("User not found in database");
-            }
-            return updatedUser;
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error refreshing user data: " + ex.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-
-            // Return the current user if we couldn't refresh
-            return currentUser;
-        }
+    private void loadDashboardData() {
+        final int userId = currentUser.getUserID();
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        loader.load("dashboard", userId,
+                () -> fetchDashboardData(userId),
+                this::showDashboardData,
+                ex -> {
+                    setCursor(Cursor.getDefaultCursor());
+                    JOptionPane.showMessageDialog(this,
+                            "Error loading dashboard data: " + ex.getMessage(),
+                            "Database Error",
+                            JOptionPane.ERROR_MESSAGE);
+                });
     }
 
     /**
-     * Load dashboard data from database
+     * Read everything the dashboard shows; runs in the background
      */
-    private void loadDashboardData() {
-        try {
-            // Refresh user data to get current balance
-            currentUser = refreshUserData(currentUser.getUserID());
-
-            // Update welcome and balance labels
-            welcomeLabel.setText("Welcome, " + currentUser.getUserName() + "!");
-            balanceLabel.setText("Balance: " + String.format("%,.0f VND", currentUser.getBalance()));
+    private Map<String, Object> fetchDashboardData(int userId) throws Exception {
+        Map<String, Object> data = new HashMap<>();
 
-            // Load vehicle count from the database
-            VehicleService vehicleService = new VehicleService();
-            List<Vehicle> userVehicles = vehicleService.getVehiclesByUserId(currentUser.getUserID());
-            int vehicleCount = userVehicles.size();
-
-            // Load reservation data from the database
-            ReservationService reservationService = new ReservationService();
+        // Refresh user data to get current balance
+        User updatedUser = new UserService().getUserById(userId);
+        if (updatedUser == null) {
+            throw new Exception("User not found in database");
+        }
+        data.put("user", updatedUser);
 
-            // Get active reservations count
-            int activeReservationsCount = reservationService.countActiveReservationsForUser(currentUser.getUserID());
+        // Load vehicle count from the database
+        VehicleService vehicleService = new VehicleService();
+        List<Vehicle> userVehicles = vehicleService.getVehiclesByUserId(userId);
+        data.put("vehicleCount", userVehicles.size());
 
-            // Get upcoming reservations (using appropriate method from ReservationService)
-            // This is a placeholder - you'll need to implement this method in ReservationService
-            int upcomingReservations = getUpcomingReservationsCount(reservationService, currentUser.getUserID());
+        // Load reservation data from the database
+        ReservationService reservationService = new ReservationService();
 
-            // Calculate total spent on reservations
-            float totalSpent = calculateTotalSpent(reservationService, currentUser.getUserID());
+        // Get active reservations count
+        data.put("activeReservationsCount", reservationService.countActiveReservationsForUser(userId));
 
-            // Update statistics panel
-            statisticsPanel.removeAll();
-            addStatisticItem("Vehicles", String.valueOf(vehicleCount));
-            addStatisticItem("Active Reservations", String.valueOf(activeReservationsCount));
-            addStatisticItem("Upcoming Reservations", String.valueOf(upcomingReservations));
-            addStatisticItem("Total Spent", String.format("%,.0f VND", totalSpent));
+        // Get upcoming reservations (using appropriate method from ReservationService)
+        data.put("upcomingReservations", getUpcomingReservationsCount(reservationService, userId));
 
-            statisticsPanel.revalidate();
-            statisticsPanel.repaint();
+        // Calculate total spent on reservations
+        data.put("totalSpent", calculateTotalSpent(reservationService, userId));
 
-            // Update active reservations table
-            updateActiveReservationsTable(reservationService, vehicleService);
+        // Rows for the active reservations table
+        data.put("activeReservationRows", getActiveReservationRows(reservationService, userId));
+        return data;
+    }
 
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error loading dashboard data: " + ex.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
+    @SuppressWarnings("unchecked")
+    private void showDashboardData(Map<String, Object> data) {
+        setCursor(Cursor.getDefaultCursor());
+        currentUser = (User) data.get("user");
+
+        // Update welcome and balance labels
+        welcomeLabel.setText("Welcome, " + currentUser.getUserName() + "!");
+        balanceLabel.setText("Balance: " + String.format("%,.0f VND", currentUser.getBalance()));
+
+        // Update statistics panel
+        statisticsPanel.removeAll();
+        addStatisticItem("Vehicles", String.valueOf(data.get("vehicleCount")));
+        addStatisticItem("Active Reservations", String.valueOf(data.get("activeReservationsCount")));
+        addStatisticItem("Upcoming Reservations", String.valueOf(data.get("upcomingReservations")));
+        addStatisticItem("Total Spent", String.format("%,.0f VND", (Float) data.get("totalSpent")));
+
+        statisticsPanel.revalidate();
+        statisticsPanel.repaint();
+
+        // Update active reservations table
+        DefaultTableModel model = (DefaultTableModel) activeReservationsTable.getModel();
+        model.setRowCount(0);
+        for (Object[] row : (List<Object[]>) data.get("activeReservationRows")) {
+            model.addRow(row);
         }
     }
 
@@ -339,22 +345,16 @@ public class UserDashboardView extends JFrame {
     }
 
     /**
-     * Update the active reservations table with data from database
+     * Build the active reservations table rows from database data
      */
-    private void updateActiveReservationsTable(ReservationService reservationService, VehicleService vehicleService) {
+    private List<Object[]> getActiveReservationRows(ReservationService reservationService, int userId) {
+        List<Object[]> rows = new ArrayList<>();
         try {
-            // Get all reservations for this user
-            List<Reservation> allReservations = reservationService.getReservationsByUserId(currentUser.getUserID());
-
-            // Clear the table
-            DefaultTableModel model = (DefaultTableModel) activeReservationsTable.getModel();
-            model.setRowCount(0);
-
-            // Current time
-            LocalDateTime now = LocalDateTime.now();
+            // Reservations that have not ended yet, already joined with their parking space
+            List<Reservation> openReservations = reservationService.getOpenReservationsForUser(userId);
 
             // Add active reservations to the table
-            for (Reservation reservation : allReservations) {
+            for (Reservation reservation : openReservations) {
                 // Match the exact status values from your database - "Processing" instead of "IN_PROCESS"
                 if (reservation.getStatus().equals("Processing")) {
                     // Convert SQL date/time to LocalDateTime
@@ -368,34 +368,25 @@ public class UserDashboardView extends JFrame {
                             reservation.getEndTime().toLocalTime()
                     );
 
-                    // Only show reservations that haven't ended yet
-                    if (endDateTime.isAfter(now)) {
-                        // Get vehicle information
-                        Vehicle vehicle = vehicleService.getVehicleById(reservation.getVehicleID());
-
-                        // Get parking address
-                        String parkingAddress = reservationService.getParkingAddressByParkingId(
-                                reservationService.getParkingIdBySlotNumber(reservation.getSlotNumber()));
-
-                        // Add row to table
-                        Object[] row = {
-                                reservation.getReservationID(),
-                                vehicle != null ? vehicle.getVehicleID() : "Unknown",
-                                parkingAddress != null ? parkingAddress : "Unknown",
-                                reservation.getSlotNumber(),
-                                startDateTime.format(dateTimeFormatter),
-                                endDateTime.format(dateTimeFormatter),
-                                reservation.getStatus()
-                        };
-
-                        model.addRow(row);
-                    }
+                    String parkingAddress = reservation.getParkingAddress();
+
+                    // Add row to table
+                    rows.add(new Object[]{
+                            reservation.getReservationID(),
+                            reservation.getVehicleID(),
+                            parkingAddress != null ? parkingAddress : "Unknown",
+                            reservation.getSlotNumber(),
+                            startDateTime.format(dateTimeFormatter),
+                            endDateTime.format(dateTimeFormatter),
+                            reservation.getStatus()
+                    });
                 }
             }
         } catch (Exception ex) {
             System.err.println("Error updating active reservations table: " + ex.getMessage());
             ex.printStackTrace();
         }
+        return rows;
     }
 
     private void addStatisticItem(String label, String value) {
@@ -3,6 +3,7 @@ package main.java.com.parkeasy.view.user;
 import main.java.com.parkeasy.model.User;
 import main.java.com.parkeasy.service.UserService;
 import main.java.com.parkeasy.service.VehicleService;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
 import java.awt.*;
@@ -32,6 +33,7 @@ public class UserProfileView extends JFrame {
 
     private UserService userService;
     private VehicleService vehicleService;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
     private User currentUser;
 
     public UserProfileView(User user) {
@@ -249,24 +251,29 @@ public class UserProfileView extends JFrame {
     }
 
     private void loadUserData() {
-        try {
-            // Refresh user data from the database
-            User refreshedUser = userService.getUserById(currentUser.getUserID());
-            if (refreshedUser != null) {
-                currentUser = refreshedUser;
-            }
+        // Show what we have, then refresh user data from the database
+        showUserData();
+        final int userId = currentUser.getUserID();
+        loader.load("user", userId,
+                () -> userService.getUserById(userId),
+                refreshedUser -> {
+                    if (refreshedUser != null) {
+                        currentUser = refreshedUser;
+                        showUserData();
+                    }
+                },
+                ex -> JOptionPane.showMessageDialog(this,
+                        "Error loading user data: " + ex.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE));
+    }
 
-            // Set field values
-            nameField.setText(currentUser.getUserName());
-            emailField.setText(currentUser.getEmail());
-            phoneField.setText(currentUser.getPhone());
-            balanceLabel.setText(String.format("%,.0f VND", currentUser.getBalance()));
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error loading user data: " + ex.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+    private void showUserData() {
+        // Set field values
+        nameField.setText(currentUser.getUserName());
+        emailField.setText(currentUser.getEmail());
+        phoneField.setText(currentUser.getPhone());
+        balanceLabel.setText(String.format("%,.0f VND", currentUser.getBalance()));
     }
 
     private void updateProfile() {
@@ -406,13 +413,14 @@ public class UserProfileView extends JFrame {
             }
 
             // Add funds to the user's account
-            float newBalance = currentUser.getBalance() + amount;
-            currentUser.setBalance(newBalance);
-
-            // Save to database
-            boolean success = userService.updateUser(currentUser);
+            boolean success = userService.addFunds(currentUser.getUserID(), amount);
 
             if (success) {
+                // Re-read the balance, other sessions may have changed it meanwhile
+                User refreshed = userService.getUserById(currentUser.getUserID());
+                float newBalance = refreshed != null ? refreshed.getBalance() : currentUser.getBalance() + amount;
+                currentUser.setBalance(newBalance);
+
                 // Update the balance label
                 balanceLabel.setText(String.format("%,.0f VND", newBalance));
 
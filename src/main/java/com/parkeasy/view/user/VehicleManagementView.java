@@ -5,12 +5,14 @@ import main.java.com.parkeasy.model.User;
 import main.java.com.parkeasy.model.Vehicle;
 import main.java.com.parkeasy.service.ReservationService;
 import main.java.com.parkeasy.service.VehicleService;
+import main.java.com.parkeasy.view.AsyncLoader;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,6 +22,7 @@ import java.util.List;
 public class VehicleManagementView extends JFrame {
     private User currentUser;
     private VehicleController vehicleController;
+    private final AsyncLoader loader = AsyncLoader.forWindow(this);
     
     private JTable vehiclesTable;
     private JButton addVehicleButton;
@@ -129,44 +132,60 @@ public class VehicleManagementView extends JFrame {
     }
     
     private void loadVehicles() {
-        try {
-            // Get user's vehicles
-            List<Vehicle> userVehicles = vehicleController.getUserVehicles(currentUser.getUserID());
-            
-            DefaultTableModel model = (DefaultTableModel) vehiclesTable.getModel();
-            model.setRowCount(0); // Clear table
-            
-            if (userVehicles.isEmpty()) {
-                // Show message if no vehicles
-                JOptionPane.showMessageDialog(this,
-                    "You don't have any vehicles registered yet.",
-                    "No Vehicles",
-                    JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                // Get default vehicle
-                Vehicle defaultVehicle = vehicleController.getDefaultVehicle(currentUser.getUserID());
-                String defaultVehicleId = defaultVehicle != null ? defaultVehicle.getVehicleID() : null;
-                
-                // Populate table
-                for (Vehicle vehicle : userVehicles) {
-                    boolean isDefault = vehicle.getVehicleID().equals(defaultVehicleId);
-                    boolean isCurrentlyParked = vehicleController.isVehicleCurrentlyParked(
-                        vehicle.getVehicleID(), currentUser.getUserID());
-                    
-                    Object[] row = {
-                        vehicle.getVehicleID(),
-                        isDefault ? "Yes" : "No",
-                        isCurrentlyParked ? "Currently Parked" : "Available"
-                    };
-                    
-                    model.addRow(row);
-                }
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
+        final int userId = currentUser.getUserID();
+        loader.load("vehicles", userId,
+            () -> getVehicleRows(userId),
+            this::showVehicles,
+            ex -> JOptionPane.showMessageDialog(this,
                 "Error loading vehicles: " + ex.getMessage(),
                 "Error",
-                JOptionPane.ERROR_MESSAGE);
+                JOptionPane.ERROR_MESSAGE));
+    }
+    
+    /**
+     * Build the table rows; runs in the background since the parked check queries once per vehicle
+     */
+    private List<Object[]> getVehicleRows(int userId) {
+        // Get user's vehicles
+        List<Vehicle> userVehicles = vehicleController.getUserVehicles(userId);
+        List<Object[]> rows = new ArrayList<>();
+        if (userVehicles.isEmpty()) {
+            return rows;
+        }
+        
+        // Get default vehicle
+        Vehicle defaultVehicle = vehicleController.getDefaultVehicle(userId);
+        String defaultVehicleId = defaultVehicle != null ? defaultVehicle.getVehicleID() : null;
+        
+        for (Vehicle vehicle : userVehicles) {
+            boolean isDefault = vehicle.getVehicleID().equals(defaultVehicleId);
+            boolean isCurrentlyParked = vehicleController.isVehicleCurrentlyParked(
+                vehicle.getVehicleID(), userId);
+            
+            rows.add(new Object[] {
+                vehicle.getVehicleID(),
+                isDefault ? "Yes" : "No",
+                isCurrentlyParked ? "Currently Parked" : "Available"
+            });
+        }
+        return rows;
+    }
+    
+    private void showVehicles(List<Object[]> rows) {
+        DefaultTableModel model = (DefaultTableModel) vehiclesTable.getModel();
+        model.setRowCount(0); // Clear table
+        
+        if (rows.isEmpty()) {
+            // Show message if no vehicles
+            JOptionPane.showMessageDialog(this,
+                "You don't have any vehicles registered yet.",
+                "No Vehicles",
+                JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            // Populate table
+            for (Object[] row : rows) {
+                model.addRow(row);
+            }
         }
     }
     